@@ -3,6 +3,10 @@ package com.google.cloud.testing.config;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +31,42 @@ public class TestConfig {
     @JsonProperty("test")
     private final TestSettings testSettings = new TestSettings();
 
+    @JsonProperty("load")
+    private final LoadSettings loadSettings = new LoadSettings();
+
+    @JsonProperty("transfer")
+    private final TransferSettings transferSettings = new TransferSettings();
+
+    @JsonProperty("storage")
+    private final StorageSettings storageSettings = new StorageSettings();
+
+    @JsonProperty("bulk")
+    private final BulkSettings bulkSettings = new BulkSettings();
+
+    @JsonProperty("transcript")
+    private final TranscriptSettings transcriptSettings = new TranscriptSettings();
+
+    @JsonProperty("events")
+    private final EventLogSettings eventLogSettings = new EventLogSettings();
+
+    @JsonProperty("profiler")
+    private final ProfilerSettings profilerSettings = new ProfilerSettings();
+
+    @JsonProperty("shard")
+    private final ShardSettings shardSettings = new ShardSettings();
+
+    @JsonProperty("backend")
+    private final BackendSettings backendSettings = new BackendSettings();
+
+    @JsonProperty("daemon")
+    private final DaemonSettings daemonSettings = new DaemonSettings();
+
+    @JsonProperty("history")
+    private final HistorySettings historySettings = new HistorySettings();
+
+    @JsonProperty("tenants")
+    private final TenantSettings tenantSettings = new TenantSettings();
+
     private TestConfig() {
         // Private constructor for singleton
     }
@@ -75,6 +115,23 @@ public class TestConfig {
         if (gcloudPath != null) {
             gcloudConfig.setExecutablePath(gcloudPath);
         }
+        String comparePaths = System.getenv("GCLOUD_COMPARE_PATHS");
+        if (comparePaths != null) {
+            gcloudConfig.setComparisonExecutablePaths(List.of(comparePaths.split(",")));
+        }
+        testSettings.applySystemPropertyOverrides();
+        loadSettings.applySystemPropertyOverrides();
+        transferSettings.applySystemPropertyOverrides();
+        storageSettings.applySystemPropertyOverrides();
+        bulkSettings.applySystemPropertyOverrides();
+        transcriptSettings.applySystemPropertyOverrides();
+        eventLogSettings.applySystemPropertyOverrides();
+        profilerSettings.applySystemPropertyOverrides();
+        shardSettings.applySystemPropertyOverrides();
+        backendSettings.applySystemPropertyOverrides();
+        daemonSettings.applySystemPropertyOverrides();
+        historySettings.applySystemPropertyOverrides();
+        tenantSettings.applySystemPropertyOverrides();
     }
 
     public GcloudConfig getGcloud() {
@@ -85,6 +142,54 @@ public class TestConfig {
         return testSettings;
     }
 
+    public LoadSettings getLoad() {
+        return loadSettings;
+    }
+
+    public TransferSettings getTransfer() {
+        return transferSettings;
+    }
+
+    public StorageSettings getStorage() {
+        return storageSettings;
+    }
+
+    public BulkSettings getBulk() {
+        return bulkSettings;
+    }
+
+    public TranscriptSettings getTranscript() {
+        return transcriptSettings;
+    }
+
+    public EventLogSettings getEvents() {
+        return eventLogSettings;
+    }
+
+    public ProfilerSettings getProfiler() {
+        return profilerSettings;
+    }
+
+    public ShardSettings getShard() {
+        return shardSettings;
+    }
+
+    public BackendSettings getBackend() {
+        return backendSettings;
+    }
+
+    public DaemonSettings getDaemon() {
+        return daemonSettings;
+    }
+
+    public HistorySettings getHistory() {
+        return historySettings;
+    }
+
+    public TenantSettings getTenants() {
+        return tenantSettings;
+    }
+
     public static class GcloudConfig {
 
         @JsonProperty("executable_path")
@@ -93,6 +198,9 @@ public class TestConfig {
         @JsonProperty("service_account")
         private String serviceAccount;
 
+        @JsonProperty("comparison_executable_paths")
+        private List<String> comparisonExecutablePaths = new ArrayList<>();
+
         public String getExecutablePath() {
             return executablePath;
         }
@@ -104,6 +212,17 @@ public class TestConfig {
         public String getServiceAccount() {
             return serviceAccount;
         }
+
+        /**
+         * gcloud installations to compare, the first one being the baseline
+         */
+        public List<String> getComparisonExecutablePaths() {
+            return comparisonExecutablePaths;
+        }
+
+        public void setComparisonExecutablePaths(List<String> comparisonExecutablePaths) {
+            this.comparisonExecutablePaths = comparisonExecutablePaths;
+        }
     }
 
     public static class TestSettings {
@@ -115,6 +234,9 @@ public class TestConfig {
         @JsonProperty("log_level")
         private String logLevel = "INFO";
 
+        @JsonProperty("fixture_threads")
+        private int fixtureThreads = 4;
+
         public boolean isReportGeneration() {
             return reportGeneration;
         }
@@ -123,6 +245,13 @@ public class TestConfig {
             this.reportGeneration = reportGeneration;
         }
 
+        /**
+         * Upper bound on fixture steps set up concurrently
+         */
+        public int getFixtureThreads() {
+            return fixtureThreads;
+        }
+
         public String getLogLevel() {
             return logLevel;
         }
@@ -130,5 +259,748 @@ public class TestConfig {
         public void setLogLevel(String logLevel) {
             this.logLevel = logLevel;
         }
+
+        private void applySystemPropertyOverrides() {
+            fixtureThreads = Integer.getInteger("test.fixture_threads", fixtureThreads);
+        }
+    }
+
+    /**
+     * Settings for load runs. Every value can be overridden with a system
+     * property of the same name prefixed with "load.", e.g.
+     * -Dload.rate_per_second=10
+     */
+    public static class LoadSettings {
+
+        @JsonProperty("model")
+        private String model = "open";
+
+        @JsonProperty("rate_per_second")
+        private double ratePerSecond = 2.0;
+
+        @JsonProperty("workers")
+        private int workers = 4;
+
+        @JsonProperty("max_in_flight")
+        private int maxInFlight = 32;
+
+        @JsonProperty("duration_seconds")
+        private int durationSeconds = 60;
+
+        @JsonProperty("pacing_ms")
+        private long pacingMs = 0;
+
+        @JsonProperty("mix")
+        private String mix = "cp=1,ls=1,sign-url=1,describe=1";
+
+        @JsonProperty("comparison_rounds")
+        private int comparisonRounds = 20;
+
+        @JsonProperty("comparison_warmup_rounds")
+        private int comparisonWarmupRounds = 2;
+
+        @JsonProperty("spawn_samples")
+        private int spawnSamples = 20;
+
+        @JsonProperty("stress_max_concurrency")
+        private int stressMaxConcurrency = 64;
+
+        @JsonProperty("stress_step_seconds")
+        private int stressStepSeconds = 10;
+
+        @JsonProperty("stress_knee_latency_factor")
+        private double stressKneeLatencyFactor = 2.0;
+
+        @JsonProperty("stress_min_throughput_gain")
+        private double stressMinThroughputGain = 0.1;
+
+        private void applySystemPropertyOverrides() {
+            model = System.getProperty("load.model", model);
+            ratePerSecond = Double.parseDouble(System.getProperty("load.rate_per_second", String.valueOf(ratePerSecond)));
+            workers = Integer.getInteger("load.workers", workers);
+            maxInFlight = Integer.getInteger("load.max_in_flight", maxInFlight);
+            durationSeconds = Integer.getInteger("load.duration_seconds", durationSeconds);
+            pacingMs = Long.getLong("load.pacing_ms", pacingMs);
+            mix = System.getProperty("load.mix", mix);
+            comparisonRounds = Integer.getInteger("load.comparison_rounds", comparisonRounds);
+            comparisonWarmupRounds = Integer.getInteger("load.comparison_warmup_rounds", comparisonWarmupRounds);
+            spawnSamples = Integer.getInteger("load.spawn_samples", spawnSamples);
+            stressMaxConcurrency = Integer.getInteger("load.stress_max_concurrency", stressMaxConcurrency);
+            stressStepSeconds = Integer.getInteger("load.stress_step_seconds", stressStepSeconds);
+            stressKneeLatencyFactor = Double.parseDouble(System.getProperty("load.stress_knee_latency_factor",
+                    String.valueOf(stressKneeLatencyFactor)));
+            stressMinThroughputGain = Double.parseDouble(System.getProperty("load.stress_min_throughput_gain",
+                    String.valueOf(stressMinThroughputGain)));
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public double getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public int getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        public long getPacingMs() {
+            return pacingMs;
+        }
+
+        public String getMix() {
+            return mix;
+        }
+
+        public int getComparisonRounds() {
+            return comparisonRounds;
+        }
+
+        public int getComparisonWarmupRounds() {
+            return comparisonWarmupRounds;
+        }
+
+        public int getSpawnSamples() {
+            return spawnSamples;
+        }
+
+        public int getStressMaxConcurrency() {
+            return stressMaxConcurrency;
+        }
+
+        public int getStressStepSeconds() {
+            return stressStepSeconds;
+        }
+
+        public double getStressKneeLatencyFactor() {
+            return stressKneeLatencyFactor;
+        }
+
+        public double getStressMinThroughputGain() {
+            return stressMinThroughputGain;
+        }
+    }
+
+    /**
+     * Parameter matrix for the transfer benchmark. Every value can be
+     * overridden with a system property prefixed with "transfer.", lists
+     * comma-separated, e.g. -Dtransfer.process_counts=1,4
+     */
+    public static class TransferSettings {
+
+        @JsonProperty("file_size_mb")
+        private int fileSizeMb = 256;
+
+        @JsonProperty("repetitions")
+        private int repetitions = 3;
+
+        @JsonProperty("thresholds_mb")
+        private List<Long> thresholdsMb = new ArrayList<>(List.of(50L, 150L));
+
+        @JsonProperty("component_sizes_mb")
+        private List<Long> componentSizesMb = new ArrayList<>(List.of(32L));
+
+        @JsonProperty("process_counts")
+        private List<Integer> processCounts = new ArrayList<>(List.of(1, 4));
+
+        @JsonProperty("thread_counts")
+        private List<Integer> threadCounts = new ArrayList<>(List.of(4));
+
+        private void applySystemPropertyOverrides() {
+            fileSizeMb = Integer.getInteger("transfer.file_size_mb", fileSizeMb);
+            repetitions = Integer.getInteger("transfer.repetitions", repetitions);
+            thresholdsMb = longList("transfer.thresholds_mb", thresholdsMb);
+            componentSizesMb = longList("transfer.component_sizes_mb", componentSizesMb);
+            processCounts = longList("transfer.process_counts", processCounts.stream().map(Integer::longValue).toList())
+                    .stream().map(Long::intValue).toList();
+            threadCounts = longList("transfer.thread_counts", threadCounts.stream().map(Integer::longValue).toList())
+                    .stream().map(Long::intValue).toList();
+        }
+
+        private static List<Long> longList(String property, List<Long> defaultValue) {
+            String value = System.getProperty(property);
+            if (value == null) {
+                return defaultValue;
+            }
+            if (value.isBlank()) {
+                return List.of();
+            }
+            return Arrays.stream(value.split(",")).map(String::trim).map(Long::valueOf).toList();
+        }
+
+        public int getFileSizeMb() {
+            return fileSizeMb;
+        }
+
+        public int getRepetitions() {
+            return repetitions;
+        }
+
+        public List<Long> getThresholdsMb() {
+            return thresholdsMb;
+        }
+
+        public List<Long> getComponentSizesMb() {
+            return componentSizesMb;
+        }
+
+        public List<Integer> getProcessCounts() {
+            return processCounts;
+        }
+
+        public List<Integer> getThreadCounts() {
+            return threadCounts;
+        }
+    }
+
+    /**
+     * Settings of the storage operations layer. Every value can be
+     * overridden with a system property prefixed with "storage.", e.g.
+     * -Dstorage.bucket_cache_ttl_seconds=0
+     */
+    public static class StorageSettings {
+
+        @JsonProperty("bucket_cache_ttl_seconds")
+        private long bucketCacheTtlSeconds = 60;
+
+        @JsonProperty("bucket_negative_cache_ttl_seconds")
+        private long bucketNegativeCacheTtlSeconds = 5;
+
+        private void applySystemPropertyOverrides() {
+            bucketCacheTtlSeconds = Long.getLong("storage.bucket_cache_ttl_seconds", bucketCacheTtlSeconds);
+            bucketNegativeCacheTtlSeconds = Long.getLong("storage.bucket_negative_cache_ttl_seconds",
+                    bucketNegativeCacheTtlSeconds);
+        }
+
+        public long getBucketCacheTtlSeconds() {
+            return bucketCacheTtlSeconds;
+        }
+
+        public long getBucketNegativeCacheTtlSeconds() {
+            return bucketNegativeCacheTtlSeconds;
+        }
+    }
+
+    /**
+     * Bulk object delete, copy and move. Every value can be overridden with a
+     * system property prefixed with "bulk.", e.g. -Dbulk.parallelism=8
+     */
+    public static class BulkSettings {
+
+        @JsonProperty("batch_size")
+        private int batchSize = 100;
+
+        @JsonProperty("parallelism")
+        private int parallelism = 4;
+
+        @JsonProperty("checkpoint_dir")
+        private String checkpointDir = "target/bulk-checkpoints";
+
+        private void applySystemPropertyOverrides() {
+            batchSize = Integer.getInteger("bulk.batch_size", batchSize);
+            parallelism = Integer.getInteger("bulk.parallelism", parallelism);
+            checkpointDir = System.getProperty("bulk.checkpoint_dir", checkpointDir);
+        }
+
+        /**
+         * Object URLs handed to one gcloud process
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * gcloud processes running at the same time
+         */
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public String getCheckpointDir() {
+            return checkpointDir;
+        }
+    }
+
+    /**
+     * Recording and replaying of gcloud command transcripts. Every value can
+     * be overridden with a system property prefixed with "transcript.", e.g.
+     * -Dtranscript.mode=replay
+     */
+    public static class TranscriptSettings {
+
+        @JsonProperty("mode")
+        private String mode = "off";
+
+        @JsonProperty("path")
+        private String path = "target/transcripts/gcloud-transcript.jsonl";
+
+        @JsonProperty("replay_latency")
+        private boolean replayLatency = false;
+
+        private void applySystemPropertyOverrides() {
+            mode = System.getProperty("transcript.mode", mode);
+            path = System.getProperty("transcript.path", path);
+            replayLatency = Boolean.parseBoolean(System.getProperty("transcript.replay_latency",
+                    String.valueOf(replayLatency)));
+        }
+
+        /**
+         * "off", "record" or "replay"
+         */
+        public String getMode() {
+            return mode;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Whether replayed commands take as long as they did when recorded
+         */
+        public boolean isReplayLatency() {
+            return replayLatency;
+        }
+    }
+
+    /**
+     * Structured execution event log. Every value can be overridden with a
+     * system property prefixed with "events.", e.g. -Devents.enabled=true
+     */
+    public static class EventLogSettings {
+
+        @JsonProperty("enabled")
+        private boolean enabled = false;
+
+        @JsonProperty("path")
+        private String path = "target/events/execution-events.jsonl";
+
+        @JsonProperty("buffer_size")
+        private int bufferSize = 8192;
+
+        private void applySystemPropertyOverrides() {
+            enabled = Boolean.parseBoolean(System.getProperty("events.enabled", String.valueOf(enabled)));
+            path = System.getProperty("events.path", path);
+            bufferSize = Integer.getInteger("events.buffer_size", bufferSize);
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Events buffered between test threads and the writer; events beyond
+         * it are dropped rather than blocking a test
+         */
+        public int getBufferSize() {
+            return bufferSize;
+        }
+    }
+
+    /**
+     * Suite wall-clock profiler. Every value can be overridden with a system
+     * property prefixed with "profiler.", e.g. -Dprofiler.enabled=true
+     */
+    public static class ProfilerSettings {
+
+        @JsonProperty("enabled")
+        private boolean enabled = false;
+
+        @JsonProperty("output_dir")
+        private String outputDir = "target/profile";
+
+        private void applySystemPropertyOverrides() {
+            enabled = Boolean.parseBoolean(System.getProperty("profiler.enabled", String.valueOf(enabled)));
+            outputDir = System.getProperty("profiler.output_dir", outputDir);
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Directory receiving trace.json and profile.folded
+         */
+        public String getOutputDir() {
+            return outputDir;
+        }
+    }
+
+    /**
+     * Splitting the suite's test classes across JVMs or machines. Every value
+     * can be overridden with a system property prefixed with "shard.", e.g.
+     * -Dshard.index=1 -Dshard.count=4
+     */
+    public static class ShardSettings {
+
+        @JsonProperty("index")
+        private int index = 0;
+
+        @JsonProperty("count")
+        private int count = 1;
+
+        @JsonProperty("history_dir")
+        private String historyDir = "target/test-history";
+
+        @JsonProperty("plan_file")
+        private String planFile = "";
+
+        private void applySystemPropertyOverrides() {
+            index = Integer.getInteger("shard.index", index);
+            count = Integer.getInteger("shard.count", count);
+            historyDir = System.getProperty("shard.history_dir", historyDir);
+            planFile = System.getProperty("shard.plan_file", planFile);
+        }
+
+        /**
+         * Zero-based shard run by this JVM
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public boolean isSharded() {
+            return count > 1;
+        }
+
+        /**
+         * Directory of the per-class duration files the shard plan is based
+         * on; keep it between CI runs, e.g. as a cache
+         */
+        public String getHistoryDir() {
+            return historyDir;
+        }
+
+        /**
+         * Shard plan computed once for all shards (written by ShardRunner);
+         * empty to plan from the history
+         */
+        public String getPlanFile() {
+            return planFile;
+        }
+    }
+
+    /**
+     * Which backend runs storage operations: the gcloud CLI or the Storage
+     * JSON API over HTTP. Every value can be overridden with a system property
+     * prefixed with "backend.", e.g. -Dbackend.type=json -Dbackend.endpoint=local
+     */
+    public static class BackendSettings {
+
+        /**
+         * Endpoint value that starts an in-process fake storage server
+         */
+        public static final String LOCAL_ENDPOINT = "local";
+
+        @JsonProperty("type")
+        private String type = "cli";
+
+        @JsonProperty("endpoint")
+        private String endpoint = "https://storage.googleapis.com";
+
+        @JsonProperty("project")
+        private String project = "";
+
+        @JsonProperty("access_token")
+        private String accessToken = "";
+
+        @JsonProperty("fake_root")
+        private String fakeRoot = "";
+
+        @JsonProperty("request_timeout_seconds")
+        private int requestTimeoutSeconds = 60;
+
+        private void applySystemPropertyOverrides() {
+            type = System.getProperty("backend.type", type);
+            endpoint = System.getProperty("backend.endpoint", endpoint);
+            project = System.getProperty("backend.project", project);
+            accessToken = System.getProperty("backend.access_token", accessToken);
+            fakeRoot = System.getProperty("backend.fake_root", fakeRoot);
+            requestTimeoutSeconds = Integer.getInteger("backend.request_timeout_seconds", requestTimeoutSeconds);
+        }
+
+        /**
+         * "cli" or "json"
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Base URL of the JSON API, or "local" for the fake storage server
+         */
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * Project for bucket create/list; empty asks gcloud for the current one
+         */
+        public String getProject() {
+            return project;
+        }
+
+        /**
+         * OAuth token for the JSON API; empty asks gcloud for one
+         */
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        /**
+         * Storage root of the fake server; empty uses the fake gcloud's root
+         * (FAKE_GCLOUD_ROOT), so both backends see the same buckets
+         */
+        public String getFakeRoot() {
+            if (!fakeRoot.isEmpty()) {
+                return fakeRoot;
+            }
+            String fakeGcloudRoot = System.getenv("FAKE_GCLOUD_ROOT");
+            if (fakeGcloudRoot != null && !fakeGcloudRoot.isEmpty()) {
+                return fakeGcloudRoot;
+            }
+            String tmp = System.getenv().getOrDefault("TMPDIR", "/tmp");
+            return tmp + (tmp.endsWith("/") ? "" : "/") + "fake-gcs";
+        }
+
+        public int getRequestTimeoutSeconds() {
+            return requestTimeoutSeconds;
+        }
+    }
+
+    /**
+     * Warm test daemon and its client. Every value can be overridden with a
+     * system property prefixed with "daemon.", e.g. -Ddaemon.port=7420
+     */
+    public static class DaemonSettings {
+
+        public static final String DEFAULT_STATE_FILE = "target/daemon/daemon.port";
+
+        @JsonProperty("port")
+        private int port = 0;
+
+        @JsonProperty("state_file")
+        private String stateFile = DEFAULT_STATE_FILE;
+
+        private void applySystemPropertyOverrides() {
+            port = Integer.getInteger("daemon.port", port);
+            stateFile = System.getProperty("daemon.state_file", stateFile);
+        }
+
+        /**
+         * Loopback port the daemon listens on; 0 picks a free one
+         */
+        public int getPort() {
+            return port;
+        }
+
+        /**
+         * File the daemon writes its port to and the client reads it from
+         */
+        public String getStateFile() {
+            return stateFile;
+        }
+    }
+
+    /**
+     * Per-test and per-command latency history and regression flagging.
+     * Every value can be overridden with a system property prefixed with
+     * "history.", e.g. -Dhistory.threshold=5
+     */
+    public static class HistorySettings {
+
+        @JsonProperty("enabled")
+        private boolean enabled = true;
+
+        @JsonProperty("file")
+        private String file = "target/latency-history/latency-history.tsv";
+
+        @JsonProperty("window")
+        private int window = 20;
+
+        @JsonProperty("min_samples")
+        private int minSamples = 5;
+
+        @JsonProperty("threshold")
+        private double threshold = 3.5;
+
+        @JsonProperty("min_slowdown")
+        private double minSlowdown = 0.2;
+
+        @JsonProperty("min_delta_ms")
+        private long minDeltaMs = 50;
+
+        private void applySystemPropertyOverrides() {
+            enabled = Boolean.parseBoolean(System.getProperty("history.enabled", String.valueOf(enabled)));
+            file = System.getProperty("history.file", file);
+            window = Integer.getInteger("history.window", window);
+            minSamples = Integer.getInteger("history.min_samples", minSamples);
+            threshold = Double.parseDouble(System.getProperty("history.threshold", String.valueOf(threshold)));
+            minSlowdown = Double.parseDouble(System.getProperty("history.min_slowdown", String.valueOf(minSlowdown)));
+            minDeltaMs = Long.getLong("history.min_delta_ms", minDeltaMs);
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * History store; keep it between CI runs, e.g. as a cache
+         */
+        public String getFile() {
+            return file;
+        }
+
+        /**
+         * Most recent runs kept per test and per command
+         */
+        public int getWindow() {
+            return window;
+        }
+
+        /**
+         * Runs needed before a baseline is trusted
+         */
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        /**
+         * Robust z-score (deviation from the median in scaled MADs) above
+         * which a duration is a regression
+         */
+        public double getThreshold() {
+            return threshold;
+        }
+
+        /**
+         * Relative slowdown over the median a regression must also exceed
+         */
+        public double getMinSlowdown() {
+            return minSlowdown;
+        }
+
+        /**
+         * Absolute slowdown over the median a regression must also exceed
+         */
+        public long getMinDeltaMs() {
+            return minDeltaMs;
+        }
+    }
+
+    /**
+     * Tenants whose suites run side by side in one JVM, each with its own
+     * gcloud configuration directory, project and impersonated account.
+     * The scalar values can be overridden with a system property prefixed
+     * with "tenants.", e.g. -Dtenants.warm_up=false
+     */
+    public static class TenantSettings {
+
+        @JsonProperty("config_root")
+        private String configRoot = "";
+
+        @JsonProperty("seed_credentials")
+        private boolean seedCredentials = false;
+
+        @JsonProperty("warm_up")
+        private boolean warmUp = true;
+
+        @JsonProperty("contexts")
+        private List<Tenant> contexts = new ArrayList<>();
+
+        private void applySystemPropertyOverrides() {
+            configRoot = System.getProperty("tenants.config_root", configRoot);
+            seedCredentials = Boolean.parseBoolean(
+                    System.getProperty("tenants.seed_credentials", String.valueOf(seedCredentials)));
+            warmUp = Boolean.parseBoolean(System.getProperty("tenants.warm_up", String.valueOf(warmUp)));
+        }
+
+        /**
+         * Directory holding one CLOUDSDK_CONFIG directory per tenant;
+         * ~/.config/gcloud-tenants when not set. Keep it out of target/,
+         * which CI commonly archives: seeded tenants hold credentials
+         */
+        public String getConfigRoot() {
+            if (configRoot == null || configRoot.isBlank()) {
+                return Path.of(System.getProperty("user.home"), ".config", "gcloud-tenants").toString();
+            }
+            return configRoot;
+        }
+
+        /**
+         * Copy the ambient gcloud credentials into a tenant directory that
+         * has none of its own, again whenever they change; prefer a
+         * credential_file per tenant
+         */
+        public boolean isSeedCredentials() {
+            return seedCredentials;
+        }
+
+        /**
+         * Fetch an access token for every tenant up front, in parallel
+         */
+        public boolean isWarmUp() {
+            return warmUp;
+        }
+
+        public List<Tenant> getContexts() {
+            return contexts;
+        }
+    }
+
+    public static class Tenant {
+
+        @JsonProperty("name")
+        private String name;
+
+        @JsonProperty("project")
+        private String project;
+
+        @JsonProperty("service_account")
+        private String serviceAccount;
+
+        @JsonProperty("credential_file")
+        private String credentialFile;
+
+        public String getName() {
+            return name;
+        }
+
+        public String getProject() {
+            return project;
+        }
+
+        /**
+         * Account impersonated by the tenant; the gcloud service account
+         * when not set
+         */
+        public String getServiceAccount() {
+            return serviceAccount;
+        }
+
+        /**
+         * Service account key or credential configuration file the tenant
+         * authenticates with instead of the seeded credentials; optional
+         */
+        public String getCredentialFile() {
+            return credentialFile;
+        }
     }
 }
@@ -1,11 +1,16 @@
 package com.google.cloud.testing.core;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,63 +22,186 @@ import com.google.cloud.testing.config.TestConfig;
  */
 public class CommandExecutor {
     private static final Logger logger = LoggerFactory.getLogger(CommandExecutor.class);
-    private final TestConfig config;
+    private static final List<CommandListener> listeners = new CopyOnWriteArrayList<>();
+    private static final AtomicLong commandIds = new AtomicLong();
+    private final CommandTemplate template;
+    private final CommandTranscript transcript;
+    private final GcloudContext context;
 
     public CommandExecutor() {
-        this.config = TestConfig.getInstance();
+        this(TestConfig.getInstance().getGcloud().getExecutablePath());
+    }
+
+    /**
+     * Create an executor bound to a specific gcloud installation, e.g. to
+     * compare a candidate SDK against the configured one
+     */
+    public CommandExecutor(String executablePath) {
+        this(CommandTemplate.forExecutable(executablePath));
+    }
+
+    public CommandExecutor(CommandTemplate template) {
+        this(template, CommandTranscript.configured());
+    }
+
+    /**
+     * Create an executor that records gcloud calls to, or answers them from,
+     * the given transcript; null runs every command for real
+     */
+    public CommandExecutor(CommandTemplate template, CommandTranscript transcript) {
+        this(template, transcript, null);
+    }
+
+    CommandExecutor(CommandTemplate template, CommandTranscript transcript, GcloudContext context) {
+        this.template = template;
+        this.transcript = transcript;
+        this.context = context;
+    }
+
+    /**
+     * Create an executor running every command in a tenant's context instead
+     * of the ambient gcloud configuration
+     */
+    public static CommandExecutor forContext(GcloudContext context, CommandTemplate template) {
+        return new CommandExecutor(template.withEnvironment(context.environment()),
+                CommandTranscript.configured(context.name()), context);
+    }
+
+    public String getExecutablePath() {
+        return template.getExecutablePath();
+    }
+
+    public CommandTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Tenant context commands run in, null for the ambient configuration
+     */
+    public GcloudContext getContext() {
+        return context;
+    }
+
+    /**
+     * Notify the listener of every command run by any executor
+     */
+    public static void addListener(CommandListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(CommandListener listener) {
+        listeners.remove(listener);
+    }
+
+    private static long fireStarted(String[] command) {
+        if (listeners.isEmpty()) {
+            return -1;
+        }
+        long commandId = commandIds.incrementAndGet();
+        for (CommandListener listener : listeners) {
+            listener.commandStarted(commandId, command);
+        }
+        return commandId;
+    }
+
+    private static void fireFinished(long commandId, String[] command, CommandResult result, long stdoutBytes,
+            long stderrBytes) {
+        if (commandId < 0) {
+            return;
+        }
+        for (CommandListener listener : listeners) {
+            listener.commandFinished(commandId, command, result, stdoutBytes, stderrBytes);
+        }
     }
 
     /**
      * Execute a gcloud command with default timeout
      */
     public CommandResult executeGcloudCommand(String... args) {
-        List<String> command = new ArrayList<>();
-        command.add(config.getGcloud().getExecutablePath());
-        command.addAll(Arrays.asList(args));
-        
-        return executeCommand(5000, command.toArray(String[]::new));
+        return executeGcloud(5000, args);
+    }
+
+    /**
+     * Execute a gcloud command with default timeout and additional
+     * environment variables, e.g. CLOUDSDK_* property overrides
+     */
+    public CommandResult executeGcloudCommand(Map<String, String> environment, String... args) {
+        return executeGcloud(5000, template.withEnvironment(environment), args);
+    }
+
+    /**
+     * Execute a gcloud command with default timeout, writing the input to its
+     * stdin, e.g. the URLs for a command run with -I
+     */
+    public CommandResult executeGcloudWithInput(String input, String... args) {
+        return executeGcloud(5000, template, input, args);
     }
 
     /**
      * Execute any system command with timeout
      */
     public CommandResult executeCommand(int timeoutSeconds, String... command) {
-        logger.info("Executing command: {}", String.join(" ", command));
+        return execute(timeoutSeconds, new ProcessBuilder(command), null, command);
+    }
+
+    private CommandResult executeGcloud(int timeoutSeconds, String... args) {
+        return executeGcloud(timeoutSeconds, template, args);
+    }
+
+    private CommandResult executeGcloud(int timeoutSeconds, CommandTemplate callTemplate, String... args) {
+        return executeGcloud(timeoutSeconds, callTemplate, null, args);
+    }
+
+    private CommandResult executeGcloud(int timeoutSeconds, CommandTemplate callTemplate, String input,
+            String... args) {
+        String[] command = callTemplate.command(args);
+        if (transcript != null && transcript.isReplaying()) {
+            long commandId = fireStarted(command);
+            CommandResult result = transcript.replay(args, input).orElseGet(() -> notRecorded(args));
+            fireFinished(commandId, command, result, result.getStdout().length(), result.getStderr().length());
+            return result;
+        }
+        CommandResult result = execute(timeoutSeconds, callTemplate.processBuilder(command), input, command);
+        if (transcript != null && transcript.isRecording()) {
+            transcript.record(args, input, result);
+        }
+        return result;
+    }
+
+    private CommandResult notRecorded(String... args) {
+        logger.warn("No recorded response for gcloud {}", String.join(" ", args));
+        return new CommandResult(-1, "", "Command not found in transcript " + transcript.getFile() + ": gcloud "
+                + String.join(" ", args), 0, false);
+    }
+
+    private CommandResult execute(int timeoutSeconds, ProcessBuilder pb, String input, String... command) {
+        long commandId = fireStarted(command);
+        long[] outputBytes = new long[2];
+        CommandResult result = run(timeoutSeconds, pb, input, outputBytes, command);
+        fireFinished(commandId, command, result, outputBytes[0], outputBytes[1]);
+        return result;
+    }
+
+    private CommandResult run(int timeoutSeconds, ProcessBuilder pb, String input, long[] outputBytes,
+            String... command) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Executing command: {}", String.join(" ", command));
+        }
         long startTime = System.currentTimeMillis();
 
-        ProcessBuilder pb = new ProcessBuilder(command);
         pb.redirectErrorStream(false);
 
         try {
             Process process = pb.start();
+            Thread stdinWriter = writeInput(process, input);
 
             // Read stdout and stderr in separate threads to prevent deadlock
-            StringBuilder stdout = new StringBuilder();
-            StringBuilder stderr = new StringBuilder();
-            Thread stdoutReader = new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        stdout.append(line).append(System.lineSeparator());
-                    }
-                } catch (IOException e) {
-                    logger.warn("Error reading stdout: {}", e.getMessage());
-                }
-            });
-
-            Thread stderrReader = new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        stderr.append(line).append(System.lineSeparator());
-                    }
-                } catch (IOException e) {
-                    logger.warn("Error reading stderr: {}", e.getMessage());
-                }
-            });
-
-            stdoutReader.start();
-            stderrReader.start();
+            OutputBuffer stdout = new OutputBuffer();
+            OutputBuffer stderr = new OutputBuffer();
+            CountingInputStream stdoutStream = new CountingInputStream(process.getInputStream());
+            CountingInputStream stderrStream = new CountingInputStream(process.getErrorStream());
+            Thread stdoutReader = drainThread(stdoutStream, stdout, "stdout");
+            Thread stderrReader = drainThread(stderrStream, stderr, "stderr");
 
             // Wait for process to finish
             int exitCode = process.waitFor();
@@ -81,14 +209,134 @@ public class CommandExecutor {
             // Wait for output readers to complete
             stdoutReader.join();
             stderrReader.join();
+            if (stdinWriter != null) {
+                stdinWriter.join();
+            }
+
+            long executionTime = System.currentTimeMillis() - startTime;
+            outputBytes[0] = stdoutStream.getCount();
+            outputBytes[1] = stderrStream.getCount();
+            CommandResult result = new CommandResult(exitCode, stdout.toByteArray(), stderr.toByteArray(),
+                    executionTime, false);
 
+            if (logger.isDebugEnabled()) {
+                logger.debug("Command completed with exit code: {}, execution time: {}ms", exitCode, executionTime);
+                logger.debug("Result: {}", result);
+            }
+
+            return result;
+
+        } catch (IOException e) {
             long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("Failed to execute command: {}", e.getMessage());
+            return new CommandResult(-1, "", e.getMessage(), executionTime, false);
+        } catch (InterruptedException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("Command execution interrupted: {}", e.getMessage());
+            Thread.currentThread().interrupt();
+            return new CommandResult(-1, "", e.getMessage(), executionTime, false);
+        }
+    }
+
+    /**
+     * Start a thread draining the stream into the buffer
+     */
+    private static Thread drainThread(InputStream in, OutputBuffer buffer, String name) {
+        Thread reader = new Thread(() -> {
+            try (in) {
+                buffer.drain(in);
+            } catch (IOException e) {
+                logger.warn("Error reading {}: {}", name, e.getMessage());
+            }
+        });
+        reader.start();
+        return reader;
+    }
 
-            logger.debug("Command completed with exit code: {}, execution time: {}ms", exitCode, executionTime);
-            logger.debug("Stdout: {}", stdout.length() > 200 ? stdout.substring(0, 200) + "..." : stdout);
-            logger.debug("Stderr: {}", stderr.length() > 200 ? stderr.substring(0, 200) + "..." : stderr);
+    /**
+     * Write the input to the process's stdin on a separate thread, since the
+     * process may fill its output pipes before reading all of it, and close
+     * stdin afterwards so it sees end of input. Without input stdin is left
+     * alone and no thread is started.
+     */
+    private static Thread writeInput(Process process, String input) {
+        if (input == null) {
+            return null;
+        }
+        Thread stdinWriter = new Thread(() -> {
+            try (OutputStream stdin = process.getOutputStream()) {
+                stdin.write(input.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                logger.warn("Error writing stdin: {}", e.getMessage());
+            }
+        });
+        stdinWriter.start();
+        return stdinWriter;
+    }
 
-            return new CommandResult(exitCode, stdout.toString(), stderr.toString(), executionTime, false);
+    /**
+     * Execute a gcloud command and hand its stdout to the handler as a
+     * stream instead of buffering it. The returned result carries the exit
+     * code and stderr; its stdout is always empty.
+     */
+    public CommandResult executeGcloudStreaming(OutputHandler handler, String... args) {
+        String[] command = template.command(args);
+        long commandId = fireStarted(command);
+        long[] outputBytes = new long[2];
+        CommandResult result = transcript != null && transcript.isReplaying()
+                ? replayStreaming(handler, outputBytes, args)
+                : stream(handler, outputBytes, command, args);
+        fireFinished(commandId, command, result, outputBytes[0], outputBytes[1]);
+        return result;
+    }
+
+    private CommandResult stream(OutputHandler handler, long[] outputBytes, String[] command, String... args) {
+        CommandTranscript.Capture capture = transcript != null && transcript.isRecording()
+                ? new CommandTranscript.Capture() : null;
+        if (logger.isInfoEnabled()) {
+            logger.info("Executing streaming command: {}", String.join(" ", command));
+        }
+        long startTime = System.currentTimeMillis();
+
+        try {
+            Process process = template.processBuilder(command).start();
+
+            OutputBuffer stderr = new OutputBuffer();
+            CountingInputStream stdoutStream = new CountingInputStream(process.getInputStream());
+            CountingInputStream stderrStream = new CountingInputStream(process.getErrorStream());
+            Thread stderrReader = drainThread(stderrStream, stderr, "stderr");
+
+            try (InputStream stdout = capture == null ? stdoutStream : new TeeInputStream(stdoutStream, capture)) {
+                // The handler may close what it is given; the pipe is closed here, after draining
+                handler.handle(new FilterInputStream(stdout) {
+                    @Override
+                    public void close() {
+                    }
+                });
+                // Drain whatever the handler left so the child never blocks on a full pipe
+                stdout.transferTo(OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                process.destroy();
+                stderrReader.join();
+                stderr.release();
+                outputBytes[0] = stdoutStream.getCount();
+                outputBytes[1] = stderrStream.getCount();
+                long executionTime = System.currentTimeMillis() - startTime;
+                logger.error("Failed to consume command output: {}", e.getMessage());
+                return new CommandResult(-1, "", e.getMessage(), executionTime, false);
+            }
+
+            int exitCode = process.waitFor();
+            stderrReader.join();
+            outputBytes[0] = stdoutStream.getCount();
+            outputBytes[1] = stderrStream.getCount();
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.debug("Streaming command completed with exit code: {}, execution time: {}ms", exitCode, executionTime);
+            CommandResult result = new CommandResult(exitCode, new byte[0], stderr.toByteArray(), executionTime, false);
+            if (capture != null) {
+                transcript.recordStream(args, result, capture.toByteArray());
+            }
+            return result;
 
         } catch (IOException e) {
             long executionTime = System.currentTimeMillis() - startTime;
@@ -102,11 +350,79 @@ public class CommandExecutor {
         }
     }
 
+    private CommandResult replayStreaming(OutputHandler handler, long[] outputBytes, String... args) {
+        Optional<CommandTranscript.Replayed> replayed = transcript.replayStream(args);
+        if (replayed.isEmpty()) {
+            return notRecorded(args);
+        }
+        outputBytes[0] = replayed.get().stdout().length;
+        outputBytes[1] = replayed.get().result().getStderr().length();
+        try {
+            handler.handle(new ByteArrayInputStream(replayed.get().stdout()));
+        } catch (IOException e) {
+            logger.error("Failed to consume replayed command output: {}", e.getMessage());
+            return new CommandResult(-1, "", e.getMessage(), replayed.get().result().getExecutionTimeMs(), false);
+        }
+        return replayed.get().result();
+    }
+
+    /**
+     * Copies everything read from a stream to a second destination
+     */
+    private static final class TeeInputStream extends FilterInputStream {
+
+        private final OutputStream copy;
+
+        TeeInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                copy.write(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int n;
+            while ((n = read(buffer, 0, buffer.length)) >= 0) {
+                out.write(buffer, 0, n);
+                total += n;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Consumer of a command's stdout
+     */
+    @FunctionalInterface
+    public interface OutputHandler {
+
+        void handle(InputStream stdout) throws IOException;
+    }
+
     /**
      * Check if gcloud CLI is available and authenticated
      */
     public boolean isGcloudAvailable() {
-        CommandResult result = executeCommand(10, config.getGcloud().getExecutablePath(), "version");
+        CommandResult result = executeGcloud(10, "version");
         return result.isSuccess();
     }
 
@@ -114,7 +430,7 @@ public class CommandExecutor {
      * Check if user is authenticated with gcloud
      */
     public boolean isAuthenticated() {
-        CommandResult result = executeCommand(10, config.getGcloud().getExecutablePath(), "auth", "list", "--filter=status:ACTIVE", "--format=value(account)");
+        CommandResult result = executeGcloud(10, "auth", "list", "--filter=status:ACTIVE", "--format=value(account)");
         return result.isSuccess() && !result.getStdout().trim().isEmpty();
     }
 
@@ -122,7 +438,7 @@ public class CommandExecutor {
      * Get current gcloud project
      */
     public String getCurrentProject() {
-        CommandResult result = executeCommand(10, config.getGcloud().getExecutablePath(), "config", "get-value", "project");
+        CommandResult result = executeGcloud(10, "config", "get-value", "project");
         if (result.isSuccess()) {
             return result.getStdout().trim();
         }
@@ -133,7 +449,7 @@ public class CommandExecutor {
      * Get gcloud version information
      */
     public String getGcloudVersion() {
-        CommandResult result = executeCommand(10, config.getGcloud().getExecutablePath(), "version", "--format=json");
+        CommandResult result = executeGcloud(10, "version", "--format=json");
         if (result.isSuccess()) {
             var versionInfo = result.getStdout();
             try {
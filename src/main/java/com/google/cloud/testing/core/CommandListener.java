@@ -0,0 +1,22 @@
+package com.google.cloud.testing.core;
+
+/**
+ * Observer of every command a {@link CommandExecutor} runs, registered with
+ * {@link CommandExecutor#addListener}. Callbacks run on the thread executing
+ * the command and must return quickly.
+ */
+public interface CommandListener {
+
+    /**
+     * A command is about to start
+     *
+     * @param commandId identifier shared with the matching
+     * {@link #commandFinished} call
+     */
+    void commandStarted(long commandId, String[] command);
+
+    /**
+     * A command completed, failed to start or was answered from a transcript
+     */
+    void commandFinished(long commandId, String[] command, CommandResult result, long stdoutBytes, long stderrBytes);
+}
@@ -1,12 +1,21 @@
 package com.google.cloud.testing.core;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Result of a command execution
+ * <p>
+ * Output drained from a process is kept as the raw bytes and decoded as
+ * UTF-8 on the first call to getStdout()/getStderr(); callers that parse
+ * bytes can use getStdoutBuffer() and never decode.
  */
 public class CommandResult {
     private final int exitCode;
-    private final String stdout;
-    private final String stderr;
+    private final byte[] stdoutBytes;
+    private final byte[] stderrBytes;
+    private String stdout;
+    private String stderr;
     private final long executionTimeMs;
     private final boolean timedOut;
 
@@ -14,6 +23,19 @@ public class CommandResult {
         this.exitCode = exitCode;
         this.stdout = stdout;
         this.stderr = stderr;
+        this.stdoutBytes = null;
+        this.stderrBytes = null;
+        this.executionTimeMs = executionTimeMs;
+        this.timedOut = timedOut;
+    }
+
+    /**
+     * Result over raw UTF-8 output, decoded on demand
+     */
+    public CommandResult(int exitCode, byte[] stdout, byte[] stderr, long executionTimeMs, boolean timedOut) {
+        this.exitCode = exitCode;
+        this.stdoutBytes = stdout;
+        this.stderrBytes = stderr;
         this.executionTimeMs = executionTimeMs;
         this.timedOut = timedOut;
     }
@@ -23,15 +45,48 @@ public class CommandResult {
     }
 
     public int getExitCode() { return exitCode; }
-    public String getStdout() { return stdout; }
-    public String getStderr() { return stderr; }
     public long getExecutionTimeMs() { return executionTimeMs; }
     public boolean isTimedOut() { return timedOut; }
 
+    // Decoding twice under a race yields equal strings, so no locking
+    public String getStdout() {
+        String value = stdout;
+        if (value == null) {
+            value = new String(stdoutBytes, StandardCharsets.UTF_8);
+            stdout = value;
+        }
+        return value;
+    }
+
+    public String getStderr() {
+        String value = stderr;
+        if (value == null) {
+            value = new String(stderrBytes, StandardCharsets.UTF_8);
+            stderr = value;
+        }
+        return value;
+    }
+
+    /**
+     * Read-only view of stdout as UTF-8 bytes, without decoding drained
+     * output
+     */
+    public ByteBuffer getStdoutBuffer() {
+        byte[] bytes = stdoutBytes != null ? stdoutBytes : stdout.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
     @Override
     public String toString() {
-        return String.format("CommandResult{exitCode=%d, timedOut=%s, executionTime=%dms, stdout='%s', stderr='%s'}", 
-                exitCode, timedOut, executionTimeMs, stdout.length() > 100 ? stdout.substring(0, 100) + "..." : stdout, 
-                stderr.length() > 100 ? stderr.substring(0, 100) + "..." : stderr);
+        return String.format("CommandResult{exitCode=%d, timedOut=%s, executionTime=%dms, stdout='%s', stderr='%s'}",
+                exitCode, timedOut, executionTimeMs, preview(stdoutBytes, stdout), preview(stderrBytes, stderr));
+    }
+
+    private static String preview(byte[] bytes, String decoded) {
+        if (decoded == null) {
+            // Decode only what is shown; a cut multi-byte character becomes U+FFFD
+            decoded = new String(bytes, 0, Math.min(bytes.length, 101), StandardCharsets.UTF_8);
+        }
+        return decoded.length() > 100 ? decoded.substring(0, 100) + "..." : decoded;
     }
 }
@@ -0,0 +1,87 @@
+package com.google.cloud.testing.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Precompiled gcloud invocation: the executable is resolved once and every
+ * child process is started with the same environment overrides.
+ * <p>
+ * By default the overrides switch off the interactive and phone-home checks
+ * gcloud performs on every start (prompts, component update check, usage
+ * reporting, surveys), which are pure overhead for non-interactive runs.
+ */
+public final class CommandTemplate {
+
+    /**
+     * Environment applied to every gcloud process unless overridden
+     */
+    public static final Map<String, String> TUNED_ENVIRONMENT = Map.of(
+            "CLOUDSDK_CORE_DISABLE_PROMPTS", "1",
+            "CLOUDSDK_COMPONENT_MANAGER_DISABLE_UPDATE_CHECK", "true",
+            "CLOUDSDK_CORE_DISABLE_USAGE_REPORTING", "true",
+            "CLOUDSDK_SURVEY_DISABLE_PROMPTS", "true");
+
+    private final String executablePath;
+    private final Map<String, String> environment;
+    private final boolean inheritedEnvironmentMatches;
+
+    private CommandTemplate(String executablePath, Map<String, String> environment) {
+        this.executablePath = executablePath;
+        this.environment = Collections.unmodifiableMap(environment);
+        // Copying the parent environment into every ProcessBuilder is the most
+        // expensive part of preparing a spawn; skip it when nothing would change
+        this.inheritedEnvironmentMatches = environment.entrySet().stream()
+                .allMatch(e -> e.getValue().equals(System.getenv(e.getKey())));
+    }
+
+    /**
+     * Template for the given executable with the tuned environment
+     */
+    public static CommandTemplate forExecutable(String executablePath) {
+        return new CommandTemplate(executablePath, new LinkedHashMap<>(TUNED_ENVIRONMENT));
+    }
+
+    /**
+     * Copy of this template with additional environment variables; later
+     * values win
+     */
+    public CommandTemplate withEnvironment(Map<String, String> overrides) {
+        if (overrides.isEmpty()) {
+            return this;
+        }
+        Map<String, String> merged = new LinkedHashMap<>(environment);
+        merged.putAll(overrides);
+        return new CommandTemplate(executablePath, merged);
+    }
+
+    /**
+     * Full command line for the given gcloud arguments
+     */
+    public String[] command(String... args) {
+        String[] command = new String[args.length + 1];
+        command[0] = executablePath;
+        System.arraycopy(args, 0, command, 1, args.length);
+        return command;
+    }
+
+    /**
+     * Process builder for a command line produced by {@link #command}
+     */
+    public ProcessBuilder processBuilder(String... command) {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        if (!inheritedEnvironmentMatches) {
+            pb.environment().putAll(environment);
+        }
+        return pb;
+    }
+
+    public String getExecutablePath() {
+        return executablePath;
+    }
+
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+}
@@ -0,0 +1,522 @@
+package com.google.cloud.testing.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.cloud.testing.config.TestConfig;
+
+/**
+ * Recorded gcloud calls, used to answer commands without running gcloud.
+ * <p>
+ * The transcript is an append-only JSON-lines file, one command per line.
+ * Opening it scans the file once and builds an in-memory hash index from
+ * the normalized arguments of each command, and a digest of its stdin when
+ * it was given any, to the offsets of its records;
+ * a replayed command reads only its own record. A command recorded several
+ * times is answered with its recordings in order, so a bucket describe that
+ * failed before a create and succeeded after it replays the same way.
+ * <p>
+ * Names that differ between runs (generated bucket names, temporary
+ * directories, unique object names) are replaced by placeholders in the
+ * arguments and in the recorded output, and bound to the current run's
+ * values on replay. Of the side effects of a command, only files written by
+ * a download are reproduced; everything else a test observes must come from
+ * command output.
+ */
+public final class CommandTranscript implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandTranscript.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_STREAM_BYTES = 4 * 1024 * 1024;
+    private static final List<Pattern> VOLATILE_PATTERNS = List.of(
+            Pattern.compile("mend-test-bucket-[0-9a-f]{8}-[0-9a-f]{3}"),
+            Pattern.compile("[A-Za-z0-9_.]+-\\d{13}-[0-9a-f]{8}"),
+            Pattern.compile(Pattern.quote(stripTrailingSeparator(System.getProperty("java.io.tmpdir")))
+                    + "/[^/\\s\"]*?\\d{5,}"));
+    private static final Map<Path, CommandTranscript> OPEN = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final Mode mode;
+    private final boolean replayLatency;
+    private final FileChannel channel;
+    private final Map<String, List<long[]>> index = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    public enum Mode {
+        OFF, RECORD, REPLAY;
+
+        public static Mode fromKey(String key) {
+            return Mode.valueOf(key.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private CommandTranscript(Path file, Mode mode, boolean replayLatency) throws IOException {
+        this.file = file;
+        this.mode = mode;
+        this.replayLatency = replayLatency;
+        if (mode == Mode.RECORD) {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } else {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+        buildIndex();
+    }
+
+    /**
+     * Open a transcript for recording (appending to an existing file) or
+     * replaying
+     */
+    public static CommandTranscript open(Path file, Mode mode, boolean replayLatency) throws IOException {
+        if (mode == Mode.OFF) {
+            throw new IllegalArgumentException("Transcript mode must be record or replay");
+        }
+        return new CommandTranscript(file, mode, replayLatency);
+    }
+
+    /**
+     * Transcript selected by the configuration, shared by all executors, or
+     * null when transcripts are off
+     */
+    public static CommandTranscript configured() {
+        return configured(null);
+    }
+
+    /**
+     * Transcript selected by the configuration for the executors of one
+     * tenant, or null when transcripts are off. Each tenant records to its own
+     * file next to the configured one (gcloud-transcript.team-a.jsonl), so
+     * identical commands of different tenants never answer for each other;
+     * a null tenant selects the shared transcript
+     */
+    public static CommandTranscript configured(String tenant) {
+        TestConfig.TranscriptSettings settings = TestConfig.getInstance().getTranscript();
+        Mode mode = Mode.fromKey(settings.getMode());
+        if (mode == Mode.OFF) {
+            return null;
+        }
+        Path path = Path.of(settings.getPath()).toAbsolutePath();
+        if (tenant != null) {
+            path = forTenant(path, tenant);
+        }
+        return OPEN.computeIfAbsent(path, p -> {
+            try {
+                CommandTranscript transcript = open(p, mode, settings.isReplayLatency());
+                logger.info("Command transcript {} opened for {} ({} recorded commands)", p,
+                        mode.name().toLowerCase(Locale.ROOT), transcript.size());
+                return transcript;
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open command transcript " + p + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Transcript file of a tenant: the tenant name inserted before the
+     * extension of the shared file
+     */
+    static Path forTenant(Path shared, String tenant) {
+        String fileName = shared.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String tenantFile = dot > 0 ? fileName.substring(0, dot) + "." + tenant + fileName.substring(dot)
+                : fileName + "." + tenant;
+        return shared.resolveSibling(tenantFile);
+    }
+
+    public boolean isRecording() {
+        return mode == Mode.RECORD;
+    }
+
+    public boolean isReplaying() {
+        return mode == Mode.REPLAY;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Number of recorded commands
+     */
+    public int size() {
+        return index.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Append a completed command
+     */
+    public void record(String[] args, CommandResult result) {
+        record(args, null, result);
+    }
+
+    /**
+     * Append a completed command that was given the input on its stdin
+     */
+    public void record(String[] args, String input, CommandResult result) {
+        append(args, input, result, null);
+    }
+
+    /**
+     * Append a completed streaming command together with the bytes it wrote;
+     * commands with more than 4 MiB of output (null stdout) are not recorded
+     */
+    public void recordStream(String[] args, CommandResult result, byte[] stdout) {
+        if (stdout == null || stdout.length > MAX_STREAM_BYTES) {
+            logger.debug("Not recording streaming command with more than {} bytes of output", MAX_STREAM_BYTES);
+            return;
+        }
+        append(args, null, result, stdout);
+    }
+
+    /**
+     * Recorded result of the command, or empty if it was never recorded
+     */
+    public Optional<CommandResult> replay(String[] args) {
+        return replay(args, null);
+    }
+
+    /**
+     * Recorded result of the command given the same input on its stdin, or
+     * empty if it was never recorded
+     */
+    public Optional<CommandResult> replay(String[] args, String input) {
+        return replayRecord(args, input).map(Replayed::result);
+    }
+
+    /**
+     * Recorded result and stdout bytes of a streaming command, or empty if it
+     * was never recorded
+     */
+    public Optional<Replayed> replayStream(String[] args) {
+        return replayRecord(args, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        OPEN.remove(file.toAbsolutePath(), this);
+        channel.close();
+    }
+
+    private void append(String[] args, String input, CommandResult result, byte[] stdout) {
+        Normalized normalized = normalize(args, input);
+        ObjectNode record = MAPPER.createObjectNode();
+        record.put("key", normalized.key());
+        record.put("exit", result.getExitCode());
+        record.put("ms", result.getExecutionTimeMs());
+        record.put("timed_out", result.isTimedOut());
+        if (stdout != null) {
+            record.put("stdout_b64", Base64.getEncoder().encodeToString(stdout));
+        } else {
+            record.put("stdout", normalized.abstractValues(result.getStdout()));
+        }
+        record.put("stderr", normalized.abstractValues(result.getStderr()));
+        Path download = downloadTarget(args);
+        if (result.isSuccess() && download != null) {
+            try {
+                if (Files.isRegularFile(download) && Files.size(download) <= MAX_STREAM_BYTES) {
+                    record.put("file_b64", Base64.getEncoder().encodeToString(Files.readAllBytes(download)));
+                }
+            } catch (IOException e) {
+                logger.debug("Not recording downloaded file {}: {}", download, e.getMessage());
+            }
+        }
+        try {
+            byte[] line = (MAPPER.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            synchronized (channel) {
+                long offset = channel.size();
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, offset + buffer.position());
+                }
+                index.computeIfAbsent(normalized.key(), k -> new ArrayList<>())
+                        .add(new long[] {offset, line.length});
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to record command in transcript {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Optional<Replayed> replayRecord(String[] args, String input) {
+        long start = System.nanoTime();
+        Normalized normalized = normalize(args, input);
+        List<long[]> records = index.get(normalized.key());
+        if (records == null || records.isEmpty()) {
+            return Optional.empty();
+        }
+        int position = cursors.computeIfAbsent(normalized.key(), k -> new AtomicInteger()).getAndIncrement();
+        long[] location = records.get(Math.min(position, records.size() - 1));
+        JsonNode record;
+        try {
+            record = MAPPER.readTree(read(location[0], (int) location[1]));
+        } catch (IOException e) {
+            logger.warn("Failed to read transcript {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+
+        long recordedMs = record.path("ms").asLong();
+        if (replayLatency) {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(recordedMs) - (System.nanoTime() - start);
+            if (remaining > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+        byte[] stdoutBytes = record.has("stdout_b64")
+                ? Base64.getDecoder().decode(record.get("stdout_b64").asText())
+                : null;
+        String stdout = stdoutBytes != null ? "" : normalized.bindValues(record.path("stdout").asText());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        CommandResult result = new CommandResult(record.path("exit").asInt(), stdout,
+                normalized.bindValues(record.path("stderr").asText()), elapsedMs,
+                record.path("timed_out").asBoolean());
+        Path download = downloadTarget(args);
+        if (record.has("file_b64") && download != null) {
+            try {
+                Files.write(download, Base64.getDecoder().decode(record.get("file_b64").asText()));
+            } catch (IOException e) {
+                logger.warn("Failed to restore downloaded file {}: {}", download, e.getMessage());
+            }
+        }
+        return Optional.of(new Replayed(result, stdoutBytes == null ? new byte[0] : stdoutBytes, recordedMs));
+    }
+
+    /**
+     * Local file written by a `storage cp`/`mv` download, whose content is
+     * recorded so that replay leaves the same file behind
+     */
+    private static Path downloadTarget(String[] args) {
+        if (args.length < 4 || !"storage".equals(args[0]) || !("cp".equals(args[1]) || "mv".equals(args[1]))) {
+            return null;
+        }
+        String destination = args[args.length - 1];
+        if (destination.startsWith("gs://") || destination.startsWith("-") || Files.isDirectory(Path.of(destination))) {
+            return null;
+        }
+        return Path.of(destination);
+    }
+
+    private byte[] read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Transcript truncated at offset " + offset);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Scan the log once, reading only the key of each record
+     */
+    private void buildIndex() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long offset = 0;
+            long lineStart = 0;
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    offset++;
+                    if (b == '\n') {
+                        indexLine(line.toByteArray(), lineStart, offset - lineStart);
+                        line.reset();
+                        lineStart = offset;
+                    } else if (line.size() < 4096) {
+                        // The key is the first field; the rest of the line is not needed
+                        line.write(b);
+                    }
+                }
+            }
+        }
+    }
+
+    private void indexLine(byte[] prefix, long offset, long length) {
+        try (JsonParser parser = MAPPER.getFactory().createParser(prefix)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT && parser.nextToken() == JsonToken.FIELD_NAME
+                    && "key".equals(parser.getCurrentName()) && parser.nextToken() == JsonToken.VALUE_STRING) {
+                index.computeIfAbsent(parser.getText(), k -> new ArrayList<>()).add(new long[] {offset, length});
+                return;
+            }
+        } catch (IOException e) {
+            // fall through to the warning below
+        }
+        logger.warn("Skipping unreadable transcript record at offset {} of {}", offset, file);
+    }
+
+    /**
+     * Replace volatile names in the arguments with numbered placeholders
+     */
+    static Normalized normalize(String[] args) {
+        return normalize(args, null);
+    }
+
+    /**
+     * Replace volatile names in the arguments and the stdin input with
+     * numbered placeholders, and digest the input
+     *
+     * @param input stdin of the command, null when it was given none
+     */
+    static Normalized normalize(String[] args, String input) {
+        Map<String, String> placeholders = new LinkedHashMap<>();
+        List<String> normalizedArgs = new ArrayList<>(args.length);
+        for (String arg : args) {
+            normalizedArgs.add(abstractVolatileNames(arg, placeholders));
+        }
+        String inputDigest = null;
+        if (input != null) {
+            try {
+                inputDigest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                        .digest(abstractVolatileNames(input, placeholders).getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+        return new Normalized(List.copyOf(normalizedArgs), inputDigest, placeholders);
+    }
+
+    private static String abstractVolatileNames(String text, Map<String, String> placeholders) {
+        String normalized = text;
+        for (Pattern pattern : VOLATILE_PATTERNS) {
+            Matcher matcher = pattern.matcher(normalized);
+            StringBuilder out = new StringBuilder();
+            while (matcher.find()) {
+                String placeholder = placeholders.computeIfAbsent(matcher.group(),
+                        value -> "<V" + placeholders.size() + ">");
+                matcher.appendReplacement(out, Matcher.quoteReplacement(placeholder));
+            }
+            matcher.appendTail(out);
+            normalized = out.toString();
+        }
+        return normalized;
+    }
+
+    private static String stripTrailingSeparator(String path) {
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    /**
+     * Arguments with volatile names abstracted, the digest of the abstracted
+     * stdin input (null without input), and the names they stand for
+     */
+    record Normalized(List<String> args, String inputDigest, Map<String, String> placeholders) {
+
+        /**
+         * The arguments, and the input digest so that commands run with the
+         * same arguments but different input, such as -I batches, are told
+         * apart
+         */
+        String key() {
+            String key = String.join("\u0000", args);
+            return inputDigest == null ? key : key + "\u0000stdin:" + inputDigest;
+        }
+
+        /**
+         * Replace this command's volatile values in recorded output by their
+         * placeholders, longest first so overlapping values stay intact
+         */
+        String abstractValues(String text) {
+            String result = text;
+            List<String> values = new ArrayList<>(placeholders.keySet());
+            values.sort(Comparator.comparingInt(String::length).reversed());
+            for (String value : values) {
+                result = result.replace(value, placeholders.get(value));
+            }
+            return result;
+        }
+
+        /**
+         * Substitute this command's values for the placeholders in recorded
+         * output
+         */
+        String bindValues(String text) {
+            String result = text;
+            for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+                result = result.replace(entry.getValue(), entry.getKey());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A command answered from the transcript
+     *
+     * @param stdout raw output of a streaming command, empty otherwise
+     * @param recordedMs how long the command took when it was recorded
+     */
+    public record Replayed(CommandResult result, byte[] stdout, long recordedMs) {
+
+    }
+
+    /**
+     * Copies what passes through a stream into a bounded buffer, for
+     * recording streaming commands
+     */
+    static final class Capture extends OutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private boolean overflowed;
+
+        @Override
+        public void write(int b) {
+            if (!overflowed && bytes.size() < MAX_STREAM_BYTES) {
+                bytes.write(b);
+            } else {
+                overflowed = true;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (!overflowed && bytes.size() + len <= MAX_STREAM_BYTES) {
+                bytes.write(b, off, len);
+            } else {
+                overflowed = true;
+            }
+        }
+
+        /**
+         * Captured bytes, or null if the output exceeded the limit
+         */
+        byte[] toByteArray() {
+            return overflowed ? null : bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.google.cloud.testing.core;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * gcloud execution context of one tenant: its own configuration directory
+ * (CLOUDSDK_CONFIG), project and impersonated account.
+ * <p>
+ * gcloud keeps credentials, token caches, properties and logs in the
+ * configuration directory and locks its files while it writes them, so
+ * tenants with separate directories run concurrently without waiting on each
+ * other. The project and credential file are passed as CLOUDSDK_* properties
+ * on every call instead of being written to the directory.
+ */
+public record GcloudContext(String name, Path configDir, String project, String serviceAccount,
+        String credentialFile) {
+
+    /**
+     * Entries of a gcloud configuration directory that hold the active
+     * account and its credentials
+     */
+    static final List<String> CREDENTIAL_ENTRIES = List.of("active_config", "configurations", "credentials.db",
+            "access_tokens.db", "legacy_credentials", "application_default_credentials.json");
+
+    /**
+     * Records where and when the credentials of a seeded directory came from
+     */
+    static final String SEED_MARKER = ".seeded-from";
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+    private static final Logger logger = LoggerFactory.getLogger(GcloudContext.class);
+
+    public GcloudContext {
+        if (name == null || !name.matches("[A-Za-z0-9][A-Za-z0-9_.-]*")) {
+            throw new IllegalArgumentException("Tenant name must be letters, digits, '.', '_' or '-': " + name);
+        }
+        configDir = configDir.toAbsolutePath();
+    }
+
+    /**
+     * Context whose configuration directory is named after the tenant
+     */
+    public static GcloudContext of(Path configRoot, String name, String project, String serviceAccount,
+            String credentialFile) {
+        return new GcloudContext(name, configRoot.resolve(name), blankToNull(project), blankToNull(serviceAccount),
+                blankToNull(credentialFile));
+    }
+
+    /**
+     * Environment every gcloud process of this tenant runs with
+     */
+    public Map<String, String> environment() {
+        Map<String, String> environment = new LinkedHashMap<>();
+        environment.put("CLOUDSDK_CONFIG", configDir.toString());
+        if (project != null) {
+            environment.put("CLOUDSDK_CORE_PROJECT", project);
+        }
+        if (credentialFile != null) {
+            environment.put("CLOUDSDK_AUTH_CREDENTIAL_FILE_OVERRIDE", Path.of(credentialFile).toAbsolutePath().toString());
+        }
+        return environment;
+    }
+
+    /**
+     * Configuration directory gcloud uses when CLOUDSDK_CONFIG is not set
+     */
+    public static Path ambientConfigDir() {
+        String configured = System.getenv("CLOUDSDK_CONFIG");
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("user.home"), ".config", "gcloud");
+    }
+
+    /**
+     * Create the configuration directory, readable by the owner only. When
+     * seeding, copy the active account and credentials of the given
+     * directory into it, and copy them again whenever they change there. A
+     * tenant with a credential file, or with credentials it did not get from
+     * a seed, is left alone.
+     */
+    public void prepare(Path seedConfigDir, boolean seedCredentials) throws IOException {
+        createPrivateDirectories(configDir);
+        Path seedCredentialsDb = seedConfigDir.resolve("credentials.db");
+        if (!seedCredentials || credentialFile != null || !Files.isRegularFile(seedCredentialsDb)
+                || seedConfigDir.toAbsolutePath().equals(configDir)) {
+            return;
+        }
+        Path marker = configDir.resolve(SEED_MARKER);
+        if (Files.exists(configDir.resolve("credentials.db")) && !Files.exists(marker)) {
+            return;
+        }
+        String seed = seedConfigDir.toAbsolutePath() + "@" + Files.getLastModifiedTime(seedCredentialsDb).toMillis();
+        if (Files.exists(marker) && Files.readString(marker).equals(seed)) {
+            return;
+        }
+        for (String entry : CREDENTIAL_ENTRIES) {
+            Path source = seedConfigDir.resolve(entry);
+            if (Files.exists(source)) {
+                copy(source, configDir.resolve(entry));
+            }
+        }
+        Files.writeString(marker, seed);
+        logger.debug("Seeded gcloud configuration of tenant {} from {}", name, seedConfigDir);
+    }
+
+    /**
+     * Create a directory and its missing parents with owner-only permissions
+     * where the file system supports them
+     */
+    private static void createPrivateDirectories(Path directory) throws IOException {
+        Path parent = directory.getParent();
+        if (parent != null && !Files.isDirectory(parent)) {
+            createPrivateDirectories(parent);
+        }
+        if (Files.isDirectory(directory)) {
+            return;
+        }
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        } else {
+            Files.createDirectory(directory);
+        }
+    }
+
+    private static void copy(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                createPrivateDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.copy(file, target.resolve(source.relativize(file)), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.COPY_ATTRIBUTES);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
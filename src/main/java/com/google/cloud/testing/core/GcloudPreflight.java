@@ -0,0 +1,53 @@
+package com.google.cloud.testing.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Result of the checks run before a suite: is gcloud installed and
+ * authenticated, its version and current project.
+ * <p>
+ * The checks cost four gcloud calls, so the result is kept per gcloud
+ * executable and configuration directory for the life of the JVM; a warm
+ * daemon running many suites pays for them once.
+ */
+public record GcloudPreflight(boolean available, boolean authenticated, String version, String project) {
+
+    private static final Logger logger = LoggerFactory.getLogger(GcloudPreflight.class);
+    private static final Map<String, GcloudPreflight> results = new ConcurrentHashMap<>();
+
+    /**
+     * Checks for the executor's gcloud, run on the first call only; a failed
+     * check is not kept, so it runs again once gcloud is fixed
+     */
+    public static GcloudPreflight of(CommandExecutor executor) {
+        // Tenants share the executable but not the account and project
+        String key = executor.getExecutablePath() + "|"
+                + executor.getTemplate().getEnvironment().getOrDefault("CLOUDSDK_CONFIG", "");
+        GcloudPreflight preflight = results.computeIfAbsent(key, k -> check(executor));
+        if (!preflight.available() || !preflight.authenticated()) {
+            results.remove(key, preflight);
+        }
+        return preflight;
+    }
+
+    private static GcloudPreflight check(CommandExecutor executor) {
+        if (!executor.isGcloudAvailable()) {
+            return new GcloudPreflight(false, false, "unknown", null);
+        }
+        GcloudPreflight preflight = new GcloudPreflight(true, executor.isAuthenticated(),
+                executor.getGcloudVersion(), executor.getCurrentProject());
+        logger.debug("Preflight of {}: {}", executor.getExecutablePath(), preflight);
+        return preflight;
+    }
+
+    /**
+     * Forget the results, e.g. after logging in to gcloud
+     */
+    public static void reset() {
+        results.clear();
+    }
+}
@@ -0,0 +1,143 @@
+package com.google.cloud.testing.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.utils.ThreadFactories;
+
+/**
+ * Executors of the tenants whose suites run in this JVM, one per
+ * {@link GcloudContext}.
+ * <p>
+ * Opening them prepares every tenant's configuration directory and, when
+ * asked, warms the tenants up in parallel: one access token per tenant,
+ * impersonating its account, fills gcloud's token cache in that directory
+ * so that the first real call does not pay for a token refresh.
+ */
+public final class GcloudTenants {
+
+    private static final Logger logger = LoggerFactory.getLogger(GcloudTenants.class);
+    private static final int MAX_WARM_UP_THREADS = 8;
+
+    private final Map<String, CommandExecutor> executors;
+    private final Map<String, Long> warmUpMs = new LinkedHashMap<>();
+
+    private GcloudTenants(Map<String, CommandExecutor> executors) {
+        this.executors = Collections.unmodifiableMap(executors);
+    }
+
+    /**
+     * Tenants of the {@code tenants} configuration section, seeded from the
+     * ambient gcloud configuration when {@code seed_credentials} is set
+     */
+    public static GcloudTenants configured() {
+        TestConfig config = TestConfig.getInstance();
+        TestConfig.TenantSettings settings = config.getTenants();
+        Path root = Path.of(settings.getConfigRoot());
+        List<GcloudContext> contexts = new ArrayList<>();
+        for (TestConfig.Tenant tenant : settings.getContexts()) {
+            String serviceAccount = tenant.getServiceAccount() != null ? tenant.getServiceAccount()
+                    : config.getGcloud().getServiceAccount();
+            contexts.add(GcloudContext.of(root, tenant.getName(), tenant.getProject(), serviceAccount,
+                    tenant.getCredentialFile()));
+        }
+        return open(contexts, CommandTemplate.forExecutable(config.getGcloud().getExecutablePath()),
+                GcloudContext.ambientConfigDir(), settings.isSeedCredentials(), settings.isWarmUp());
+    }
+
+    /**
+     * Prepare the contexts and create their executors
+     *
+     * @param seedConfigDir configuration directory whose credentials are
+     * copied into tenants that have none
+     */
+    public static GcloudTenants open(List<GcloudContext> contexts, CommandTemplate template, Path seedConfigDir,
+            boolean seedCredentials, boolean warmUp) {
+        Map<String, CommandExecutor> executors = new LinkedHashMap<>();
+        for (GcloudContext context : contexts) {
+            if (executors.containsKey(context.name())) {
+                throw new IllegalArgumentException("Duplicate tenant: " + context.name());
+            }
+            try {
+                context.prepare(seedConfigDir, seedCredentials);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot prepare gcloud configuration of tenant " + context.name()
+                        + " in " + context.configDir(), e);
+            }
+            executors.put(context.name(), CommandExecutor.forContext(context, template));
+        }
+        GcloudTenants tenants = new GcloudTenants(executors);
+        if (warmUp && !executors.isEmpty()) {
+            tenants.warmUp();
+        }
+        return tenants;
+    }
+
+    public CommandExecutor executor(String name) {
+        CommandExecutor executor = executors.get(name);
+        if (executor == null) {
+            throw new IllegalArgumentException("Unknown tenant " + name + ", configured: " + executors.keySet());
+        }
+        return executor;
+    }
+
+    public List<GcloudContext> contexts() {
+        return executors.values().stream().map(CommandExecutor::getContext).toList();
+    }
+
+    /**
+     * Duration of each tenant's warm-up in milliseconds; empty when the
+     * tenants were not warmed up
+     */
+    public synchronized Map<String, Long> getWarmUpMs() {
+        return Map.copyOf(warmUpMs);
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(executors.size(), MAX_WARM_UP_THREADS),
+                ThreadFactories.namedThreads("tenant-warmup"));
+        try {
+            CompletableFuture.allOf(executors.values().stream()
+                    .map(executor -> CompletableFuture.runAsync(() -> warmUp(executor), pool))
+                    .toArray(CompletableFuture<?>[]::new)).join();
+        } finally {
+            pool.shutdown();
+        }
+        logger.info("Warmed up {} tenants in {} ms", executors.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void warmUp(CommandExecutor executor) {
+        GcloudContext context = executor.getContext();
+        List<String> args = new ArrayList<>(List.of("auth", "print-access-token"));
+        if (context.serviceAccount() != null) {
+            args.add("--impersonate-service-account=" + context.serviceAccount());
+        }
+        // The token is discarded unread so that it never reaches a log, and the transcript is bypassed
+        // so that it is never recorded
+        CommandResult result = new CommandExecutor(executor.getTemplate(), null, context)
+                .executeGcloudStreaming(stdout -> stdout.transferTo(OutputStream.nullOutputStream()),
+                        args.toArray(String[]::new));
+        if (!result.isSuccess()) {
+            // Not fatal: the tenant's tests fail with the real error on their first call
+            logger.warn("Warm-up of tenant {} failed: {}", context.name(), result.getStderr().trim());
+            return;
+        }
+        synchronized (this) {
+            warmUpMs.put(context.name(), result.getExecutionTimeMs());
+        }
+    }
+}
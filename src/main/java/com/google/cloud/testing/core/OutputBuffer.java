@@ -0,0 +1,100 @@
+package com.google.cloud.testing.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains a process pipe into fixed-size byte chunks borrowed from a shared
+ * pool, then copies them once into an exactly sized array. Nothing is decoded
+ * and no per-line String is built while the process runs; a large listing
+ * costs its own size in bytes instead of a String per line, a StringBuilder
+ * that doubles as it grows (two bytes per char for non-Latin-1 output) and a
+ * final toString() copy.
+ */
+final class OutputBuffer {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Chunks kept for reuse, 4 MiB; more than that is left to the GC
+     */
+    private static final int MAX_POOLED_CHUNKS = 64;
+    private static final ConcurrentLinkedQueue<byte[]> pool = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pooled = new AtomicInteger();
+    private static final byte[] EMPTY = new byte[0];
+
+    private final List<byte[]> chunks = new ArrayList<>();
+    private int lastChunkUsed = CHUNK_SIZE;
+    private long size;
+
+    /**
+     * Read the stream to its end
+     */
+    void drain(InputStream in) throws IOException {
+        while (true) {
+            if (lastChunkUsed == CHUNK_SIZE) {
+                chunks.add(acquire());
+                lastChunkUsed = 0;
+            }
+            int n = in.read(chunks.get(chunks.size() - 1), lastChunkUsed, CHUNK_SIZE - lastChunkUsed);
+            if (n < 0) {
+                return;
+            }
+            lastChunkUsed += n;
+            size += n;
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Copy the drained bytes into one array and hand the chunks back to the
+     * pool; the buffer is empty afterwards
+     */
+    byte[] toByteArray() {
+        if (size > Integer.MAX_VALUE - 8) {
+            release();
+            throw new IllegalStateException("Command output of " + size + " bytes does not fit in an array");
+        }
+        byte[] bytes = size == 0 ? EMPTY : new byte[(int) size];
+        int offset = 0;
+        for (byte[] chunk : chunks) {
+            int length = (int) Math.min(CHUNK_SIZE, size - offset);
+            System.arraycopy(chunk, 0, bytes, offset, length);
+            offset += length;
+        }
+        release();
+        return bytes;
+    }
+
+    /**
+     * Return the chunks to the pool without copying them
+     */
+    void release() {
+        for (byte[] chunk : chunks) {
+            if (pooled.incrementAndGet() <= MAX_POOLED_CHUNKS) {
+                pool.offer(chunk);
+            } else {
+                pooled.decrementAndGet();
+            }
+        }
+        chunks.clear();
+        lastChunkUsed = CHUNK_SIZE;
+        size = 0;
+    }
+
+    private static byte[] acquire() {
+        byte[] chunk = pool.poll();
+        if (chunk == null) {
+            return new byte[CHUNK_SIZE];
+        }
+        pooled.decrementAndGet();
+        return chunk;
+    }
+}
@@ -0,0 +1,133 @@
+package com.google.cloud.testing.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.testing.config.TestConfig.DaemonSettings;
+
+/**
+ * Thin client of the {@link TestDaemon}: sends one request and prints the
+ * events it streams back. It does not load the test configuration; the port
+ * comes from the daemon's state file (-Ddaemon.state_file) or --port.
+ * <pre>
+ * DaemonClient [--port N] run (suite.xml | Class | Class#method)...
+ * DaemonClient [--port N] ping | stop
+ * </pre>
+ * The exit status is that of the test run, or 1 if the daemon failed.
+ */
+public class DaemonClient {
+
+    private final int port;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public DaemonClient(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Client of the daemon whose port is in the state file
+     */
+    public static DaemonClient fromStateFile(Path stateFile) throws IOException {
+        try {
+            return new DaemonClient(Integer.parseInt(Files.readString(stateFile).trim()));
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("No test daemon running: " + stateFile + " not found", e);
+        }
+    }
+
+    /**
+     * Send the request and pass each event to the consumer as it arrives
+     *
+     * @return the last event: "finished" for a run, or the daemon's answer
+     */
+    public DaemonEvent send(DaemonRequest request, Consumer<DaemonEvent> events) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            out.write(mapper.writeValueAsString(request));
+            out.write('\n');
+            out.flush();
+            DaemonEvent last = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                last = mapper.readValue(line, DaemonEvent.class);
+                events.accept(last);
+                if (!last.type().equals(DaemonEvent.STARTED) && !last.type().equals(DaemonEvent.RESULT)) {
+                    break;
+                }
+            }
+            if (last == null || last.type().equals(DaemonEvent.STARTED) || last.type().equals(DaemonEvent.RESULT)) {
+                throw new IOException("Test daemon closed the connection before the run finished");
+            }
+            return last;
+        }
+    }
+
+    /**
+     * Render an event as one line of console output, null for none
+     */
+    static String format(DaemonEvent event) {
+        return switch (event.type()) {
+            case DaemonEvent.STARTED -> null;
+            case DaemonEvent.RESULT -> String.format("%-4s %s (%d ms)%s", event.status(), event.test(),
+                    event.durationMs(), event.message() == null ? "" : System.lineSeparator() + "     "
+                            + event.message());
+            case DaemonEvent.FINISHED -> String.format("%s: %s in %.1f s", event.status(), event.message(),
+                    event.durationMs() / 1000.0);
+            default -> event.type() + (event.message() == null ? "" : ": " + event.message());
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        Integer port = null;
+        if (arguments.size() >= 2 && arguments.get(0).equals("--port")) {
+            port = Integer.parseInt(arguments.get(1));
+            arguments = arguments.subList(2, arguments.size());
+        }
+        if (arguments.isEmpty()) {
+            System.err.println("Usage: DaemonClient [--port N] run (suite.xml | Class | Class#method)... | ping | stop");
+            System.exit(2);
+        }
+        String command = arguments.get(0);
+        DaemonRequest request;
+        if (command.equals(DaemonRequest.RUN)) {
+            List<String> suites = new ArrayList<>();
+            List<String> tests = new ArrayList<>();
+            for (String target : arguments.subList(1, arguments.size())) {
+                (target.endsWith(".xml") ? suites : tests).add(target);
+            }
+            request = DaemonRequest.run(suites, tests);
+        } else {
+            request = DaemonRequest.of(command);
+        }
+
+        long start = System.nanoTime();
+        DaemonClient client = port != null ? new DaemonClient(port)
+                : fromStateFile(Path.of(System.getProperty("daemon.state_file", DaemonSettings.DEFAULT_STATE_FILE)));
+        DaemonEvent last = client.send(request, event -> {
+            String line = format(event);
+            if (line != null) {
+                System.out.println(line);
+            }
+        });
+        if (command.equals(DaemonRequest.RUN)) {
+            System.out.printf("Round trip %.1f s%n", (System.nanoTime() - start) / 1e9);
+        }
+        System.exit(last.exitCode());
+    }
+}
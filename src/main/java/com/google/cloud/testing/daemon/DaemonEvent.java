@@ -0,0 +1,41 @@
+package com.google.cloud.testing.daemon;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line the test daemon streams back while handling a request
+ *
+ * @param type "started" and "result" per test, then "finished" once; "pong",
+ *            "stopping" or "error" for other requests
+ * @param test Class.method of a started or finished test
+ * @param status PASS, FAIL or SKIP
+ * @param durationMs test duration, or the whole run's for "finished"
+ * @param message failure or error message, or the run summary
+ * @param exitCode TestNG exit status of a finished run
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DaemonEvent(String type, String test, String status, long durationMs, String message, int exitCode) {
+
+    public static final String STARTED = "started";
+    public static final String RESULT = "result";
+    public static final String FINISHED = "finished";
+    public static final String PONG = "pong";
+    public static final String STOPPING = "stopping";
+    public static final String ERROR = "error";
+
+    static DaemonEvent started(String test) {
+        return new DaemonEvent(STARTED, test, null, 0, null, 0);
+    }
+
+    static DaemonEvent result(String test, String status, long durationMs, String message) {
+        return new DaemonEvent(RESULT, test, status, durationMs, message, 0);
+    }
+
+    static DaemonEvent finished(int exitCode, long durationMs, String summary) {
+        return new DaemonEvent(FINISHED, null, exitCode == 0 ? "PASS" : "FAIL", durationMs, summary, exitCode);
+    }
+
+    static DaemonEvent of(String type, String message) {
+        return new DaemonEvent(type, null, null, 0, message, type.equals(ERROR) ? 1 : 0);
+    }
+}
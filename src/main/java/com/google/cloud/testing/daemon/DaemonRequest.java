@@ -0,0 +1,32 @@
+package com.google.cloud.testing.daemon;
+
+import java.util.List;
+
+/**
+ * One request to the test daemon, sent as a single JSON line
+ *
+ * @param command "run", "ping" or "stop"
+ * @param suites TestNG suite files to run
+ * @param tests test classes, or single methods as Class#method, to run when
+ *            no suite is given; names without a package are looked up in
+ *            the tests package
+ */
+public record DaemonRequest(String command, List<String> suites, List<String> tests) {
+
+    public static final String RUN = "run";
+    public static final String PING = "ping";
+    public static final String STOP = "stop";
+
+    public DaemonRequest {
+        suites = suites == null ? List.of() : List.copyOf(suites);
+        tests = tests == null ? List.of() : List.copyOf(tests);
+    }
+
+    public static DaemonRequest run(List<String> suites, List<String> tests) {
+        return new DaemonRequest(RUN, suites, tests);
+    }
+
+    public static DaemonRequest of(String command) {
+        return new DaemonRequest(command, List.of(), List.of());
+    }
+}
@@ -0,0 +1,423 @@
+package com.google.cloud.testing.daemon;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.core.CommandExecutor;
+import com.google.cloud.testing.core.GcloudPreflight;
+import com.google.cloud.testing.utils.ThreadFactories;
+
+/**
+ * Long-lived JVM that runs test selections on request, so repeated runs of
+ * a few tests skip JVM startup, class loading and JIT warm-up, TestNG and
+ * Allure initialization, the YAML configuration and the gcloud preflight.
+ * <p>
+ * Listens on the loopback interface and writes its port to the state file.
+ * Each connection sends one {@link DaemonRequest} as a JSON line and gets
+ * {@link DaemonEvent} JSON lines back as tests start and finish. Runs are
+ * serialized, since the suite fixtures and Allure lifecycle are shared.
+ * The configuration is read once; restart the daemon to change it.
+ * <p>
+ * Classes are loaded once too, so a daemon keeps running the bytecode it
+ * started with. It records the newest class file of every class directory
+ * on its class path (target/classes, target/test-classes) when it warms up
+ * and refuses runs once any of them was recompiled: restart it after every
+ * code change. Start it with the test class path, like ShardRunner:
+ * {@code TestDaemon [port]}, then use {@link DaemonClient}.
+ */
+public class TestDaemon implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestDaemon.class);
+    private static final String TESTS_PACKAGE = "com.google.cloud.testing.tests.";
+    private static final Path OUTPUT = Path.of("target", "daemon", "testng");
+
+    private final ServerSocket server;
+    private final Path stateFile;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final ExecutorService connections = Executors
+            .newCachedThreadPool(ThreadFactories.namedThreads("daemon-client"));
+    private final List<String> skippedListeners = new ArrayList<>();
+    private final Map<Path, Long> classesModified = new LinkedHashMap<>();
+    private List<Path> classDirectories = classDirectories();
+    private volatile boolean stopped;
+
+    /**
+     * Bind the daemon; port 0 picks a free one
+     */
+    public TestDaemon(int port, Path stateFile) throws IOException {
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.stateFile = stateFile;
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Leave a listener that TestNG would load through the ServiceLoader out
+     * of every run
+     */
+    TestDaemon skipListener(String listenerClassName) {
+        skippedListeners.add(listenerClassName);
+        return this;
+    }
+
+    /**
+     * Watch these class directories for recompiles instead of those on the
+     * class path
+     */
+    TestDaemon watchClasses(List<Path> directories) {
+        classDirectories = List.copyOf(directories);
+        return this;
+    }
+
+    /**
+     * Load what every run needs, then write the state file
+     */
+    public TestDaemon warmUp() throws IOException {
+        long start = System.nanoTime();
+        for (Path directory : classDirectories) {
+            classesModified.put(directory, newestClassFile(directory));
+        }
+        TestConfig config = TestConfig.getInstance();
+        GcloudPreflight preflight = GcloudPreflight.of(new CommandExecutor(config.getGcloud().getExecutablePath()));
+        new TestNG(false);
+        if (stateFile != null) {
+            Files.createDirectories(stateFile.toAbsolutePath().getParent());
+            Files.writeString(stateFile, String.valueOf(getPort()));
+        }
+        logger.info("Test daemon warmed up in {} ms on port {} (gcloud {}, project {})",
+                (System.nanoTime() - start) / 1_000_000, getPort(), preflight.version(), preflight.project());
+        return this;
+    }
+
+    /**
+     * Accept connections until a stop request or close()
+     */
+    public void serve() {
+        while (!stopped) {
+            try {
+                Socket socket = server.accept();
+                connections.execute(() -> handle(socket));
+            } catch (SocketException e) {
+                if (!stopped) {
+                    logger.warn("Test daemon socket closed: {}", e.getMessage());
+                }
+                return;
+            } catch (IOException e) {
+                logger.warn("Could not accept a connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            String line = in.readLine();
+            if (line == null) {
+                return;
+            }
+            EventSink sink = event -> send(out, event);
+            DaemonRequest request;
+            try {
+                request = mapper.readValue(line, DaemonRequest.class);
+            } catch (IOException e) {
+                sink.accept(DaemonEvent.of(DaemonEvent.ERROR, "Malformed request: " + e.getMessage()));
+                return;
+            }
+            switch (String.valueOf(request.command())) {
+                case DaemonRequest.PING -> sink.accept(DaemonEvent.of(DaemonEvent.PONG, "port " + getPort()));
+                case DaemonRequest.STOP -> {
+                    sink.accept(DaemonEvent.of(DaemonEvent.STOPPING, "after the current run"));
+                    runLock.lock();
+                    try {
+                        close();
+                    } finally {
+                        runLock.unlock();
+                    }
+                }
+                case DaemonRequest.RUN -> run(request, sink);
+                default -> sink.accept(DaemonEvent.of(DaemonEvent.ERROR, "Unknown command: " + request.command()));
+            }
+        } catch (IOException e) {
+            logger.warn("Test daemon connection failed: {}", e.getMessage());
+        }
+    }
+
+    private void send(PrintWriter out, DaemonEvent event) {
+        try {
+            // A client that went away does not stop the run; PrintWriter drops the output
+            out.println(mapper.writeValueAsString(event));
+        } catch (IOException e) {
+            logger.warn("Could not encode {}: {}", event, e.getMessage());
+        }
+    }
+
+    /**
+     * Run a selection and stream its results; waits for a run in progress
+     */
+    void run(DaemonRequest request, EventSink sink) {
+        if (request.suites().isEmpty() && request.tests().isEmpty()) {
+            sink.accept(DaemonEvent.of(DaemonEvent.ERROR, "Nothing to run: give suites or tests"));
+            return;
+        }
+        runLock.lock();
+        try {
+            if (stopped) {
+                sink.accept(DaemonEvent.of(DaemonEvent.ERROR, "Test daemon is stopping"));
+                return;
+            }
+            String stale = staleClasses();
+            if (stale != null) {
+                sink.accept(DaemonEvent.of(DaemonEvent.ERROR, stale));
+                return;
+            }
+            long start = System.nanoTime();
+            StreamingListener listener = new StreamingListener(sink);
+            TestNG testng = new TestNG(false);
+            testng.setOutputDirectory(OUTPUT.toString());
+            testng.setVerbose(0);
+            if (!skippedListeners.isEmpty()) {
+                testng.setListenersToSkipFromBeingWiredInViaServiceLoaders(skippedListeners.toArray(String[]::new));
+            }
+            if (request.suites().isEmpty()) {
+                testng.setXmlSuites(List.of(suiteOf(request.tests())));
+            } else {
+                testng.setTestSuites(request.suites());
+            }
+            testng.addListener(listener);
+            testng.run();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            logger.info("Daemon run of {} finished in {} ms: {}", request.suites().isEmpty() ? request.tests()
+                    : request.suites(), elapsedMs, listener.summary());
+            sink.accept(DaemonEvent.finished(testng.getStatus(), elapsedMs, listener.summary()));
+        } catch (RuntimeException e) {
+            logger.warn("Daemon run failed", e);
+            sink.accept(DaemonEvent.of(DaemonEvent.ERROR, "Run failed: " + e));
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * Why the loaded classes are out of date, or null if no class directory
+     * changed since warm-up
+     */
+    String staleClasses() {
+        for (Map.Entry<Path, Long> entry : classesModified.entrySet()) {
+            try {
+                if (newestClassFile(entry.getKey()) > entry.getValue()) {
+                    return "Classes in " + entry.getKey() + " were recompiled after the daemon started and it "
+                            + "still runs the old ones; restart the daemon";
+                }
+            } catch (IOException e) {
+                return "Cannot check " + entry.getKey() + " for recompiled classes: " + e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    private static List<Path> classDirectories() {
+        List<Path> directories = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path path = Path.of(entry);
+            if (!entry.isEmpty() && Files.isDirectory(path)) {
+                directories.add(path);
+            }
+        }
+        return directories;
+    }
+
+    /**
+     * Modification time of the most recently written class file, 0 if there
+     * is none
+     */
+    private static long newestClassFile(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.toString().endsWith(".class")).mapToLong(file -> {
+                try {
+                    return Files.getLastModifiedTime(file).toMillis();
+                } catch (IOException e) {
+                    // Deleted by a recompile while walking
+                    return Long.MAX_VALUE;
+                }
+            }).max().orElse(0);
+        }
+    }
+
+    /**
+     * One suite with one test block holding the selected classes and methods
+     */
+    static XmlSuite suiteOf(List<String> tests) {
+        Map<String, List<String>> methodsByClass = new LinkedHashMap<>();
+        for (String test : tests) {
+            int hash = test.indexOf('#');
+            String className = hash < 0 ? test : test.substring(0, hash);
+            if (!className.contains(".")) {
+                className = TESTS_PACKAGE + className;
+            }
+            List<String> methods = methodsByClass.computeIfAbsent(className, name -> new ArrayList<>());
+            if (hash >= 0) {
+                methods.add(test.substring(hash + 1));
+            }
+        }
+        XmlSuite suite = new XmlSuite();
+        suite.setName("DaemonRun");
+        XmlTest xmlTest = new XmlTest(suite);
+        xmlTest.setName("Selection");
+        List<XmlClass> classes = new ArrayList<>();
+        methodsByClass.forEach((className, methods) -> {
+            XmlClass xmlClass = new XmlClass(className, false);
+            // A class listed alone runs whole, even if a method of it is also listed
+            if (!methods.isEmpty() && !tests.contains(className) && !tests.contains(simpleName(className))) {
+                xmlClass.setIncludedMethods(methods.stream().map(XmlInclude::new).toList());
+            }
+            classes.add(xmlClass);
+        });
+        xmlTest.setXmlClasses(classes);
+        return suite;
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    @Override
+    public void close() {
+        stopped = true;
+        try {
+            server.close();
+        } catch (IOException e) {
+            logger.warn("Could not close the daemon socket: {}", e.getMessage());
+        }
+        connections.shutdown();
+        if (stateFile != null) {
+            try {
+                Files.deleteIfExists(stateFile);
+            } catch (IOException e) {
+                logger.warn("Could not delete {}: {}", stateFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Receives the events of one request
+     */
+    @FunctionalInterface
+    interface EventSink {
+        void accept(DaemonEvent event);
+    }
+
+    /**
+     * Turns TestNG callbacks into events and counts outcomes
+     */
+    private static final class StreamingListener implements ITestListener {
+
+        private final EventSink sink;
+        private final AtomicInteger passed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+
+        StreamingListener(EventSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void onTestStart(ITestResult result) {
+            sink.accept(DaemonEvent.started(name(result)));
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            passed.incrementAndGet();
+            finished(result, "PASS");
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            failed.incrementAndGet();
+            finished(result, "FAIL");
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            skipped.incrementAndGet();
+            finished(result, "SKIP");
+        }
+
+        @Override
+        public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+            onTestSuccess(result);
+        }
+
+        private void finished(ITestResult result, String status) {
+            Throwable error = result.getThrowable();
+            sink.accept(DaemonEvent.result(name(result), status,
+                    Math.max(0, result.getEndMillis() - result.getStartMillis()),
+                    error == null ? null : error.toString()));
+        }
+
+        private static String name(ITestResult result) {
+            return result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        }
+
+        String summary() {
+            return String.format("%d passed, %d failed, %d skipped", passed.get(), failed.get(), skipped.get());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Where surefire puts them, instead of Allure's default under the working directory
+        if (System.getProperty("allure.results.directory") == null) {
+            System.setProperty("allure.results.directory", Path.of("target", "allure-results").toString());
+        }
+        TestConfig.DaemonSettings settings = TestConfig.getInstance().getDaemon();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : settings.getPort();
+        try (TestDaemon daemon = new TestDaemon(port, Path.of(settings.getStateFile()))) {
+            Runtime.getRuntime().addShutdownHook(new Thread(daemon::close, "daemon-shutdown"));
+            daemon.warmUp();
+            System.out.printf("Test daemon listening on 127.0.0.1:%d (port in %s)%n", daemon.getPort(),
+                    settings.getStateFile());
+            daemon.serve();
+        }
+    }
+}
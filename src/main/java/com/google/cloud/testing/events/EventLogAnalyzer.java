@@ -0,0 +1,228 @@
+package com.google.cloud.testing.events;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Turns an execution event log into per-test and per-command timelines.
+ * <p>
+ * A command belongs to the test or configuration method running on the same
+ * thread when it started. Commands started on other threads (fixture or load
+ * pools) are attributed to the only test running at that moment, or reported
+ * as unattributed when several were running.
+ */
+public final class EventLogAnalyzer {
+
+    static final String UNATTRIBUTED = "(unattributed)";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private EventLogAnalyzer() {
+    }
+
+    /**
+     * Print the timelines of an event log
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: EventLogAnalyzer <execution-events.jsonl>");
+            System.exit(2);
+        }
+        System.out.print(analyze(Path.of(args[0])).format());
+    }
+
+    public static Analysis analyze(Path eventLog) throws IOException {
+        List<JsonNode> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(eventLog, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    events.add(MAPPER.readTree(line));
+                }
+            }
+        }
+        // Each thread's events are in order already; the sort only interleaves threads
+        events.sort(Comparator.comparingLong(event -> event.path("ts").asLong()));
+
+        long origin = events.isEmpty() ? 0 : events.get(0).path("ts").asLong();
+        long end = events.isEmpty() ? 0 : events.get(events.size() - 1).path("ts").asLong();
+        Map<String, String> runningByThread = new HashMap<>();
+        Map<String, TestBuilder> running = new LinkedHashMap<>();
+        List<TestTimeline> tests = new ArrayList<>();
+        Map<Long, PendingCommand> pending = new HashMap<>();
+        Map<String, TestBuilder> unattributed = new LinkedHashMap<>();
+
+        for (JsonNode event : events) {
+            long ts = event.path("ts").asLong();
+            String thread = event.path("thread").asText();
+            switch (ExecutionEvent.Type.fromKey(event.path("type").asText())) {
+                case TEST_START -> {
+                    String name = event.path("name").asText();
+                    runningByThread.put(thread, name);
+                    running.put(name + "@" + thread, new TestBuilder(name, thread, ts - origin));
+                }
+                case TEST_END -> {
+                    String name = event.path("name").asText();
+                    runningByThread.remove(thread);
+                    TestBuilder test = running.remove(name + "@" + thread);
+                    if (test != null) {
+                        tests.add(test.build(ts - origin, event.path("status").asText()));
+                    }
+                }
+                case COMMAND_START -> {
+                    String owner = runningByThread.get(thread);
+                    TestBuilder test = owner != null ? running.get(owner + "@" + thread)
+                            : running.size() == 1 ? running.values().iterator().next() : null;
+                    if (test == null) {
+                        test = unattributed.computeIfAbsent(UNATTRIBUTED,
+                                name -> new TestBuilder(name, "-", 0));
+                    }
+                    pending.put(event.path("id").asLong(),
+                            new PendingCommand(event.path("command").asText(), thread, ts - origin, test));
+                }
+                case COMMAND_END -> {
+                    PendingCommand command = pending.remove(event.path("id").asLong());
+                    if (command != null) {
+                        command.test().commands.add(new CommandSpan(command.command(), commandKey(command.command()),
+                                command.thread(), command.startMicros(), ts - origin - command.startMicros(),
+                                event.path("exit").asInt(), event.path("stdout_bytes").asLong(),
+                                event.path("stderr_bytes").asLong()));
+                    }
+                }
+            }
+        }
+        for (TestBuilder test : running.values()) {
+            tests.add(test.build(end - origin, "RUNNING"));
+        }
+        for (TestBuilder test : unattributed.values()) {
+            tests.add(test.build(end - origin, "-"));
+        }
+        tests.sort(Comparator.comparingLong(TestTimeline::startMicros));
+        return new Analysis(end - origin, tests, summarize(tests));
+    }
+
+    /**
+     * Command name without operands, e.g. "gcloud storage buckets describe"
+     */
+    public static String commandKey(String commandLine) {
+        String[] tokens = commandLine.split(" ");
+        StringBuilder key = new StringBuilder(Path.of(tokens[0]).getFileName().toString());
+        for (int i = 1; i < tokens.length && i <= 3; i++) {
+            if (!tokens[i].matches("[a-z][a-z-]*")) {
+                break;
+            }
+            key.append(' ').append(tokens[i]);
+        }
+        return key.toString();
+    }
+
+    private static List<CommandSummary> summarize(List<TestTimeline> tests) {
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        for (TestTimeline test : tests) {
+            for (CommandSpan span : test.commands()) {
+                long[] total = totals.computeIfAbsent(span.key(), key -> new long[5]);
+                total[0]++;
+                total[1] += span.durationMicros();
+                total[2] = Math.max(total[2], span.durationMicros());
+                total[3] += span.stdoutBytes();
+                total[4] += span.exitCode() == 0 ? 0 : 1;
+            }
+        }
+        List<CommandSummary> summaries = new ArrayList<>();
+        totals.forEach((key, total) -> summaries.add(new CommandSummary(key, total[0], total[1], total[2], total[3],
+                total[4])));
+        summaries.sort(Comparator.comparingLong(CommandSummary::totalMicros).reversed());
+        return summaries;
+    }
+
+    private static final class TestBuilder {
+
+        private final String name;
+        private final String thread;
+        private final long startMicros;
+        private final List<CommandSpan> commands = new ArrayList<>();
+
+        TestBuilder(String name, String thread, long startMicros) {
+            this.name = name;
+            this.thread = thread;
+            this.startMicros = startMicros;
+        }
+
+        TestTimeline build(long endMicros, String status) {
+            return new TestTimeline(name, thread, status, startMicros, endMicros - startMicros, List.copyOf(commands));
+        }
+    }
+
+    private record PendingCommand(String command, String thread, long startMicros, TestBuilder test) {
+
+    }
+
+    /**
+     * One command run, times relative to the first event of the log
+     */
+    public record CommandSpan(String command, String key, String thread, long startMicros, long durationMicros,
+            int exitCode, long stdoutBytes, long stderrBytes) {
+
+    }
+
+    /**
+     * A test or configuration method and the commands it ran
+     */
+    public record TestTimeline(String name, String thread, String status, long startMicros, long durationMicros,
+            List<CommandSpan> commands) {
+
+        public long commandMicros() {
+            return commands.stream().mapToLong(CommandSpan::durationMicros).sum();
+        }
+    }
+
+    /**
+     * All runs of one command across the log
+     */
+    public record CommandSummary(String key, long count, long totalMicros, long maxMicros, long stdoutBytes,
+            long failures) {
+
+        public double meanMillis() {
+            return count == 0 ? 0 : totalMicros / 1000.0 / count;
+        }
+    }
+
+    public record Analysis(long wallMicros, List<TestTimeline> tests, List<CommandSummary> commands) {
+
+        public String format() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("Suite wall time: %.1f ms%n%n", wallMicros / 1000.0));
+            out.append(String.format("%-60s %10s %10s %10s %6s  %s%n", "test", "start ms", "ms", "cmd ms", "cmds",
+                    "status"));
+            for (TestTimeline test : tests) {
+                out.append(String.format("%-60s %10.1f %10.1f %10.1f %6d  %s%n", test.name(),
+                        test.startMicros() / 1000.0, test.durationMicros() / 1000.0, test.commandMicros() / 1000.0,
+                        test.commands().size(), test.status()));
+                for (CommandSpan span : test.commands()) {
+                    out.append(String.format("    +%9.1f %9.1f ms  exit=%d  %s%n",
+                            (span.startMicros() - test.startMicros()) / 1000.0, span.durationMicros() / 1000.0,
+                            span.exitCode(), span.key()));
+                }
+            }
+            out.append(String.format("%n%-40s %6s %12s %10s %10s %12s %6s%n", "command", "count", "total ms",
+                    "mean ms", "max ms", "stdout B", "fail"));
+            for (CommandSummary command : commands) {
+                out.append(String.format("%-40s %6d %12.1f %10.1f %10.1f %12d %6d%n", command.key(), command.count(),
+                        command.totalMicros() / 1000.0, command.meanMillis(), command.maxMicros() / 1000.0,
+                        command.stdoutBytes(), command.failures()));
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.google.cloud.testing.events;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IConfigurationListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.core.CommandExecutor;
+
+/**
+ * Writes the execution event log of a suite when {@code events.enabled} is
+ * set, and a timeline report next to it when the suite finishes.
+ * <p>
+ * Register it in the suite file next to the Allure listener. Configuration
+ * methods are logged like tests, with a "[config]" suffix, so that commands
+ * run from setup and teardown are attributed as well.
+ */
+public class EventLogTestListener implements ISuiteListener, ITestListener, IConfigurationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLogTestListener.class);
+
+    private volatile ExecutionEventLog log;
+
+    @Override
+    public void onStart(ISuite suite) {
+        TestConfig.EventLogSettings settings = TestConfig.getInstance().getEvents();
+        if (!settings.isEnabled() || log != null) {
+            return;
+        }
+        try {
+            log = ExecutionEventLog.open(Path.of(settings.getPath()), settings.getBufferSize());
+            CommandExecutor.addListener(log);
+            logger.info("Writing execution events to {}", log.getFile());
+        } catch (IOException e) {
+            logger.warn("Execution event log disabled, cannot open {}: {}", settings.getPath(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ExecutionEventLog current = log;
+        if (current == null) {
+            return;
+        }
+        log = null;
+        CommandExecutor.removeListener(current);
+        try {
+            current.close();
+            EventLogAnalyzer.Analysis analysis = EventLogAnalyzer.analyze(current.getFile());
+            Path timeline = current.getFile().resolveSibling("timeline.txt");
+            Files.writeString(timeline, analysis.format(), StandardCharsets.UTF_8);
+            logger.info("Execution timeline of {} tests written to {}", analysis.tests().size(), timeline);
+        } catch (IOException e) {
+            logger.warn("Could not write execution timeline: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        ExecutionEventLog current = log;
+        if (current != null) {
+            current.testStarted(name(result.getMethod(), false));
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        testFinished(result, "PASSED", false);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        testFinished(result, "FAILED", false);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        testFinished(result, "SKIPPED", false);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        testFinished(result, "FAILED", false);
+    }
+
+    @Override
+    public void beforeConfiguration(ITestResult result) {
+        ExecutionEventLog current = log;
+        if (current != null) {
+            current.testStarted(name(result.getMethod(), true));
+        }
+    }
+
+    @Override
+    public void onConfigurationSuccess(ITestResult result) {
+        testFinished(result, "PASSED", true);
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result) {
+        testFinished(result, "FAILED", true);
+    }
+
+    @Override
+    public void onConfigurationSkip(ITestResult result) {
+        testFinished(result, "SKIPPED", true);
+    }
+
+    private void testFinished(ITestResult result, String status, boolean configuration) {
+        ExecutionEventLog current = log;
+        if (current != null) {
+            current.testFinished(name(result.getMethod(), configuration), status);
+        }
+    }
+
+    private static String name(ITestNGMethod method, boolean configuration) {
+        String name = method.getRealClass().getSimpleName() + "." + method.getMethodName();
+        return configuration ? name + " [config]" : name;
+    }
+}
@@ -0,0 +1,39 @@
+package com.google.cloud.testing.events;
+
+/**
+ * One entry of the execution event log. Fields that do not apply to an
+ * event type are null or zero.
+ *
+ * @param timestampMicros wall-clock time in microseconds since the epoch
+ * @param name test or configuration method name for test events
+ * @param command command line of a command start, joined when written
+ */
+public record ExecutionEvent(Type type, long timestampMicros, String thread, long commandId, String[] command,
+        String name, String status, int exitCode, long stdoutBytes, long stderrBytes) {
+
+    public enum Type {
+        TEST_START("test_start"),
+        TEST_END("test_end"),
+        COMMAND_START("command_start"),
+        COMMAND_END("command_end");
+
+        private final String key;
+
+        Type(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Type fromKey(String key) {
+            for (Type type : values()) {
+                if (type.key.equals(key)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown event type: " + key);
+        }
+    }
+}
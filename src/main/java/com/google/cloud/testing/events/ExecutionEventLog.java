@@ -0,0 +1,190 @@
+package com.google.cloud.testing.events;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.google.cloud.testing.core.CommandListener;
+import com.google.cloud.testing.core.CommandResult;
+
+/**
+ * JSON-lines log of test and command start/end events.
+ * <p>
+ * Producers only put events into a bounded ring buffer; a single daemon
+ * thread formats and writes them, so test threads never wait for disk. When
+ * the buffer is full the event is dropped and counted instead of blocking.
+ * Command lines are joined into strings on the writer thread as well.
+ */
+public class ExecutionEventLog implements CommandListener, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionEventLog.class);
+    // Generators hand their output to the buffered writer without flushing it to disk
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)
+            .build();
+    private static final int BATCH_SIZE = 256;
+
+    private final Path file;
+    private final BlockingQueue<ExecutionEvent> ring;
+    private final AtomicLong dropped = new AtomicLong();
+    private final long originEpochMicros = System.currentTimeMillis() * 1000;
+    private final long originNanos = System.nanoTime();
+    private final Thread writer;
+    private final BufferedWriter out;
+    private volatile boolean closed;
+
+    private ExecutionEventLog(Path file, int capacity) throws IOException {
+        this.file = file;
+        this.ring = new ArrayBlockingQueue<>(capacity);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        this.writer = new Thread(this::drain, "event-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Start a log writing to the file, replacing it
+     *
+     * @param capacity events buffered before new ones are dropped
+     */
+    public static ExecutionEventLog open(Path file, int capacity) throws IOException {
+        return new ExecutionEventLog(file, capacity);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Events dropped because the buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public void testStarted(String name) {
+        emit(new ExecutionEvent(ExecutionEvent.Type.TEST_START, now(), Thread.currentThread().getName(), 0, null,
+                name, null, 0, 0, 0));
+    }
+
+    public void testFinished(String name, String status) {
+        emit(new ExecutionEvent(ExecutionEvent.Type.TEST_END, now(), Thread.currentThread().getName(), 0, null,
+                name, status, 0, 0, 0));
+    }
+
+    @Override
+    public void commandStarted(long commandId, String[] command) {
+        emit(new ExecutionEvent(ExecutionEvent.Type.COMMAND_START, now(), Thread.currentThread().getName(),
+                commandId, command, null, null, 0, 0, 0));
+    }
+
+    @Override
+    public void commandFinished(long commandId, String[] command, CommandResult result, long stdoutBytes,
+            long stderrBytes) {
+        emit(new ExecutionEvent(ExecutionEvent.Type.COMMAND_END, now(), Thread.currentThread().getName(),
+                commandId, null, null, null, result.getExitCode(), stdoutBytes, stderrBytes));
+    }
+
+    /**
+     * Write the remaining events and close the file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+        if (dropped.get() > 0) {
+            logger.warn("Execution event log dropped {} events; increase events.buffer_size", dropped.get());
+        }
+    }
+
+    private void emit(ExecutionEvent event) {
+        if (closed || !ring.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private long now() {
+        return originEpochMicros + (System.nanoTime() - originNanos) / 1000;
+    }
+
+    private void drain() {
+        List<ExecutionEvent> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                ExecutionEvent first = ring.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    out.flush();
+                    if (closed && ring.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                ring.drainTo(batch, BATCH_SIZE - 1);
+                for (ExecutionEvent event : batch) {
+                    write(event);
+                }
+                batch.clear();
+            }
+        } catch (IOException e) {
+            logger.error("Execution event log {} failed, no further events are written: {}", file, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(ExecutionEvent event) throws IOException {
+        JsonGenerator json = JSON_FACTORY.createGenerator(out);
+        json.writeStartObject();
+        json.writeStringField("type", event.type().getKey());
+        json.writeNumberField("ts", event.timestampMicros());
+        json.writeStringField("thread", event.thread());
+        switch (event.type()) {
+            case TEST_START -> json.writeStringField("name", event.name());
+            case TEST_END -> {
+                json.writeStringField("name", event.name());
+                json.writeStringField("status", event.status());
+            }
+            case COMMAND_START -> {
+                json.writeNumberField("id", event.commandId());
+                json.writeStringField("command", String.join(" ", event.command()));
+            }
+            case COMMAND_END -> {
+                json.writeNumberField("id", event.commandId());
+                json.writeNumberField("exit", event.exitCode());
+                json.writeNumberField("stdout_bytes", event.stdoutBytes());
+                json.writeNumberField("stderr_bytes", event.stderrBytes());
+            }
+        }
+        json.writeEndObject();
+        json.close();
+        out.write('\n');
+    }
+}
@@ -0,0 +1,62 @@
+package com.google.cloud.testing.history;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.cloud.testing.config.TestConfig;
+
+/**
+ * Robust baseline of recorded durations: the median and the median absolute
+ * deviation, which a few outlier runs cannot drag the way they drag a mean
+ * and a standard deviation
+ */
+public record LatencyBaseline(int samples, double medianMs, double madMs) {
+
+    /**
+     * Scales the MAD to the standard deviation of normally distributed
+     * durations
+     */
+    private static final double MAD_SCALE = 1.4826;
+
+    /**
+     * Floor of the MAD, so that identical recorded durations do not turn
+     * every millisecond of jitter into a huge score
+     */
+    private static final double MIN_MAD_MS = 1.0;
+
+    public static LatencyBaseline of(List<Long> durationsMs) {
+        if (durationsMs.isEmpty()) {
+            return new LatencyBaseline(0, 0, 0);
+        }
+        double[] values = durationsMs.stream().mapToDouble(Long::doubleValue).toArray();
+        double median = median(values);
+        double[] deviations = Arrays.stream(values).map(value -> Math.abs(value - median)).toArray();
+        return new LatencyBaseline(values.length, median, median(deviations));
+    }
+
+    /**
+     * Robust z-score of a duration: its distance above the median in scaled
+     * MADs
+     */
+    public double score(long durationMs) {
+        return (durationMs - medianMs) / (MAD_SCALE * Math.max(madMs, MIN_MAD_MS));
+    }
+
+    /**
+     * Whether a duration is slower than this baseline by more than the
+     * configured score, relative slowdown and absolute slowdown, all three
+     */
+    public boolean isRegression(long durationMs, TestConfig.HistorySettings settings) {
+        return samples >= settings.getMinSamples()
+                && score(durationMs) > settings.getThreshold()
+                && durationMs - medianMs >= settings.getMinDeltaMs()
+                && durationMs >= medianMs * (1 + settings.getMinSlowdown());
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
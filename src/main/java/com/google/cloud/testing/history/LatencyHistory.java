@@ -0,0 +1,208 @@
+package com.google.cloud.testing.history;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Latency history of tests and gcloud commands over the most recent runs,
+ * kept in one tab-separated file so that CI can carry it between runs:
+ * <pre>
+ * test     BucketsListCommandTest.testListBuckets   PPPFP   812,790,805,799
+ * command  gcloud storage ls                        PPPPP   402,398,415,401,407
+ * </pre>
+ * Each line holds the outcome of every run (P passed, F failed, S skipped)
+ * and the duration in milliseconds of every successful one, oldest first.
+ * <p>
+ * Concurrent shards never write the same file: shard N saves only the runs
+ * it recorded to "latency-history.shard-N.tsv" next to the shared file, and
+ * loading appends the runs of every shard file to the shared history.
+ */
+public final class LatencyHistory {
+
+    public static final String TEST = "test";
+    public static final String COMMAND = "command";
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyHistory.class);
+    private static final String HEADER = "# kind\tname\toutcomes\tdurations-ms";
+
+    private final Map<String, Series> series = new TreeMap<>();
+
+    /**
+     * History in a file; empty when the file does not exist yet or cannot be
+     * read
+     */
+    public static LatencyHistory load(Path file) {
+        LatencyHistory history = new LatencyHistory();
+        if (!Files.isRegularFile(file)) {
+            return history;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 4) {
+                    logger.warn("Ignoring malformed latency history line in {}: {}", file, line);
+                    continue;
+                }
+                List<Long> durations = new ArrayList<>();
+                for (String duration : fields[3].split(",")) {
+                    if (!duration.isEmpty()) {
+                        durations.add(Long.parseLong(duration));
+                    }
+                }
+                history.series.put(key(fields[0], fields[1]), new Series(fields[2], List.copyOf(durations)));
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Ignoring unreadable latency history {}: {}", file, e.getMessage());
+            return new LatencyHistory();
+        }
+        return history;
+    }
+
+    /**
+     * History in a shared file with the runs of its shard files appended, in
+     * shard file name order so that every load gives the same result
+     *
+     * @param window runs kept per test or command
+     */
+    public static LatencyHistory loadWithShards(Path file, int window) {
+        LatencyHistory merged = load(file);
+        for (Path shard : shardFiles(file)) {
+            load(shard).series.forEach((key, runs) -> merged.series.merge(key, runs,
+                    (earlier, later) -> earlier.append(later, window)));
+        }
+        return merged;
+    }
+
+    /**
+     * File shard N of the shared history file saves to
+     */
+    public static Path shardFile(Path file, int shardIndex) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String shardName = dot > 0 ? name.substring(0, dot) + ".shard-" + shardIndex + name.substring(dot)
+                : name + ".shard-" + shardIndex;
+        return file.resolveSibling(shardName);
+    }
+
+    /**
+     * Existing shard files of the shared history file, sorted by name
+     */
+    public static List<Path> shardFiles(Path file) {
+        List<Path> files = new ArrayList<>();
+        Path directory = file.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String glob = dot > 0 ? name.substring(0, dot) + ".shard-*" + name.substring(dot) : name + ".shard-*";
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            stream.forEach(shard -> files.add(file.resolveSibling(shard.getFileName())));
+        } catch (IOException e) {
+            logger.warn("Cannot list latency history shards of {}: {}", file, e.getMessage());
+        }
+        files.sort(Comparator.comparing(Path::toString));
+        return files;
+    }
+
+    /**
+     * Recorded runs of a test or command; empty when it never ran
+     *
+     * @param kind {@link #TEST} or {@link #COMMAND}
+     */
+    public Series get(String kind, String name) {
+        return series.getOrDefault(key(kind, name), Series.EMPTY);
+    }
+
+    /**
+     * Append one run, dropping runs older than the window
+     *
+     * @param outcome 'P', 'F' or 'S'
+     * @param durationMs duration of a successful run, or -1 to record only
+     * the outcome
+     */
+    public void record(String kind, String name, char outcome, long durationMs, int window) {
+        if (kind.contains("\t") || name.contains("\t") || name.contains("\n")) {
+            throw new IllegalArgumentException("Latency history names cannot contain tabs or line breaks: " + name);
+        }
+        series.put(key(kind, name), get(kind, name).append(outcome, durationMs, window));
+    }
+
+    public int size() {
+        return series.size();
+    }
+
+    /**
+     * Write the history, replacing the file atomically so that an interrupted
+     * run never leaves it truncated
+     */
+    public void save(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        StringBuilder text = new StringBuilder(HEADER).append('\n');
+        series.forEach((key, runs) -> {
+            text.append(key).append('\t').append(runs.outcomes()).append('\t');
+            for (int i = 0; i < runs.durationsMs().size(); i++) {
+                text.append(i == 0 ? "" : ",").append(runs.durationsMs().get(i));
+            }
+            text.append('\n');
+        });
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        Files.writeString(temp, text, StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String key(String kind, String name) {
+        return kind + "\t" + name;
+    }
+
+    /**
+     * Outcomes and successful durations of the recorded runs, oldest first
+     */
+    public record Series(String outcomes, List<Long> durationsMs) {
+
+        static final Series EMPTY = new Series("", List.of());
+
+        /**
+         * Both passed and failed within the window
+         */
+        public boolean isFlaky() {
+            return outcomes.indexOf('P') >= 0 && outcomes.indexOf('F') >= 0;
+        }
+
+        public LatencyBaseline baseline() {
+            return LatencyBaseline.of(durationsMs);
+        }
+
+        Series append(char outcome, long durationMs, int window) {
+            return append(new Series(String.valueOf(outcome), durationMs >= 0 ? List.of(durationMs) : List.of()),
+                    window);
+        }
+
+        /**
+         * These runs followed by later ones, keeping the most recent
+         */
+        Series append(Series later, int window) {
+            String appended = outcomes + later.outcomes;
+            List<Long> durations = new ArrayList<>(durationsMs);
+            durations.addAll(later.durationsMs);
+            return new Series(appended.substring(Math.max(0, appended.length() - window)),
+                    List.copyOf(durations.subList(Math.max(0, durations.size() - window), durations.size())));
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.google.cloud.testing.history;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.core.CommandExecutor;
+import com.google.cloud.testing.core.CommandListener;
+import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.events.EventLogAnalyzer;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.ResultsUtils;
+
+/**
+ * Compares the durations of passing tests and of gcloud commands with their
+ * {@link LatencyHistory} when {@code history.enabled} is set, then appends
+ * this run to the history.
+ * <p>
+ * A passing test slower than its {@link LatencyBaseline} is tagged
+ * "slow-regression" in the Allure report with its baseline attached, a test
+ * that both passed and failed within the window is tagged "flaky". Commands
+ * are compared by their median duration in this run; regressed commands are
+ * reported in one extra Allure result. Register it in the suite file next to
+ * the Allure listener.
+ * <p>
+ * A shard ({@code shard.index}) appends only its own runs to its own file
+ * next to {@code history.file} and writes its own regression report; an
+ * unsharded run folds the shard files back into {@code history.file}.
+ */
+public class LatencyRegressionListener implements ISuiteListener, IInvokedMethodListener, CommandListener {
+
+    public static final String SLOW_TAG = "slow-regression";
+    public static final String FLAKY_TAG = "flaky";
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyRegressionListener.class);
+
+    private final Map<String, Runs> tests = new ConcurrentHashMap<>();
+    private final Map<String, Runs> commands = new ConcurrentHashMap<>();
+    private final List<Regression> regressions = new CopyOnWriteArrayList<>();
+    private volatile LatencyHistory history;
+    private TestConfig.HistorySettings settings;
+    private Path file;
+    private Path sharedFile;
+    private String reportName;
+
+    @Override
+    public void onStart(ISuite suite) {
+        TestConfig.HistorySettings configured = TestConfig.getInstance().getHistory();
+        if (!configured.isEnabled() || history != null) {
+            return;
+        }
+        settings = configured;
+        TestConfig.ShardSettings shard = TestConfig.getInstance().getShard();
+        int shardIndex = shard.isSharded() ? shard.getIndex() : -1;
+        sharedFile = Path.of(configured.getFile());
+        file = shardIndex < 0 ? sharedFile : LatencyHistory.shardFile(sharedFile, shardIndex);
+        reportName = shardIndex < 0 ? "latency-regressions.txt" : "latency-regressions.shard-" + shardIndex + ".txt";
+        history = LatencyHistory.loadWithShards(sharedFile, configured.getWindow());
+        CommandExecutor.addListener(this);
+        logger.info("Comparing latencies with the history of {} tests and commands in {}", history.size(), file);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        LatencyHistory recorded = history;
+        if (recorded == null || !method.isTestMethod()) {
+            return;
+        }
+        String name = name(result);
+        char outcome = outcome(result.getStatus());
+        long durationMs = result.getEndMillis() - result.getStartMillis();
+        tests.computeIfAbsent(name, key -> new Runs()).add(outcome, outcome == 'P' ? durationMs : -1);
+
+        LatencyHistory.Series series = recorded.get(LatencyHistory.TEST, name);
+        // The Allure test case is still open here, it is closed by the test listeners that run next
+        boolean reported = Allure.getLifecycle().getCurrentTestCase().isPresent();
+        if (series.append(outcome, -1, settings.getWindow()).isFlaky() && reported) {
+            Allure.label("tag", FLAKY_TAG);
+        }
+        LatencyBaseline baseline = series.baseline();
+        if (outcome == 'P' && baseline.isRegression(durationMs, settings)) {
+            Regression regression = new Regression(LatencyHistory.TEST, name, durationMs, baseline);
+            regressions.add(regression);
+            logger.warn("Latency regression: {}", regression.describe());
+            if (reported) {
+                Allure.label("tag", SLOW_TAG);
+                Allure.addAttachment("Latency Regression", "text/plain", regression.describe());
+            }
+        }
+    }
+
+    @Override
+    public void commandStarted(long commandId, String[] command) {
+    }
+
+    @Override
+    public void commandFinished(long commandId, String[] command, CommandResult result, long stdoutBytes,
+            long stderrBytes) {
+        if (history == null) {
+            return;
+        }
+        String key = EventLogAnalyzer.commandKey(String.join(" ", command));
+        commands.computeIfAbsent(key, k -> new Runs())
+                .add(result.isSuccess() ? 'P' : 'F', result.isSuccess() ? result.getExecutionTimeMs() : -1);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        LatencyHistory recorded = history;
+        if (recorded == null) {
+            return;
+        }
+        history = null;
+        CommandExecutor.removeListener(this);
+
+        List<Regression> slowCommands = new ArrayList<>();
+        commands.forEach((key, runs) -> {
+            long medianMs = runs.medianMs();
+            LatencyBaseline baseline = recorded.get(LatencyHistory.COMMAND, key).baseline();
+            if (medianMs >= 0 && baseline.isRegression(medianMs, settings)) {
+                slowCommands.add(new Regression(LatencyHistory.COMMAND, key, medianMs, baseline));
+            }
+        });
+        slowCommands.forEach(regression -> logger.warn("Latency regression: {}", regression.describe()));
+        regressions.addAll(slowCommands);
+
+        // A shard file holds only what its shard ran, so that shards which ran the same test do not overwrite
+        // each other's runs when they are merged
+        LatencyHistory saved = file.equals(sharedFile) ? recorded : LatencyHistory.load(file);
+        tests.forEach((name, runs) -> saved.record(LatencyHistory.TEST, name, runs.outcome(), runs.medianMs(),
+                settings.getWindow()));
+        commands.forEach((key, runs) -> saved.record(LatencyHistory.COMMAND, key, runs.outcome(), runs.medianMs(),
+                settings.getWindow()));
+        try {
+            saved.save(file);
+            if (file.equals(sharedFile)) {
+                // Merged into the shared file on load, so the shard files are no longer needed
+                for (Path shardFile : LatencyHistory.shardFiles(sharedFile)) {
+                    Files.deleteIfExists(shardFile);
+                }
+            }
+            Path report = file.resolveSibling(reportName);
+            Files.writeString(report, format(regressions), StandardCharsets.UTF_8);
+            logger.info("Latency history of {} tests and commands saved to {}, {} regressions in {}",
+                    saved.size(), file, regressions.size(), report);
+        } catch (IOException e) {
+            logger.warn("Could not save latency history {}: {}", file, e.getMessage());
+        }
+        if (!slowCommands.isEmpty()) {
+            attach(suite.getName(), slowCommands);
+        }
+    }
+
+    /**
+     * One line per regression, slowest relative to its baseline first
+     */
+    public static String format(List<Regression> regressions) {
+        StringBuilder text = new StringBuilder(String.format("%-8s %-70s %10s %10s %10s %8s%n", "kind", "name",
+                "ms", "median ms", "MAD ms", "score"));
+        regressions.stream()
+                .sorted(Comparator.comparingDouble((Regression r) -> r.baseline().score(r.durationMs())).reversed())
+                .forEach(r -> text.append(String.format("%-8s %-70s %10d %10.0f %10.0f %8.1f%n", r.kind(), r.name(),
+                        r.durationMs(), r.baseline().medianMs(), r.baseline().madMs(),
+                        r.baseline().score(r.durationMs()))));
+        return text.toString();
+    }
+
+    private void attach(String suiteName, List<Regression> slowCommands) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        TestResult result = new TestResult()
+                .setUuid(uuid)
+                .setHistoryId(ResultsUtils.md5(suiteName + ".commandLatency"))
+                .setName("gcloud command latency regressions")
+                .setFullName(suiteName + ".commandLatency")
+                .setDescription(slowCommands.size() + " gcloud commands ran slower than their recorded baseline")
+                .setStatus(Status.PASSED)
+                .setLabels(List.of(ResultsUtils.createEpicLabel("GCloud Storage CLI"),
+                        ResultsUtils.createFeatureLabel("Latency History"), ResultsUtils.createSuiteLabel(suiteName),
+                        ResultsUtils.createTagLabel(SLOW_TAG)));
+        lifecycle.scheduleTestCase(result);
+        lifecycle.startTestCase(uuid);
+        lifecycle.addAttachment("Command Latency Regressions", "text/plain", "txt",
+                format(slowCommands).getBytes(StandardCharsets.UTF_8));
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+
+    private static char outcome(int status) {
+        return switch (status) {
+            case ITestResult.SUCCESS -> 'P';
+            case ITestResult.SKIP -> 'S';
+            default -> 'F';
+        };
+    }
+
+    /**
+     * Qualified by the {@code <test>} of the suite file, since the same method
+     * can run in several of them with different fixtures
+     */
+    private static String name(ITestResult result) {
+        ITestNGMethod method = result.getMethod();
+        return method.getRealClass().getSimpleName() + "." + method.getMethodName() + " ["
+                + result.getTestContext().getName() + "]";
+    }
+
+    /**
+     * A passing test or a command slower than its baseline
+     */
+    public record Regression(String kind, String name, long durationMs, LatencyBaseline baseline) {
+
+        public String describe() {
+            return String.format("%s %s took %d ms, baseline median %.0f ms, MAD %.0f ms over %d runs (score %.1f)",
+                    kind, name, durationMs, baseline.medianMs(), baseline.madMs(), baseline.samples(),
+                    baseline.score(durationMs));
+        }
+    }
+
+    /**
+     * Outcomes and successful durations of a test or command in this run
+     */
+    private static final class Runs {
+
+        private final StringBuilder outcomes = new StringBuilder();
+        private final List<Long> durationsMs = new ArrayList<>();
+
+        synchronized void add(char outcome, long durationMs) {
+            outcomes.append(outcome);
+            if (durationMs >= 0) {
+                durationsMs.add(durationMs);
+            }
+        }
+
+        /**
+         * Failed if any invocation failed, skipped if none ran
+         */
+        synchronized char outcome() {
+            return outcomes.indexOf("F") >= 0 ? 'F' : outcomes.indexOf("P") >= 0 ? 'P' : 'S';
+        }
+
+        synchronized long medianMs() {
+            return durationsMs.isEmpty() ? -1 : Math.round(LatencyBaseline.of(durationsMs).medianMs());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.google.cloud.testing.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.cloud.testing.load.BackendComparisonReport.OperationLatency;
+import com.google.cloud.testing.storage.StorageOperations;
+import com.google.cloud.testing.utils.NameGenerator;
+
+/**
+ * Runs the same bucket and object lifecycle through several storage backends
+ * and compares their latency, to tell CLI overhead from service time.
+ * <p>
+ * Every round runs the whole lifecycle once per backend, on a fresh bucket,
+ * in a freshly shuffled backend order, so drift of the environment affects
+ * all backends alike. The first backend is the baseline.
+ */
+public class BackendComparisonBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackendComparisonBenchmark.class);
+
+    /**
+     * Lifecycle steps, in the order they run
+     */
+    public static final List<String> OPERATIONS = List.of("create-bucket", "upload", "describe-object", "list",
+            "download", "delete-object", "delete-bucket");
+
+    private final List<StorageOperations> backends;
+    private final Path file;
+    private final String location;
+    private final Random random = new Random();
+
+    public BackendComparisonBenchmark(List<StorageOperations> backends, Path file, String location) {
+        if (backends == null || backends.size() < 2) {
+            throw new IllegalArgumentException("At least two backends are required for a comparison");
+        }
+        this.backends = List.copyOf(backends);
+        this.file = file;
+        this.location = location;
+    }
+
+    /**
+     * Run the comparison
+     *
+     * @param warmupRounds rounds executed first and discarded
+     * @param rounds measured rounds
+     */
+    public BackendComparisonReport run(int warmupRounds, int rounds) {
+        List<String> names = backends.stream().map(StorageOperations::getBackendName).toList();
+        logger.info("Comparing backends {} over {} rounds ({} warmup)", names, rounds, warmupRounds);
+        LatencyRecorder[][] latencies = new LatencyRecorder[OPERATIONS.size()][backends.size()];
+        long[][] errors = new long[OPERATIONS.size()][backends.size()];
+        for (LatencyRecorder[] perBackend : latencies) {
+            for (int b = 0; b < perBackend.length; b++) {
+                perBackend[b] = new LatencyRecorder();
+            }
+        }
+
+        List<Integer> order = new ArrayList<>();
+        for (int b = 0; b < backends.size(); b++) {
+            order.add(b);
+        }
+        Path downloadDir;
+        try {
+            downloadDir = Files.createTempDirectory("backend-compare-");
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create a download directory: " + e.getMessage(), e);
+        }
+        try {
+            for (int round = 0; round < warmupRounds + rounds; round++) {
+                boolean measured = round >= warmupRounds;
+                Collections.shuffle(order, random);
+                for (int b : order) {
+                    runLifecycle(backends.get(b), downloadDir, measured ? latencies : null, errors, b);
+                }
+            }
+        } finally {
+            deleteDirectory(downloadDir);
+        }
+
+        List<OperationLatency> operations = new ArrayList<>();
+        for (int op = 0; op < OPERATIONS.size(); op++) {
+            List<LatencyRecorder.LatencyStats> stats = new ArrayList<>();
+            List<Long> opErrors = new ArrayList<>();
+            for (int b = 0; b < backends.size(); b++) {
+                stats.add(latencies[op][b].snapshot());
+                opErrors.add(errors[op][b]);
+            }
+            operations.add(new OperationLatency(OPERATIONS.get(op), stats, opErrors));
+        }
+        BackendComparisonReport report = new BackendComparisonReport(names, rounds, operations);
+        logger.info("Backend comparison finished:{}{}", System.lineSeparator(), report.format());
+        return report;
+    }
+
+    private void runLifecycle(StorageOperations storage, Path downloadDir, LatencyRecorder[][] latencies,
+            long[][] errors, int backend) {
+        String bucket = NameGenerator.generateBucketName();
+        String object = file.getFileName().toString();
+        List<BooleanSupplier> steps = List.of(
+                () -> storage.createBucket(bucket, location).isSuccess(),
+                () -> storage.uploadFile(file.toString(), bucket).isSuccess(),
+                // Not objectExists: the CLI backend answers it from its inventory without calling gcloud
+                () -> storage.describeObject(bucket, object).isSuccess(),
+                () -> storage.listObjects(bucket).getStdout().contains(object),
+                () -> storage.downloadFile("gs://" + bucket + "/" + object, downloadDir.toString()).isSuccess(),
+                () -> storage.deleteObject(bucket, object).isSuccess(),
+                () -> storage.deleteBucket(bucket).isSuccess());
+        for (int op = 0; op < steps.size(); op++) {
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = steps.get(op).getAsBoolean();
+            } catch (RuntimeException e) {
+                logger.warn("{} {} failed: {}", storage.getBackendName(), OPERATIONS.get(op), e.getMessage());
+                success = false;
+            }
+            if (latencies != null) {
+                latencies[op][backend].record(System.nanoTime() - start);
+                if (!success) {
+                    errors[op][backend]++;
+                }
+            }
+        }
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete download directory {}: {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.google.cloud.testing.load;
+
+import java.util.List;
+
+import com.google.cloud.testing.load.LatencyRecorder.LatencyStats;
+
+/**
+ * Latency of the same storage operations through each backend. The first
+ * backend is the baseline (the CLI); the overhead column is baseline median
+ * minus candidate median, i.e. what the baseline spends beyond the service
+ * time the direct backend measures.
+ */
+public record BackendComparisonReport(List<String> backends, int rounds, List<OperationLatency> operations) {
+
+    /**
+     * Latency of one operation, one entry per backend in report order
+     */
+    public record OperationLatency(String name, List<LatencyStats> stats, List<Long> errors) {
+
+        public double overheadMs(int backend) {
+            return stats.get(0).p50() - stats.get(backend).p50();
+        }
+    }
+
+    /**
+     * Render the report as a plain-text table
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Baseline: %s, rounds: %d%n", backends.get(0), rounds));
+        sb.append(String.format("%-15s %-6s %9s %9s %9s %11s %6s%n", "operation", "backend", "mean ms", "p50 ms",
+                "p90 ms", "overhead ms", "errors"));
+        for (OperationLatency operation : operations) {
+            for (int i = 0; i < backends.size(); i++) {
+                LatencyStats stats = operation.stats().get(i);
+                sb.append(String.format("%-15s %-6s %9.1f %9.1f %9.1f %11s %6d%n", operation.name(), backends.get(i),
+                        stats.mean(), stats.p50(), stats.p90(),
+                        i == 0 ? "-" : String.format("%+.1f", operation.overheadMs(i)), operation.errors().get(i)));
+            }
+        }
+        return sb.toString();
+    }
+}
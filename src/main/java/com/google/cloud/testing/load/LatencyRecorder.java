@@ -0,0 +1,80 @@
+package com.google.cloud.testing.load;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Thread-safe recorder of latency samples in nanoseconds.
+ * <p>
+ * Samples are kept verbatim so percentiles are exact; a soak run at a few
+ * hundred ops/s for an hour stays in the low megabytes.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    public synchronized void record(long latencyNanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = Math.max(0, latencyNanos);
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Visit every recorded sample
+     */
+    public synchronized void forEach(LongConsumer consumer) {
+        for (int i = 0; i < count; i++) {
+            consumer.accept(samples[i]);
+        }
+    }
+
+    /**
+     * Compute summary statistics over everything recorded so far
+     */
+    public LatencyStats snapshot() {
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, count);
+        }
+        return LatencyStats.of(sorted);
+    }
+
+    /**
+     * Summary of a latency distribution, all values in milliseconds
+     */
+    public record LatencyStats(int count, double mean, double p50, double p90, double p99, double p999, double max) {
+
+        static LatencyStats of(long[] samples) {
+            if (samples.length == 0) {
+                return new LatencyStats(0, 0, 0, 0, 0, 0, 0);
+            }
+            Arrays.sort(samples);
+            double sum = 0;
+            for (long sample : samples) {
+                sum += sample;
+            }
+            return new LatencyStats(samples.length,
+                    toMillis(sum / samples.length),
+                    toMillis(percentile(samples, 50)),
+                    toMillis(percentile(samples, 90)),
+                    toMillis(percentile(samples, 99)),
+                    toMillis(percentile(samples, 99.9)),
+                    toMillis(samples[samples.length - 1]));
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.min(Math.max(index, 0), sorted.length - 1)];
+        }
+
+        private static double toMillis(double nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.google.cloud.testing.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.cloud.testing.load.LoadReport.OperationStats;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.utils.ThreadFactories;
+
+/**
+ * Drives a weighted mix of storage operations through
+ * {@link GcloudStorageOperations} and records their latency.
+ * <p>
+ * Two workload models are supported:
+ * <ul>
+ * <li>open model: operations arrive at a fixed rate regardless of how fast
+ * earlier ones complete, the way independent production clients behave</li>
+ * <li>closed model: a fixed number of workers each issue the next operation
+ * once the previous one finished, optionally paced to a target interval</li>
+ * </ul>
+ * Latency is always measured from the moment an operation was supposed to
+ * start, so a stalled command shows up in the latency of every operation
+ * queued behind it instead of silently lowering the offered load.
+ */
+public class LoadDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+    private static final long DRAIN_TIMEOUT_SECONDS = 300;
+
+    private final GcloudStorageOperations storageOps;
+    private final LoadTarget target;
+    private final WorkloadMix mix;
+
+    public LoadDriver(GcloudStorageOperations storageOps, LoadTarget target, WorkloadMix mix) {
+        this.storageOps = storageOps;
+        this.target = target;
+        this.mix = mix;
+    }
+
+    /**
+     * Run an open-model workload at a fixed arrival rate
+     *
+     * @param opsPerSecond arrival rate
+     * @param duration how long to keep issuing operations
+     * @param maxInFlight upper bound on concurrently running commands; arrivals
+     * beyond it queue and the wait is counted in their latency
+     */
+    public LoadReport runOpenModel(double opsPerSecond, Duration duration, int maxInFlight) {
+        if (opsPerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive: " + opsPerSecond);
+        }
+        logger.info("Starting open-model load: {} ops/s for {} (max in flight: {}, mix: {})",
+                opsPerSecond, duration, maxInFlight, mix);
+
+        RunState run = new RunState();
+        ExecutorService pool = Executors.newFixedThreadPool(maxInFlight, ThreadFactories.namedThreads("load-open"));
+        Random random = new Random();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / opsPerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0;; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            OperationType type = mix.next(random);
+            pool.execute(() -> run.execute(type, intendedStart));
+        }
+
+        awaitCompletion(pool);
+        return run.report("open", opsPerSecond, maxInFlight, System.nanoTime() - start);
+    }
+
+    /**
+     * Run a closed-model workload with a fixed number of workers
+     *
+     * @param workers number of concurrent workers
+     * @param duration how long each worker keeps issuing operations
+     * @param pacing target interval between operations of one worker, or
+     * {@link Duration#ZERO} to issue back to back. With pacing, an operation
+     * that overruns its slot delays the next one and that delay is counted.
+     */
+    public LoadReport runClosedModel(int workers, Duration duration, Duration pacing) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        logger.info("Starting closed-model load: {} workers for {} (pacing: {}, mix: {})",
+                workers, duration, pacing, mix);
+
+        RunState run = new RunState();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, ThreadFactories.namedThreads("load-closed"));
+        long pacingNanos = pacing.toNanos();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (int w = 0; w < workers; w++) {
+            pool.execute(() -> {
+                Random random = new Random();
+                for (long i = 0;; i++) {
+                    long now = System.nanoTime();
+                    long intendedStart = pacingNanos > 0 ? start + i * pacingNanos : now;
+                    if (intendedStart >= end || now >= end) {
+                        break;
+                    }
+                    if (intendedStart > now) {
+                        LockSupport.parkNanos(intendedStart - now);
+                    }
+                    run.execute(mix.next(random), intendedStart);
+                }
+            });
+        }
+
+        awaitCompletion(pool);
+        return run.report(pacingNanos > 0 ? "closed (paced)" : "closed", 0, workers, System.nanoTime() - start);
+    }
+
+    private static void awaitCompletion(ExecutorService pool) {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Load operations still running after {}s, abandoning them", DRAIN_TIMEOUT_SECONDS);
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Latency recorders for a single run
+     */
+    private class RunState {
+
+        private final Map<OperationType, LatencyRecorder> corrected = new EnumMap<>(OperationType.class);
+        private final Map<OperationType, LatencyRecorder> service = new EnumMap<>(OperationType.class);
+        private final Map<OperationType, AtomicLong> errors = new EnumMap<>(OperationType.class);
+
+        RunState() {
+            for (OperationType type : mix.getWeights().keySet()) {
+                corrected.put(type, new LatencyRecorder());
+                service.put(type, new LatencyRecorder());
+                errors.put(type, new AtomicLong());
+            }
+        }
+
+        void execute(OperationType type, long intendedStart) {
+            long actualStart = System.nanoTime();
+            boolean success;
+            try {
+                success = type.execute(storageOps, target);
+            } catch (RuntimeException e) {
+                logger.warn("Load operation {} failed: {}", type.getKey(), e.getMessage());
+                success = false;
+            }
+            long finished = System.nanoTime();
+            corrected.get(type).record(finished - intendedStart);
+            service.get(type).record(finished - actualStart);
+            if (!success) {
+                errors.get(type).incrementAndGet();
+            }
+        }
+
+        LoadReport report(String model, double targetRate, int concurrency, long elapsedNanos) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            Map<OperationType, OperationStats> operations = new LinkedHashMap<>();
+            LatencyRecorder allCorrected = new LatencyRecorder();
+            LatencyRecorder allService = new LatencyRecorder();
+            long totalErrors = 0;
+
+            for (OperationType type : corrected.keySet()) {
+                var correctedStats = corrected.get(type).snapshot();
+                operations.put(type, new OperationStats(type.getKey(), errors.get(type).get(), correctedStats,
+                        service.get(type).snapshot(), correctedStats.count() / seconds));
+                totalErrors += errors.get(type).get();
+            }
+            corrected.values().forEach(recorder -> recorder.forEach(allCorrected::record));
+            service.values().forEach(recorder -> recorder.forEach(allService::record));
+
+            var totalStats = allCorrected.snapshot();
+            OperationStats total = new OperationStats("total", totalErrors, totalStats, allService.snapshot(),
+                    totalStats.count() / seconds);
+            LoadReport report = new LoadReport(model, mix.toString(), Duration.ofNanos(elapsedNanos), targetRate,
+                    concurrency, operations, total);
+            logger.info("Load run finished:{}{}", System.lineSeparator(), report.format());
+            return report;
+        }
+    }
+}
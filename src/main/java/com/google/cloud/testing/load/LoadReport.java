@@ -0,0 +1,52 @@
+package com.google.cloud.testing.load;
+
+import java.time.Duration;
+import java.util.Map;
+
+import com.google.cloud.testing.load.LatencyRecorder.LatencyStats;
+
+/**
+ * Summary of a load run. Latency is reported twice: "corrected" is measured
+ * from the intended start of each operation and therefore includes any time
+ * spent queued behind slow operations (coordinated omission), "service" is
+ * measured from the moment the command was actually started.
+ */
+public record LoadReport(String model, String mix, Duration elapsed, double targetOpsPerSecond, int concurrency,
+        Map<OperationType, OperationStats> operations, OperationStats total) {
+
+    /**
+     * Per-operation results
+     */
+    public record OperationStats(String name, long errors, LatencyStats corrected, LatencyStats service,
+            double throughput) {
+
+        public double errorRate() {
+            return corrected.count() == 0 ? 0 : (double) errors / corrected.count();
+        }
+    }
+
+    /**
+     * Render the report as a plain-text table
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Model: %s, mix: %s, elapsed: %.1fs, concurrency: %d", model, mix,
+                elapsed.toMillis() / 1000.0, concurrency));
+        if (targetOpsPerSecond > 0) {
+            sb.append(String.format(", target rate: %.2f ops/s", targetOpsPerSecond));
+        }
+        sb.append(System.lineSeparator());
+        sb.append(String.format("%-10s %8s %7s %9s %9s %9s %9s %9s %9s %11s%n", "operation", "count", "errors",
+                "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms"));
+        operations.values().forEach(stats -> appendRow(sb, stats));
+        appendRow(sb, total);
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, OperationStats stats) {
+        LatencyStats latency = stats.corrected();
+        sb.append(String.format("%-10s %8d %7d %9.2f %9.1f %9.1f %9.1f %9.1f %9.1f %11.1f%n", stats.name(),
+                latency.count(), stats.errors(), stats.throughput(), latency.p50(), latency.p90(), latency.p99(),
+                latency.p999(), latency.max(), stats.service().p99()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.google.cloud.testing.load;
+
+/**
+ * Fixture a load run operates on: a bucket, a local file to copy into it and
+ * an object URL to sign
+ */
+public record LoadTarget(String bucketName, String localFilePath, String objectUrl) {
+
+}
@@ -0,0 +1,58 @@
+package com.google.cloud.testing.load;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.GcloudStorageOperations.SignedUrlOutput;
+
+/**
+ * Storage operations that can take part in a load workload
+ */
+public enum OperationType {
+    COPY("cp"),
+    LIST("ls"),
+    SIGN_URL("sign-url"),
+    DESCRIBE("describe");
+
+    private static final Duration SIGNED_URL_DURATION = Duration.ofMinutes(15);
+
+    private final String key;
+
+    OperationType(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Short name used in workload mix definitions, e.g. "cp=2,ls=1"
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Execute this operation against the target
+     *
+     * @return whether the operation succeeded
+     */
+    public boolean execute(GcloudStorageOperations storageOps, LoadTarget target) {
+        return switch (this) {
+            case COPY -> storageOps.uploadFile(target.localFilePath(), target.bucketName()).isSuccess();
+            case LIST -> storageOps.listObjects(target.bucketName()).isSuccess();
+            case SIGN_URL -> {
+                List<SignedUrlOutput> urls = storageOps.generateSignedUrl(target.objectUrl(), SIGNED_URL_DURATION);
+                yield urls != null && !urls.isEmpty();
+            }
+            case DESCRIBE -> storageOps.describeBucket(target.bucketName()).exists();
+        };
+    }
+
+    public static OperationType fromKey(String key) {
+        for (OperationType type : values()) {
+            if (type.key.equalsIgnoreCase(key.trim())) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in workload mix: " + key);
+    }
+}
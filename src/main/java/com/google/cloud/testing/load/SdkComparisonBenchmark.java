@@ -0,0 +1,201 @@
+package com.google.cloud.testing.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.cloud.testing.core.CommandExecutor;
+import com.google.cloud.testing.load.SdkComparisonReport.OperationComparison;
+import com.google.cloud.testing.load.SdkComparisonReport.SdkDelta;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+
+/**
+ * Runs the same operations against two or more gcloud installations and
+ * compares their latency.
+ * <p>
+ * Runs are interleaved: every round executes each operation once per SDK, in
+ * a freshly shuffled SDK order. Slow drift of the environment (network, GCS
+ * load, a warming page cache) therefore affects all SDKs alike, and each
+ * round yields one paired sample per candidate against the baseline, which is
+ * the first executable in the list.
+ */
+public class SdkComparisonBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(SdkComparisonBenchmark.class);
+
+    private final List<Sdk> sdks = new ArrayList<>();
+    private final LoadTarget target;
+    private final List<OperationType> operations;
+    private final Random random = new Random();
+
+    public SdkComparisonBenchmark(List<String> executablePaths, LoadTarget target, List<OperationType> operations) {
+        if (executablePaths == null || executablePaths.size() < 2) {
+            throw new IllegalArgumentException("At least two gcloud executables are required for a comparison");
+        }
+        for (String path : executablePaths) {
+            CommandExecutor executor = new CommandExecutor(path);
+            sdks.add(new Sdk(path, executor.getGcloudVersion(), new GcloudStorageOperations(executor)));
+        }
+        this.target = target;
+        this.operations = List.copyOf(operations);
+    }
+
+    /**
+     * Run the comparison
+     *
+     * @param warmupRounds rounds executed first and discarded
+     * @param rounds measured rounds
+     */
+    public SdkComparisonReport run(int warmupRounds, int rounds) {
+        logger.info("Comparing {} gcloud installations over {} rounds ({} warmup) of {}",
+                sdks.size(), rounds, warmupRounds, operations);
+
+        for (int round = 0; round < warmupRounds; round++) {
+            runRound();
+        }
+
+        Map<OperationType, double[][]> samples = new LinkedHashMap<>();
+        Map<OperationType, long[]> errors = new LinkedHashMap<>();
+        for (OperationType type : operations) {
+            samples.put(type, new double[sdks.size()][rounds]);
+            errors.put(type, new long[sdks.size()]);
+        }
+
+        for (int round = 0; round < rounds; round++) {
+            Map<OperationType, Measurement[]> measured = runRound();
+            for (OperationType type : operations) {
+                Measurement[] perSdk = measured.get(type);
+                for (int s = 0; s < sdks.size(); s++) {
+                    samples.get(type)[s][round] = perSdk[s].millis();
+                    if (!perSdk[s].success()) {
+                        errors.get(type)[s]++;
+                    }
+                }
+            }
+        }
+
+        List<OperationComparison> comparisons = new ArrayList<>();
+        for (OperationType type : operations) {
+            comparisons.add(compare(type, samples.get(type), errors.get(type)));
+        }
+        SdkComparisonReport report = new SdkComparisonReport(sdks.get(0).label(),
+                sdks.stream().map(Sdk::label).toList(), rounds, comparisons);
+        logger.info("SDK comparison finished:{}{}", System.lineSeparator(), report.format());
+        return report;
+    }
+
+    private Map<OperationType, Measurement[]> runRound() {
+        Map<OperationType, Measurement[]> results = new LinkedHashMap<>();
+        List<Integer> order = new ArrayList<>();
+        for (int s = 0; s < sdks.size(); s++) {
+            order.add(s);
+        }
+        for (OperationType type : operations) {
+            Measurement[] perSdk = new Measurement[sdks.size()];
+            Collections.shuffle(order, random);
+            for (int s : order) {
+                perSdk[s] = measure(sdks.get(s).storageOps(), type);
+            }
+            results.put(type, perSdk);
+        }
+        return results;
+    }
+
+    private Measurement measure(GcloudStorageOperations storageOps, OperationType type) {
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            success = type.execute(storageOps, target);
+        } catch (RuntimeException e) {
+            logger.warn("Comparison operation {} failed: {}", type.getKey(), e.getMessage());
+            success = false;
+        }
+        return new Measurement((System.nanoTime() - start) / 1_000_000.0, success);
+    }
+
+    private OperationComparison compare(OperationType type, double[][] samples, long[] errors) {
+        double[] baseline = samples[0];
+        double baselineMean = mean(baseline);
+        List<SdkDelta> deltas = new ArrayList<>();
+        for (int s = 0; s < sdks.size(); s++) {
+            double[] candidate = samples[s];
+            double[] differences = new double[candidate.length];
+            for (int i = 0; i < candidate.length; i++) {
+                differences[i] = candidate[i] - baseline[i];
+            }
+            double meanDifference = mean(differences);
+            double halfWidth = confidenceHalfWidth(differences);
+            deltas.add(new SdkDelta(sdks.get(s).label(), mean(candidate), median(candidate), meanDifference,
+                    meanDifference - halfWidth, meanDifference + halfWidth,
+                    baselineMean == 0 ? 0 : 100.0 * meanDifference / baselineMean, errors[s]));
+        }
+        return new OperationComparison(type.getKey(), deltas);
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return values.length == 0 ? 0 : sum / values.length;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * Half width of the 95% confidence interval of the mean of paired
+     * differences (Student's t)
+     */
+    static double confidenceHalfWidth(double[] differences) {
+        int n = differences.length;
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double mean = mean(differences);
+        double sumOfSquares = 0;
+        for (double difference : differences) {
+            sumOfSquares += (difference - mean) * (difference - mean);
+        }
+        double standardError = Math.sqrt(sumOfSquares / (n - 1)) / Math.sqrt(n);
+        return tQuantile975(n - 1) * standardError;
+    }
+
+    /**
+     * 97.5% quantile of Student's t distribution, via the Cornish-Fisher
+     * expansion around the normal quantile. Within 0.5% for df >= 3.
+     */
+    static double tQuantile975(int degreesOfFreedom) {
+        double z = 1.959964;
+        double df = degreesOfFreedom;
+        double z3 = z * z * z;
+        double z5 = z3 * z * z;
+        double z7 = z5 * z * z;
+        return z
+                + (z3 + z) / (4 * df)
+                + (5 * z5 + 16 * z3 + 3 * z) / (96 * df * df)
+                + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * df * df * df);
+    }
+
+    private record Sdk(String executablePath, String version, GcloudStorageOperations storageOps) {
+
+        String label() {
+            return version + " (" + executablePath + ")";
+        }
+    }
+
+    private record Measurement(double millis, boolean success) {
+
+    }
+}
@@ -0,0 +1,57 @@
+package com.google.cloud.testing.load;
+
+import java.util.List;
+
+/**
+ * Result of comparing gcloud installations. The first delta of every
+ * operation is the baseline itself; deltas are candidate minus baseline, so a
+ * positive value means the candidate is slower.
+ */
+public record SdkComparisonReport(String baseline, List<String> sdks, int rounds,
+        List<OperationComparison> operations) {
+
+    /**
+     * Latency of one operation across all SDKs
+     */
+    public record OperationComparison(String name, List<SdkDelta> deltas) {
+
+    }
+
+    /**
+     * Latency of one SDK relative to the baseline, in milliseconds
+     */
+    public record SdkDelta(String sdk, double mean, double median, double meanDelta, double ciLow, double ciHigh,
+            double deltaPercent, long errors) {
+
+        /**
+         * Whether the 95% confidence interval excludes zero
+         */
+        public boolean isSignificant() {
+            return ciLow > 0 || ciHigh < 0;
+        }
+    }
+
+    /**
+     * Render the report as a plain-text table
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Baseline: %s, rounds: %d%n", baseline, rounds));
+        sb.append(String.format("%-10s %-50s %9s %9s %10s %22s %8s %6s%n", "operation", "sdk", "mean ms",
+                "p50 ms", "delta ms", "95% CI", "delta %", "errors"));
+        for (OperationComparison operation : operations) {
+            for (int i = 0; i < operation.deltas().size(); i++) {
+                SdkDelta delta = operation.deltas().get(i);
+                boolean isBaseline = i == 0;
+                sb.append(String.format("%-10s %-50s %9.1f %9.1f %10s %22s %8s %6d%n", operation.name(),
+                        delta.sdk(), delta.mean(), delta.median(),
+                        isBaseline ? "-" : String.format("%+.1f", delta.meanDelta()),
+                        isBaseline ? "-" : String.format("[%+.1f, %+.1f]%s", delta.ciLow(), delta.ciHigh(),
+                                delta.isSignificant() ? " *" : ""),
+                        isBaseline ? "-" : String.format("%+.1f", delta.deltaPercent()), delta.errors()));
+            }
+        }
+        sb.append("* difference is significant at the 95% level").append(System.lineSeparator());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,228 @@
+package com.google.cloud.testing.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.cloud.testing.load.SignedUrlStressReport.Ramp;
+import com.google.cloud.testing.load.SignedUrlStressReport.Step;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.GcloudStorageOperations.SignedUrlOutput;
+import com.google.cloud.testing.utils.ThreadFactories;
+
+/**
+ * Adaptive stress test of signed URLs: first ramps the number of concurrent
+ * sign-url callers, then fetches the URLs it produced with a ramp of
+ * concurrent HTTP clients.
+ * <p>
+ * Each ramp doubles concurrency from 1 and runs every step as a closed loop
+ * for a fixed time. It stops at the knee: the first step with errors, with
+ * p90 latency above the knee factor times the single-caller p90, or with
+ * throughput growing by less than the minimum gain over the step before.
+ * Every sign-url call impersonates the configured service account, so the
+ * knee of the sign ramp is where impersonation (token minting plus the
+ * signBlob call) saturates.
+ */
+public class SignedUrlStressBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignedUrlStressBenchmark.class);
+
+    /**
+     * Signed URLs kept for the fetch ramp
+     */
+    private static final int MAX_COLLECTED_URLS = 1000;
+
+    private final GcloudStorageOperations storage;
+    private final String objectUrl;
+    private final Duration urlDuration;
+    private final HttpClient client;
+    private final ConcurrentLinkedQueue<String> signedUrls = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger collectedUrls = new AtomicInteger();
+
+    private int maxConcurrency = 64;
+    private Duration stepDuration = Duration.ofSeconds(10);
+    private double kneeLatencyFactor = 2.0;
+    private double minThroughputGain = 0.1;
+
+    /**
+     * @param storage operations whose generateSignedUrl is stressed
+     * @param objectUrl existing object to sign, gs://bucket/object
+     * @param urlDuration validity of the generated URLs; must outlast the run
+     */
+    public SignedUrlStressBenchmark(GcloudStorageOperations storage, String objectUrl, Duration urlDuration) {
+        this.storage = storage;
+        this.objectUrl = objectUrl;
+        this.urlDuration = urlDuration;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    public SignedUrlStressBenchmark maxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Maximum concurrency must be at least 1: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    public SignedUrlStressBenchmark stepDuration(Duration stepDuration) {
+        this.stepDuration = stepDuration;
+        return this;
+    }
+
+    /**
+     * @param kneeLatencyFactor p90 latency, relative to one caller, at which a step is the knee
+     * @param minThroughputGain relative throughput gain below which a step is the knee
+     */
+    public SignedUrlStressBenchmark knee(double kneeLatencyFactor, double minThroughputGain) {
+        if (kneeLatencyFactor <= 1.0) {
+            throw new IllegalArgumentException("Knee latency factor must be above 1: " + kneeLatencyFactor);
+        }
+        this.kneeLatencyFactor = kneeLatencyFactor;
+        this.minThroughputGain = minThroughputGain;
+        return this;
+    }
+
+    /**
+     * Run the sign ramp, then the fetch ramp over the URLs it generated
+     */
+    public SignedUrlStressReport run() {
+        logger.info("Signed URL stress on {}: up to {} callers, {}s per step", objectUrl, maxConcurrency,
+                stepDuration.toSeconds());
+        Ramp sign = ramp("sign", this::sign);
+
+        List<String> urls = List.copyOf(signedUrls);
+        Ramp fetch;
+        if (urls.isEmpty()) {
+            logger.warn("No signed URL was generated, skipping the fetch ramp");
+            fetch = new Ramp("fetch", List.of(), 0);
+        } else {
+            AtomicInteger next = new AtomicInteger();
+            fetch = ramp("fetch", () -> fetch(urls.get(Math.floorMod(next.getAndIncrement(), urls.size()))));
+        }
+
+        SignedUrlStressReport report = new SignedUrlStressReport(sign, fetch);
+        logger.info("Signed URL stress finished:{}{}", System.lineSeparator(), report.format());
+        return report;
+    }
+
+    private boolean sign() {
+        List<SignedUrlOutput> outputs = storage.generateSignedUrl(objectUrl, urlDuration);
+        if (outputs == null || outputs.isEmpty() || outputs.get(0).signed_url() == null) {
+            return false;
+        }
+        if (collectedUrls.incrementAndGet() <= MAX_COLLECTED_URLS) {
+            signedUrls.add(outputs.get(0).signed_url());
+        }
+        return true;
+    }
+
+    private boolean fetch(String url) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            logger.debug("Fetch of signed URL failed: {}", e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Ramp ramp(String name, BooleanSupplier call) {
+        List<Step> steps = new ArrayList<>();
+        double baselineP90 = 0;
+        int knee = 0;
+        for (int concurrency = 1; concurrency <= maxConcurrency; concurrency *= 2) {
+            Step measured = runStep(name, concurrency, call);
+            if (concurrency == 1) {
+                baselineP90 = measured.stats().p90();
+            }
+            boolean latencyKnee = measured.stats().p90() > kneeLatencyFactor * baselineP90;
+            boolean plateau = !steps.isEmpty()
+                    && measured.throughput() < steps.get(steps.size() - 1).throughput() * (1 + minThroughputGain);
+            Step step = measured.withSustainable(measured.errors() == 0 && !latencyKnee);
+            steps.add(step);
+            logger.info("{} x{}: {} ops/s, p90 {} ms, {} errors", name, concurrency,
+                    String.format("%.1f", step.throughput()), String.format("%.1f", step.stats().p90()),
+                    step.errors());
+            if (step.errors() > 0 || latencyKnee || plateau) {
+                knee = concurrency;
+                break;
+            }
+        }
+        return new Ramp(name, steps, knee);
+    }
+
+    private Step runStep(String name, int concurrency, BooleanSupplier call) {
+        LatencyRecorder latencies = new LatencyRecorder();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(concurrency,
+                ThreadFactories.namedThreads(name + "-stress"));
+        long deadline = System.nanoTime() + stepDuration.toNanos();
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                callers.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        long begin = System.nanoTime();
+                        boolean success;
+                        try {
+                            success = call.getAsBoolean();
+                        } catch (RuntimeException e) {
+                            logger.debug("{} call failed: {}", name, e.getMessage());
+                            success = false;
+                        }
+                        latencies.record(System.nanoTime() - begin);
+                        if (!success) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            callers.shutdown();
+            // Calls in flight at the deadline still finish and count
+            if (!callers.awaitTermination(stepDuration.toSeconds() + 300, TimeUnit.SECONDS)) {
+                throw new IllegalStateException(name + " step with " + concurrency + " callers did not finish");
+            }
+            double elapsedSeconds = (System.nanoTime() - begin) / 1e9;
+            LatencyRecorder.LatencyStats stats = latencies.snapshot();
+            return new Step(concurrency, stats.count() - errors.get(), errors.get(), elapsedSeconds, stats, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during " + name + " step", e);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.google.cloud.testing.load;
+
+import java.util.List;
+
+import com.google.cloud.testing.load.LatencyRecorder.LatencyStats;
+
+/**
+ * Result of the signed URL stress ramps: the highest sustainable rate of
+ * signing and of fetching, and the concurrency at which each one knees.
+ */
+public record SignedUrlStressReport(Ramp sign, Ramp fetch) {
+
+    /**
+     * One concurrency level, run as a closed loop for a fixed time
+     *
+     * @param sustainable no errors and p90 latency under the knee threshold
+     */
+    public record Step(int concurrency, long completed, long errors, double elapsedSeconds, LatencyStats stats,
+            boolean sustainable) {
+
+        public double throughput() {
+            return elapsedSeconds > 0 ? completed / elapsedSeconds : 0;
+        }
+
+        Step withSustainable(boolean value) {
+            return new Step(concurrency, completed, errors, elapsedSeconds, stats, value);
+        }
+    }
+
+    /**
+     * Steps of one ramp in the order they ran
+     *
+     * @param kneeConcurrency concurrency of the step that stopped the ramp,
+     *            0 if the maximum concurrency was reached first
+     */
+    public record Ramp(String name, List<Step> steps, int kneeConcurrency) {
+
+        /**
+         * Highest throughput among the sustainable steps, 0 if there is none
+         */
+        public double maxSustainableRate() {
+            return steps.stream().filter(Step::sustainable).mapToDouble(Step::throughput).max().orElse(0);
+        }
+    }
+
+    public double maxSignsPerSecond() {
+        return sign.maxSustainableRate();
+    }
+
+    public double maxFetchesPerSecond() {
+        return fetch.maxSustainableRate();
+    }
+
+    /**
+     * Concurrent sign-url callers at which service account impersonation
+     * saturated, 0 if it did not within the ramp
+     */
+    public int impersonationSaturation() {
+        return sign.kneeConcurrency();
+    }
+
+    /**
+     * Render the report as a plain-text table
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Max sustainable signs/s: %.1f, fetches/s: %.1f%n", maxSignsPerSecond(),
+                maxFetchesPerSecond()));
+        sb.append(String.format("Impersonation saturates at: %s%n",
+                impersonationSaturation() > 0 ? impersonationSaturation() + " concurrent callers"
+                        : "not reached"));
+        sb.append(String.format("%-6s %6s %9s %9s %9s %9s %7s %11s%n", "ramp", "conc", "ops/s", "p50 ms",
+                "p90 ms", "p99 ms", "errors", "sustainable"));
+        for (Ramp ramp : List.of(sign, fetch)) {
+            for (Step step : ramp.steps()) {
+                sb.append(String.format("%-6s %6d %9.1f %9.1f %9.1f %9.1f %7d %11s%n", ramp.name(),
+                        step.concurrency(), step.throughput(), step.stats().p50(), step.stats().p90(),
+                        step.stats().p99(), step.errors(), step.sustainable() ? "yes" : "no"));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package com.google.cloud.testing.load;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.core.CommandTemplate;
+
+/**
+ * Measures the per-call cost of starting gcloud the way
+ * {@link com.google.cloud.testing.core.CommandExecutor} used to (executable
+ * looked up through the config singleton, command assembled through a list,
+ * inherited environment) against a precompiled {@link CommandTemplate}.
+ * <p>
+ * Two numbers are reported for each variant: the cost of preparing the
+ * process builder alone, and the wall time of a full spawn of a cheap gcloud
+ * command. Spawns of both variants are interleaved.
+ */
+public class SpawnOverheadBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpawnOverheadBenchmark.class);
+    private static final int PREPARE_ITERATIONS = 200_000;
+
+    private final CommandTemplate template;
+    private final String[] args;
+
+    public SpawnOverheadBenchmark(CommandTemplate template, String... args) {
+        this.template = template;
+        this.args = args;
+    }
+
+    /**
+     * Run the benchmark
+     *
+     * @param spawns number of measured spawns per variant
+     */
+    public Report run(int spawns) {
+        logger.info("Measuring spawn overhead of '{}' over {} spawns per variant", String.join(" ", args), spawns);
+
+        double legacyPrepare = measurePrepare(true);
+        double templatePrepare = measurePrepare(false);
+
+        // One unmeasured spawn each to warm the page cache for the executable
+        spawn(legacyBuilder());
+        spawn(templateBuilder());
+
+        LatencyRecorder legacySpawns = new LatencyRecorder();
+        LatencyRecorder templateSpawns = new LatencyRecorder();
+        for (int i = 0; i < spawns; i++) {
+            boolean legacyFirst = i % 2 == 0;
+            (legacyFirst ? legacySpawns : templateSpawns).record(spawn(legacyFirst ? legacyBuilder() : templateBuilder()));
+            (legacyFirst ? templateSpawns : legacySpawns).record(spawn(legacyFirst ? templateBuilder() : legacyBuilder()));
+        }
+
+        Report report = new Report(String.join(" ", args), legacyPrepare, templatePrepare,
+                legacySpawns.snapshot(), templateSpawns.snapshot());
+        logger.info("Spawn overhead:{}{}", System.lineSeparator(), report.format());
+        return report;
+    }
+
+    private double measurePrepare(boolean legacy) {
+        long checksum = 0;
+        for (int i = 0; i < PREPARE_ITERATIONS / 10; i++) {
+            checksum += (legacy ? legacyBuilder() : templateBuilder()).command().size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < PREPARE_ITERATIONS; i++) {
+            checksum += (legacy ? legacyBuilder() : templateBuilder()).command().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        logger.debug("Prepare checksum: {}", checksum);
+        return (double) elapsed / PREPARE_ITERATIONS;
+    }
+
+    private ProcessBuilder legacyBuilder() {
+        List<String> command = new ArrayList<>();
+        command.add(TestConfig.getInstance().getGcloud().getExecutablePath());
+        command.addAll(Arrays.asList(args));
+        return new ProcessBuilder(command.toArray(String[]::new));
+    }
+
+    private ProcessBuilder templateBuilder() {
+        return template.processBuilder(template.command(args));
+    }
+
+    private static long spawn(ProcessBuilder pb) {
+        pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+        long start = System.nanoTime();
+        try {
+            pb.start().waitFor();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start " + pb.command(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + pb.command(), e);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Benchmark result; prepare costs in nanoseconds per call
+     */
+    public record Report(String command, double legacyPrepareNanos, double templatePrepareNanos,
+            LatencyRecorder.LatencyStats legacySpawn, LatencyRecorder.LatencyStats templateSpawn) {
+
+        public String format() {
+            return String.format("Command: %s, launch mechanism: %s%n", command,
+                    System.getProperty("jdk.lang.Process.launchMechanism", "JDK default"))
+                    + String.format("%-10s %14s %14s %14s %14s%n", "variant", "prepare ns", "spawn mean ms",
+                            "spawn p50 ms", "spawn p99 ms")
+                    + String.format("%-10s %14.0f %14.2f %14.2f %14.2f%n", "legacy", legacyPrepareNanos,
+                            legacySpawn.mean(), legacySpawn.p50(), legacySpawn.p99())
+                    + String.format("%-10s %14.0f %14.2f %14.2f %14.2f%n", "template", templatePrepareNanos,
+                            templateSpawn.mean(), templateSpawn.p50(), templateSpawn.p99());
+        }
+    }
+}
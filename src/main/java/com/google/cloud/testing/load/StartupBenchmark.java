@@ -0,0 +1,235 @@
+package com.google.cloud.testing.load;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.cloud.testing.profiling.StartupProbe;
+
+/**
+ * Time from launching a suite JVM to its first test, with and without an
+ * AppCDS archive of the classes the suite loads.
+ * <p>
+ * The archive is trained by running a suite once to completion with
+ * -XX:ArchiveClassesAtExit. Measured launches of both variants are
+ * interleaved; each is killed as soon as {@link StartupProbe} reports the
+ * first test, before the suite's cleanup can run, so they launch a probe
+ * suite whose setup and first test leave nothing behind (testng-startup.xml
+ * by default). CDS only archives classes from jars, so the class path must
+ * not hold class directories: use the jars built with -Dcds.
+ */
+public class StartupBenchmark {
+
+    public static final Path DEFAULT_ARCHIVE = Path.of("target", "suite-cds.jsa");
+    public static final String DEFAULT_PROBE_SUITE = "src/test/resources/testng-startup.xml";
+    public static final String DEFAULT_TRAINING_SUITE = "src/test/resources/testng.xml";
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupBenchmark.class);
+    private static final Path OUTPUT = Path.of("target", "startup");
+
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private final String classPath;
+    private final Path archive;
+    private final String trainingSuite;
+    private final String suite;
+
+    /**
+     * @param trainingSuite suite run to completion to train the archive
+     * @param suite probe suite of the measured launches; it must not create
+     * anything in its setup or first test, since the launches are killed there
+     */
+    public StartupBenchmark(String classPath, Path archive, String trainingSuite, String suite) throws IOException {
+        for (String entry : classPath.split(File.pathSeparator)) {
+            Path path = Path.of(entry);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.list(path)) {
+                    if (files.findAny().isPresent()) {
+                        throw new IllegalArgumentException("AppCDS cannot archive classes from the directory " + entry
+                                + "; put the jars built by mvn -Dcds=train on the class path instead");
+                    }
+                }
+            }
+        }
+        this.classPath = classPath;
+        this.archive = archive;
+        this.trainingSuite = trainingSuite;
+        this.suite = suite;
+    }
+
+    public boolean hasArchive() {
+        return Files.isRegularFile(archive);
+    }
+
+    /**
+     * Whether the archive maps with this benchmark's class path. An archive
+     * trained by mvn -Dcds=train does not: surefire puts its own jars first
+     */
+    public boolean archiveMatchesClassPath() throws IOException, InterruptedException {
+        if (!hasArchive()) {
+            return false;
+        }
+        List<String> command = new ArrayList<>(List.of(java, "-XX:SharedArchiveFile=" + archive, "-Xshare:on",
+                "-cp", classPath, "-version"));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        return process.waitFor() == 0;
+    }
+
+    /**
+     * Run the whole training suite once, dumping every class it loaded into
+     * the archive when the JVM exits
+     */
+    public void train() throws IOException, InterruptedException {
+        Files.createDirectories(OUTPUT);
+        if (archive.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(archive.toAbsolutePath().getParent());
+        }
+        Path log = OUTPUT.resolve("training.log");
+        logger.info("Training AppCDS archive {} with a run of {} (log {})", archive, trainingSuite, log);
+        long start = System.nanoTime();
+        int exit = new ProcessBuilder(command(trainingSuite, "-XX:ArchiveClassesAtExit=" + archive))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start()
+                .waitFor();
+        if (!hasArchive()) {
+            throw new IllegalStateException("Training run exited with " + exit + " without writing " + archive
+                    + ", see " + log);
+        }
+        logger.info("Archive of {} MB written in {} s (suite exit {})", Files.size(archive) / (1024 * 1024),
+                (System.nanoTime() - start) / 1_000_000_000, exit);
+    }
+
+    /**
+     * Run the benchmark
+     *
+     * @param samples measured launches per variant
+     */
+    public Report run(int samples) throws IOException, InterruptedException {
+        if (!hasArchive()) {
+            throw new IllegalStateException("No AppCDS archive at " + archive + "; train it first");
+        }
+        logger.info("Measuring time to first test of {} over {} launches per variant", suite, samples);
+        // One unmeasured launch each to warm the page cache for the jars and the archive
+        timeToFirstTest(false);
+        timeToFirstTest(true);
+
+        LatencyRecorder cold = new LatencyRecorder();
+        LatencyRecorder archived = new LatencyRecorder();
+        LatencyRecorder coldUptime = new LatencyRecorder();
+        LatencyRecorder archivedUptime = new LatencyRecorder();
+        for (int i = 0; i < samples; i++) {
+            boolean archiveFirst = i % 2 == 1;
+            for (boolean withArchive : new boolean[] { archiveFirst, !archiveFirst }) {
+                long[] measured = timeToFirstTest(withArchive);
+                (withArchive ? archived : cold).record(measured[0]);
+                (withArchive ? archivedUptime : coldUptime).record(measured[1] * 1_000_000);
+            }
+        }
+
+        Report report = new Report(suite, Files.size(archive), cold.snapshot(), archived.snapshot(),
+                coldUptime.snapshot(), archivedUptime.snapshot());
+        logger.info("Startup benchmark finished:{}{}", System.lineSeparator(), report.format());
+        return report;
+    }
+
+    /**
+     * @return wall nanoseconds from launch to the first test, and the JVM's
+     *         own uptime in milliseconds at that point
+     */
+    private long[] timeToFirstTest(boolean withArchive) throws IOException, InterruptedException {
+        // -Xshare:on fails the launch if the archive cannot be mapped, instead of silently measuring without it
+        List<String> command = withArchive ? command(suite, "-XX:SharedArchiveFile=" + archive, "-Xshare:on")
+                : command(suite);
+        Deque<String> tail = new ArrayDeque<>();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                long uptime = StartupProbe.parse(line);
+                if (uptime >= 0) {
+                    return new long[] { System.nanoTime() - start, uptime };
+                }
+                tail.addLast(line);
+                if (tail.size() > 20) {
+                    tail.removeFirst();
+                }
+            }
+        } finally {
+            process.destroyForcibly();
+            process.waitFor();
+        }
+        throw new IllegalStateException("Suite exited without starting a test ("
+                + (withArchive ? "with" : "without") + " archive):" + System.lineSeparator()
+                + String.join(System.lineSeparator(), tail));
+    }
+
+    private List<String> command(String suiteFile, String... jvmArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(List.of(jvmArgs));
+        command.addAll(List.of("-Dallure.results.directory=" + OUTPUT.resolve("allure-results"),
+                "-cp", classPath, "org.testng.TestNG", "-listener", StartupProbe.class.getName(),
+                "-d", OUTPUT.resolve("testng").toString(), suiteFile));
+        return command;
+    }
+
+    public record Report(String suite, long archiveBytes, LatencyRecorder.LatencyStats withoutArchive,
+            LatencyRecorder.LatencyStats withArchive, LatencyRecorder.LatencyStats uptimeWithoutArchive,
+            LatencyRecorder.LatencyStats uptimeWithArchive) {
+
+        /**
+         * Median time to first test the archive saves
+         */
+        public double savedMs() {
+            return withoutArchive.p50() - withArchive.p50();
+        }
+
+        public String format() {
+            return String.format("Suite: %s, archive: %.1f MB, saved at p50: %.0f ms (%.0f%%)%n", suite,
+                    archiveBytes / (1024.0 * 1024.0), savedMs(), 100 * savedMs() / withoutArchive.p50())
+                    + String.format("%-10s %14s %14s %14s %16s%n", "variant", "mean ms", "p50 ms", "p90 ms",
+                            "JVM uptime p50")
+                    + String.format("%-10s %14.0f %14.0f %14.0f %16.0f%n", "no archive", withoutArchive.mean(),
+                            withoutArchive.p50(), withoutArchive.p90(), uptimeWithoutArchive.p50())
+                    + String.format("%-10s %14.0f %14.0f %14.0f %16.0f%n", "appcds", withArchive.mean(),
+                            withArchive.p50(), withArchive.p90(), uptimeWithArchive.p50());
+        }
+    }
+
+    /**
+     * {@code StartupBenchmark [probe-suite.xml] [samples] [archive] [training-suite.xml]};
+     * trains the archive first if it does not exist or does not map with this
+     * class path. The archive defaults to the one mvn -Dcds=train writes
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String suite = args.length > 0 ? args[0] : DEFAULT_PROBE_SUITE;
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Path archive = args.length > 2 ? Path.of(args[2]) : DEFAULT_ARCHIVE;
+        String trainingSuite = args.length > 3 ? args[3] : DEFAULT_TRAINING_SUITE;
+        StartupBenchmark benchmark = new StartupBenchmark(System.getProperty("java.class.path"), archive,
+                trainingSuite, suite);
+        if (!benchmark.archiveMatchesClassPath()) {
+            if (benchmark.hasArchive()) {
+                logger.warn("Archive {} was trained with another class path; retraining it for the benchmark. "
+                        + "Run mvn -Dcds=train again before using it with -Dcds=use", archive);
+            }
+            benchmark.train();
+        }
+        System.out.print(benchmark.run(samples).format());
+    }
+}
@@ -0,0 +1,148 @@
+package com.google.cloud.testing.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.TransferOptions;
+
+/**
+ * Sweeps a matrix of {@link TransferOptions} and measures upload and download
+ * throughput of one large file for each combination
+ */
+public class TransferBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferBenchmark.class);
+
+    private final GcloudStorageOperations storageOps;
+    private final String bucketName;
+    private final Path sourceFile;
+
+    public TransferBenchmark(GcloudStorageOperations storageOps, String bucketName, Path sourceFile) {
+        this.storageOps = storageOps;
+        this.bucketName = bucketName;
+        this.sourceFile = sourceFile;
+    }
+
+    /**
+     * Cartesian product of the given settings. An empty list leaves that
+     * setting at the gcloud default.
+     */
+    public static List<TransferOptions> matrix(List<Long> thresholds, List<Long> componentSizes,
+            List<Integer> processCounts, List<Integer> threadCounts) {
+        List<TransferOptions> matrix = new ArrayList<>();
+        matrix.add(TransferOptions.defaults());
+        for (TransferOptions withThreshold : expand(List.of(TransferOptions.defaults()), thresholds,
+                (o, v) -> o.withCompositeUploadThreshold(v).withSlicedDownloadThreshold(v))) {
+            for (TransferOptions withComponent : expand(List.of(withThreshold), componentSizes,
+                    TransferOptions::withCompositeUploadComponentSize)) {
+                for (TransferOptions withProcesses : expand(List.of(withComponent), processCounts,
+                        TransferOptions::withProcessCount)) {
+                    for (TransferOptions options : expand(List.of(withProcesses), threadCounts,
+                            TransferOptions::withThreadCount)) {
+                        if (!matrix.contains(options)) {
+                            matrix.add(options);
+                        }
+                    }
+                }
+            }
+        }
+        return matrix;
+    }
+
+    private static <T> List<TransferOptions> expand(List<TransferOptions> base, List<T> values,
+            BiFunction<TransferOptions, T, TransferOptions> apply) {
+        if (values.isEmpty()) {
+            return base;
+        }
+        List<TransferOptions> expanded = new ArrayList<>();
+        for (TransferOptions options : base) {
+            for (T value : values) {
+                expanded.add(apply.apply(options, value));
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * Upload and download the source file once per repetition for every entry
+     * of the matrix
+     */
+    public List<Row> run(List<TransferOptions> matrix, int repetitions) throws IOException {
+        long size = Files.size(sourceFile);
+        String objectUrl = "gs://" + bucketName + "/" + sourceFile.getFileName();
+        Path downloadDir = Files.createTempDirectory("gcloud-transfer-");
+        Path downloaded = downloadDir.resolve(sourceFile.getFileName());
+        logger.info("Transfer benchmark: {} bytes, {} configurations, {} repetitions", size, matrix.size(), repetitions);
+
+        List<Row> rows = new ArrayList<>();
+        try {
+            for (TransferOptions options : matrix) {
+                LatencyRecorder uploads = new LatencyRecorder();
+                LatencyRecorder downloads = new LatencyRecorder();
+                int errors = 0;
+                for (int i = 0; i < repetitions; i++) {
+                    long start = System.nanoTime();
+                    CommandResult upload = storageOps.uploadFile(sourceFile.toString(), bucketName, options);
+                    uploads.record(System.nanoTime() - start);
+
+                    start = System.nanoTime();
+                    CommandResult download = storageOps.downloadFile(objectUrl, downloaded.toString(), options);
+                    downloads.record(System.nanoTime() - start);
+
+                    if (!upload.isSuccess() || !download.isSuccess()) {
+                        errors++;
+                    }
+                    Files.deleteIfExists(downloaded);
+                }
+                rows.add(new Row(options.describe(), size, uploads.snapshot(), downloads.snapshot(), errors));
+            }
+        } finally {
+            Files.deleteIfExists(downloaded);
+            Files.deleteIfExists(downloadDir);
+        }
+        logger.info("Transfer benchmark finished:{}{}", System.lineSeparator(), format(rows));
+        return rows;
+    }
+
+    /**
+     * Render the results as a plain-text table
+     */
+    public static String format(List<Row> rows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-62s %12s %12s %12s %12s %6s%n", "options", "up MB/s", "up p50 ms",
+                "down MB/s", "down p50 ms", "errors"));
+        for (Row row : rows) {
+            sb.append(String.format("%-62s %12.1f %12.0f %12.1f %12.0f %6d%n", row.options(), row.uploadMbPerSecond(),
+                    row.upload().p50(), row.downloadMbPerSecond(), row.download().p50(), row.errors()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Result for one entry of the matrix
+     */
+    public record Row(String options, long bytes, LatencyRecorder.LatencyStats upload,
+            LatencyRecorder.LatencyStats download, int errors) {
+
+        public double uploadMbPerSecond() {
+            return throughput(upload);
+        }
+
+        public double downloadMbPerSecond() {
+            return throughput(download);
+        }
+
+        private double throughput(LatencyRecorder.LatencyStats stats) {
+            return stats.mean() == 0 ? 0 : (bytes / 1_048_576.0) / (stats.mean() / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.google.cloud.testing.load;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of operations a load run draws from
+ */
+public class WorkloadMix {
+
+    private final Map<OperationType, Integer> weights;
+    private final OperationType[] types;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public WorkloadMix(Map<OperationType, Integer> weights) {
+        this.weights = Collections.unmodifiableMap(new EnumMap<>(weights));
+        this.types = this.weights.keySet().toArray(OperationType[]::new);
+        this.cumulativeWeights = new int[types.length];
+
+        int total = 0;
+        for (int i = 0; i < types.length; i++) {
+            int weight = this.weights.get(types[i]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight cannot be negative: " + types[i].getKey() + "=" + weight);
+            }
+            total += weight;
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Workload mix must contain at least one operation with positive weight");
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Parse a mix definition such as "cp=2,ls=1,sign-url=1,describe=1"
+     */
+    public static WorkloadMix parse(String definition) {
+        if (definition == null || definition.isBlank()) {
+            throw new IllegalArgumentException("Workload mix definition cannot be null or empty");
+        }
+        Map<OperationType, Integer> weights = new EnumMap<>(OperationType.class);
+        for (String entry : definition.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid workload mix entry: " + entry);
+            }
+            weights.merge(OperationType.fromKey(parts[0]), Integer.parseInt(parts[1].trim()), Integer::sum);
+        }
+        return new WorkloadMix(weights);
+    }
+
+    /**
+     * Pick the next operation according to the configured weights
+     */
+    public OperationType next(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return types[i];
+            }
+        }
+        return types[types.length - 1];
+    }
+
+    public Map<OperationType, Integer> getWeights() {
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        weights.forEach((type, weight) -> {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(type.getKey()).append('=').append(weight);
+        });
+        return sb.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.google.cloud.testing.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * TestNG listener that prints one line when the first test starts, with the
+ * JVM uptime at that point. Added with -listener by the startup benchmark,
+ * which reads the line from the forked suite's output.
+ */
+public class StartupProbe implements ITestListener {
+
+    public static final String MARKER = "startup-probe first-test-ms=";
+
+    private final AtomicBoolean reported = new AtomicBoolean();
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        if (reported.compareAndSet(false, true)) {
+            // Straight to stdout: the benchmark parses it, whatever the logging configuration
+            System.out.println(MARKER + ManagementFactory.getRuntimeMXBean().getUptime());
+            System.out.flush();
+        }
+    }
+
+    /**
+     * JVM uptime in a probe line, -1 if the line is not one
+     */
+    public static long parse(String line) {
+        int index = line.indexOf(MARKER);
+        if (index < 0) {
+            return -1;
+        }
+        return Long.parseLong(line.substring(index + MARKER.length()).trim());
+    }
+}
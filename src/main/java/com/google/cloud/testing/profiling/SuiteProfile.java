@@ -0,0 +1,165 @@
+package com.google.cloud.testing.profiling;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The spans of one suite run, rendered as a Chrome trace-event file or as
+ * folded stacks for flame graph tools.
+ */
+public class SuiteProfile {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<TraceSpan> spans;
+    private final long originNanos;
+
+    /**
+     * @param spans all spans; the single span with a one-frame stack is the
+     * suite
+     */
+    public SuiteProfile(List<TraceSpan> spans) {
+        this.spans = spans.stream().sorted(Comparator.comparingLong(TraceSpan::startNanos)).toList();
+        this.originNanos = this.spans.isEmpty() ? 0 : this.spans.get(0).startNanos();
+    }
+
+    public List<TraceSpan> getSpans() {
+        return spans;
+    }
+
+    /**
+     * Write the Chrome trace-event JSON, loadable in chrome://tracing or
+     * ui.perfetto.dev. Every span is a complete ("X") event on its thread.
+     */
+    public void writeChromeTrace(OutputStream out) throws IOException {
+        try (JsonGenerator json = MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("displayTimeUnit", "ms");
+            json.writeArrayFieldStart("traceEvents");
+            Map<Long, String> threads = new LinkedHashMap<>();
+            for (TraceSpan span : spans) {
+                threads.putIfAbsent(span.threadId(), span.threadName());
+            }
+            for (Map.Entry<Long, String> thread : threads.entrySet()) {
+                json.writeStartObject();
+                json.writeStringField("ph", "M");
+                json.writeStringField("name", "thread_name");
+                json.writeNumberField("pid", 1);
+                json.writeNumberField("tid", thread.getKey());
+                json.writeObjectFieldStart("args");
+                json.writeStringField("name", thread.getValue());
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+            for (TraceSpan span : spans) {
+                json.writeStartObject();
+                json.writeStringField("ph", "X");
+                json.writeStringField("name", span.name());
+                json.writeStringField("cat", span.category());
+                json.writeNumberField("pid", 1);
+                json.writeNumberField("tid", span.threadId());
+                json.writeNumberField("ts", (span.startNanos() - originNanos) / 1000);
+                json.writeNumberField("dur", span.durationNanos() / 1000);
+                if (!span.args().isEmpty()) {
+                    json.writeObjectField("args", span.args());
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Own time in microseconds per stack, "suite;Class;method;command".
+     * A span's own time excludes the spans nested in it on its thread; the
+     * suite's own time is the wall time during which no test or configuration
+     * method ran on any thread, i.e. TestNG and framework overhead.
+     */
+    public Map<String, Long> fold() {
+        Map<String, Long> folded = new LinkedHashMap<>();
+        for (TraceSpan span : spans) {
+            long micros = span.durationNanos() / 1000;
+            if (span.stack().size() == 1) {
+                micros = (span.durationNanos() - coveredNanos(span)) / 1000;
+            }
+            folded.merge(frames(span.stack()), micros, Long::sum);
+            if (span.nested()) {
+                folded.merge(frames(span.stack().subList(0, span.stack().size() - 1)), -micros, Long::sum);
+            }
+        }
+        folded.replaceAll((stack, micros) -> Math.max(0, micros));
+        return folded;
+    }
+
+    /**
+     * Folded stacks in the format read by flamegraph.pl and speedscope, one
+     * "frame;frame;frame microseconds" line per stack
+     */
+    public String formatFolded() {
+        StringBuilder out = new StringBuilder();
+        fold().forEach((stack, micros) -> {
+            if (micros > 0) {
+                out.append(stack).append(' ').append(micros).append('\n');
+            }
+        });
+        return out.toString();
+    }
+
+    /**
+     * The stacks with the most own time, longest first
+     */
+    public String formatSummary(int limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(fold().entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        long total = entries.stream().mapToLong(Map.Entry::getValue).sum();
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%10s %6s  %s%n", "own ms", "%", "stack"));
+        for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            out.append(String.format("%10.1f %6.1f  %s%n", entry.getValue() / 1000.0,
+                    total == 0 ? 0 : 100.0 * entry.getValue() / total, entry.getKey()));
+        }
+        return out.toString();
+    }
+
+    private long coveredNanos(TraceSpan root) {
+        List<long[]> intervals = new ArrayList<>();
+        for (TraceSpan span : spans) {
+            if (span.stack().size() > 1 && !span.nested()) {
+                long start = Math.max(span.startNanos(), root.startNanos());
+                long end = Math.min(span.endNanos(), root.endNanos());
+                if (end > start) {
+                    intervals.add(new long[] {start, end});
+                }
+            }
+        }
+        intervals.sort(Comparator.comparingLong(interval -> interval[0]));
+        long covered = 0;
+        long coveredTo = Long.MIN_VALUE;
+        for (long[] interval : intervals) {
+            long start = Math.max(interval[0], coveredTo);
+            if (interval[1] > start) {
+                covered += interval[1] - start;
+                coveredTo = interval[1];
+            }
+        }
+        return covered;
+    }
+
+    private static String frames(List<String> stack) {
+        List<String> cleaned = new ArrayList<>(stack.size());
+        for (String frame : stack) {
+            cleaned.add(frame.replace(';', ':'));
+        }
+        return String.join(";", cleaned);
+    }
+}
@@ -0,0 +1,251 @@
+package com.google.cloud.testing.profiling;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IConfigurationListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.core.CommandExecutor;
+import com.google.cloud.testing.core.CommandListener;
+import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.events.EventLogAnalyzer;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.ResultsUtils;
+
+/**
+ * Wall-clock profiler of a suite, active when {@code profiler.enabled} is
+ * set. Register it in the suite file next to the Allure listener.
+ * <p>
+ * Records a span for the suite, every test and configuration method, and
+ * every gcloud invocation, with the thread it ran on. When the suite finishes
+ * it writes trace.json (Chrome trace events) and profile.folded (folded
+ * stacks for flame graphs), and attaches both to a "Suite wall-clock profile"
+ * entry of the Allure report.
+ */
+public class SuiteProfiler implements ISuiteListener, ITestListener, IConfigurationListener, CommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuiteProfiler.class);
+    private static final int SUMMARY_STACKS = 15;
+
+    private final ThreadLocal<Deque<OpenSpan>> openSpans = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<Long, OpenSpan> openCommands = new ConcurrentHashMap<>();
+    private final Queue<TraceSpan> spans = new ConcurrentLinkedQueue<>();
+    private volatile OpenSpan suite;
+
+    @Override
+    public void onStart(ISuite iSuite) {
+        if (!TestConfig.getInstance().getProfiler().isEnabled() || suite != null) {
+            return;
+        }
+        spans.clear();
+        suite = new OpenSpan(List.of(iSuite.getName()), System.nanoTime(), Thread.currentThread());
+        CommandExecutor.addListener(this);
+    }
+
+    @Override
+    public void onFinish(ISuite iSuite) {
+        OpenSpan current = suite;
+        if (current == null || !current.stack().get(0).equals(iSuite.getName())) {
+            return;
+        }
+        CommandExecutor.removeListener(this);
+        suite = null;
+        spans.add(current.close("suite", Map.of()));
+        SuiteProfile profile = new SuiteProfile(new ArrayList<>(spans));
+        spans.clear();
+
+        Path directory = Path.of(TestConfig.getInstance().getProfiler().getOutputDir());
+        try {
+            Files.createDirectories(directory);
+            ByteArrayOutputStream trace = new ByteArrayOutputStream();
+            profile.writeChromeTrace(trace);
+            String folded = profile.formatFolded();
+            String summary = profile.formatSummary(SUMMARY_STACKS);
+            Files.write(directory.resolve("trace.json"), trace.toByteArray());
+            Files.writeString(directory.resolve("profile.folded"), folded, StandardCharsets.UTF_8);
+            logger.info("Suite profile of {} spans written to {}, own time by stack:\n{}",
+                    profile.getSpans().size(), directory, summary);
+            attach(iSuite.getName(), profile, trace.toByteArray(), folded, summary);
+        } catch (IOException e) {
+            logger.warn("Could not write suite profile to {}: {}", directory, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        open(result.getMethod(), false);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        close(result, "PASSED", false);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        close(result, "FAILED", false);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        close(result, "SKIPPED", false);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        close(result, "FAILED", false);
+    }
+
+    @Override
+    public void beforeConfiguration(ITestResult result) {
+        open(result.getMethod(), true);
+    }
+
+    @Override
+    public void onConfigurationSuccess(ITestResult result) {
+        close(result, "PASSED", true);
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result) {
+        close(result, "FAILED", true);
+    }
+
+    @Override
+    public void onConfigurationSkip(ITestResult result) {
+        close(result, "SKIPPED", true);
+    }
+
+    /**
+     * Commands run by a test thread nest under its open test or configuration
+     * method; commands on other threads (fixture or load pools) get a frame
+     * named after their pool instead
+     */
+    @Override
+    public void commandStarted(long commandId, String[] command) {
+        OpenSpan current = suite;
+        if (current == null) {
+            return;
+        }
+        String key = EventLogAnalyzer.commandKey(String.join(" ", command));
+        OpenSpan parent = openSpans.get().peek();
+        List<String> stack = new ArrayList<>(parent != null ? parent.stack()
+                : List.of(current.stack().get(0), poolName(Thread.currentThread().getName())));
+        stack.add(key);
+        openCommands.put(commandId, new OpenSpan(stack, System.nanoTime(), Thread.currentThread(), parent != null));
+    }
+
+    @Override
+    public void commandFinished(long commandId, String[] command, CommandResult result, long stdoutBytes,
+            long stderrBytes) {
+        OpenSpan open = openCommands.remove(commandId);
+        if (open != null) {
+            spans.add(open.close("command", Map.of("command", String.join(" ", command),
+                    "exit", result.getExitCode(), "stdout_bytes", stdoutBytes, "stderr_bytes", stderrBytes)));
+        }
+    }
+
+    private void open(ITestNGMethod method, boolean configuration) {
+        OpenSpan current = suite;
+        if (current != null) {
+            openSpans.get().push(new OpenSpan(List.of(current.stack().get(0), method.getRealClass().getSimpleName(),
+                    name(method, configuration)), System.nanoTime(), Thread.currentThread()));
+        }
+    }
+
+    private void close(ITestResult result, String status, boolean configuration) {
+        if (suite == null) {
+            return;
+        }
+        String name = name(result.getMethod(), configuration);
+        // A test skipped after a failed configuration is reported without having started
+        Iterator<OpenSpan> iterator = openSpans.get().iterator();
+        while (iterator.hasNext()) {
+            OpenSpan open = iterator.next();
+            if (open.name().equals(name)) {
+                iterator.remove();
+                spans.add(open.close(configuration ? "config" : "test", Map.of("status", status)));
+                return;
+            }
+        }
+    }
+
+    private void attach(String suiteName, SuiteProfile profile, byte[] trace, String folded, String summary) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        List<TraceSpan> all = profile.getSpans();
+        TestResult result = new TestResult()
+                .setUuid(uuid)
+                .setHistoryId(ResultsUtils.md5(suiteName + ".wallClockProfile"))
+                .setName("Suite wall-clock profile")
+                .setFullName(suiteName + ".wallClockProfile")
+                .setDescription("Open the trace in chrome://tracing or https://ui.perfetto.dev; render the folded "
+                        + "stacks with flamegraph.pl or https://www.speedscope.app")
+                .setStatus(Status.PASSED)
+                .setLabels(List.of(ResultsUtils.createEpicLabel("GCloud Storage CLI"),
+                        ResultsUtils.createFeatureLabel("Suite Profile"), ResultsUtils.createSuiteLabel(suiteName)));
+        long wallMillis = all.stream().filter(span -> span.stack().size() == 1)
+                .mapToLong(span -> span.durationNanos() / 1_000_000).findFirst().orElse(0);
+        result.setStop(System.currentTimeMillis());
+        result.setStart(result.getStop() - wallMillis);
+        lifecycle.scheduleTestCase(result);
+        lifecycle.startTestCase(uuid);
+        lifecycle.addAttachment("Own Time by Stack", "text/plain", "txt", summary.getBytes(StandardCharsets.UTF_8));
+        lifecycle.addAttachment("Chrome Trace", "application/json", "json", trace);
+        lifecycle.addAttachment("Folded Stacks", "text/plain", "folded", folded.getBytes(StandardCharsets.UTF_8));
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+
+    private static String name(ITestNGMethod method, boolean configuration) {
+        return configuration ? method.getMethodName() + " [config]" : method.getMethodName();
+    }
+
+    /**
+     * "fixture" for "fixture-3", so that pool threads share one frame
+     */
+    private static String poolName(String threadName) {
+        return threadName.replaceFirst("[-#]?\\d+$", "");
+    }
+
+    private record OpenSpan(List<String> stack, long startNanos, Thread thread, boolean nested) {
+
+        OpenSpan(List<String> stack, long startNanos, Thread thread) {
+            this(stack, startNanos, thread, false);
+        }
+
+        String name() {
+            return stack.get(stack.size() - 1);
+        }
+
+        TraceSpan close(String category, Map<String, Object> args) {
+            return new TraceSpan(category, stack, nested, thread.getId(), thread.getName(), startNanos,
+                    System.nanoTime(), args);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.google.cloud.testing.profiling;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A timed section of the suite: the suite itself, a test or configuration
+ * method, or one gcloud invocation.
+ *
+ * @param stack frames from the suite down to this span, used for the folded
+ * stacks
+ * @param nested whether the span runs inside the last-but-one frame of the
+ * stack on the same thread, so its time is not that frame's own time
+ * @param args extra details shown when the span is selected in a trace viewer
+ */
+public record TraceSpan(String category, List<String> stack, boolean nested, long threadId, String threadName,
+        long startNanos, long endNanos, Map<String, Object> args) {
+
+    public String name() {
+        return stack.get(stack.size() - 1);
+    }
+
+    public long durationNanos() {
+        return endNanos - startNanos;
+    }
+}
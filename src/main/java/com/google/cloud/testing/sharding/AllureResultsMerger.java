@@ -0,0 +1,69 @@
+package com.google.cloud.testing.sharding;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Combines the Allure result directories of several shards into one, from
+ * which a single report is generated.
+ * <p>
+ * Results, containers and attachments have unique names and are copied as
+ * they are. Files every shard writes under the same name (environment,
+ * categories, executor) are taken from the first directory that has them.
+ */
+public final class AllureResultsMerger {
+
+    private static final Logger logger = LoggerFactory.getLogger(AllureResultsMerger.class);
+
+    private AllureResultsMerger() {
+    }
+
+    /**
+     * Merge result directories: {@code AllureResultsMerger <target> <source>...}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: AllureResultsMerger <target-dir> <source-dir>...");
+            System.exit(2);
+        }
+        List<Path> sources = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            sources.add(Path.of(args[i]));
+        }
+        int copied = merge(sources, Path.of(args[0]));
+        System.out.println("Merged " + copied + " files into " + args[0]);
+    }
+
+    /**
+     * @return number of files copied
+     */
+    public static int merge(List<Path> sources, Path target) throws IOException {
+        Files.createDirectories(target);
+        int copied = 0;
+        for (Path source : sources) {
+            if (!Files.isDirectory(source)) {
+                logger.warn("Skipping missing Allure results directory {}", source);
+                continue;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(source, Files::isRegularFile)) {
+                for (Path file : files) {
+                    Path destination = target.resolve(file.getFileName().toString());
+                    if (Files.exists(destination)) {
+                        logger.debug("Keeping existing {}", destination);
+                        continue;
+                    }
+                    Files.copy(file, destination);
+                    copied++;
+                }
+            }
+        }
+        return copied;
+    }
+}
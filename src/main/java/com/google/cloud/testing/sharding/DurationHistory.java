@@ -0,0 +1,111 @@
+package com.google.cloud.testing.sharding;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Recorded per-class durations, one JSON file per shard in a history
+ * directory ("class-durations-shard-N.json", or "class-durations.json" for
+ * unsharded runs) so that concurrent shards never write the same file.
+ * <p>
+ * When files disagree about a class the most recently written one wins. A
+ * new measurement is averaged with the recorded value to damp outliers.
+ * Planning reads the history as it was when the JVM started, so that shards
+ * finishing meanwhile do not change the plan of shards still starting.
+ */
+public final class DurationHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurationHistory.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final TypeReference<TreeMap<String, Long>> DURATIONS = new TypeReference<>() {
+    };
+    private static final String FILE_GLOB = "class-durations*.json";
+
+    private DurationHistory() {
+    }
+
+    /**
+     * Recorded duration in milliseconds per class name; empty when nothing
+     * was recorded yet
+     */
+    public static Map<String, Long> load(Path directory) {
+        return load(directory, Long.MAX_VALUE);
+    }
+
+    /**
+     * Recorded duration per class name, ignoring files written after the
+     * given time
+     *
+     * @param writtenBeforeMillis epoch milliseconds, e.g. the JVM start time
+     */
+    public static Map<String, Long> load(Path directory, long writtenBeforeMillis) {
+        Map<String, Long> durations = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return durations;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, FILE_GLOB)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            logger.warn("Cannot list duration history {}: {}", directory, e.getMessage());
+            return durations;
+        }
+        files.removeIf(file -> modified(file) >= writtenBeforeMillis);
+        // Oldest first so that newer files overwrite; name breaks ties for a stable result
+        files.sort(Comparator.comparing(DurationHistory::modified).thenComparing(Path::toString));
+        for (Path file : files) {
+            try {
+                durations.putAll(MAPPER.readValue(file.toFile(), DURATIONS));
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable duration history {}: {}", file, e.getMessage());
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Merge measured class durations into the history file of a shard
+     *
+     * @param shardIndex shard that measured them, or -1 for an unsharded run
+     */
+    public static void record(Path directory, int shardIndex, Map<String, Long> measuredMs) throws IOException {
+        Map<String, Long> previous = load(directory);
+        Path file = directory.resolve(shardIndex < 0 ? "class-durations.json"
+                : "class-durations-shard-" + shardIndex + ".json");
+        Map<String, Long> own = new TreeMap<>();
+        if (Files.exists(file)) {
+            own.putAll(MAPPER.readValue(file.toFile(), DURATIONS));
+        }
+        measuredMs.forEach((name, ms) -> {
+            Long known = previous.get(name);
+            own.put(name, known == null ? ms : (known + ms) / 2);
+        });
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "class-durations", ".tmp");
+        MAPPER.writeValue(temp.toFile(), own);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long modified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
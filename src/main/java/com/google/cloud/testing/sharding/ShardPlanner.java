@@ -0,0 +1,105 @@
+package com.google.cloud.testing.sharding;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Assigns test classes to shards.
+ * <p>
+ * With recorded durations it uses longest-processing-time-first: classes are
+ * taken longest first and each goes to the shard with the least planned time.
+ * Classes without a recorded duration count as the mean of the known ones.
+ * Without any history classes are dealt out round-robin in suite order. The
+ * plan depends only on its inputs, so every shard computes the same one.
+ * ShardRunner computes it once and hands it to its forks as a file.
+ */
+public final class ShardPlanner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private ShardPlanner() {
+    }
+
+    /**
+     * @param classes test class names in suite order, without duplicates
+     * @param durationsMs recorded duration per class name
+     */
+    public static ShardPlan plan(List<String> classes, Map<String, Long> durationsMs, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1: " + shardCount);
+        }
+        List<List<String>> shards = new ArrayList<>();
+        long[] loads = new long[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+
+        long known = classes.stream().filter(durationsMs::containsKey).count();
+        if (known == 0) {
+            for (int i = 0; i < classes.size(); i++) {
+                shards.get(i % shardCount).add(classes.get(i));
+            }
+            return new ShardPlan(shards, null, false);
+        }
+
+        long mean = classes.stream().filter(durationsMs::containsKey).mapToLong(durationsMs::get).sum() / known;
+        List<String> longestFirst = new ArrayList<>(classes);
+        longestFirst.sort(Comparator.<String>comparingLong(name -> durationsMs.getOrDefault(name, mean))
+                .reversed().thenComparing(Comparator.naturalOrder()));
+        for (String name : longestFirst) {
+            int target = 0;
+            for (int i = 1; i < shardCount; i++) {
+                if (loads[i] < loads[target]) {
+                    target = i;
+                }
+            }
+            shards.get(target).add(name);
+            loads[target] += durationsMs.getOrDefault(name, mean);
+        }
+        return new ShardPlan(shards, loads, true);
+    }
+
+    public static void write(ShardPlan plan, Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        MAPPER.writeValue(file.toFile(), plan);
+    }
+
+    public static ShardPlan read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), ShardPlan.class);
+    }
+
+    /**
+     * @param plannedMs expected duration per shard, null for round-robin plans
+     */
+    public record ShardPlan(List<List<String>> shards, long[] plannedMs, boolean fromHistory) {
+
+        public List<String> classesOf(int shardIndex) {
+            if (shardIndex < 0 || shardIndex >= shards.size()) {
+                throw new IllegalArgumentException("Shard index " + shardIndex + " outside of 0.."
+                        + (shards.size() - 1));
+            }
+            return shards.get(shardIndex);
+        }
+
+        public String format() {
+            StringBuilder out = new StringBuilder(fromHistory ? "Shard plan (longest processing time first):\n"
+                    : "Shard plan (round-robin, no recorded durations):\n");
+            for (int i = 0; i < shards.size(); i++) {
+                out.append(String.format("  shard %d%s: %s%n", i,
+                        plannedMs == null ? "" : String.format(" (~%.1f s)", plannedMs[i] / 1000.0),
+                        String.join(", ", shards.get(i))));
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.google.cloud.testing.sharding;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.testng.xml.internal.Parser;
+
+import com.google.cloud.testing.config.TestConfig;
+
+/**
+ * Runs a suite locally as several shards, each in its own JVM, then merges
+ * their Allure results into target/allure-results.
+ * <p>
+ * The forks use this JVM's class path, so start it with the test class path:
+ * {@code ShardRunner <shard-count> [suite.xml] [-- jvm-args...]}. The shard
+ * plan is computed once, before any fork starts, and written to
+ * target/shards/shard-plan.json for all of them. Each shard writes its log to
+ * target/shards/shard-N.log, TestNG reports to target/shards/shard-N and
+ * Allure results to target/shards/allure-N.
+ */
+public final class ShardRunner {
+
+    private static final Path OUTPUT = Path.of("target", "shards");
+    private static final Path MERGED_RESULTS = Path.of("target", "allure-results");
+
+    private ShardRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: ShardRunner <shard-count> [suite.xml] [-- jvm-args...]");
+            System.exit(2);
+        }
+        int count = Integer.parseInt(args[0]);
+        String suite = "src/test/resources/testng.xml";
+        List<String> jvmArgs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--")) {
+                jvmArgs.addAll(List.of(args).subList(i + 1, args.length));
+                break;
+            }
+            suite = args[i];
+        }
+        System.exit(run(count, suite, jvmArgs));
+    }
+
+    /**
+     * @return 0 if every shard passed, otherwise the first non-zero TestNG
+     * exit code
+     */
+    public static int run(int count, String suite, List<String> jvmArgs) throws IOException, InterruptedException {
+        Files.createDirectories(OUTPUT);
+        Path planFile = OUTPUT.resolve("shard-plan.json");
+        ShardPlanner.ShardPlan plan = ShardPlanner.plan(ShardingListener.testClasses(new Parser(suite).parse()),
+                DurationHistory.load(Path.of(TestConfig.getInstance().getShard().getHistoryDir())), count);
+        ShardPlanner.write(plan, planFile);
+        System.out.print(plan.format());
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> forks = new ArrayList<>();
+        List<CompletableFuture<Long>> finishedAt = new ArrayList<>();
+        List<Path> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int index = 0; index < count; index++) {
+            Path allure = OUTPUT.resolve("allure-" + index);
+            results.add(allure);
+            List<String> command = new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path"),
+                    "-Dshard.index=" + index, "-Dshard.count=" + count, "-Dshard.plan_file=" + planFile,
+                    "-Dallure.results.directory=" + allure));
+            command.addAll(jvmArgs);
+            command.addAll(List.of("org.testng.TestNG", "-d", OUTPUT.resolve("shard-" + index).toString(), suite));
+            forks.add(new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(OUTPUT.resolve("shard-" + index + ".log").toFile())
+                    .start());
+            finishedAt.add(forks.get(index).onExit().thenApply(process -> System.nanoTime()));
+        }
+
+        int status = 0;
+        for (int index = 0; index < count; index++) {
+            int exit = forks.get(index).waitFor();
+            System.out.printf("shard %d of %d: exit %d after %.1f s (log %s)%n", index, count, exit,
+                    (finishedAt.get(index).join() - start) / 1e9, OUTPUT.resolve("shard-" + index + ".log"));
+            if (status == 0) {
+                status = exit;
+            }
+        }
+        int merged = AllureResultsMerger.merge(results, MERGED_RESULTS);
+        System.out.printf("Merged %d Allure result files into %s%n", merged, MERGED_RESULTS);
+        return status;
+    }
+}
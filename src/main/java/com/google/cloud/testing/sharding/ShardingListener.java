@@ -0,0 +1,146 @@
+package com.google.cloud.testing.sharding;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.google.cloud.testing.config.TestConfig;
+
+/**
+ * Runs only this JVM's shard of the suite and records how long each test
+ * class took for future shard plans. Register it in the suite file.
+ * <p>
+ * Classes are the unit of sharding: a class listed in several {@code <test>}
+ * sections stays on one shard, and sections left without classes are
+ * dropped. Durations are recorded on every run, sharded or not, and include
+ * the class's configuration methods.
+ * <p>
+ * A shard runs the plan in {@code shard.plan_file} when one is given (as
+ * ShardRunner does), otherwise it plans from the duration files that
+ * existed when its JVM started.
+ */
+public class ShardingListener implements IAlterSuiteListener, ISuiteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        TestConfig.ShardSettings settings = TestConfig.getInstance().getShard();
+        if (!settings.isSharded()) {
+            return;
+        }
+        ShardPlanner.ShardPlan fixedPlan = fixedPlan(settings);
+        Map<String, Long> history = fixedPlan != null ? Map.of() : DurationHistory.load(
+                Path.of(settings.getHistoryDir()), ManagementFactory.getRuntimeMXBean().getStartTime());
+        for (XmlSuite suite : suites) {
+            ShardPlanner.ShardPlan plan = fixedPlan != null ? fixedPlan
+                    : ShardPlanner.plan(testClasses(List.of(suite)), history, settings.getCount());
+            Set<String> mine = new HashSet<>(plan.classesOf(settings.getIndex()));
+            logger.info("Suite {}: running shard {} of {}\n{}", suite.getName(), settings.getIndex(),
+                    settings.getCount(), plan.format());
+
+            List<XmlTest> kept = new ArrayList<>();
+            for (XmlTest test : suite.getTests()) {
+                List<XmlClass> ownClasses = new ArrayList<>(test.getXmlClasses());
+                ownClasses.removeIf(xmlClass -> !mine.contains(xmlClass.getName()));
+                test.setXmlClasses(ownClasses);
+                if (!ownClasses.isEmpty()) {
+                    kept.add(test);
+                }
+            }
+            suite.setTests(kept);
+        }
+    }
+
+    /**
+     * Test class names of the suites and their child suites in suite order,
+     * without duplicates
+     */
+    static List<String> testClasses(Collection<XmlSuite> suites) {
+        Set<String> classes = new LinkedHashSet<>();
+        addTestClasses(suites, classes);
+        return new ArrayList<>(classes);
+    }
+
+    private static void addTestClasses(Collection<XmlSuite> suites, Set<String> classes) {
+        for (XmlSuite suite : suites) {
+            for (XmlTest test : suite.getTests()) {
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    classes.add(xmlClass.getName());
+                }
+            }
+            addTestClasses(suite.getChildSuites(), classes);
+        }
+    }
+
+    private static ShardPlanner.ShardPlan fixedPlan(TestConfig.ShardSettings settings) {
+        if (settings.getPlanFile().isBlank()) {
+            return null;
+        }
+        Path file = Path.of(settings.getPlanFile());
+        ShardPlanner.ShardPlan plan;
+        try {
+            plan = ShardPlanner.read(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read shard plan " + file + ": " + e.getMessage(), e);
+        }
+        if (plan.shards().size() != settings.getCount()) {
+            throw new IllegalStateException("Shard plan " + file + " has " + plan.shards().size()
+                    + " shards, shard.count is " + settings.getCount());
+        }
+        return plan;
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Map<String, Long> measured = new TreeMap<>();
+        for (ISuiteResult suiteResult : suite.getResults().values()) {
+            ITestContext context = suiteResult.getTestContext();
+            addDurations(measured, context.getPassedTests().getAllResults());
+            addDurations(measured, context.getFailedTests().getAllResults());
+            addDurations(measured, context.getSkippedTests().getAllResults());
+            addDurations(measured, context.getPassedConfigurations().getAllResults());
+            addDurations(measured, context.getFailedConfigurations().getAllResults());
+        }
+        if (measured.isEmpty()) {
+            return;
+        }
+        TestConfig.ShardSettings settings = TestConfig.getInstance().getShard();
+        Path directory = Path.of(settings.getHistoryDir());
+        try {
+            DurationHistory.record(directory, settings.isSharded() ? settings.getIndex() : -1, measured);
+            logger.debug("Recorded durations of {} test classes in {}", measured.size(), directory);
+        } catch (IOException e) {
+            logger.warn("Could not record test class durations in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static void addDurations(Map<String, Long> measured, Set<ITestResult> results) {
+        for (ITestResult result : results) {
+            if (result.getTestClass() != null) {
+                measured.merge(result.getTestClass().getName(), result.getEndMillis() - result.getStartMillis(),
+                        Long::sum);
+            }
+        }
+    }
+}
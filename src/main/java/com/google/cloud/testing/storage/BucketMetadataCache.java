@@ -0,0 +1,148 @@
+package com.google.cloud.testing.storage;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache of bucket describe results.
+ * <p>
+ * Both positive ("bucket exists") and negative ("not found") answers are
+ * cached, each with its own TTL. Answers that are neither, e.g. a failed
+ * call, are handed to the callers that waited for them but not kept.
+ * Concurrent lookups of the same bucket share one in-flight load.
+ */
+public class BucketMetadataCache {
+
+    private final Function<String, BucketMetadata> loader;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+    private final Map<String, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    public BucketMetadataCache(Function<String, BucketMetadata> loader, Duration ttl, Duration negativeTtl) {
+        this(loader, ttl, negativeTtl, System::nanoTime);
+    }
+
+    BucketMetadataCache(Function<String, BucketMetadata> loader, Duration ttl, Duration negativeTtl,
+            LongSupplier clock) {
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Cached metadata of the bucket, loading it if absent or expired
+     */
+    public BucketMetadata get(String bucketName) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        // Decide on the entry the map holds at this instant, so a concurrent refresh or invalidate
+        // cannot slip in between the expiry check and the read
+        CompletableFuture<Entry> current = entries.compute(bucketName,
+                (name, existing) -> existing != null && isUsable(existing) ? existing : mine);
+        if (current != mine) {
+            hits.incrementAndGet();
+            return await(current).metadata();
+        }
+        return load(bucketName, mine);
+    }
+
+    /**
+     * Load the bucket's metadata now, bypassing and then refreshing the cache
+     */
+    public BucketMetadata refresh(String bucketName) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        entries.put(bucketName, mine);
+        return load(bucketName, mine);
+    }
+
+    /**
+     * Drop what is known about the bucket, e.g. after creating or deleting it
+     */
+    public void invalidate(String bucketName) {
+        entries.remove(bucketName);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    private BucketMetadata load(String bucketName, CompletableFuture<Entry> future) {
+        loads.incrementAndGet();
+        BucketMetadata metadata;
+        try {
+            metadata = loader.apply(bucketName);
+        } catch (RuntimeException e) {
+            entries.remove(bucketName, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        if (!metadata.cacheable() || ttlFor(metadata) <= 0) {
+            entries.remove(bucketName, future);
+        }
+        future.complete(new Entry(metadata, clock.getAsLong()));
+        return metadata;
+    }
+
+    /**
+     * Whether the future is an in-flight load or a loaded entry within its TTL
+     */
+    private boolean isUsable(CompletableFuture<Entry> future) {
+        if (!future.isDone()) {
+            return true;
+        }
+        Entry entry = future.isCompletedExceptionally() ? null : future.getNow(null);
+        return entry != null && isFresh(entry);
+    }
+
+    private boolean isFresh(Entry entry) {
+        return clock.getAsLong() - entry.loadedAtNanos() < ttlFor(entry.metadata());
+    }
+
+    private long ttlFor(BucketMetadata metadata) {
+        return metadata.exists() ? ttlNanos : negativeTtlNanos;
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Outcome of one bucket describe call
+     *
+     * @param exists whether the bucket was found
+     * @param description describe output, empty when the bucket was not found
+     * @param cacheable false when the call failed for another reason than the
+     * bucket not existing, so the answer says nothing about the bucket
+     */
+    public record BucketMetadata(String bucketName, boolean exists, String description, boolean cacheable) {
+
+    }
+
+    private record Entry(BucketMetadata metadata, long loadedAtNanos) {
+
+    }
+}
@@ -0,0 +1,111 @@
+package com.google.cloud.testing.storage;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Names of the objects a bulk operation has finished, appended one per line
+ * as batches succeed. Running the same operation again after a partial
+ * failure skips them. The file is deleted once the operation completes.
+ */
+public class BulkCheckpoint implements Closeable {
+
+    private final Path file;
+    private final Set<String> done = new HashSet<>();
+    private final BufferedWriter out;
+    private final boolean resumed;
+
+    private BulkCheckpoint(Path file) throws IOException {
+        this.file = file;
+        this.resumed = Files.exists(file);
+        if (resumed) {
+            byte[] content = Files.readAllBytes(file);
+            int complete = content.length;
+            while (complete > 0 && content[complete - 1] != '\n') {
+                complete--;
+            }
+            if (complete < content.length) {
+                // A line cut short by a crash names no object: drop it, so that the next name is not appended to it
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(complete);
+                }
+            }
+            for (String line : new String(content, 0, complete, StandardCharsets.UTF_8).split("\n")) {
+                if (!line.isEmpty()) {
+                    done.add(line);
+                }
+            }
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Open the checkpoint, reading what an earlier run finished
+     */
+    public static BulkCheckpoint open(Path file) throws IOException {
+        return new BulkCheckpoint(file);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Whether an earlier run of the operation did not finish, even if it
+     * finished no object
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    /**
+     * Objects finished so far, by this and earlier runs
+     */
+    public synchronized int doneCount() {
+        return done.size();
+    }
+
+    public synchronized boolean isDone(String objectName) {
+        return done.contains(objectName);
+    }
+
+    /**
+     * Record finished objects, flushed before returning
+     */
+    public synchronized void markDone(Collection<String> objectNames) throws IOException {
+        for (String name : objectNames) {
+            if (done.add(name)) {
+                out.write(name);
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Close and delete the checkpoint after the operation finished every
+     * object
+     */
+    public synchronized void complete() throws IOException {
+        out.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,38 @@
+package com.google.cloud.testing.storage;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outcome of a bulk delete, copy, move or directory upload
+ *
+ * @param objects objects processed by this run
+ * @param skipped objects finished by an earlier run, per the checkpoint or
+ * upload journal
+ * @param failedObjects objects of failed batches, to be retried on resume,
+ * and files a directory upload could not read or name
+ * @param errors stderr of each failed batch, or why a file was skipped
+ * @param checkpoint checkpoint left for resuming, null when every object
+ * was finished; a directory upload always returns its journal
+ */
+public record BulkResult(String operation, int objects, long bytes, int skipped, int failedObjects, int batches,
+        int failedBatches, long elapsedNanos, List<String> errors, Path checkpoint) {
+
+    public boolean isSuccess() {
+        return failedBatches == 0 && failedObjects == 0 && errors.isEmpty();
+    }
+
+    public double objectsPerSecond() {
+        return elapsedNanos == 0 ? 0 : (objects - failedObjects) * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public double megabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytes * 1_000_000_000.0 / elapsedNanos / (1024 * 1024);
+    }
+
+    public String describe() {
+        return String.format("%s: %d objects in %d batches (%d failed), %d skipped from checkpoint, %.1f ms, "
+                + "%.1f objects/s, %.2f MB/s", operation, objects - failedObjects, batches, failedBatches, skipped,
+                elapsedNanos / 1e6, objectsPerSecond(), megabytesPerSecond());
+    }
+}
@@ -0,0 +1,221 @@
+package com.google.cloud.testing.storage;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.cloud.testing.core.CommandExecutor;
+import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.storage.ObjectInventory.ObjectEntry;
+import com.google.cloud.testing.utils.ThreadFactories;
+
+/**
+ * One run of a directory upload. The tree is walked once; files the journal
+ * already holds with the same content are skipped and the rest are grouped
+ * per directory into batches that are uploaded while the walk goes on. At
+ * most a few batches wait for a thread, so memory stays bounded however
+ * large the tree is.
+ */
+class DirectoryUpload extends SimpleFileVisitor<Path> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryUpload.class);
+
+    private final CommandExecutor executor;
+    private final ObjectInventory inventory;
+    private final UploadJournal journal;
+    private final Path root;
+    private final String bucketName;
+    private final String prefix;
+    private final int batchSize;
+    private final int permits;
+    private final Semaphore inFlight;
+    private final ExecutorService pool;
+    private final Map<Path, List<LocalFile>> openBatches = new HashMap<>();
+
+    private final AtomicInteger objects = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger failedObjects = new AtomicInteger();
+    private final AtomicInteger failedBatches = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+    DirectoryUpload(CommandExecutor executor, ObjectInventory inventory, UploadJournal journal, Path root,
+            String bucketName, String prefix, int batchSize, int parallelism) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        this.executor = executor;
+        this.inventory = inventory;
+        this.journal = journal;
+        this.root = root;
+        this.bucketName = bucketName;
+        this.prefix = prefix;
+        this.batchSize = batchSize;
+        int threads = Math.max(1, parallelism);
+        this.permits = threads * 2;
+        this.inFlight = new Semaphore(permits);
+        this.pool = Executors.newFixedThreadPool(threads, ThreadFactories.namedThreads("upload"));
+    }
+
+    /**
+     * Walk the tree, upload what changed and wait for every batch
+     */
+    BulkResult run(String operation) throws IOException {
+        long start = System.nanoTime();
+        try {
+            Files.walkFileTree(root, this);
+        } finally {
+            inFlight.acquireUninterruptibly(permits);
+            pool.shutdown();
+        }
+        return new BulkResult(operation, objects.get(), bytes.get(), skipped.get(), failedObjects.get(),
+                batches.get(), failedBatches.get(), System.nanoTime() - start, List.copyOf(errors),
+                journal.getFile());
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+        if (!attrs.isRegularFile()) {
+            return FileVisitResult.CONTINUE;
+        }
+        String relative = relativeName(file);
+        if (relative.indexOf('\n') >= 0) {
+            // gcloud reads -I input one path per line
+            skip("Cannot upload a file with a newline in its name: " + file);
+            return FileVisitResult.CONTINUE;
+        }
+        long size = attrs.size();
+        long modified = attrs.lastModifiedTime().toMillis();
+        if (journal.isUploaded(relative, file, size, modified)) {
+            skipped.incrementAndGet();
+            return FileVisitResult.CONTINUE;
+        }
+        List<LocalFile> batch = openBatches.computeIfAbsent(file.getParent(), dir -> new ArrayList<>());
+        batch.add(new LocalFile(file, relative, size, modified));
+        if (batch.size() >= batchSize) {
+            submit(openBatches.remove(file.getParent()));
+        }
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException e) {
+        logger.warn("Skipping unreadable {}: {}", file, e.getMessage());
+        skip("Cannot read " + file + ": " + e.getMessage());
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+        List<LocalFile> batch = openBatches.remove(dir);
+        if (batch != null) {
+            submit(batch);
+        }
+        return FileVisitResult.CONTINUE;
+    }
+
+    /**
+     * Hand a batch to the pool, blocking the walk while enough are queued
+     */
+    private void submit(List<LocalFile> batch) {
+        inFlight.acquireUninterruptibly();
+        objects.addAndGet(batch.size());
+        batches.incrementAndGet();
+        CompletableFuture.runAsync(() -> upload(batch), pool).whenComplete((ignored, e) -> {
+            if (e != null) {
+                fail(batch, e.toString());
+            }
+            inFlight.release();
+        });
+    }
+
+    private void upload(List<LocalFile> batch) {
+        List<UploadJournal.Entry> entries = new ArrayList<>(batch.size());
+        StringBuilder paths = new StringBuilder();
+        try {
+            for (LocalFile local : batch) {
+                entries.add(new UploadJournal.Entry(local.relative(), local.size(), local.modifiedMillis(),
+                        UploadJournal.crc32c(local.file())));
+                paths.append(local.file().toAbsolutePath()).append('\n');
+            }
+        } catch (IOException e) {
+            fail(batch, "Cannot read " + e.getMessage());
+            return;
+        }
+        String folder = folderOf(batch.get(0).relative());
+        CommandResult result = executor.executeGcloudWithInput(paths.toString(), "storage", "cp", "-I",
+                "gs://" + bucketName + "/" + prefix + folder);
+        if (!result.isSuccess()) {
+            fail(batch, result.getStderr().trim());
+            return;
+        }
+        long batchBytes = 0;
+        for (LocalFile local : batch) {
+            inventory.put(bucketName, new ObjectEntry(prefix + local.relative(), local.size(), null, null));
+            batchBytes += local.size();
+        }
+        bytes.addAndGet(batchBytes);
+        try {
+            journal.append(entries);
+        } catch (IOException e) {
+            logger.warn("Could not journal {} uploaded files: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * A file the walk could not hand to gcloud fails the upload like a
+     * failed batch does
+     */
+    private void skip(String error) {
+        objects.incrementAndGet();
+        failedObjects.incrementAndGet();
+        errors.add(error);
+    }
+
+    private void fail(List<LocalFile> batch, String error) {
+        failedObjects.addAndGet(batch.size());
+        failedBatches.incrementAndGet();
+        errors.add(error);
+    }
+
+    /**
+     * Path below the root with '/' separators, the object name without the
+     * prefix
+     */
+    private String relativeName(Path file) {
+        Path relative = root.relativize(file);
+        StringBuilder name = new StringBuilder();
+        for (Path part : relative) {
+            if (name.length() > 0) {
+                name.append('/');
+            }
+            name.append(part);
+        }
+        return name.toString();
+    }
+
+    private static String folderOf(String relative) {
+        return relative.substring(0, relative.lastIndexOf('/') + 1);
+    }
+
+    private record LocalFile(Path file, String relative, long size, long modifiedMillis) {
+    }
+}
@@ -0,0 +1,483 @@
+package com.google.cloud.testing.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.testing.utils.ThreadFactories;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the Cloud Storage JSON API, for running the JSON backend
+ * without network access or credentials. It serves the same directory layout
+ * as the fake gcloud (a bucket is a directory, an object a file inside it), so
+ * both backends see the same buckets.
+ * <p>
+ * Supported: bucket list/insert/get/delete, object list (prefix and paging),
+ * get (metadata or alt=media), delete, media upload, and plain GET of
+ * /bucket/object as used by signed URLs.
+ */
+public class FakeStorageServer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeStorageServer.class);
+    private static final String JSON_PREFIX = "/storage/v1/b";
+    private static final String UPLOAD_PREFIX = "/upload/storage/v1/b";
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final Map<Path, FakeStorageServer> shared = new HashMap<>();
+
+    static {
+        // Otherwise a body written after the headers waits for the client's
+        // delayed ACK, adding ~40 ms to every small response. Read once, when
+        // the first HttpServer is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final Path root;
+    private final HttpServer server;
+    private final ExecutorService pool;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * Start a server over the storage root; port 0 picks a free port
+     */
+    public FakeStorageServer(Path root, int port) throws IOException {
+        this.root = root;
+        Files.createDirectories(root);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.pool = Executors.newCachedThreadPool(ThreadFactories.namedThreads("fake-gcs"));
+        server.setExecutor(pool);
+        server.createContext("/", this::handle);
+        // The dispatcher thread inherits the daemon flag of the thread that
+        // starts it, so a server nobody closes does not keep the JVM alive
+        Thread starter = new Thread(server::start);
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted starting the fake storage server", e);
+        }
+        logger.info("Fake storage server on {} serving {}", getEndpoint(), root);
+    }
+
+    /**
+     * One server per storage root, started on first use and left running
+     * for the rest of the JVM
+     */
+    public static FakeStorageServer shared(Path root) {
+        synchronized (shared) {
+            return shared.computeIfAbsent(root.toAbsolutePath().normalize(), dir -> {
+                try {
+                    return new FakeStorageServer(dir, 0);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not start fake storage server: " + e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Base URL, e.g. http://127.0.0.1:41234
+     */
+    public String getEndpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Requests served so far
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        pool.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            String path = exchange.getRequestURI().getRawPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+            if (path.startsWith(UPLOAD_PREFIX + "/")) {
+                List<String> parts = segments(path.substring(UPLOAD_PREFIX.length()));
+                if (parts.size() == 2 && parts.get(1).equals("o") && method.equals("POST")) {
+                    uploadObject(exchange, parts.get(0), query.get("name"));
+                    return;
+                }
+            } else if (path.equals(JSON_PREFIX) || path.startsWith(JSON_PREFIX + "/")) {
+                List<String> parts = segments(path.substring(JSON_PREFIX.length()));
+                if (routeJson(exchange, method, parts, query)) {
+                    return;
+                }
+            } else if (method.equals("GET") || method.equals("HEAD")) {
+                // XML API path style, as used by signed URLs
+                List<String> parts = segments(path);
+                if (parts.size() >= 2) {
+                    sendMedia(exchange, parts.get(0), String.join("/", parts.subList(1, parts.size())));
+                    return;
+                }
+            }
+            sendError(exchange, 400, "Unsupported request: " + method + " " + path);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Fake storage request failed: {}", e.toString());
+            sendError(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean routeJson(HttpExchange exchange, String method, List<String> parts, Map<String, String> query)
+            throws IOException {
+        switch (parts.size()) {
+            case 0 -> {
+                if (method.equals("GET")) {
+                    listBuckets(exchange);
+                    return true;
+                }
+                if (method.equals("POST")) {
+                    JsonNode body = mapper.readTree(exchange.getRequestBody());
+                    createBucket(exchange, body.path("name").asText());
+                    return true;
+                }
+            }
+            case 1 -> {
+                if (method.equals("GET")) {
+                    getBucket(exchange, parts.get(0));
+                    return true;
+                }
+                if (method.equals("DELETE")) {
+                    deleteBucket(exchange, parts.get(0));
+                    return true;
+                }
+            }
+            case 2 -> {
+                if (parts.get(1).equals("o") && method.equals("GET")) {
+                    listObjects(exchange, parts.get(0), query);
+                    return true;
+                }
+            }
+            default -> {
+                if (parts.get(1).equals("o")) {
+                    String objectName = String.join("/", parts.subList(2, parts.size()));
+                    if (method.equals("GET") && "media".equals(query.get("alt"))) {
+                        sendMedia(exchange, parts.get(0), objectName);
+                        return true;
+                    }
+                    if (method.equals("GET")) {
+                        getObject(exchange, parts.get(0), objectName);
+                        return true;
+                    }
+                    if (method.equals("DELETE")) {
+                        deleteObject(exchange, parts.get(0), objectName);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void listBuckets(HttpExchange exchange) throws IOException {
+        List<Map<String, Object>> items = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            List<String> names = new ArrayList<>();
+            dirs.forEach(dir -> names.add(dir.getFileName().toString()));
+            names.sort(null);
+            names.forEach(name -> items.add(bucketJson(name)));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("kind", "storage#buckets");
+        body.put("items", items);
+        sendJson(exchange, 200, body);
+    }
+
+    private void createBucket(HttpExchange exchange, String bucket) throws IOException {
+        Path dir = bucketDir(bucket);
+        if (Files.isDirectory(dir)) {
+            sendError(exchange, 409, "Your previous request to create the named bucket succeeded and you "
+                    + "already own it.");
+            return;
+        }
+        Files.createDirectories(dir);
+        sendJson(exchange, 200, bucketJson(bucket));
+    }
+
+    private void getBucket(HttpExchange exchange, String bucket) throws IOException {
+        if (!Files.isDirectory(bucketDir(bucket))) {
+            sendError(exchange, 404, "The specified bucket does not exist.");
+            return;
+        }
+        sendJson(exchange, 200, bucketJson(bucket));
+    }
+
+    private void deleteBucket(HttpExchange exchange, String bucket) throws IOException {
+        Path dir = bucketDir(bucket);
+        if (!Files.isDirectory(dir)) {
+            sendError(exchange, 404, "The specified bucket does not exist.");
+            return;
+        }
+        try (Stream<Path> entries = Files.list(dir)) {
+            if (entries.findAny().isPresent()) {
+                sendError(exchange, 409, "The bucket you tried to delete is not empty.");
+                return;
+            }
+        }
+        Files.delete(dir);
+        sendEmpty(exchange, 204);
+    }
+
+    private void listObjects(HttpExchange exchange, String bucket, Map<String, String> query) throws IOException {
+        Path dir = bucketDir(bucket);
+        if (!Files.isDirectory(dir)) {
+            sendError(exchange, 404, "The specified bucket does not exist.");
+            return;
+        }
+        String prefix = query.getOrDefault("prefix", "");
+        String pageToken = query.get("pageToken");
+        int pageSize = query.containsKey("maxResults") ? Integer.parseInt(query.get("maxResults"))
+                : DEFAULT_PAGE_SIZE;
+        List<String> names;
+        try (Stream<Path> files = Files.walk(dir)) {
+            names = files.filter(Files::isRegularFile).map(file -> objectName(dir, file))
+                    .filter(name -> name.startsWith(prefix))
+                    .filter(name -> pageToken == null || name.compareTo(pageToken) > 0)
+                    .sorted().limit(pageSize + 1L).toList();
+        }
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (String name : names.subList(0, Math.min(pageSize, names.size()))) {
+            items.add(objectJson(bucket, name, dir.resolve(name)));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("kind", "storage#objects");
+        if (names.size() > pageSize) {
+            body.put("nextPageToken", names.get(pageSize - 1));
+        }
+        body.put("items", items);
+        sendJson(exchange, 200, body);
+    }
+
+    private void getObject(HttpExchange exchange, String bucket, String objectName) throws IOException {
+        Path file = objectFile(bucket, objectName);
+        if (!Files.isRegularFile(file)) {
+            sendError(exchange, 404, "No such object: " + bucket + "/" + objectName);
+            return;
+        }
+        sendJson(exchange, 200, objectJson(bucket, objectName, file));
+    }
+
+    private void sendMedia(HttpExchange exchange, String bucket, String objectName) throws IOException {
+        Path file = objectFile(bucket, objectName);
+        if (!Files.isRegularFile(file)) {
+            sendError(exchange, 404, "No such object: " + bucket + "/" + objectName);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.getResponseHeaders().set("Content-Length", Long.toString(Files.size(file)));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, Files.size(file));
+        try (OutputStream out = exchange.getResponseBody()) {
+            Files.copy(file, out);
+        }
+    }
+
+    private void deleteObject(HttpExchange exchange, String bucket, String objectName) throws IOException {
+        Path file = objectFile(bucket, objectName);
+        if (!Files.isRegularFile(file)) {
+            sendError(exchange, 404, "No such object: " + bucket + "/" + objectName);
+            return;
+        }
+        Files.delete(file);
+        // Like the fake gcloud, leave no empty folders behind
+        Path dir = file.getParent();
+        Path bucketDir = bucketDir(bucket);
+        while (!dir.equals(bucketDir) && isEmpty(dir)) {
+            Files.delete(dir);
+            dir = dir.getParent();
+        }
+        sendEmpty(exchange, 204);
+    }
+
+    private void uploadObject(HttpExchange exchange, String bucket, String objectName) throws IOException {
+        if (objectName == null || objectName.isEmpty()) {
+            sendError(exchange, 400, "Required parameter: name");
+            return;
+        }
+        if (!Files.isDirectory(bucketDir(bucket))) {
+            sendError(exchange, 404, "The specified bucket does not exist.");
+            return;
+        }
+        Path file = objectFile(bucket, objectName);
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), ".upload-", ".tmp");
+        try (InputStream in = exchange.getRequestBody()) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        sendJson(exchange, 200, objectJson(bucket, objectName, file));
+    }
+
+    private Map<String, Object> bucketJson(String bucket) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("kind", "storage#bucket");
+        json.put("id", bucket);
+        json.put("name", bucket);
+        json.put("location", "US");
+        json.put("storageClass", "STANDARD");
+        return json;
+    }
+
+    private Map<String, Object> objectJson(String bucket, String objectName, Path file) throws IOException {
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("kind", "storage#object");
+        json.put("id", bucket + "/" + objectName + "/" + modified * 1000);
+        json.put("name", objectName);
+        json.put("bucket", bucket);
+        json.put("generation", Long.toString(modified * 1000));
+        json.put("contentType", "application/octet-stream");
+        json.put("size", Long.toString(Files.size(file)));
+        json.put("crc32c", UploadJournal.crc32c(file));
+        json.put("updated", Files.getLastModifiedTime(file).toInstant().toString());
+        return json;
+    }
+
+    private Path bucketDir(String bucket) {
+        if (bucket.isEmpty() || bucket.contains("/") || bucket.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid bucket name: " + bucket);
+        }
+        return root.resolve(bucket);
+    }
+
+    private Path objectFile(String bucket, String objectName) {
+        Path dir = bucketDir(bucket);
+        Path file = dir.resolve(objectName).normalize();
+        if (objectName.isEmpty() || !file.startsWith(dir) || file.equals(dir)) {
+            throw new IllegalArgumentException("Invalid object name: " + objectName);
+        }
+        return file;
+    }
+
+    private static String objectName(Path bucketDir, Path file) {
+        StringBuilder name = new StringBuilder();
+        for (Path part : bucketDir.relativize(file)) {
+            if (name.length() > 0) {
+                name.append('/');
+            }
+            name.append(part);
+        }
+        return name.toString();
+    }
+
+    private static boolean isEmpty(Path dir) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+
+    /**
+     * Decoded path segments; an object name's "%2F" stays inside its segment
+     * and is joined back by the caller
+     */
+    private static List<String> segments(String rawPath) {
+        List<String> parts = new ArrayList<>();
+        for (String part : rawPath.split("/")) {
+            if (!part.isEmpty()) {
+                parts.add(decode(part));
+            }
+        }
+        return parts;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String decode(String segment) {
+        // URLDecoder treats '+' as a space, which is only right in queries
+        return URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("code", status);
+        error.put("message", message);
+        sendJson(exchange, status, Map.of("error", error));
+    }
+
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    /**
+     * Serve a storage root until the process is killed:
+     * FakeStorageServer [root] [port]
+     */
+    public static void main(String[] args) throws Exception {
+        Path root = Path.of(args.length > 0 ? args[0] : "target/fake-gcs");
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        FakeStorageServer server = new FakeStorageServer(root, port);
+        System.out.println(server.getEndpoint());
+        Thread.currentThread().join();
+    }
+}
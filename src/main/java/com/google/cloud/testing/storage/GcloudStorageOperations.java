@@ -1,8 +1,24 @@
 package com.google.cloud.testing.storage;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,50 +29,98 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.cloud.testing.config.TestConfig;
 import com.google.cloud.testing.core.CommandExecutor;
 import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.core.GcloudContext;
+import com.google.cloud.testing.storage.BucketMetadataCache.BucketMetadata;
+import com.google.cloud.testing.storage.ObjectInventory.ObjectEntry;
+import com.google.cloud.testing.utils.ChannelDigests;
+import com.google.cloud.testing.utils.ThreadFactories;
 
 /**
  * Wrapper for Google Cloud Storage operations using gcloud CLI
  */
-public class GcloudStorageOperations {
+public class GcloudStorageOperations implements StorageOperations {
 
     private static final Logger logger = LoggerFactory.getLogger(GcloudStorageOperations.class);
+    private static final long STREAM_CHUNK_SIZE = 8L * 1024 * 1024;
+    private static final String VERIFY_ALGORITHM = "SHA-256";
     private final CommandExecutor executor;
+    private final ObjectInventory inventory = new ObjectInventory();
+    private final BucketMetadataCache bucketCache;
+    private ScheduledExecutorService reconcileScheduler;
     protected TestConfig config = TestConfig.getInstance();
 
     public GcloudStorageOperations() {
-        this.executor = new CommandExecutor();
+        this(new CommandExecutor());
+    }
+
+    public GcloudStorageOperations(CommandExecutor executor) {
+        this.executor = executor;
+        TestConfig.StorageSettings storage = config.getStorage();
+        this.bucketCache = new BucketMetadataCache(this::loadBucketMetadata,
+                Duration.ofSeconds(storage.getBucketCacheTtlSeconds()),
+                Duration.ofSeconds(storage.getBucketNegativeCacheTtlSeconds()));
+    }
+
+    @Override
+    public String getBackendName() {
+        return "cli";
+    }
+
+    public CommandExecutor getExecutor() {
+        return executor;
+    }
+
+    public ObjectInventory getInventory() {
+        return inventory;
+    }
+
+    public BucketMetadataCache getBucketCache() {
+        return bucketCache;
     }
 
     /**
      * Create a bucket
      */
+    @Override
     public CommandResult createBucket(String bucketName, String location) {
         if(bucketName == null || bucketName.isEmpty()) {
             throw new IllegalArgumentException("Bucket name cannot be null or empty");
         }
         logger.info("Creating bucket: {} in location: {}", bucketName, location);
-        return executor.executeGcloudCommand(
+        CommandResult result = executor.executeGcloudCommand(
                 "storage", "buckets", "create", "gs://" + bucketName,
                 "--location=" + location
         );
+        bucketCache.invalidate(bucketName);
+        if (result.isSuccess()) {
+            inventory.replace(bucketName, List.of());
+        }
+        return result;
     }
 
     /**
      * Delete a bucket
      */
+    @Override
     public CommandResult deleteBucket(String bucketName) {
         if(bucketName == null || bucketName.isEmpty()) {
             throw new IllegalArgumentException("Bucket name cannot be null or empty");
         }
         logger.info("Deleting bucket: {}", bucketName);
-        return executor.executeGcloudCommand(
+        CommandResult result = executor.executeGcloudCommand(
                 "storage", "buckets", "delete", "gs://" + bucketName
         );
+        bucketCache.invalidate(bucketName);
+        if (result.isSuccess()) {
+            inventory.invalidate(bucketName);
+        }
+        return result;
     }
 
     /**
      * List buckets in the project. Returns a CommandResult with JSON output.
      */
+    @Override
     public CommandResult listBuckets() {
         logger.info("Listing buckets");
         return executor.executeGcloudCommand(
@@ -65,38 +129,144 @@ public class GcloudStorageOperations {
     }
 
     /**
-     * Check if bucket exists
+     * Check if bucket exists, answered from the bucket cache when possible
      */
+    @Override
     public boolean bucketExists(String bucketName) {
-        CommandResult result = executor.executeGcloudCommand(
-                "storage", "buckets", "describe", "gs://" + bucketName, "--format=value(name)"
-        );
-        return result.isSuccess();
+        return bucketCache.get(bucketName).exists();
     }
 
     /**
-     * Describe a Cloud Storage bucket.
+     * Describe a Cloud Storage bucket, answered from the bucket cache when
+     * possible
      */
+    @Override
     public String bucketDescribe(String bucketName) {
+        return bucketCache.get(bucketName).description();
+    }
+
+    /**
+     * Describe a bucket with a fresh gcloud call, refreshing the bucket cache
+     */
+    public BucketMetadata describeBucket(String bucketName) {
+        return bucketCache.refresh(bucketName);
+    }
+
+    private BucketMetadata loadBucketMetadata(String bucketName) {
         CommandResult result = executor.executeGcloudCommand(
                 "storage", "buckets", "describe", "gs://" + bucketName, "--format=value(name)"
         );
-        return result.getStdout();
+        if (result.isSuccess()) {
+            return new BucketMetadata(bucketName, true, result.getStdout(), true);
+        }
+        String stderr = result.getStderr().toLowerCase(Locale.ROOT);
+        boolean notFound = stderr.contains("404") || stderr.contains("not found");
+        return new BucketMetadata(bucketName, false, result.getStdout(), notFound);
     }
 
     /**
      * Upload a file to bucket
      */
+    @Override
     public CommandResult uploadFile(String localFilePath, String bucketName) {
-        logger.info("Uploading file {} to gs://{}", localFilePath, bucketName);
-        return executor.executeGcloudCommand(
+        return uploadFile(localFilePath, bucketName, TransferOptions.defaults());
+    }
+
+    /**
+     * Upload a file to bucket with explicit parallel composite upload and
+     * concurrency settings
+     */
+    public CommandResult uploadFile(String localFilePath, String bucketName, TransferOptions options) {
+        logger.info("Uploading file {} to gs://{} ({})", localFilePath, bucketName, options.describe());
+        CommandResult result = executor.executeGcloudCommand(options.toEnvironment(),
                 "storage", "cp", localFilePath, "gs://" + bucketName
         );
+        if (result.isSuccess()) {
+            File file = new File(localFilePath);
+            inventory.put(bucketName, new ObjectEntry(file.getName(), file.length(), null, null));
+        }
+        return result;
+    }
+
+    /**
+     * Download an object to a local file or directory
+     */
+    @Override
+    public CommandResult downloadFile(String objectUrl, String localPath) {
+        return downloadFile(objectUrl, localPath, TransferOptions.defaults());
+    }
+
+    /**
+     * Download an object by piping `gcloud storage cat` straight into a file
+     * channel. The content never passes through a String or byte[] on the
+     * Java side.
+     */
+    public DownloadResult downloadToStream(String objectUrl, Path target) {
+        logger.info("Streaming {} to {}", objectUrl, target);
+        long[] bytes = new long[1];
+        long start = System.nanoTime();
+        CommandResult result = executor.executeGcloudStreaming(stdout -> {
+            try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                    ReadableByteChannel in = Channels.newChannel(stdout)) {
+                long transferred;
+                while ((transferred = out.transferFrom(in, bytes[0], STREAM_CHUNK_SIZE)) > 0) {
+                    bytes[0] += transferred;
+                }
+            }
+        }, "storage", "cat", objectUrl);
+        return new DownloadResult(objectUrl, bytes[0], System.nanoTime() - start, null, result);
+    }
+
+    /**
+     * Stream an object through a message digest without storing it anywhere
+     */
+    public DownloadResult downloadToDigest(String objectUrl, String algorithm) {
+        logger.info("Streaming {} through {} digest", objectUrl, algorithm);
+        ChannelDigests.Digest[] digest = new ChannelDigests.Digest[1];
+        long start = System.nanoTime();
+        CommandResult result = executor.executeGcloudStreaming(stdout -> {
+            try (ReadableByteChannel in = Channels.newChannel(stdout)) {
+                digest[0] = ChannelDigests.digest(in, algorithm);
+            }
+        }, "storage", "cat", objectUrl);
+        long bytes = digest[0] == null ? 0 : digest[0].bytes();
+        return new DownloadResult(objectUrl, bytes, System.nanoTime() - start, digest[0], result);
+    }
+
+    /**
+     * Verify that the object has the same content as a local source file.
+     * Both sides are digested in fixed-size chunks.
+     */
+    public boolean verifyObjectContent(String objectUrl, Path source) {
+        try {
+            ChannelDigests.Digest expected = ChannelDigests.digest(source, VERIFY_ALGORITHM);
+            DownloadResult actual = downloadToDigest(objectUrl, VERIFY_ALGORITHM);
+            boolean matches = actual.isSuccess() && expected.equals(actual.digest());
+            logger.info("Verified {} against {}: {} ({} bytes, {} MB/s)", objectUrl, source,
+                    matches ? "match" : "MISMATCH", actual.bytes(), String.format("%.1f", actual.megabytesPerSecond()));
+            return matches;
+        } catch (IOException e) {
+            logger.error("Failed to digest source file {}: {}", source, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Download an object to a local file or directory with explicit sliced
+     * download and concurrency settings
+     */
+    public CommandResult downloadFile(String objectUrl, String localPath, TransferOptions options) {
+        logger.info("Downloading {} to {} ({})", objectUrl, localPath, options.describe());
+        return executor.executeGcloudCommand(options.toEnvironment(),
+                "storage", "cp", objectUrl, localPath
+        );
     }
 
     /**
      * List objects in a bucket
      */
+    @Override
     public CommandResult listObjects(String bucketName) {
         logger.info("Listing objects in bucket: {}", bucketName);
         return executor.executeGcloudCommand(
@@ -104,6 +274,321 @@ public class GcloudStorageOperations {
         );
     }
 
+    /**
+     * Build the bucket's inventory from a single streamed JSON listing
+     */
+    public CommandResult loadInventory(String bucketName) {
+        List<ObjectEntry> listing = new ArrayList<>();
+        try (ObjectInventory.Listing open = inventory.openListing(bucketName)) {
+            CommandResult result = streamListing(bucketName, listing);
+            if (result.isSuccess()) {
+                inventory.replace(open, listing);
+                logger.info("Loaded inventory of gs://{}: {} objects", bucketName, listing.size());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Re-list the bucket and adopt the listing, reporting what the local
+     * inventory had missed
+     */
+    public ObjectInventory.ReconcileResult reconcileInventory(String bucketName) {
+        List<ObjectEntry> listing = new ArrayList<>();
+        try (ObjectInventory.Listing open = inventory.openListing(bucketName)) {
+            CommandResult result = streamListing(bucketName, listing);
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Failed to list gs://" + bucketName + ": " + result.getStderr());
+            }
+            ObjectInventory.ReconcileResult reconcile = inventory.reconcile(open, listing);
+            logger.info("Reconciled inventory of gs://{}: {}", bucketName, reconcile);
+            return reconcile;
+        }
+    }
+
+    /**
+     * Periodically reconcile every bucket that has an inventory
+     */
+    public synchronized void startInventoryReconcile(Duration period, String... bucketNames) {
+        stopInventoryReconcile();
+        reconcileScheduler = Executors
+                .newSingleThreadScheduledExecutor(ThreadFactories.namedThreads("inventory-reconcile"));
+        reconcileScheduler.scheduleWithFixedDelay(() -> {
+            for (String bucketName : bucketNames) {
+                try {
+                    reconcileInventory(bucketName);
+                } catch (RuntimeException e) {
+                    logger.warn("Inventory reconcile of gs://{} failed: {}", bucketName, e.getMessage());
+                }
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopInventoryReconcile() {
+        if (reconcileScheduler != null) {
+            reconcileScheduler.shutdownNow();
+            reconcileScheduler = null;
+        }
+    }
+
+    /**
+     * Check if an object exists, answered from the inventory
+     */
+    @Override
+    public boolean objectExists(String bucketName, String objectName) {
+        ensureInventory(bucketName);
+        return inventory.contains(bucketName, objectName);
+    }
+
+    /**
+     * Describe an object with a gcloud call, bypassing the inventory
+     */
+    @Override
+    public CommandResult describeObject(String bucketName, String objectName) {
+        return executor.executeGcloudCommand(
+                "storage", "objects", "describe", "gs://" + bucketName + "/" + objectName, "--format=json"
+        );
+    }
+
+    /**
+     * Delete a single object
+     */
+    @Override
+    public CommandResult deleteObject(String bucketName, String objectName) {
+        logger.info("Deleting gs://{}/{}", bucketName, objectName);
+        CommandResult result = executor.executeGcloudCommand(
+                "storage", "rm", "gs://" + bucketName + "/" + objectName
+        );
+        if (result.isSuccess()) {
+            inventory.remove(bucketName, objectName);
+        }
+        return result;
+    }
+
+    /**
+     * Objects whose name starts with the prefix, answered from the inventory
+     */
+    public List<ObjectEntry> findObjects(String bucketName, String prefix) {
+        ensureInventory(bucketName);
+        return inventory.withPrefix(bucketName, prefix);
+    }
+
+    private void ensureInventory(String bucketName) {
+        if (!inventory.isLoaded(bucketName)) {
+            CommandResult result = loadInventory(bucketName);
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Failed to list gs://" + bucketName + ": " + result.getStderr());
+            }
+        }
+    }
+
+    private CommandResult streamListing(String bucketName, List<ObjectEntry> listing) {
+        return executor.executeGcloudStreaming(stdout -> ObjectInventory.readListing(stdout, listing::add),
+                "storage", "objects", "list", "gs://" + bucketName, "--format=json");
+    }
+
+    /**
+     * Delete every object under a prefix, e.g. "gs://bucket/logs/"
+     */
+    public BulkResult deleteObjects(String prefixUrl) {
+        return runBulk("rm", prefixUrl, null);
+    }
+
+    /**
+     * Copy every object under a prefix to another bucket, keeping object
+     * names
+     */
+    public BulkResult copyObjects(String srcPrefixUrl, String dstBucket) {
+        return runBulk("cp", srcPrefixUrl, dstBucket);
+    }
+
+    /**
+     * Move every object under a prefix to another bucket, keeping object
+     * names
+     */
+    public BulkResult moveObjects(String srcPrefixUrl, String dstBucket) {
+        return runBulk("mv", srcPrefixUrl, dstBucket);
+    }
+
+    /**
+     * Upload a directory tree under a prefix of a bucket, e.g. "data/" or ""
+     * for the bucket root, keeping relative paths as object names. Uploaded
+     * files are journaled; running the upload again skips files whose size
+     * and modification time, or else crc32c, still match, so an interrupted
+     * upload resumes and a finished one only sends what changed.
+     */
+    public BulkResult uploadDirectory(Path root, String bucketName, String prefix) {
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Not a directory: " + root);
+        }
+        if (bucketName == null || bucketName.isEmpty()) {
+            throw new IllegalArgumentException("Bucket name cannot be null or empty");
+        }
+        String objectPrefix = prefix == null ? "" : prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+        TestConfig.BulkSettings settings = config.getBulk();
+        Path absolute = root.toAbsolutePath().normalize();
+        String operation = "upload " + absolute + " -> gs://" + bucketName + "/" + objectPrefix;
+        Path journalFile = Path.of(settings.getCheckpointDir(),
+                ("upload-" + absolute + "-" + bucketName + "-" + objectPrefix)
+                        .replaceAll("[^A-Za-z0-9._-]", "_") + ".journal");
+
+        try (UploadJournal journal = UploadJournal.open(journalFile)) {
+            logger.info("Upload {}: {} files journaled by earlier runs", operation, journal.size());
+            BulkResult result = new DirectoryUpload(executor, inventory, journal, absolute, bucketName,
+                    objectPrefix, settings.getBatchSize(), settings.getParallelism()).run(operation);
+            if (result.isSuccess()) {
+                logger.info("Upload {}", result.describe());
+            } else {
+                logger.warn("Upload {}; run it again to resume from {}", result.describe(), journalFile);
+            }
+            return result;
+        } catch (IOException e) {
+            throw new IllegalStateException("Upload of " + root + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run a bulk operation over the source's inventory. Objects are handed to
+     * gcloud in batches through stdin (-I), batches run on a bounded pool, and
+     * every finished batch is checkpointed. Running the same operation again
+     * after a failure resumes from the checkpoint.
+     */
+    private BulkResult runBulk(String verb, String srcPrefixUrl, String dstBucket) {
+        String path = srcPrefixUrl.startsWith("gs://") ? srcPrefixUrl.substring(5) : srcPrefixUrl;
+        int slash = path.indexOf('/');
+        String bucketName = slash < 0 ? path : path.substring(0, slash);
+        String prefix = slash < 0 ? "" : path.substring(slash + 1);
+        if (bucketName.isEmpty()) {
+            throw new IllegalArgumentException("Bucket name cannot be null or empty: " + srcPrefixUrl);
+        }
+        TestConfig.BulkSettings settings = config.getBulk();
+        String operation = verb + " " + srcPrefixUrl + (dstBucket == null ? "" : " -> gs://" + dstBucket);
+        Path checkpointFile = Path.of(settings.getCheckpointDir(),
+                (verb + "-" + srcPrefixUrl + (dstBucket == null ? "" : "-" + dstBucket))
+                        .replaceAll("[^A-Za-z0-9._-]", "_") + ".checkpoint");
+        long start = System.nanoTime();
+
+        try (BulkCheckpoint checkpoint = BulkCheckpoint.open(checkpointFile)) {
+            int skipped = checkpoint.doneCount();
+            if (checkpoint.isResumed() && !verb.equals("cp")) {
+                // The failed run may have removed sources that it never checkpointed
+                reconcileInventory(bucketName);
+            }
+            List<ObjectEntry> pending = new ArrayList<>();
+            for (ObjectEntry entry : findObjects(bucketName, prefix)) {
+                if (!checkpoint.isDone(entry.name())) {
+                    pending.add(entry);
+                }
+            }
+            List<List<ObjectEntry>> batches = batches(pending, settings.getBatchSize(), dstBucket != null);
+            logger.info("Bulk {}: {} objects in {} batches, {} already done", operation, pending.size(),
+                    batches.size(), skipped);
+
+            int threads = Math.max(1, Math.min(settings.getParallelism(), batches.size()));
+            ExecutorService pool = Executors.newFixedThreadPool(threads, ThreadFactories.namedThreads("bulk"));
+            List<CompletableFuture<CommandResult>> outcomes = new ArrayList<>();
+            try {
+                for (List<ObjectEntry> batch : batches) {
+                    outcomes.add(CompletableFuture.supplyAsync(
+                            () -> runBatch(verb, bucketName, batch, dstBucket, checkpoint), pool));
+                }
+                CompletableFuture.allOf(outcomes.toArray(CompletableFuture<?>[]::new)).join();
+            } finally {
+                pool.shutdown();
+            }
+
+            long bytes = 0;
+            int failedObjects = 0;
+            int failedBatches = 0;
+            List<String> errors = new ArrayList<>();
+            for (int i = 0; i < batches.size(); i++) {
+                CommandResult result = outcomes.get(i).join();
+                if (result.isSuccess()) {
+                    bytes += batches.get(i).stream().mapToLong(ObjectEntry::size).sum();
+                } else {
+                    failedObjects += batches.get(i).size();
+                    failedBatches++;
+                    errors.add(result.getStderr().trim());
+                }
+            }
+            if (failedBatches == 0) {
+                checkpoint.complete();
+            }
+            BulkResult result = new BulkResult(operation, pending.size(), bytes, skipped, failedObjects,
+                    batches.size(), failedBatches, System.nanoTime() - start, errors,
+                    failedBatches == 0 ? null : checkpointFile);
+            if (result.isSuccess()) {
+                logger.info("Bulk {}", result.describe());
+            } else {
+                logger.warn("Bulk {}; run it again to resume from {}", result.describe(), checkpointFile);
+            }
+            return result;
+        } catch (IOException e) {
+            throw new IllegalStateException("Bulk checkpoint " + checkpointFile + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private CommandResult runBatch(String verb, String bucketName, List<ObjectEntry> batch, String dstBucket,
+            BulkCheckpoint checkpoint) {
+        StringBuilder urls = new StringBuilder();
+        for (ObjectEntry entry : batch) {
+            urls.append("gs://").append(bucketName).append('/').append(entry.name()).append('\n');
+        }
+        CommandResult result = dstBucket == null
+                ? executor.executeGcloudWithInput(urls.toString(), "storage", verb, "-I")
+                : executor.executeGcloudWithInput(urls.toString(), "storage", verb, "-I",
+                        "gs://" + dstBucket + "/" + folderOf(batch.get(0).name()));
+        if (!result.isSuccess()) {
+            return result;
+        }
+        List<String> names = new ArrayList<>(batch.size());
+        for (ObjectEntry entry : batch) {
+            names.add(entry.name());
+            if (!verb.equals("cp")) {
+                inventory.remove(bucketName, entry.name());
+            }
+            if (dstBucket != null) {
+                inventory.put(dstBucket, new ObjectEntry(entry.name(), entry.size(), null, null));
+            }
+        }
+        try {
+            checkpoint.markDone(names);
+        } catch (IOException e) {
+            logger.warn("Could not checkpoint {} finished objects: {}", names.size(), e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Split objects into batches of at most batchSize. With byFolder every
+     * batch holds objects of a single folder, because a copy into
+     * gs://bucket/folder/ names each object after the last part of its source
+     * name.
+     */
+    static List<List<ObjectEntry>> batches(List<ObjectEntry> objects, int batchSize, boolean byFolder) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        Map<String, List<ObjectEntry>> groups = new LinkedHashMap<>();
+        for (ObjectEntry entry : objects) {
+            groups.computeIfAbsent(byFolder ? folderOf(entry.name()) : "", folder -> new ArrayList<>()).add(entry);
+        }
+        List<List<ObjectEntry>> batches = new ArrayList<>();
+        for (List<ObjectEntry> group : groups.values()) {
+            for (int i = 0; i < group.size(); i += batchSize) {
+                batches.add(group.subList(i, Math.min(group.size(), i + batchSize)));
+            }
+        }
+        return batches;
+    }
+
+    /**
+     * "a/b/" for "a/b/c.txt", "" for top-level objects
+     */
+    private static String folderOf(String objectName) {
+        return objectName.substring(0, objectName.lastIndexOf('/') + 1);
+    }
+
     /**
      * Generate a signed URL for an object
      */
@@ -115,7 +600,7 @@ public class GcloudStorageOperations {
         args.add("sign-url");
         args.add(fileUrlString);
         args.add("--duration=" + duration.toSeconds() + "s");
-        args.add("--impersonate-service-account=" + config.getGcloud().getServiceAccount());
+        args.add("--impersonate-service-account=" + impersonatedAccount());
         args.add("--format=json");
 
         CommandResult result = executor.executeGcloudCommand(
@@ -129,6 +614,17 @@ public class GcloudStorageOperations {
         }
     }
 
+    /**
+     * Service account of the executor's tenant, or the configured one
+     */
+    private String impersonatedAccount() {
+        GcloudContext context = executor.getContext();
+        if (context != null && context.serviceAccount() != null) {
+            return context.serviceAccount();
+        }
+        return config.getGcloud().getServiceAccount();
+    }
+
     /**
      * Extract signed URL from gcloud command output
      */
@@ -150,6 +646,25 @@ public class GcloudStorageOperations {
         return null;
     }
 
+    /**
+     * Result of a streaming download
+     */
+    public record DownloadResult(String objectUrl, long bytes, long elapsedNanos, ChannelDigests.Digest digest,
+            CommandResult commandResult) {
+
+        public boolean isSuccess() {
+            return commandResult.isSuccess();
+        }
+
+        public double bytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : bytes * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public double megabytesPerSecond() {
+            return bytesPerSecond() / (1024 * 1024);
+        }
+    }
+
     /**
      * Result of signed URL generation
      */
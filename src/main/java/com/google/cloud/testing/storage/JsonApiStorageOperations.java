@@ -0,0 +1,360 @@
+package com.google.cloud.testing.storage;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.core.CommandExecutor;
+import com.google.cloud.testing.core.CommandResult;
+
+/**
+ * Storage operations through the Cloud Storage JSON API, without forking
+ * gcloud. One HttpClient keeps connections alive across calls, so a call
+ * costs a request on a pooled connection where the CLI pays a process start,
+ * Python startup and a fresh TLS handshake. Comparing both backends on the
+ * same operations separates CLI overhead from service time.
+ * <p>
+ * gcloud is only asked, once, for the project and an access token when
+ * backend.project and backend.access_token are empty; neither is needed for
+ * the local fake server.
+ */
+public class JsonApiStorageOperations implements StorageOperations {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonApiStorageOperations.class);
+    private static final String LOCAL_PROJECT = "local-project";
+
+    private final String endpoint;
+    private final TestConfig.BackendSettings settings;
+    private final CommandExecutor executor;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private String accessToken;
+    private String project;
+
+    public JsonApiStorageOperations() {
+        this(TestConfig.getInstance().getBackend().getEndpoint());
+    }
+
+    /**
+     * Create a backend for the given JSON API base URL, or "local" for the
+     * shared fake storage server
+     */
+    public JsonApiStorageOperations(String endpoint) {
+        this(endpoint, new CommandExecutor());
+    }
+
+    public JsonApiStorageOperations(String endpoint, CommandExecutor executor) {
+        this.settings = TestConfig.getInstance().getBackend();
+        this.endpoint = resolveEndpoint(endpoint, settings);
+        this.executor = executor;
+        this.timeout = Duration.ofSeconds(settings.getRequestTimeoutSeconds());
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    private static String resolveEndpoint(String endpoint, TestConfig.BackendSettings settings) {
+        String base = TestConfig.BackendSettings.LOCAL_ENDPOINT.equals(endpoint)
+                ? FakeStorageServer.shared(Path.of(settings.getFakeRoot())).getEndpoint()
+                : endpoint;
+        return base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+    }
+
+    @Override
+    public String getBackendName() {
+        return "json";
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public CommandResult createBucket(String bucketName, String location) {
+        if (bucketName == null || bucketName.isEmpty()) {
+            throw new IllegalArgumentException("Bucket name cannot be null or empty");
+        }
+        logger.info("Creating bucket: {} in location: {}", bucketName, location);
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("name", bucketName);
+        body.put("location", location);
+        return call(request("/storage/v1/b?project=" + encode(project()))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body))));
+    }
+
+    @Override
+    public CommandResult deleteBucket(String bucketName) {
+        if (bucketName == null || bucketName.isEmpty()) {
+            throw new IllegalArgumentException("Bucket name cannot be null or empty");
+        }
+        logger.info("Deleting bucket: {}", bucketName);
+        return call(request("/storage/v1/b/" + encode(bucketName)).DELETE());
+    }
+
+    /**
+     * Every page of the bucket listing, as the CLI's --format=json(name)
+     */
+    @Override
+    public CommandResult listBuckets() {
+        logger.info("Listing buckets");
+        List<Map<String, String>> names = new ArrayList<>();
+        return listPages("/storage/v1/b?project=" + encode(project()),
+                item -> names.add(Map.of("name", item.path("name").asText())),
+                () -> toJson(names));
+    }
+
+    @Override
+    public boolean bucketExists(String bucketName) {
+        return call(request("/storage/v1/b/" + encode(bucketName)).GET()).isSuccess();
+    }
+
+    @Override
+    public String bucketDescribe(String bucketName) {
+        CommandResult result = call(request("/storage/v1/b/" + encode(bucketName)).GET());
+        return result.isSuccess() ? result.getStdout() : "";
+    }
+
+    @Override
+    public CommandResult uploadFile(String localFilePath, String bucketName) {
+        logger.info("Uploading file {} to gs://{} (JSON API)", localFilePath, bucketName);
+        Path file = Path.of(localFilePath);
+        try {
+            return call(request("/upload/storage/v1/b/" + encode(bucketName) + "/o?uploadType=media&name="
+                    + encode(file.getFileName().toString()))
+                    .header("Content-Type", "application/octet-stream")
+                    .POST(HttpRequest.BodyPublishers.ofFile(file)));
+        } catch (IOException e) {
+            return new CommandResult(1, "", "Cannot read " + localFilePath + ": " + e.getMessage(), 0, false);
+        }
+    }
+
+    /**
+     * Download an object to a local file or directory, streaming the body
+     * straight to disk
+     */
+    @Override
+    public CommandResult downloadFile(String objectUrl, String localPath) {
+        logger.info("Downloading {} to {} (JSON API)", objectUrl, localPath);
+        String[] parts = splitUrl(objectUrl);
+        Path target = Path.of(localPath);
+        if (Files.isDirectory(target)) {
+            target = target.resolve(parts[1].substring(parts[1].lastIndexOf('/') + 1));
+        }
+        Path destination = target;
+        HttpResponse.BodyHandler<String> toFile = info -> info.statusCode() / 100 == 2
+                // Truncate: a shorter object must not leave the tail of an existing file behind
+                ? HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofFile(destination,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING),
+                        path -> "")
+                : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        return call(request(objectPath(parts[0], parts[1]) + "?alt=media").GET(), toFile);
+    }
+
+    /**
+     * Every page of the object listing, one gs:// URL per line like
+     * `gcloud storage ls`
+     */
+    @Override
+    public CommandResult listObjects(String bucketName) {
+        logger.info("Listing objects in bucket: {}", bucketName);
+        StringBuilder urls = new StringBuilder();
+        return listPages("/storage/v1/b/" + encode(bucketName) + "/o?fields=" + encode("items(name),nextPageToken"),
+                item -> urls.append("gs://").append(bucketName).append('/').append(item.path("name").asText())
+                        .append('\n'),
+                urls::toString);
+    }
+
+    @Override
+    public boolean objectExists(String bucketName, String objectName) {
+        return describeObject(bucketName, objectName).isSuccess();
+    }
+
+    @Override
+    public CommandResult describeObject(String bucketName, String objectName) {
+        return call(request(objectPath(bucketName, objectName)).GET());
+    }
+
+    @Override
+    public CommandResult deleteObject(String bucketName, String objectName) {
+        logger.info("Deleting gs://{}/{} (JSON API)", bucketName, objectName);
+        return call(request(objectPath(bucketName, objectName)).DELETE());
+    }
+
+    private CommandResult listPages(String path, Consumer<JsonNode> onItem, Supplier<String> output) {
+        long start = System.nanoTime();
+        String pageToken = null;
+        do {
+            String separator = path.contains("?") ? "&" : "?";
+            CommandResult page = call(request(path + (pageToken == null ? "" : separator + "pageToken="
+                    + encode(pageToken))).GET());
+            if (!page.isSuccess()) {
+                return page;
+            }
+            try {
+                JsonNode body = mapper.readTree(page.getStdout());
+                body.path("items").forEach(onItem);
+                pageToken = body.hasNonNull("nextPageToken") ? body.get("nextPageToken").asText() : null;
+            } catch (IOException e) {
+                return new CommandResult(1, "", "Unreadable listing: " + e.getMessage(),
+                        (System.nanoTime() - start) / 1_000_000, false);
+            }
+        } while (pageToken != null);
+        return new CommandResult(0, output.get(), "", (System.nanoTime() - start) / 1_000_000, false);
+    }
+
+    private CommandResult call(HttpRequest.Builder request) {
+        return call(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Send the request and map the response to the CLI's result shape:
+     * exit code 0 on 2xx, otherwise 1 with "HTTPError <status>: <message>"
+     * on stderr, like gcloud prints. An expired token is refreshed once.
+     */
+    private CommandResult call(HttpRequest.Builder request, HttpResponse.BodyHandler<String> handler) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(request, handler);
+            if (response.statusCode() == 401 && settings.getAccessToken().isEmpty() && !isLocal()) {
+                synchronized (this) {
+                    accessToken = null;
+                }
+                response = send(request, handler);
+            }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            if (response.statusCode() / 100 == 2) {
+                return new CommandResult(0, response.body(), "", elapsedMs, false);
+            }
+            return new CommandResult(1, "", "HTTPError " + response.statusCode() + ": " + errorMessage(response.body()),
+                    elapsedMs, false);
+        } catch (HttpTimeoutException e) {
+            return new CommandResult(1, "", e.getMessage(), (System.nanoTime() - start) / 1_000_000, true);
+        } catch (IOException e) {
+            return new CommandResult(1, "", e.toString(), (System.nanoTime() - start) / 1_000_000, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new CommandResult(1, "", "Interrupted", (System.nanoTime() - start) / 1_000_000, false);
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request, HttpResponse.BodyHandler<String> handler)
+            throws IOException, InterruptedException {
+        String token = accessToken();
+        if (token != null) {
+            request.setHeader("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), handler);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(endpoint + path)).timeout(timeout);
+    }
+
+    private String errorMessage(String body) {
+        try {
+            JsonNode error = mapper.readTree(body).path("error");
+            if (error.hasNonNull("message")) {
+                return error.get("message").asText();
+            }
+        } catch (IOException e) {
+            // Not JSON, report the body as is
+        }
+        return body == null ? "" : body.trim();
+    }
+
+    private synchronized String accessToken() {
+        if (!settings.getAccessToken().isEmpty()) {
+            return settings.getAccessToken();
+        }
+        if (isLocal()) {
+            return null;
+        }
+        if (accessToken == null) {
+            CommandResult result = executor.executeGcloudCommand("auth", "print-access-token");
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Could not get an access token from gcloud: " + result.getStderr());
+            }
+            accessToken = result.getStdout().trim();
+        }
+        return accessToken;
+    }
+
+    private synchronized String project() {
+        if (!settings.getProject().isEmpty()) {
+            return settings.getProject();
+        }
+        if (project == null) {
+            if (isLocal()) {
+                project = LOCAL_PROJECT;
+            } else {
+                CommandResult result = executor.executeGcloudCommand("config", "get-value", "project");
+                if (!result.isSuccess() || result.getStdout().isBlank()) {
+                    throw new IllegalStateException("No project configured in gcloud; set backend.project");
+                }
+                project = result.getStdout().trim();
+            }
+        }
+        return project;
+    }
+
+    private boolean isLocal() {
+        String host = URI.create(endpoint).getHost();
+        return "127.0.0.1".equals(host) || "localhost".equals(host);
+    }
+
+    private String objectPath(String bucketName, String objectName) {
+        return "/storage/v1/b/" + encode(bucketName) + "/o/" + encode(objectName);
+    }
+
+    /**
+     * {"bucket", "object"} of gs://bucket/object
+     */
+    private static String[] splitUrl(String objectUrl) {
+        String path = objectUrl.startsWith("gs://") ? objectUrl.substring(5) : objectUrl;
+        int slash = path.indexOf('/');
+        if (slash <= 0 || slash == path.length() - 1) {
+            throw new IllegalArgumentException("Not an object URL: " + objectUrl);
+        }
+        return new String[] { path.substring(0, slash), path.substring(slash + 1) };
+    }
+
+    /**
+     * Percent-encode a path segment or query value; '/' in object names
+     * becomes %2F as the JSON API requires
+     */
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private String toJson(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+}
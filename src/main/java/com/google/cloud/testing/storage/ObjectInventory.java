@@ -0,0 +1,308 @@
+package com.google.cloud.testing.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Local index of the objects in each bucket, keyed by object name.
+ * <p>
+ * A bucket's index is built from one JSON listing and then kept current by
+ * the operations this framework performs itself (uploads, deletes). Objects
+ * are held in a sorted map, so existence checks and prefix listings are
+ * answered locally without a gcloud call. Entries created locally carry no
+ * generation until the next {@link #reconcile reconcile} against a fresh
+ * listing.
+ * <p>
+ * A listing takes a while to stream, and the framework keeps uploading and
+ * deleting meanwhile. Callers open a {@link Listing} before they start
+ * listing; mutations made while it is open are replayed onto the listing
+ * when it is adopted, so they are not lost to a listing that predates them.
+ */
+public class ObjectInventory {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Map<String, ConcurrentSkipListMap<String, ObjectEntry>> buckets = new ConcurrentHashMap<>();
+    // Open listings per bucket; only read or changed inside buckets.compute of that bucket
+    private final Map<String, Set<Listing>> listings = new ConcurrentHashMap<>();
+
+    /**
+     * Whether an index exists for the bucket
+     */
+    public boolean isLoaded(String bucketName) {
+        return buckets.containsKey(bucketName);
+    }
+
+    /**
+     * Replace the bucket's index with a complete listing
+     */
+    public void replace(String bucketName, Iterable<ObjectEntry> listing) {
+        ConcurrentSkipListMap<String, ObjectEntry> objects = new ConcurrentSkipListMap<>();
+        listing.forEach(entry -> objects.put(entry.name(), entry));
+        buckets.put(bucketName, objects);
+    }
+
+    /**
+     * Replace the bucket's index with a complete listing taken while the
+     * given listing was open, replaying the mutations made meanwhile
+     */
+    public void replace(Listing listing, Iterable<ObjectEntry> entries) {
+        buckets.compute(listing.bucketName, (name, previous) -> adopt(listing, entries));
+    }
+
+    /**
+     * Start recording the bucket's mutations for a listing about to be taken
+     */
+    public Listing openListing(String bucketName) {
+        Listing listing = new Listing(this, bucketName);
+        buckets.compute(bucketName, (name, objects) -> {
+            listings.computeIfAbsent(name, key -> new HashSet<>()).add(listing);
+            return objects;
+        });
+        return listing;
+    }
+
+    /**
+     * Record a new or overwritten object; ignored while the bucket is neither
+     * indexed nor being listed
+     */
+    public void put(String bucketName, ObjectEntry entry) {
+        mutate(bucketName, objects -> objects.put(entry.name(), entry));
+    }
+
+    /**
+     * Record a deleted object
+     */
+    public void remove(String bucketName, String objectName) {
+        mutate(bucketName, objects -> objects.remove(objectName));
+    }
+
+    /**
+     * Forget everything about a bucket
+     */
+    public void invalidate(String bucketName) {
+        buckets.remove(bucketName);
+    }
+
+    public Optional<ObjectEntry> get(String bucketName, String objectName) {
+        return Optional.ofNullable(index(bucketName).get(objectName));
+    }
+
+    public boolean contains(String bucketName, String objectName) {
+        return index(bucketName).containsKey(objectName);
+    }
+
+    /**
+     * Objects whose name starts with the prefix, in name order
+     */
+    public List<ObjectEntry> withPrefix(String bucketName, String prefix) {
+        NavigableMap<String, ObjectEntry> objects = index(bucketName);
+        if (prefix == null || prefix.isEmpty()) {
+            return new ArrayList<>(objects.values());
+        }
+        String upperBound = prefixUpperBound(prefix);
+        NavigableMap<String, ObjectEntry> range = upperBound == null
+                ? objects.tailMap(prefix, true)
+                : objects.subMap(prefix, true, upperBound, false);
+        return new ArrayList<>(range.values());
+    }
+
+    public int size(String bucketName) {
+        return index(bucketName).size();
+    }
+
+    /**
+     * Compare the index with a fresh listing, adopt the listing and report
+     * what differed. Objects are considered changed when their generation
+     * differs; locally recorded entries without a generation count as
+     * changed so they pick up the server-side values.
+     */
+    public ReconcileResult reconcile(String bucketName, Iterable<ObjectEntry> listing) {
+        try (Listing open = openListing(bucketName)) {
+            return reconcile(open, listing);
+        }
+    }
+
+    /**
+     * Reconcile with a listing taken while the given listing was open; the
+     * mutations made meanwhile are replayed onto it before it is adopted
+     */
+    public ReconcileResult reconcile(Listing listing, Iterable<ObjectEntry> entries) {
+        ReconcileResult[] result = new ReconcileResult[1];
+        buckets.compute(listing.bucketName, (name, previous) -> {
+            ConcurrentSkipListMap<String, ObjectEntry> current = adopt(listing, entries);
+            result[0] = compare(previous == null ? Map.of() : previous, current);
+            return current;
+        });
+        return result[0];
+    }
+
+    private static ReconcileResult compare(Map<String, ObjectEntry> previous, Map<String, ObjectEntry> current) {
+        int added = 0;
+        int changed = 0;
+        for (ObjectEntry entry : current.values()) {
+            ObjectEntry known = previous.get(entry.name());
+            if (known == null) {
+                added++;
+            } else if (!known.equals(entry)
+                    && (known.generation() == null || !Objects.equals(known.generation(), entry.generation()))) {
+                changed++;
+            }
+        }
+        int removed = 0;
+        for (String name : previous.keySet()) {
+            if (!current.containsKey(name)) {
+                removed++;
+            }
+        }
+        return new ReconcileResult(added, removed, changed, current.size());
+    }
+
+    /**
+     * Apply a mutation to the bucket's index and record it for every open
+     * listing, atomically with respect to a listing being adopted
+     */
+    private void mutate(String bucketName, Consumer<Map<String, ObjectEntry>> mutation) {
+        buckets.compute(bucketName, (name, objects) -> {
+            Set<Listing> open = listings.get(name);
+            if (open != null) {
+                open.forEach(listing -> listing.mutations.add(mutation));
+            }
+            if (objects != null) {
+                mutation.accept(objects);
+            }
+            return objects;
+        });
+    }
+
+    /**
+     * Index built from the listing with the mutations made since it was
+     * opened replayed on top; called inside buckets.compute of the bucket
+     */
+    private ConcurrentSkipListMap<String, ObjectEntry> adopt(Listing listing, Iterable<ObjectEntry> entries) {
+        ConcurrentSkipListMap<String, ObjectEntry> objects = new ConcurrentSkipListMap<>();
+        entries.forEach(entry -> objects.put(entry.name(), entry));
+        listing.mutations.forEach(mutation -> mutation.accept(objects));
+        return objects;
+    }
+
+    private void close(Listing listing) {
+        buckets.compute(listing.bucketName, (name, objects) -> {
+            Set<Listing> open = listings.get(name);
+            if (open != null && open.remove(listing) && open.isEmpty()) {
+                listings.remove(name);
+            }
+            return objects;
+        });
+    }
+
+    private NavigableMap<String, ObjectEntry> index(String bucketName) {
+        NavigableMap<String, ObjectEntry> objects = buckets.get(bucketName);
+        if (objects == null) {
+            throw new IllegalStateException("No inventory loaded for bucket: " + bucketName);
+        }
+        return objects;
+    }
+
+    /**
+     * Smallest string greater than every string with the given prefix, or
+     * null if there is none
+     */
+    static String prefixUpperBound(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            char c = prefix.charAt(i);
+            if (c != Character.MAX_VALUE) {
+                return prefix.substring(0, i) + (char) (c + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parse a `gcloud storage objects list --format=json` listing token by
+     * token, handing each object to the consumer as soon as it is complete
+     */
+    public static void readListing(InputStream json, Consumer<ObjectEntry> consumer) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String name = null;
+                long size = 0;
+                Long generation = null;
+                String crc32c = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "name" -> name = parser.getText();
+                        case "size" -> size = value == JsonToken.VALUE_STRING
+                                ? Long.parseLong(parser.getText()) : parser.getLongValue();
+                        case "generation" -> generation = value == JsonToken.VALUE_STRING
+                                ? Long.valueOf(parser.getText()) : parser.getLongValue();
+                        case "crc32c_hash", "crc32c" -> crc32c = parser.getText();
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (name != null) {
+                    consumer.accept(new ObjectEntry(name, size, generation, crc32c));
+                }
+            }
+        }
+    }
+
+    /**
+     * Window during which a bucket is being listed; mutations of the bucket
+     * are recorded until it is closed
+     */
+    public static final class Listing implements AutoCloseable {
+
+        private final ObjectInventory inventory;
+        private final String bucketName;
+        private final List<Consumer<Map<String, ObjectEntry>>> mutations = new ArrayList<>();
+
+        private Listing(ObjectInventory inventory, String bucketName) {
+            this.inventory = inventory;
+            this.bucketName = bucketName;
+        }
+
+        @Override
+        public void close() {
+            inventory.close(this);
+        }
+    }
+
+    /**
+     * Indexed object metadata; generation and crc32c are null for objects
+     * recorded locally and not yet reconciled
+     */
+    public record ObjectEntry(String name, long size, Long generation, String crc32c) {
+
+    }
+
+    /**
+     * Differences found by a reconcile
+     */
+    public record ReconcileResult(int added, int removed, int changed, int total) {
+
+        public boolean isInSync() {
+            return added == 0 && removed == 0 && changed == 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.google.cloud.testing.storage;
+
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.core.CommandResult;
+
+/**
+ * Bucket and object operations shared by the gcloud CLI backend and the
+ * direct JSON API backend. Results keep the CLI's shape: a CommandResult
+ * whose stdout is the response (JSON for listings) and whose stderr holds the
+ * error, so the same tests run against either backend.
+ */
+public interface StorageOperations {
+
+    /**
+     * Backend selected by backend.type, "cli" (default) or "json"
+     */
+    static StorageOperations create() {
+        String type = TestConfig.getInstance().getBackend().getType();
+        return switch (type) {
+            case "cli" -> new GcloudStorageOperations();
+            case "json" -> new JsonApiStorageOperations();
+            default -> throw new IllegalArgumentException("Unknown storage backend: " + type);
+        };
+    }
+
+    /**
+     * "cli" or "json", for reports
+     */
+    String getBackendName();
+
+    CommandResult createBucket(String bucketName, String location);
+
+    CommandResult deleteBucket(String bucketName);
+
+    /**
+     * Buckets of the project as a JSON array of {"name": ...}
+     */
+    CommandResult listBuckets();
+
+    boolean bucketExists(String bucketName);
+
+    String bucketDescribe(String bucketName);
+
+    /**
+     * Upload a file to the bucket root under its file name
+     */
+    CommandResult uploadFile(String localFilePath, String bucketName);
+
+    /**
+     * Download an object to a local file or directory
+     */
+    CommandResult downloadFile(String objectUrl, String localPath);
+
+    /**
+     * Objects of the bucket, one gs:// URL per line
+     */
+    CommandResult listObjects(String bucketName);
+
+    boolean objectExists(String bucketName, String objectName);
+
+    /**
+     * Metadata of an object as JSON, always fetched from the service
+     */
+    CommandResult describeObject(String bucketName, String objectName);
+
+    CommandResult deleteObject(String bucketName, String objectName);
+}
@@ -0,0 +1,150 @@
+package com.google.cloud.testing.storage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tuning knobs for large-object transfers.
+ * <p>
+ * gcloud storage exposes these only as properties, so they are passed to the
+ * child process as CLOUDSDK_STORAGE_* environment variables rather than as
+ * command-line flags. Sizes are in bytes; a null component leaves the gcloud
+ * default (or the user's gcloud configuration) in effect.
+ *
+ * @param parallelCompositeUploadEnabled split uploads into composed parts;
+ * implied when a threshold or component size is set
+ * @param compositeUploadThreshold minimum object size for composite uploads
+ * @param compositeUploadComponentSize size of each uploaded part
+ * @param slicedDownloadThreshold minimum object size for sliced downloads
+ * @param slicedDownloadMaxComponents maximum number of slices per download
+ * @param processCount number of worker processes
+ * @param threadCount number of threads per worker process
+ */
+public record TransferOptions(Boolean parallelCompositeUploadEnabled, Long compositeUploadThreshold,
+        Long compositeUploadComponentSize, Long slicedDownloadThreshold, Integer slicedDownloadMaxComponents,
+        Integer processCount, Integer threadCount) {
+
+    private static final TransferOptions DEFAULTS = new TransferOptions(null, null, null, null, null, null, null);
+
+    /**
+     * Options that leave every setting at the gcloud default
+     */
+    public static TransferOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public TransferOptions withParallelCompositeUploadEnabled(boolean enabled) {
+        return new TransferOptions(enabled, compositeUploadThreshold, compositeUploadComponentSize,
+                slicedDownloadThreshold, slicedDownloadMaxComponents, processCount, threadCount);
+    }
+
+    public TransferOptions withCompositeUploadThreshold(long bytes) {
+        return new TransferOptions(parallelCompositeUploadEnabled, requireNonNegative(bytes, "threshold"),
+                compositeUploadComponentSize, slicedDownloadThreshold, slicedDownloadMaxComponents, processCount,
+                threadCount);
+    }
+
+    public TransferOptions withCompositeUploadComponentSize(long bytes) {
+        return new TransferOptions(parallelCompositeUploadEnabled, compositeUploadThreshold,
+                requirePositive(bytes, "component size"), slicedDownloadThreshold, slicedDownloadMaxComponents,
+                processCount, threadCount);
+    }
+
+    public TransferOptions withSlicedDownloadThreshold(long bytes) {
+        return new TransferOptions(parallelCompositeUploadEnabled, compositeUploadThreshold,
+                compositeUploadComponentSize, requireNonNegative(bytes, "sliced download threshold"),
+                slicedDownloadMaxComponents, processCount, threadCount);
+    }
+
+    public TransferOptions withSlicedDownloadMaxComponents(int components) {
+        return new TransferOptions(parallelCompositeUploadEnabled, compositeUploadThreshold,
+                compositeUploadComponentSize, slicedDownloadThreshold,
+                (int) requirePositive(components, "sliced download components"), processCount, threadCount);
+    }
+
+    public TransferOptions withProcessCount(int processes) {
+        return new TransferOptions(parallelCompositeUploadEnabled, compositeUploadThreshold,
+                compositeUploadComponentSize, slicedDownloadThreshold, slicedDownloadMaxComponents,
+                (int) requirePositive(processes, "process count"), threadCount);
+    }
+
+    public TransferOptions withThreadCount(int threads) {
+        return new TransferOptions(parallelCompositeUploadEnabled, compositeUploadThreshold,
+                compositeUploadComponentSize, slicedDownloadThreshold, slicedDownloadMaxComponents, processCount,
+                (int) requirePositive(threads, "thread count"));
+    }
+
+    /**
+     * gcloud properties for these options, as environment variables
+     */
+    public Map<String, String> toEnvironment() {
+        Map<String, String> env = new LinkedHashMap<>();
+        Boolean compositeEnabled = parallelCompositeUploadEnabled;
+        if (compositeEnabled == null && (compositeUploadThreshold != null || compositeUploadComponentSize != null)) {
+            compositeEnabled = true;
+        }
+        put(env, "CLOUDSDK_STORAGE_PARALLEL_COMPOSITE_UPLOAD_ENABLED",
+                compositeEnabled == null ? null : (compositeEnabled ? "True" : "False"));
+        put(env, "CLOUDSDK_STORAGE_PARALLEL_COMPOSITE_UPLOAD_THRESHOLD", compositeUploadThreshold);
+        put(env, "CLOUDSDK_STORAGE_PARALLEL_COMPOSITE_UPLOAD_COMPONENT_SIZE", compositeUploadComponentSize);
+        put(env, "CLOUDSDK_STORAGE_SLICED_OBJECT_DOWNLOAD_THRESHOLD", slicedDownloadThreshold);
+        put(env, "CLOUDSDK_STORAGE_SLICED_OBJECT_DOWNLOAD_MAX_COMPONENTS", slicedDownloadMaxComponents);
+        put(env, "CLOUDSDK_STORAGE_PROCESS_COUNT", processCount);
+        put(env, "CLOUDSDK_STORAGE_THREAD_COUNT", threadCount);
+        return env;
+    }
+
+    /**
+     * Compact description for reports, e.g. "threshold=150M component=50M p=4 t=8"
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        append(sb, "composite", parallelCompositeUploadEnabled);
+        append(sb, "threshold", compositeUploadThreshold == null ? null : formatSize(compositeUploadThreshold));
+        append(sb, "component", compositeUploadComponentSize == null ? null : formatSize(compositeUploadComponentSize));
+        append(sb, "slice-threshold", slicedDownloadThreshold == null ? null : formatSize(slicedDownloadThreshold));
+        append(sb, "slices", slicedDownloadMaxComponents);
+        append(sb, "p", processCount);
+        append(sb, "t", threadCount);
+        return sb.length() == 0 ? "defaults" : sb.toString();
+    }
+
+    private static void put(Map<String, String> env, String name, Object value) {
+        if (value != null) {
+            env.put(name, value.toString());
+        }
+    }
+
+    private static void append(StringBuilder sb, String name, Object value) {
+        if (value != null) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(name).append('=').append(value);
+        }
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes >= 1 << 20 && bytes % (1 << 20) == 0) {
+            return (bytes >> 20) + "M";
+        }
+        if (bytes >= 1 << 10 && bytes % (1 << 10) == 0) {
+            return (bytes >> 10) + "K";
+        }
+        return String.valueOf(bytes);
+    }
+
+    private static long requireNonNegative(long value, String name) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Transfer " + name + " cannot be negative: " + value);
+        }
+        return value;
+    }
+
+    private static long requirePositive(long value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Transfer " + name + " must be positive: " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,187 @@
+package com.google.cloud.testing.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of the files a directory upload has finished, one
+ * tab-separated line per file: relative path, size, modification time and
+ * crc32c (base64, as reported by Cloud Storage).
+ * <p>
+ * Lines are only ever appended, so an interrupted run loses at most its last
+ * unflushed batch, and the journal is read back in one sequential pass. A file
+ * uploaded again gets a new line that overrides the earlier one; the journal
+ * is compacted when superseded lines outnumber live ones.
+ */
+public class UploadJournal implements Closeable {
+
+    private static final int READ_BUFFER = 64 * 1024;
+
+    private final Path file;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final BufferedWriter out;
+
+    private UploadJournal(Path file) throws IOException {
+        this.file = file;
+        long lines = 0;
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Entry entry = Entry.parse(line);
+                    // A line cut short by a crash does not parse and is ignored
+                    if (entry != null) {
+                        entries.put(entry.path(), entry);
+                        lines++;
+                    }
+                }
+            }
+        } else if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        if (lines > 2L * entries.size() + 1000) {
+            compact();
+        }
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Open the journal, reading what earlier runs finished
+     */
+    public static UploadJournal open(Path file) throws IOException {
+        return new UploadJournal(file);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Entry get(String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * Whether the file was uploaded before with the same content. Size and
+     * modification time decide without reading the file; when only the
+     * modification time differs the crc32c is compared.
+     */
+    public boolean isUploaded(String path, Path localFile, long size, long modifiedMillis) throws IOException {
+        Entry entry = get(path);
+        if (entry == null || entry.size() != size) {
+            return false;
+        }
+        if (entry.modifiedMillis() == modifiedMillis) {
+            return true;
+        }
+        if (!entry.crc32c().equals(crc32c(localFile))) {
+            return false;
+        }
+        append(List.of(new Entry(path, size, modifiedMillis, entry.crc32c())));
+        return true;
+    }
+
+    /**
+     * Record uploaded files, flushed before returning
+     */
+    public synchronized void append(Collection<Entry> uploaded) throws IOException {
+        for (Entry entry : uploaded) {
+            entries.put(entry.path(), entry);
+            out.write(entry.format());
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private void compact() throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Entry entry : entries.values()) {
+                writer.write(entry.format());
+                writer.write('\n');
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * CRC32C of a file in the base64 big-endian form Cloud Storage reports
+     */
+    public static String crc32c(Path localFile) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[READ_BUFFER];
+        try (InputStream in = Files.newInputStream(localFile)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, n);
+            }
+        }
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+    }
+
+    /**
+     * One uploaded file; the path is relative to the uploaded directory and
+     * uses '/' separators
+     */
+    public record Entry(String path, long size, long modifiedMillis, String crc32c) {
+
+        String format() {
+            return escape(path) + '\t' + size + '\t' + modifiedMillis + '\t' + crc32c;
+        }
+
+        static Entry parse(String line) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 4 || fields[3].length() != 8) {
+                return null;
+            }
+            try {
+                return new Entry(unescape(fields[0]), Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                        fields[3]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static String escape(String path) {
+            return path.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+        }
+
+        private static String unescape(String path) {
+            StringBuilder out = new StringBuilder(path.length());
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                if (c == '\\' && i + 1 < path.length()) {
+                    char next = path.charAt(++i);
+                    out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+                } else {
+                    out.append(c);
+                }
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.google.cloud.testing.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility class for computing digests of channels and files in fixed-size
+ * chunks, without ever holding the whole content in memory.
+ */
+public class ChannelDigests {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private ChannelDigests() {
+    }
+
+    /**
+     * Digest everything readable from the channel
+     */
+    public static Digest digest(ReadableByteChannel channel, String algorithm) throws IOException {
+        MessageDigest messageDigest = newDigest(algorithm);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long bytes = 0;
+        int read;
+        while ((read = channel.read(buffer)) >= 0) {
+            buffer.flip();
+            messageDigest.update(buffer);
+            buffer.clear();
+            bytes += read;
+        }
+        return new Digest(algorithm, HexFormat.of().formatHex(messageDigest.digest()), bytes);
+    }
+
+    /**
+     * Digest a local file
+     */
+    public static Digest digest(Path file, String algorithm) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return digest(channel, algorithm);
+        }
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported digest algorithm: " + algorithm, e);
+        }
+    }
+
+    /**
+     * Hex-encoded digest and the number of bytes it covers
+     */
+    public record Digest(String algorithm, String hex, long bytes) {
+
+    }
+}
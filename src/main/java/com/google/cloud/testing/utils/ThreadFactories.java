@@ -0,0 +1,27 @@
+package com.google.cloud.testing.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class for creating the thread factories of the framework's pools.
+ */
+public class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    /**
+     * Factory of daemon threads named prefix-1, prefix-2, ... so that a pool
+     * nobody shuts down does not keep the JVM alive and its threads are
+     * recognisable in thread dumps and event logs
+     */
+    public static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
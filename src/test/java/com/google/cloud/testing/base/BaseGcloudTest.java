@@ -13,10 +13,12 @@ import org.testng.Assert;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 
+import com.google.cloud.testing.base.FixtureGraph.FixtureReport;
 import com.google.cloud.testing.config.TestConfig;
 import com.google.cloud.testing.core.CommandExecutor;
 import com.google.cloud.testing.core.CommandResult;
-import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.core.GcloudPreflight;
+import com.google.cloud.testing.storage.StorageOperations;
 
 import io.qameta.allure.Allure;
 
@@ -30,6 +32,8 @@ public abstract class BaseGcloudTest {
     protected TestConfig config;
     protected CommandExecutor executor;
     protected Path tempTestDir;
+    // Fixture names of per-instance fixtures; a class can be instantiated by several <test> blocks of a suite
+    private final String fixtureScope = getClass().getSimpleName() + "-" + UUID.randomUUID().toString().substring(0, 8);
 
     @BeforeSuite(alwaysRun = true)
     public void setupSuite() {
@@ -40,23 +44,25 @@ public abstract class BaseGcloudTest {
         // Log test environment info
         logEnvironmentInfo();
 
-        // Verify gcloud CLI availability
+        // Verify gcloud CLI availability; cached for the JVM, so a warm daemon checks once
         executor = new CommandExecutor();
-        if (!executor.isGcloudAvailable()) {
+        GcloudPreflight preflight = GcloudPreflight.of(executor);
+        if (!preflight.available()) {
             throw new RuntimeException("gcloud CLI is not available or not in PATH");
         }
 
-        if (!executor.isAuthenticated()) {
+        if (!preflight.authenticated()) {
             throw new RuntimeException("gcloud CLI is not authenticated. Please run 'gcloud auth login'");
         }
 
         logger.info("GCloud CLI verification completed successfully");
-        logger.info("GCloud version: {}", executor.getGcloudVersion());
-        logger.info("Current project: {}", executor.getCurrentProject());
+        logger.info("GCloud version: {}", preflight.version());
+        logger.info("Current project: {}", preflight.project());
     }
 
     @AfterSuite(alwaysRun = true)
     public void teardownSuite() {
+        FixtureGraph.resetSuite();
         logger.info("GCloud Storage CLI Test Suite completed");
     }
 
@@ -116,7 +122,7 @@ public abstract class BaseGcloudTest {
     /**
      * Ensure test bucket exists
      */
-    protected void ensureTestBucketExists(String bucketName, String location, GcloudStorageOperations _storageOps) {
+    protected void ensureTestBucketExists(String bucketName, String location, StorageOperations _storageOps) {
         if (!_storageOps.bucketExists(bucketName)) {
             var result = _storageOps.createBucket(bucketName, location);
             if (!result.isSuccess()) {
@@ -128,6 +134,86 @@ public abstract class BaseGcloudTest {
         logger.info("Test bucket {} description: {}", bucketName, output);
     }
 
+    /**
+     * Fixture that ensures the bucket exists
+     */
+    protected Fixture<String> bucketFixture(String bucketName, String location, StorageOperations _storageOps) {
+        return Fixture.of("bucket:" + bucketName, context -> {
+            ensureTestBucketExists(bucketName, location, _storageOps);
+            return bucketName;
+        });
+    }
+
+    /**
+     * Fixture creating this test instance's temporary directory
+     */
+    protected Fixture<Path> tempDirFixture() {
+        return Fixture.of("temp-dir:" + fixtureScope, context -> Files.createTempDirectory("gcloud-test-"));
+    }
+
+    /**
+     * Fixture writing the standard test file into the temporary directory
+     */
+    protected Fixture<File> testFileFixture(Fixture<Path> tempDir) {
+        return Fixture.of("test-file:" + fixtureScope, context -> createTestFile(context.get(tempDir)), tempDir);
+    }
+
+    /**
+     * Fixture uploading the file to the bucket; its value is the object URL
+     */
+    protected Fixture<String> uploadFixture(Fixture<String> bucket, Fixture<File> file,
+            StorageOperations _storageOps) {
+        return Fixture.of("upload:" + fixtureScope, context -> {
+            String bucketName = context.get(bucket);
+            File localFile = context.get(file);
+            CommandResult result = _storageOps.uploadFile(localFile.getPath(), bucketName);
+            if (!result.isSuccess()) {
+                throw new RuntimeException("Failed to upload test file: " + result.getStderr());
+            }
+            return "gs://" + bucketName + "/" + localFile.getName();
+        }, bucket, file);
+    }
+
+    /**
+     * Set up fixtures through the suite's fixture graph, running independent
+     * steps concurrently, and attach the setup timings to the report
+     */
+    protected FixtureReport setUpFixtures(Fixture<?>... fixtures) {
+        FixtureReport report = FixtureGraph.suite().setUp(fixtures);
+        logger.info("Fixtures of {} set up:{}{}", getClass().getSimpleName(), System.lineSeparator(), report.format());
+        addAllureAttachment("Fixture Setup", report.format());
+        return report;
+    }
+
+    /**
+     * Local test file and the object it was uploaded to
+     */
+    protected record UploadedFile(File file, String objectUrl) {
+    }
+
+    /**
+     * Set up the bucket, the temporary directory with the standard test file,
+     * and the upload of that file. Bucket creation and test file generation
+     * are independent and run concurrently.
+     */
+    protected UploadedFile setUpUploadedFile(String bucketName, String location, StorageOperations _storageOps) {
+        Fixture<String> bucket = bucketFixture(bucketName, location, _storageOps);
+        Fixture<Path> tempDir = tempDirFixture();
+        Fixture<File> file = testFileFixture(tempDir);
+        Fixture<String> upload = uploadFixture(bucket, file, _storageOps);
+        setUpFixtures(upload);
+
+        tempTestDir = fixture(tempDir);
+        return new UploadedFile(fixture(file), fixture(upload));
+    }
+
+    /**
+     * Value of a fixture set up by {@link #setUpFixtures}
+     */
+    protected <T> T fixture(Fixture<T> fixture) {
+        return FixtureGraph.suite().get(fixture);
+    }
+
     /**
      * Assert that a command result was successful
      */
@@ -0,0 +1,74 @@
+package com.google.cloud.testing.base;
+
+import java.util.List;
+
+/**
+ * A named setup step of a {@link FixtureGraph} and the fixtures it depends on.
+ * <p>
+ * Fixtures are identified by name: within one suite, a name is set up once
+ * and every later request for it gets the memoized result, so names must
+ * encode whatever makes a fixture distinct (e.g. the bucket name).
+ *
+ * @param <T> type of the value the fixture produces
+ */
+public final class Fixture<T> {
+
+    private final String name;
+    private final FixtureBody<T> body;
+    private final List<Fixture<?>> dependencies;
+
+    private Fixture(String name, FixtureBody<T> body, List<Fixture<?>> dependencies) {
+        this.name = name;
+        this.body = body;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Define a fixture
+     *
+     * @param name unique name within the suite
+     * @param body produces the fixture's value once all dependencies are set up
+     * @param dependencies fixtures whose values the body reads through its
+     * {@link FixtureContext}
+     */
+    public static <T> Fixture<T> of(String name, FixtureBody<T> body, Fixture<?>... dependencies) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Fixture name cannot be null or empty");
+        }
+        return new Fixture<>(name, body, List.of(dependencies));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Fixture<?>> getDependencies() {
+        return dependencies;
+    }
+
+    FixtureBody<T> getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Setup logic of a fixture
+     */
+    @FunctionalInterface
+    public interface FixtureBody<T> {
+
+        T create(FixtureContext context) throws Exception;
+    }
+
+    /**
+     * Values of a fixture's dependencies, available to its body
+     */
+    public interface FixtureContext {
+
+        <D> D get(Fixture<D> dependency);
+    }
+}
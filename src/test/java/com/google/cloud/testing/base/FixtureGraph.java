@@ -0,0 +1,335 @@
+package com.google.cloud.testing.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.cloud.testing.base.Fixture.FixtureContext;
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.utils.ThreadFactories;
+
+/**
+ * Sets up {@link Fixture fixtures} in dependency order.
+ * <p>
+ * A fixture starts as soon as all of its dependencies are set up, so
+ * independent steps (creating a bucket, generating a local file) run
+ * concurrently on a bounded pool. Every fixture is set up at most once per
+ * graph and its outcome, success or failure, is memoized. A failed fixture
+ * fails only the fixtures that depend on it, without running them.
+ * <p>
+ * {@link #suite()} is the graph shared by all test classes of a suite.
+ */
+public class FixtureGraph implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureGraph.class);
+    private static FixtureGraph suiteGraph;
+
+    private final ExecutorService pool;
+    private final Map<String, CompletableFuture<Object>> outcomes = new ConcurrentHashMap<>();
+    private final Map<String, FixtureRun> runs = new ConcurrentHashMap<>();
+    private final Map<String, Fixture<?>> definitions = new ConcurrentHashMap<>();
+
+    public FixtureGraph(int threads) {
+        this.pool = Executors.newFixedThreadPool(threads, ThreadFactories.namedThreads("fixture"));
+    }
+
+    /**
+     * Graph shared by the current suite
+     */
+    public static synchronized FixtureGraph suite() {
+        if (suiteGraph == null) {
+            suiteGraph = new FixtureGraph(TestConfig.getInstance().getTest().getFixtureThreads());
+        }
+        return suiteGraph;
+    }
+
+    /**
+     * Discard the suite graph and its memoized fixtures
+     */
+    public static synchronized void resetSuite() {
+        if (suiteGraph != null) {
+            suiteGraph.close();
+            suiteGraph = null;
+        }
+    }
+
+    /**
+     * Set up the fixture and everything it depends on, waiting for the result
+     *
+     * @throws FixtureException if the fixture or one of its dependencies failed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Fixture<T> fixture) {
+        try {
+            return (T) start(fixture).join();
+        } catch (CompletionException e) {
+            throw FixtureException.wrap(fixture, e.getCause());
+        }
+    }
+
+    /**
+     * Set up all fixtures concurrently and wait until each one completed or
+     * failed
+     *
+     * @return timings of the fixtures involved
+     * @throws FixtureException for the first requested fixture that failed,
+     * after all of them finished
+     */
+    public FixtureReport setUp(Fixture<?>... fixtures) {
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (Fixture<?> fixture : fixtures) {
+            futures.add(start(fixture));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new))
+                .handle((ignored, failure) -> null).join();
+        FixtureReport report = report(fixtures);
+        for (Fixture<?> fixture : fixtures) {
+            get(fixture);
+        }
+        return report;
+    }
+
+    /**
+     * Timings of the given fixtures and their dependencies, including the
+     * critical path: the chain of dependent steps with the longest total
+     * duration, which bounds setup latency however many threads are used
+     */
+    public FixtureReport report(Fixture<?>... targets) {
+        Map<String, FixtureRun> involved = new LinkedHashMap<>();
+        for (Fixture<?> target : targets) {
+            collect(target, involved);
+        }
+
+        Map<String, Long> pathNanos = new HashMap<>();
+        Map<String, String> pathPredecessor = new HashMap<>();
+        String tail = null;
+        for (Fixture<?> target : targets) {
+            criticalPath(target, pathNanos, pathPredecessor);
+            if (tail == null || pathNanos.get(target.getName()) > pathNanos.get(tail)) {
+                tail = target.getName();
+            }
+        }
+        List<String> path = new ArrayList<>();
+        for (String step = tail; step != null; step = pathPredecessor.get(step)) {
+            path.add(step);
+        }
+        Collections.reverse(path);
+
+        long firstStart = Long.MAX_VALUE;
+        long lastEnd = Long.MIN_VALUE;
+        long serial = 0;
+        for (FixtureRun run : involved.values()) {
+            if (run.endNanos() > 0) {
+                firstStart = Math.min(firstStart, run.startNanos());
+                lastEnd = Math.max(lastEnd, run.endNanos());
+                serial += run.durationNanos();
+            }
+        }
+        long wall = lastEnd >= firstStart ? lastEnd - firstStart : 0;
+        return new FixtureReport(List.copyOf(involved.values()), path,
+                tail == null ? 0 : pathNanos.get(tail), wall, serial);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private CompletableFuture<Object> start(Fixture<?> fixture) {
+        Fixture<?> known = definitions.putIfAbsent(fixture.getName(), fixture);
+        if (known != null && known != fixture) {
+            logger.debug("Fixture {} already defined, reusing the first definition", fixture.getName());
+        }
+        CompletableFuture<Object> existing = outcomes.get(fixture.getName());
+        if (existing != null) {
+            return existing;
+        }
+
+        List<CompletableFuture<Object>> dependencies = new ArrayList<>();
+        for (Fixture<?> dependency : fixture.getDependencies()) {
+            dependencies.add(start(dependency));
+        }
+        CompletableFuture<Object> outcome = new CompletableFuture<>();
+        existing = outcomes.putIfAbsent(fixture.getName(), outcome);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture.allOf(dependencies.toArray(CompletableFuture<?>[]::new)).whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                Fixture<?> failed = firstFailed(fixture);
+                runs.put(fixture.getName(), FixtureRun.skipped(fixture, failed));
+                outcome.completeExceptionally(new FixtureException(
+                        "Fixture " + fixture.getName() + " skipped: dependency " + failed.getName() + " failed",
+                        failure instanceof CompletionException ? failure.getCause() : failure));
+                return;
+            }
+            try {
+                pool.execute(() -> run(fixture, outcome));
+            } catch (RuntimeException e) {
+                outcome.completeExceptionally(e);
+            }
+        });
+        return outcome;
+    }
+
+    private void run(Fixture<?> fixture, CompletableFuture<Object> outcome) {
+        long start = System.nanoTime();
+        String thread = Thread.currentThread().getName();
+        try {
+            Object value = fixture.getBody().create(new DependencyContext(fixture));
+            long end = System.nanoTime();
+            runs.put(fixture.getName(), new FixtureRun(fixture.getName(), fixture.getDependencies().stream()
+                    .map(Fixture::getName).toList(), FixtureStatus.SUCCEEDED, start, end, thread, null));
+            logger.debug("Fixture {} set up in {} ms on {}", fixture.getName(), (end - start) / 1_000_000, thread);
+            outcome.complete(value);
+        } catch (Exception e) {
+            long end = System.nanoTime();
+            runs.put(fixture.getName(), new FixtureRun(fixture.getName(), fixture.getDependencies().stream()
+                    .map(Fixture::getName).toList(), FixtureStatus.FAILED, start, end, thread, e.getMessage()));
+            logger.warn("Fixture {} failed: {}", fixture.getName(), e.getMessage());
+            outcome.completeExceptionally(e);
+        }
+    }
+
+    private Fixture<?> firstFailed(Fixture<?> fixture) {
+        for (Fixture<?> dependency : fixture.getDependencies()) {
+            CompletableFuture<Object> outcome = outcomes.get(dependency.getName());
+            if (outcome != null && outcome.isCompletedExceptionally()) {
+                return dependency;
+            }
+        }
+        return fixture;
+    }
+
+    private void collect(Fixture<?> fixture, Map<String, FixtureRun> involved) {
+        if (involved.containsKey(fixture.getName())) {
+            return;
+        }
+        for (Fixture<?> dependency : fixture.getDependencies()) {
+            collect(dependency, involved);
+        }
+        FixtureRun run = runs.get(fixture.getName());
+        if (run != null) {
+            involved.put(fixture.getName(), run);
+        }
+    }
+
+    private long criticalPath(Fixture<?> fixture, Map<String, Long> pathNanos, Map<String, String> predecessor) {
+        Long known = pathNanos.get(fixture.getName());
+        if (known != null) {
+            return known;
+        }
+        long longestDependency = 0;
+        String longest = null;
+        for (Fixture<?> dependency : fixture.getDependencies()) {
+            long dependencyPath = criticalPath(dependency, pathNanos, predecessor);
+            if (longest == null || dependencyPath > longestDependency) {
+                longestDependency = dependencyPath;
+                longest = dependency.getName();
+            }
+        }
+        if (longest != null) {
+            predecessor.put(fixture.getName(), longest);
+        }
+        FixtureRun run = runs.get(fixture.getName());
+        long total = longestDependency + (run == null ? 0 : run.durationNanos());
+        pathNanos.put(fixture.getName(), total);
+        return total;
+    }
+
+    /**
+     * Gives a fixture body the values of its declared dependencies
+     */
+    private class DependencyContext implements FixtureContext {
+
+        private final Fixture<?> fixture;
+
+        DependencyContext(Fixture<?> fixture) {
+            this.fixture = fixture;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <D> D get(Fixture<D> dependency) {
+            boolean declared = fixture.getDependencies().stream()
+                    .anyMatch(candidate -> candidate.getName().equals(dependency.getName()));
+            if (!declared) {
+                throw new IllegalArgumentException("Fixture " + fixture.getName()
+                        + " did not declare a dependency on " + dependency.getName());
+            }
+            return (D) outcomes.get(dependency.getName()).join();
+        }
+    }
+
+    public enum FixtureStatus {
+        SUCCEEDED, FAILED, SKIPPED
+    }
+
+    /**
+     * Timing of one fixture; skipped fixtures never ran and have no duration
+     */
+    public record FixtureRun(String name, List<String> dependencies, FixtureStatus status, long startNanos,
+            long endNanos, String thread, String failure) {
+
+        static FixtureRun skipped(Fixture<?> fixture, Fixture<?> failedDependency) {
+            return new FixtureRun(fixture.getName(), fixture.getDependencies().stream().map(Fixture::getName).toList(),
+                    FixtureStatus.SKIPPED, 0, 0, null, "dependency " + failedDependency.getName() + " failed");
+        }
+
+        public long durationNanos() {
+            return endNanos - startNanos;
+        }
+    }
+
+    /**
+     * Fixture timings with the critical path and what running steps
+     * concurrently saved against running them one after another
+     */
+    public record FixtureReport(List<FixtureRun> runs, List<String> criticalPath, long criticalPathNanos,
+            long wallNanos, long serialNanos) {
+
+        public String format() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("%-40s %-10s %10s  %s%n", "fixture", "status", "ms", "thread"));
+            for (FixtureRun run : runs) {
+                out.append(String.format("%-40s %-10s %10.1f  %s%n", run.name(), run.status(),
+                        run.durationNanos() / 1e6, run.thread() == null ? "-" : run.thread()));
+            }
+            out.append(String.format("critical path: %.1f ms (%s)%n", criticalPathNanos / 1e6,
+                    String.join(" -> ", criticalPath)));
+            out.append(String.format("wall: %.1f ms, serial: %.1f ms%n", wallNanos / 1e6, serialNanos / 1e6));
+            return out.toString();
+        }
+    }
+
+    /**
+     * A fixture could not be set up
+     */
+    public static class FixtureException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public FixtureException(String message, Throwable cause) {
+            super(message, cause);
+        }
+
+        static FixtureException wrap(Fixture<?> fixture, Throwable cause) {
+            if (cause instanceof FixtureException fixtureException) {
+                return fixtureException;
+            }
+            return new FixtureException("Fixture " + fixture.getName() + " failed: " + cause.getMessage(), cause);
+        }
+    }
+}
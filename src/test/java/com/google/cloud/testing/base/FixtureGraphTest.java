@@ -0,0 +1,106 @@
+package com.google.cloud.testing.base;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.FixtureGraph.FixtureException;
+import com.google.cloud.testing.base.FixtureGraph.FixtureReport;
+import com.google.cloud.testing.base.FixtureGraph.FixtureRun;
+import com.google.cloud.testing.base.FixtureGraph.FixtureStatus;
+
+/**
+ * Unit tests for dependency ordering, memoization and failure propagation of
+ * the fixture graph
+ */
+public class FixtureGraphTest {
+
+    private static <T> Fixture<T> sleeping(String name, long millis, T value, Fixture<?>... dependencies) {
+        return Fixture.of(name, context -> {
+            Thread.sleep(millis);
+            return value;
+        }, dependencies);
+    }
+
+    @Test
+    public void testIndependentFixturesRunConcurrently() {
+        try (FixtureGraph graph = new FixtureGraph(4)) {
+            Fixture<String> bucket = sleeping("bucket", 300, "b");
+            Fixture<String> file = sleeping("file", 300, "f");
+            Fixture<String> upload = Fixture.of("upload",
+                    context -> context.get(bucket) + "/" + context.get(file), bucket, file);
+
+            FixtureReport report = graph.setUp(upload);
+
+            Assert.assertEquals(graph.get(upload), "b/f");
+            Assert.assertTrue(report.wallNanos() < 550_000_000L, "Independent fixtures ran sequentially: " + report.format());
+            Assert.assertTrue(report.serialNanos() >= 600_000_000L, report.format());
+            Assert.assertEquals(report.criticalPath().size(), 2);
+            Assert.assertEquals(report.criticalPath().get(1), "upload");
+        }
+    }
+
+    @Test
+    public void testCriticalPathFollowsLongestChain() {
+        try (FixtureGraph graph = new FixtureGraph(4)) {
+            Fixture<String> slow = sleeping("slow", 250, "s");
+            Fixture<String> fast = sleeping("fast", 10, "f");
+            Fixture<String> afterFast = sleeping("after-fast", 10, "a", fast);
+            Fixture<String> target = Fixture.of("target", context -> "t", slow, afterFast);
+
+            FixtureReport report = graph.setUp(target);
+
+            Assert.assertEquals(report.criticalPath(), List.of("slow", "target"));
+            Assert.assertTrue(report.criticalPathNanos() >= 250_000_000L);
+        }
+    }
+
+    @Test
+    public void testFixturesAreMemoizedByName() {
+        AtomicInteger created = new AtomicInteger();
+        try (FixtureGraph graph = new FixtureGraph(2)) {
+            Fixture<Integer> first = Fixture.of("shared", context -> created.incrementAndGet());
+            Fixture<Integer> second = Fixture.of("shared", context -> created.incrementAndGet());
+            Fixture<Integer> dependent = Fixture.of("dependent", context -> context.get(first) * 10, first);
+
+            graph.setUp(first, dependent);
+            Assert.assertEquals(graph.get(second), Integer.valueOf(1));
+            Assert.assertEquals(graph.get(dependent), Integer.valueOf(10));
+            Assert.assertEquals(created.get(), 1);
+        }
+    }
+
+    @Test
+    public void testFailureSkipsOnlyDependents() {
+        AtomicInteger uploads = new AtomicInteger();
+        try (FixtureGraph graph = new FixtureGraph(2)) {
+            Fixture<String> bucket = Fixture.of("bucket", context -> {
+                throw new IllegalStateException("quota exceeded");
+            });
+            Fixture<String> file = sleeping("file", 10, "f");
+            Fixture<String> upload = Fixture.of("upload", context -> {
+                uploads.incrementAndGet();
+                return "u";
+            }, bucket, file);
+
+            FixtureException failure = Assert.expectThrows(FixtureException.class, () -> graph.setUp(upload, file));
+            Assert.assertTrue(failure.getMessage().contains("bucket"), failure.getMessage());
+            Assert.assertEquals(graph.get(file), "f");
+            Assert.assertEquals(uploads.get(), 0);
+
+            FixtureReport report = graph.report(upload);
+            Assert.assertEquals(report.runs().stream().map(FixtureRun::status).toList(),
+                    List.of(FixtureStatus.FAILED, FixtureStatus.SUCCEEDED, FixtureStatus.SKIPPED));
+        }
+    }
+
+    @Test(expectedExceptions = FixtureException.class)
+    public void testUndeclaredDependencyIsRejected() {
+        try (FixtureGraph graph = new FixtureGraph(1)) {
+            Fixture<String> other = Fixture.of("other", context -> "o");
+            graph.get(Fixture.of("sneaky", context -> context.get(other)));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.google.cloud.testing.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.core.CommandTranscript.Mode;
+
+/**
+ * Unit tests for recording and replaying command transcripts
+ */
+public class CommandTranscriptTest {
+
+    private static final String RECORDED_BUCKET = "mend-test-bucket-0a1b2c3d-4e5";
+    private static final String CURRENT_BUCKET = "mend-test-bucket-99887766-554";
+
+    private Path file;
+
+    @BeforeMethod
+    public void createTranscriptFile() throws IOException {
+        file = Files.createTempFile("transcript-", ".jsonl");
+        Files.delete(file);
+    }
+
+    private static String[] describe(String bucket) {
+        return new String[] {"storage", "buckets", "describe", "gs://" + bucket, "--format=value(name)"};
+    }
+
+    @Test
+    public void testReplayBindsCurrentVolatileNames() throws IOException {
+        try (CommandTranscript transcript = CommandTranscript.open(file, Mode.RECORD, false)) {
+            transcript.record(describe(RECORDED_BUCKET), new CommandResult(0, RECORDED_BUCKET + "\n", "", 250, false));
+        }
+        try (CommandTranscript transcript = CommandTranscript.open(file, Mode.REPLAY, false)) {
+            Assert.assertEquals(transcript.size(), 1);
+            CommandResult result = transcript.replay(describe(CURRENT_BUCKET)).orElseThrow();
+            Assert.assertEquals(result.getStdout(), CURRENT_BUCKET + "\n");
+            Assert.assertTrue(result.getExecutionTimeMs() < 250);
+            Assert.assertTrue(transcript.replay(new String[] {"storage", "ls"}).isEmpty());
+        }
+        Assert.assertFalse(Files.readString(file).contains(RECORDED_BUCKET), "Volatile name was persisted");
+    }
+
+    @Test
+    public void testRepeatedCommandsReplayInRecordedOrder() throws IOException {
+        try (CommandTranscript transcript = CommandTranscript.open(file, Mode.RECORD, false)) {
+            transcript.record(describe(RECORDED_BUCKET), new CommandResult(1, "", "not found: 404.", 10, false));
+            transcript.record(describe(RECORDED_BUCKET), new CommandResult(0, RECORDED_BUCKET, "", 10, false));
+        }
+        try (CommandTranscript transcript = CommandTranscript.open(file, Mode.REPLAY, false)) {
+            Assert.assertFalse(transcript.replay(describe(CURRENT_BUCKET)).orElseThrow().isSuccess());
+            Assert.assertTrue(transcript.replay(describe(CURRENT_BUCKET)).orElseThrow().isSuccess());
+            Assert.assertTrue(transcript.replay(describe(CURRENT_BUCKET)).orElseThrow().isSuccess(),
+                    "The last recording answers further calls");
+        }
+    }
+
+    @Test
+    public void testCommandsWithInputReplayByTheirInput() throws IOException {
+        String[] copy = {"storage", "cp", "-I", "gs://" + RECORDED_BUCKET + "/"};
+        try (CommandTranscript transcript = CommandTranscript.open(file, Mode.RECORD, false)) {
+            transcript.record(copy, "/data/a.txt\n", new CommandResult(0, "", "Copied a.txt", 10, false));
+            transcript.record(copy, "/data/b.txt\n", new CommandResult(1, "", "Cannot copy b.txt", 10, false));
+        }
+        String[] current = {"storage", "cp", "-I", "gs://" + CURRENT_BUCKET + "/"};
+        try (CommandTranscript transcript = CommandTranscript.open(file, Mode.REPLAY, false)) {
+            // Batches answered in a different order than they were recorded, as concurrent batches are
+            Assert.assertEquals(transcript.replay(current, "/data/b.txt\n").orElseThrow().getStderr(),
+                    "Cannot copy b.txt");
+            Assert.assertEquals(transcript.replay(current, "/data/a.txt\n").orElseThrow().getStderr(),
+                    "Copied a.txt");
+            Assert.assertTrue(transcript.replay(current, "/data/c.txt\n").isEmpty(), "Unrecorded input replayed");
+            Assert.assertTrue(transcript.replay(current).isEmpty(), "Command without input matched a batch");
+        }
+    }
+
+    @Test
+    public void testStreamingOutputAndRecordedLatency() throws IOException {
+        String[] cat = {"storage", "cat", "gs://" + RECORDED_BUCKET + "/data.bin"};
+        byte[] content = {0, 1, 2, (byte) 0xff};
+        try (CommandTranscript transcript = CommandTranscript.open(file, Mode.RECORD, false)) {
+            transcript.recordStream(cat, new CommandResult(0, "", "", 120, false), content);
+        }
+        try (CommandTranscript transcript = CommandTranscript.open(file, Mode.REPLAY, true)) {
+            long start = System.nanoTime();
+            CommandTranscript.Replayed replayed = transcript.replayStream(cat).orElseThrow();
+            Assert.assertTrue(System.nanoTime() - start >= 120_000_000L, "Recorded latency was not replayed");
+            Assert.assertEquals(replayed.stdout(), content);
+            Assert.assertEquals(replayed.recordedMs(), 120);
+        }
+    }
+
+    @Test
+    public void testTenantsRecordToTheirOwnFiles() {
+        Path shared = Path.of("target", "transcripts", "gcloud-transcript.jsonl");
+        Assert.assertEquals(CommandTranscript.forTenant(shared, "team-a"),
+                Path.of("target", "transcripts", "gcloud-transcript.team-a.jsonl"));
+        Assert.assertEquals(CommandTranscript.forTenant(Path.of("transcript"), "team-a"),
+                Path.of("transcript.team-a"));
+        Assert.assertNotEquals(CommandTranscript.forTenant(shared, "team-a"),
+                CommandTranscript.forTenant(shared, "team-b"));
+    }
+
+    @Test
+    public void testNormalizationUsesOnePlaceholderPerValue() {
+        String tmp = System.getProperty("java.io.tmpdir").replaceAll("/$", "");
+        CommandTranscript.Normalized normalized = CommandTranscript.normalize(new String[] {"storage", "cp",
+                tmp + "/gcloud-test-4819126843443050573/test-file.txt", "gs://" + RECORDED_BUCKET,
+                "gs://" + RECORDED_BUCKET + "/report-1700000000000-deadbeef"});
+
+        Assert.assertEquals(normalized.args().get(2), "<V0>/test-file.txt");
+        Assert.assertEquals(normalized.args().get(3), "gs://<V1>");
+        Assert.assertEquals(normalized.args().get(4), "gs://<V1>/<V2>");
+        Assert.assertEquals(normalized.abstractValues("Copying to gs://" + RECORDED_BUCKET), "Copying to gs://<V1>");
+    }
+}
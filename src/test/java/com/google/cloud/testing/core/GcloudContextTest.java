@@ -0,0 +1,162 @@
+package com.google.cloud.testing.core;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+
+/**
+ * Unit tests for per-tenant gcloud contexts, run against the fake gcloud
+ */
+public class GcloudContextTest {
+
+    private static final CommandTemplate FAKE_GCLOUD = CommandTemplate
+            .forExecutable(Path.of("src/test/resources/fake-gcloud/gcloud").toAbsolutePath().toString());
+
+    private Path root;
+    private Path ambient;
+
+    @BeforeMethod
+    public void createDirectories() throws IOException {
+        root = Files.createTempDirectory("tenants-");
+        ambient = Files.createDirectories(root.resolve("ambient"));
+        Files.writeString(ambient.resolve("credentials.db"), "ambient credentials");
+        Files.writeString(ambient.resolve("active_config"), "default");
+        Files.createDirectories(ambient.resolve("configurations"));
+        Files.writeString(ambient.resolve("configurations").resolve("config_default"), "[core]\naccount = me\n");
+        Files.createDirectories(ambient.resolve("logs"));
+        Files.writeString(ambient.resolve("logs").resolve("gcloud.log"), "noise");
+    }
+
+    private GcloudContext context(String name, String project) {
+        return GcloudContext.of(root.resolve("tenants"), name, project, "signer@" + project + ".example.com", null);
+    }
+
+    @Test
+    public void testEnvironment() {
+        GcloudContext context = GcloudContext.of(root, "team-a", "project-a", "", "key.json");
+        Map<String, String> environment = context.environment();
+        Assert.assertEquals(environment.get("CLOUDSDK_CONFIG"), root.resolve("team-a").toAbsolutePath().toString());
+        Assert.assertEquals(environment.get("CLOUDSDK_CORE_PROJECT"), "project-a");
+        Assert.assertTrue(environment.get("CLOUDSDK_AUTH_CREDENTIAL_FILE_OVERRIDE").endsWith("key.json"));
+        Assert.assertNull(context.serviceAccount(), "Blank account not treated as unset");
+        Assert.assertFalse(GcloudContext.of(root, "team-b", null, null, null).environment()
+                .containsKey("CLOUDSDK_CORE_PROJECT"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRejectsNamesThatAreNotDirectoryNames() {
+        GcloudContext.of(root, "../escape", "p", null, null);
+    }
+
+    @Test
+    public void testPrepareSeedsCredentialsPrivatelyAndRefreshesThem() throws IOException {
+        GcloudContext context = context("team-a", "project-a");
+        context.prepare(ambient, true);
+        Assert.assertEquals(Files.readString(context.configDir().resolve("credentials.db")), "ambient credentials");
+        Assert.assertTrue(Files.exists(context.configDir().resolve("configurations").resolve("config_default")));
+        Assert.assertFalse(Files.exists(context.configDir().resolve("logs")), "Logs copied with the credentials");
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Assert.assertEquals(PosixFilePermissions.toString(Files.getPosixFilePermissions(context.configDir())),
+                    "rwx------");
+            Assert.assertEquals(PosixFilePermissions.toString(Files.getPosixFilePermissions(
+                    context.configDir().resolve("configurations"))), "rwx------");
+        }
+
+        // Rotated ambient credentials reach the tenant on the next prepare
+        Files.writeString(ambient.resolve("credentials.db"), "rotated");
+        Files.setLastModifiedTime(ambient.resolve("credentials.db"),
+                FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        context.prepare(ambient, true);
+        Assert.assertEquals(Files.readString(context.configDir().resolve("credentials.db")), "rotated");
+
+        // Credentials a tenant did not get from a seed are its own
+        GcloudContext own = context("team-c", "project-c");
+        Files.createDirectories(own.configDir());
+        Files.writeString(own.configDir().resolve("credentials.db"), "own credentials");
+        own.prepare(ambient, true);
+        Assert.assertEquals(Files.readString(own.configDir().resolve("credentials.db")), "own credentials");
+
+        GcloudContext withKey = GcloudContext.of(root, "team-b", "project-b", null, "key.json");
+        withKey.prepare(ambient, true);
+        Assert.assertTrue(Files.isDirectory(withKey.configDir()));
+        Assert.assertFalse(Files.exists(withKey.configDir().resolve("credentials.db")));
+
+        GcloudContext unseeded = context("team-d", "project-d");
+        unseeded.prepare(ambient, false);
+        Assert.assertFalse(Files.exists(unseeded.configDir().resolve("credentials.db")), "Seeded without asking");
+    }
+
+    @Test
+    public void testTenantsRunConcurrentlyInTheirOwnContexts() {
+        GcloudTenants tenants = GcloudTenants.open(List.of(context("team-a", "project-a"),
+                context("team-b", "project-b")), FAKE_GCLOUD, ambient, true, true);
+
+        Assert.assertEquals(tenants.getWarmUpMs().keySet(), Set.of("team-a", "team-b"));
+        for (GcloudContext context : tenants.contexts()) {
+            Assert.assertTrue(Files.exists(context.configDir().resolve("access_tokens.db")),
+                    "Token not cached in the configuration of " + context.name());
+        }
+
+        CompletableFuture<String> projectA = CompletableFuture.supplyAsync(
+                () -> tenants.executor("team-a").getCurrentProject());
+        CompletableFuture<String> projectB = CompletableFuture.supplyAsync(
+                () -> tenants.executor("team-b").getCurrentProject());
+        Assert.assertEquals(projectA.join(), "project-a");
+        Assert.assertEquals(projectB.join(), "project-b");
+        Assert.assertEquals(GcloudPreflight.of(tenants.executor("team-a")).project(), "project-a");
+        Assert.assertEquals(GcloudPreflight.of(tenants.executor("team-b")).project(), "project-b",
+                "Preflight shared between tenants");
+    }
+
+    @Test
+    public void testSignedUrlsImpersonateTheTenantAccount() {
+        GcloudTenants tenants = GcloudTenants.open(List.of(context("team-a", "project-a")), FAKE_GCLOUD, ambient,
+                false, false);
+        Assert.assertTrue(tenants.getWarmUpMs().isEmpty());
+        List<String> commands = new CopyOnWriteArrayList<>();
+        CommandListener listener = new CommandListener() {
+
+            @Override
+            public void commandStarted(long commandId, String[] command) {
+                commands.add(String.join(" ", command));
+            }
+
+            @Override
+            public void commandFinished(long commandId, String[] command, CommandResult result, long stdoutBytes,
+                    long stderrBytes) {
+            }
+        };
+        CommandExecutor.addListener(listener);
+        try {
+            Assert.assertEquals(new GcloudStorageOperations(tenants.executor("team-a"))
+                    .generateSignedUrl("gs://bucket/object.txt", Duration.ofMinutes(5)).size(), 1);
+        } finally {
+            CommandExecutor.removeListener(listener);
+        }
+        Assert.assertTrue(commands.stream().anyMatch(command -> command.contains("sign-url")
+                && command.contains("--impersonate-service-account=signer@project-a.example.com")), commands.toString());
+    }
+
+    @Test
+    public void testDuplicateAndUnknownTenants() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> GcloudTenants.open(List.of(
+                context("team-a", "p"), context("team-a", "q")), FAKE_GCLOUD, ambient, false, false));
+        GcloudTenants tenants = GcloudTenants.open(List.of(), FAKE_GCLOUD, ambient, true, true);
+        Assert.assertThrows(IllegalArgumentException.class, () -> tenants.executor("team-a"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.google.cloud.testing.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for byte-level output draining and lazy decoding
+ */
+public class OutputBufferTest {
+
+    /**
+     * Returns at most a few bytes per read, like a pipe under load
+     */
+    private static InputStream trickle(byte[] data) {
+        return new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+    }
+
+    @Test
+    public void testMultiChunkOutputKeepsBytesAndDecodesUtf8() throws IOException {
+        // Multi-byte characters end up split across chunk boundaries
+        String text = "gs://bucket/данные/объект-€.txt\n".repeat(OutputBuffer.CHUNK_SIZE / 16);
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        OutputBuffer buffer = new OutputBuffer();
+        buffer.drain(new ByteArrayInputStream(data));
+        Assert.assertEquals(buffer.size(), data.length);
+
+        CommandResult result = new CommandResult(0, buffer.toByteArray(), new byte[0], 1, false);
+        Assert.assertEquals(buffer.size(), 0, "Buffer not emptied after copying out");
+        Assert.assertEquals(result.getStdout(), text);
+        Assert.assertSame(result.getStdout(), result.getStdout(), "Output decoded more than once");
+        Assert.assertEquals(result.getStderr(), "");
+    }
+
+    @Test
+    public void testShortReadsAndEmptyOutput() throws IOException {
+        byte[] data = "one\ntwo\nthree".getBytes(StandardCharsets.UTF_8);
+        OutputBuffer buffer = new OutputBuffer();
+        buffer.drain(trickle(data));
+        Assert.assertEquals(buffer.toByteArray(), data);
+
+        OutputBuffer empty = new OutputBuffer();
+        empty.drain(new ByteArrayInputStream(new byte[0]));
+        Assert.assertEquals(empty.toByteArray().length, 0);
+    }
+
+    @Test
+    public void testStdoutBufferIsReadOnlyView() {
+        CommandResult drained = new CommandResult(0, "héllo".getBytes(StandardCharsets.UTF_8), new byte[0], 0,
+                false);
+        ByteBuffer view = drained.getStdoutBuffer();
+        Assert.assertEquals(view.remaining(), 6);
+        Assert.assertTrue(view.isReadOnly());
+        Assert.assertThrows(ReadOnlyBufferException.class, () -> view.put(0, (byte) 'x'));
+
+        CommandResult decoded = new CommandResult(0, "héllo", "", 0, false);
+        Assert.assertEquals(decoded.getStdoutBuffer(), drained.getStdoutBuffer());
+        Assert.assertTrue(drained.toString().contains("stdout='héllo'"), drained.toString());
+    }
+}
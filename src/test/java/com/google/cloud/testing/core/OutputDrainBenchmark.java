@@ -0,0 +1,106 @@
+package com.google.cloud.testing.core;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocation and throughput of draining command output: the former
+ * line-by-line reader against the pooled byte chunks, with and without
+ * decoding. Compare gc.alloc.rate.norm (bytes allocated per drained output):
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     com.google.cloud.testing.core.OutputDrainBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputDrainBenchmark {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Output size: a describe-sized response and an object listing
+     */
+    @Param({ "16", "32768" })
+    public int outputKb;
+
+    private byte[] output;
+
+    @Setup
+    public void generateListing() {
+        StringBuilder listing = new StringBuilder("[\n");
+        for (int i = 0; listing.length() < outputKb * 1024; i++) {
+            listing.append(String.format("  {\"bucket\": \"bench\", \"name\": \"logs/2024/object-%08d.txt\", "
+                    + "\"size\": %d, \"generation\": \"1700000000%06d\"},%n", i, i * 37, i));
+        }
+        output = listing.append("]\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * What CommandExecutor did before: a String per line appended to a
+     * StringBuilder, then copied by toString()
+     */
+    @Benchmark
+    public String lineReader() throws IOException {
+        StringBuilder stdout = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(output)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                stdout.append(line).append(System.lineSeparator());
+            }
+        }
+        return stdout.toString();
+    }
+
+    /**
+     * Pooled chunks, consumed as bytes through the ByteBuffer view
+     */
+    @Benchmark
+    public ByteBuffer chunkedBytes() throws IOException {
+        return drain().getStdoutBuffer();
+    }
+
+    /**
+     * Pooled chunks, decoded once by getStdout()
+     */
+    @Benchmark
+    public String chunkedDecoded() throws IOException {
+        return drain().getStdout();
+    }
+
+    private CommandResult drain() throws IOException {
+        OutputBuffer buffer = new OutputBuffer();
+        buffer.drain(new ByteArrayInputStream(output));
+        return new CommandResult(0, buffer.toByteArray(), EMPTY, 0, false);
+    }
+
+    /**
+     * Run with the GC profiler unless JMH options are given
+     */
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args.length > 0 ? args
+                : new String[] { OutputDrainBenchmark.class.getSimpleName(), "-prof", "gc" });
+    }
+}
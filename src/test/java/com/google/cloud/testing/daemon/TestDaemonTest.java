@@ -0,0 +1,151 @@
+package com.google.cloud.testing.daemon;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+
+/**
+ * Unit tests for the warm test daemon and its client, running a sample
+ * class inside the daemon
+ */
+public class TestDaemonTest {
+
+    private static final String SAMPLE = Sample.class.getName();
+
+    private Path stateFile;
+    private TestDaemon daemon;
+    private Thread serving;
+
+    /**
+     * Tests the daemon runs; not part of any suite
+     */
+    public static class Sample {
+
+        @Test
+        public void passes() {
+        }
+
+        @Test
+        public void skips() {
+            // Surefire also counts tests run in the daemon, so nothing here fails
+            throw new SkipException("expected skip");
+        }
+    }
+
+    @BeforeClass
+    public void startDaemon() throws IOException {
+        stateFile = Files.createTempDirectory("daemon-").resolve("daemon.port");
+        // Sample results stay out of this suite's Allure report
+        daemon = new TestDaemon(0, stateFile).skipListener("io.qameta.allure.testng.AllureTestNg").warmUp();
+        serving = new Thread(daemon::serve, "daemon-test");
+        serving.setDaemon(true);
+        serving.start();
+    }
+
+    @Test
+    public void testPingThroughStateFile() throws IOException {
+        Assert.assertEquals(Files.readString(stateFile), String.valueOf(daemon.getPort()));
+        DaemonEvent pong = DaemonClient.fromStateFile(stateFile).send(DaemonRequest.of(DaemonRequest.PING),
+                event -> {
+                });
+        Assert.assertEquals(pong.type(), DaemonEvent.PONG);
+        Assert.assertEquals(pong.exitCode(), 0);
+    }
+
+    @Test
+    public void testRunsStreamResultsAndReuseTheDaemon() throws IOException {
+        DaemonClient client = new DaemonClient(daemon.getPort());
+        List<DaemonEvent> events = new CopyOnWriteArrayList<>();
+        DaemonEvent finished = client.send(DaemonRequest.run(List.of(), List.of(SAMPLE + "#passes",
+                SAMPLE + "#skips")), events::add);
+
+        Assert.assertEquals(finished.type(), DaemonEvent.FINISHED);
+        Assert.assertNotEquals(finished.exitCode(), 0, "Run with a skipped test reported success");
+        Assert.assertEquals(finished.message(), "1 passed, 0 failed, 1 skipped");
+        Assert.assertEquals(events.stream().filter(e -> e.type().equals(DaemonEvent.STARTED)).count(), 2);
+        DaemonEvent skipped = events.stream()
+                .filter(e -> e.type().equals(DaemonEvent.RESULT) && "SKIP".equals(e.status()))
+                .findFirst().orElseThrow();
+        Assert.assertEquals(skipped.test(), "Sample.skips");
+        Assert.assertTrue(skipped.message().contains("expected skip"), skipped.message());
+        Assert.assertTrue(DaemonClient.format(skipped).startsWith("SKIP Sample.skips"));
+
+        DaemonEvent second = client.send(DaemonRequest.run(List.of(), List.of(SAMPLE + "#passes")), event -> {
+        });
+        Assert.assertEquals(second.exitCode(), 0);
+        Assert.assertEquals(second.message(), "1 passed, 0 failed, 0 skipped");
+    }
+
+    @Test
+    public void testRejectsEmptyAndUnknownRequests() throws IOException {
+        DaemonClient client = new DaemonClient(daemon.getPort());
+        Assert.assertEquals(client.send(DaemonRequest.run(List.of(), List.of()), event -> {
+        }).type(), DaemonEvent.ERROR);
+        DaemonEvent unknown = client.send(DaemonRequest.of("rerun"), event -> {
+        });
+        Assert.assertEquals(unknown.type(), DaemonEvent.ERROR);
+        Assert.assertEquals(unknown.exitCode(), 1);
+    }
+
+    @Test
+    public void testRefusesRunsAfterARecompile() throws IOException {
+        Path classes = Files.createTempDirectory("daemon-classes-");
+        Path classFile = Files.createDirectories(classes.resolve("com/example")).resolve("Sample.class");
+        Files.write(classFile, new byte[] {(byte) 0xca, (byte) 0xfe});
+        Files.setLastModifiedTime(classFile, FileTime.fromMillis(1_000_000));
+        try (TestDaemon watching = new TestDaemon(0, null).watchClasses(List.of(classes)).warmUp()) {
+            Assert.assertNull(watching.staleClasses());
+
+            Files.setLastModifiedTime(classFile, FileTime.fromMillis(2_000_000));
+            List<DaemonEvent> events = new CopyOnWriteArrayList<>();
+            watching.run(DaemonRequest.run(List.of(), List.of("BucketsListCommandTest")), events::add);
+            Assert.assertEquals(events.size(), 1);
+            Assert.assertEquals(events.get(0).type(), DaemonEvent.ERROR);
+            Assert.assertTrue(events.get(0).message().contains("restart the daemon"), events.get(0).message());
+        } finally {
+            Files.delete(classFile);
+        }
+    }
+
+    @Test
+    public void testSelectionSuite() {
+        XmlSuite suite = TestDaemon.suiteOf(List.of("BucketsListCommandTest", "SignUrlCommandTest#testBasicSignedUrlGeneration",
+                "SignUrlCommandTest", "com.example.OtherTest#a", "com.example.OtherTest#b"));
+        List<XmlClass> classes = suite.getTests().get(0).getXmlClasses();
+
+        Assert.assertEquals(classes.stream().map(XmlClass::getName).toList(), List.of(
+                "com.google.cloud.testing.tests.BucketsListCommandTest",
+                "com.google.cloud.testing.tests.SignUrlCommandTest", "com.example.OtherTest"));
+        Assert.assertTrue(classes.get(1).getIncludedMethods().isEmpty(), "Class listed alone must run whole");
+        Assert.assertEquals(classes.get(2).getIncludedMethods().size(), 2);
+    }
+
+    @Test(dependsOnMethods = { "testPingThroughStateFile", "testRunsStreamResultsAndReuseTheDaemon",
+            "testRejectsEmptyAndUnknownRequests" })
+    public void testStop() throws IOException, InterruptedException {
+        DaemonEvent stopping = new DaemonClient(daemon.getPort()).send(DaemonRequest.of(DaemonRequest.STOP),
+                event -> {
+                });
+        Assert.assertEquals(stopping.type(), DaemonEvent.STOPPING);
+        serving.join(5000);
+        Assert.assertFalse(serving.isAlive(), "Daemon still serving after stop");
+        Assert.assertFalse(Files.exists(stateFile), "State file left behind");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopDaemon() throws IOException {
+        daemon.close();
+        Files.deleteIfExists(stateFile.getParent());
+    }
+}
@@ -0,0 +1,90 @@
+package com.google.cloud.testing.events;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.events.EventLogAnalyzer.Analysis;
+import com.google.cloud.testing.events.EventLogAnalyzer.TestTimeline;
+
+/**
+ * Unit tests for the execution event log and its timeline analysis
+ */
+public class EventLogAnalyzerTest {
+
+    private static final String[] DESCRIBE = {"/opt/sdk/bin/gcloud", "storage", "buckets", "describe", "gs://b"};
+    private static final String[] LIST = {"gcloud", "storage", "ls", "gs://b", "--format=json"};
+
+    private Path file;
+
+    @BeforeMethod
+    public void createLogFile() throws IOException {
+        file = Files.createTempFile("events-", ".jsonl");
+    }
+
+    @Test
+    public void testCommandsAttributedToTestOnSameThread() throws Exception {
+        try (ExecutionEventLog log = ExecutionEventLog.open(file, 64)) {
+            log.testStarted("ATest.first");
+            log.commandStarted(1, DESCRIBE);
+            log.commandFinished(1, DESCRIBE, new CommandResult(0, "b\n", "", 5, false), 2, 0);
+            log.commandStarted(2, LIST);
+            log.commandFinished(2, LIST, new CommandResult(1, "", "404", 5, false), 0, 3);
+            log.testFinished("ATest.first", "FAILED");
+            log.commandStarted(3, LIST);
+            log.commandFinished(3, LIST, new CommandResult(0, "[]", "", 5, false), 2, 0);
+        }
+
+        Analysis analysis = EventLogAnalyzer.analyze(file);
+        Assert.assertEquals(analysis.tests().size(), 2);
+        TestTimeline test = analysis.tests().get(0);
+        Assert.assertEquals(test.name(), "ATest.first");
+        Assert.assertEquals(test.status(), "FAILED");
+        Assert.assertEquals(test.commands().size(), 2);
+        Assert.assertEquals(test.commands().get(0).key(), "gcloud storage buckets describe");
+        Assert.assertEquals(test.commands().get(1).stderrBytes(), 3);
+        Assert.assertEquals(analysis.tests().get(1).name(), EventLogAnalyzer.UNATTRIBUTED);
+
+        EventLogAnalyzer.CommandSummary list = analysis.commands().stream()
+                .filter(summary -> summary.key().equals("gcloud storage ls")).findFirst().orElseThrow();
+        Assert.assertEquals(list.count(), 2);
+        Assert.assertEquals(list.failures(), 1);
+        Assert.assertTrue(analysis.format().contains("ATest.first"));
+    }
+
+    @Test
+    public void testCommandOnWorkerThreadAttributedToOnlyRunningTest() throws Exception {
+        try (ExecutionEventLog log = ExecutionEventLog.open(file, 64)) {
+            log.testStarted("ATest.setUp [config]");
+            Thread worker = new Thread(() -> {
+                log.commandStarted(7, DESCRIBE);
+                log.commandFinished(7, DESCRIBE, new CommandResult(0, "", "", 1, false), 0, 0);
+            }, "fixture-1");
+            worker.start();
+            worker.join();
+            log.testFinished("ATest.setUp [config]", "PASSED");
+        }
+
+        TestTimeline setUp = EventLogAnalyzer.analyze(file).tests().get(0);
+        Assert.assertEquals(setUp.name(), "ATest.setUp [config]");
+        Assert.assertEquals(setUp.commands().size(), 1);
+        Assert.assertEquals(setUp.commands().get(0).thread(), "fixture-1");
+    }
+
+    @Test
+    public void testFullBufferDropsInsteadOfBlocking() throws Exception {
+        long written;
+        try (ExecutionEventLog log = ExecutionEventLog.open(file, 1)) {
+            for (int i = 0; i < 10_000; i++) {
+                log.testStarted("t" + i);
+            }
+            written = 10_000 - log.getDroppedCount();
+        }
+        Assert.assertEquals(Files.readAllLines(file).size(), written);
+    }
+}
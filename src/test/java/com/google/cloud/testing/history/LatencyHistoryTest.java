@@ -0,0 +1,140 @@
+package com.google.cloud.testing.history;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.config.TestConfig;
+
+/**
+ * Unit tests for the latency history store and its median/MAD baselines
+ */
+public class LatencyHistoryTest {
+
+    private static final TestConfig.HistorySettings DEFAULTS = new TestConfig.HistorySettings();
+
+    @Test
+    public void testSaveAndLoadRoundTrip() throws IOException {
+        Path file = Files.createTempDirectory("latency-").resolve("history").resolve("latency-history.tsv");
+        LatencyHistory history = new LatencyHistory();
+        history.record(LatencyHistory.TEST, "ListTest.testList [Full]", 'P', 120, 20);
+        history.record(LatencyHistory.TEST, "ListTest.testList [Full]", 'F', -1, 20);
+        history.record(LatencyHistory.COMMAND, "gcloud storage ls", 'P', 40, 20);
+        history.save(file);
+
+        LatencyHistory loaded = LatencyHistory.load(file);
+        Assert.assertEquals(loaded.size(), 2);
+        Assert.assertEquals(loaded.get(LatencyHistory.TEST, "ListTest.testList [Full]"),
+                new LatencyHistory.Series("PF", List.of(120L)));
+        Assert.assertEquals(loaded.get(LatencyHistory.COMMAND, "gcloud storage ls").durationsMs(), List.of(40L));
+        Assert.assertTrue(loaded.get(LatencyHistory.TEST, "ListTest.testList [Full]").isFlaky());
+        Assert.assertEquals(loaded.get(LatencyHistory.TEST, "missing").outcomes(), "");
+    }
+
+    @Test
+    public void testShardFilesMergeOnLoad() throws IOException {
+        Path file = Files.createTempDirectory("latency-").resolve("latency-history.tsv");
+        Assert.assertEquals(LatencyHistory.shardFile(file, 1), file.resolveSibling("latency-history.shard-1.tsv"));
+        LatencyHistory shared = new LatencyHistory();
+        shared.record(LatencyHistory.TEST, "A.a", 'P', 100, 20);
+        shared.record(LatencyHistory.COMMAND, "gcloud storage ls", 'P', 40, 20);
+        shared.save(file);
+        LatencyHistory shard0 = new LatencyHistory();
+        shard0.record(LatencyHistory.TEST, "B.b", 'P', 200, 20);
+        shard0.record(LatencyHistory.COMMAND, "gcloud storage ls", 'P', 50, 20);
+        shard0.save(LatencyHistory.shardFile(file, 0));
+        LatencyHistory shard1 = new LatencyHistory();
+        shard1.record(LatencyHistory.COMMAND, "gcloud storage ls", 'P', 60, 20);
+        shard1.save(LatencyHistory.shardFile(file, 1));
+
+        Assert.assertEquals(LatencyHistory.shardFiles(file),
+                List.of(LatencyHistory.shardFile(file, 0), LatencyHistory.shardFile(file, 1)));
+        LatencyHistory merged = LatencyHistory.loadWithShards(file, 20);
+        Assert.assertEquals(merged.size(), 3);
+        Assert.assertEquals(merged.get(LatencyHistory.TEST, "A.a").durationsMs(), List.of(100L));
+        Assert.assertEquals(merged.get(LatencyHistory.TEST, "B.b").durationsMs(), List.of(200L));
+        Assert.assertEquals(merged.get(LatencyHistory.COMMAND, "gcloud storage ls").durationsMs(),
+                List.of(40L, 50L, 60L));
+        Assert.assertEquals(LatencyHistory.loadWithShards(file, 2).get(LatencyHistory.COMMAND, "gcloud storage ls"),
+                new LatencyHistory.Series("PP", List.of(50L, 60L)), "Window not applied to merged runs");
+    }
+
+    @Test
+    public void testOverlappingShardsKeepEveryRun() throws IOException {
+        Path file = Files.createTempDirectory("latency-").resolve("latency-history.tsv");
+        LatencyHistory shared = new LatencyHistory();
+        shared.record(LatencyHistory.TEST, "A.a", 'P', 100, 20);
+        shared.save(file);
+
+        // Both shards start from the shared file; only shard 0 runs A.a
+        LatencyHistory shard0 = LatencyHistory.load(LatencyHistory.shardFile(file, 0));
+        shard0.record(LatencyHistory.TEST, "A.a", 'P', 200, 20);
+        shard0.save(LatencyHistory.shardFile(file, 0));
+        LatencyHistory shard1 = LatencyHistory.load(LatencyHistory.shardFile(file, 1));
+        shard1.record(LatencyHistory.TEST, "B.b", 'F', -1, 20);
+        shard1.save(LatencyHistory.shardFile(file, 1));
+        // A second sharded run before the fold adds to the shard's own runs
+        LatencyHistory again = LatencyHistory.load(LatencyHistory.shardFile(file, 0));
+        again.record(LatencyHistory.TEST, "A.a", 'P', 300, 20);
+        again.save(LatencyHistory.shardFile(file, 0));
+
+        LatencyHistory merged = LatencyHistory.loadWithShards(file, 20);
+        Assert.assertEquals(merged.get(LatencyHistory.TEST, "A.a"), new LatencyHistory.Series("PPP",
+                List.of(100L, 200L, 300L)), "Run of a shard lost to another shard's copy");
+        Assert.assertEquals(merged.get(LatencyHistory.TEST, "B.b").outcomes(), "F");
+    }
+
+    @Test
+    public void testUnreadableFileLoadsEmpty() throws IOException {
+        Path file = Files.createTempFile("latency-", ".tsv");
+        Files.writeString(file, "test\tA.a\tP\tnot-a-number\n");
+        Assert.assertEquals(LatencyHistory.load(file).size(), 0);
+        Assert.assertEquals(LatencyHistory.load(file.resolveSibling("absent.tsv")).size(), 0);
+    }
+
+    @Test
+    public void testWindowKeepsMostRecentRuns() {
+        LatencyHistory history = new LatencyHistory();
+        for (int run = 1; run <= 5; run++) {
+            history.record(LatencyHistory.TEST, "A.a", run == 1 ? 'F' : 'P', run * 10, 3);
+        }
+        LatencyHistory.Series series = history.get(LatencyHistory.TEST, "A.a");
+        Assert.assertEquals(series.outcomes(), "PPP");
+        Assert.assertEquals(series.durationsMs(), List.of(30L, 40L, 50L));
+        Assert.assertFalse(series.isFlaky(), "Failure outside the window still counted");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNamesCannotBreakTheFormat() {
+        new LatencyHistory().record(LatencyHistory.TEST, "A.a\tb", 'P', 1, 3);
+    }
+
+    @Test
+    public void testMedianAndMadIgnoreOutliers() {
+        LatencyBaseline baseline = LatencyBaseline.of(List.of(100L, 104L, 98L, 102L, 5000L, 96L));
+        Assert.assertEquals(baseline.samples(), 6);
+        Assert.assertEquals(baseline.medianMs(), 101.0);
+        Assert.assertEquals(baseline.madMs(), 3.0);
+        Assert.assertEquals(LatencyBaseline.of(List.of()).samples(), 0);
+    }
+
+    @Test
+    public void testRegressionNeedsScoreSlowdownAndSamples() {
+        LatencyBaseline baseline = LatencyBaseline.of(List.of(100L, 104L, 98L, 102L, 96L));
+        Assert.assertTrue(baseline.isRegression(200, DEFAULTS));
+        // Far outside the MAD, but neither 20% nor 50 ms slower
+        Assert.assertFalse(baseline.isRegression(119, DEFAULTS));
+        Assert.assertFalse(baseline.isRegression(90, DEFAULTS), "Faster run flagged");
+        Assert.assertFalse(LatencyBaseline.of(List.of(100L, 100L)).isRegression(1000, DEFAULTS),
+                "Flagged before enough samples");
+
+        // Noisy baseline: 200 ms is within its spread
+        LatencyBaseline noisy = LatencyBaseline.of(List.of(50L, 150L, 100L, 200L, 80L, 120L));
+        Assert.assertFalse(noisy.isRegression(200, DEFAULTS));
+        Assert.assertTrue(noisy.isRegression(400, DEFAULTS));
+    }
+}
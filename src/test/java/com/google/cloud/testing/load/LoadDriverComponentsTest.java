@@ -0,0 +1,59 @@
+package com.google.cloud.testing.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.load.LatencyRecorder.LatencyStats;
+
+/**
+ * Unit tests for the load driver building blocks; no gcloud required
+ */
+public class LoadDriverComponentsTest {
+
+    @Test
+    public void testMixParsingAndSelection() {
+        WorkloadMix mix = WorkloadMix.parse("cp=3, ls=1,describe=0");
+        Assert.assertEquals(mix.getWeights().get(OperationType.COPY), Integer.valueOf(3));
+
+        Map<OperationType, Integer> picks = new EnumMap<>(OperationType.class);
+        Random random = new Random(42);
+        for (int i = 0; i < 4000; i++) {
+            picks.merge(mix.next(random), 1, Integer::sum);
+        }
+        Assert.assertNull(picks.get(OperationType.DESCRIBE), "Zero-weight operation was selected");
+        Assert.assertEquals(picks.get(OperationType.COPY) / (double) picks.get(OperationType.LIST), 3.0, 0.5);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownOperationRejected() {
+        WorkloadMix.parse("cp=1,rsync=1");
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 1; i <= 2000; i++) {
+            recorder.record(i * 1_000_000L);
+        }
+        LatencyStats stats = recorder.snapshot();
+        Assert.assertEquals(stats.count(), 2000);
+        Assert.assertEquals(stats.p50(), 1000.0);
+        Assert.assertEquals(stats.p99(), 1980.0);
+        Assert.assertEquals(stats.max(), 2000.0);
+        Assert.assertEquals(stats.mean(), 1000.5, 0.001);
+    }
+
+    @Test
+    public void testConfidenceInterval() {
+        Assert.assertEquals(SdkComparisonBenchmark.tQuantile975(10), 2.228, 0.005);
+        Assert.assertEquals(SdkComparisonBenchmark.tQuantile975(30), 2.042, 0.005);
+
+        double[] differences = {1, 2, 3, 4, 5};
+        // sd = 1.581, se = 0.707, t(4) = 2.776
+        Assert.assertEquals(SdkComparisonBenchmark.confidenceHalfWidth(differences), 1.963, 0.03);
+    }
+}
@@ -0,0 +1,68 @@
+package com.google.cloud.testing.profiling;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit tests for rendering suite profiles
+ */
+public class SuiteProfileTest {
+
+    private static final long MS = 1_000_000;
+
+    private static TraceSpan span(String category, List<String> stack, boolean nested, long thread, long startMs,
+            long endMs) {
+        return new TraceSpan(category, stack, nested, thread, "thread-" + thread, startMs * MS, endMs * MS, Map.of());
+    }
+
+    private static SuiteProfile profile() {
+        return new SuiteProfile(List.of(
+                span("suite", List.of("S"), false, 1, 0, 100),
+                span("test", List.of("S", "ATest", "first"), false, 1, 10, 40),
+                span("command", List.of("S", "ATest", "first", "gcloud storage cp"), true, 1, 15, 35),
+                span("test", List.of("S", "BTest", "second"), false, 2, 30, 60),
+                span("command", List.of("S", "fixture", "gcloud storage buckets create"), false, 3, 70, 80)));
+    }
+
+    @Test
+    public void testFoldSubtractsNestedAndCoveredTime() {
+        Map<String, Long> folded = profile().fold();
+        Assert.assertEquals(folded.get("S;ATest;first"), 10_000L);
+        Assert.assertEquals(folded.get("S;ATest;first;gcloud storage cp"), 20_000L);
+        Assert.assertEquals(folded.get("S;BTest;second"), 30_000L);
+        Assert.assertEquals(folded.get("S;fixture;gcloud storage buckets create"), 10_000L);
+        // Covered 10-60 and 70-80 of 0-100
+        Assert.assertEquals(folded.get("S"), 40_000L);
+        Assert.assertTrue(profile().formatFolded().contains("S;ATest;first;gcloud storage cp 20000\n"));
+    }
+
+    @Test
+    public void testChromeTraceHasCompleteEventPerSpanAndThreadNames() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        profile().writeChromeTrace(out);
+
+        JsonNode events = new ObjectMapper().readTree(out.toByteArray()).get("traceEvents");
+        long complete = 0;
+        long threadNames = 0;
+        for (JsonNode event : events) {
+            if (event.get("ph").asText().equals("X")) {
+                complete++;
+            } else if (event.get("name").asText().equals("thread_name")) {
+                threadNames++;
+            }
+        }
+        Assert.assertEquals(complete, 5);
+        Assert.assertEquals(threadNames, 3);
+        JsonNode command = events.get(5);
+        Assert.assertEquals(command.get("name").asText(), "gcloud storage cp");
+        Assert.assertEquals(command.get("ts").asLong(), 15_000);
+        Assert.assertEquals(command.get("dur").asLong(), 20_000);
+    }
+}
@@ -0,0 +1,84 @@
+package com.google.cloud.testing.sharding;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for shard planning and the duration history it is based on
+ */
+public class ShardPlannerTest {
+
+    private static final List<String> CLASSES = List.of("A", "B", "C", "D", "E");
+
+    @Test
+    public void testRoundRobinWithoutHistory() {
+        ShardPlanner.ShardPlan plan = ShardPlanner.plan(CLASSES, Map.of(), 2);
+        Assert.assertFalse(plan.fromHistory());
+        Assert.assertEquals(plan.classesOf(0), List.of("A", "C", "E"));
+        Assert.assertEquals(plan.classesOf(1), List.of("B", "D"));
+    }
+
+    @Test
+    public void testLongestProcessingTimeFirstBalancesShards() {
+        Map<String, Long> durations = Map.of("A", 10L, "B", 70L, "C", 30L, "D", 40L, "E", 20L);
+        ShardPlanner.ShardPlan plan = ShardPlanner.plan(CLASSES, durations, 2);
+        Assert.assertTrue(plan.fromHistory());
+        // B(70) -> 0, D(40) -> 1, C(30) -> 1, E(20) -> 0, A(10) -> 1
+        Assert.assertEquals(plan.classesOf(0), List.of("B", "E"));
+        Assert.assertEquals(plan.classesOf(1), List.of("D", "C", "A"));
+        Assert.assertEquals(plan.plannedMs()[0], 90);
+        Assert.assertEquals(plan.plannedMs()[1], 80);
+    }
+
+    @Test
+    public void testEveryClassInExactlyOneShardAndPlanIsDeterministic() {
+        Map<String, Long> durations = Map.of("A", 5L, "C", 5L, "E", 50L);
+        ShardPlanner.ShardPlan first = ShardPlanner.plan(CLASSES, durations, 3);
+        ShardPlanner.ShardPlan second = ShardPlanner.plan(CLASSES, durations, 3);
+        Assert.assertEquals(first.shards(), second.shards());
+        long assigned = first.shards().stream().mapToLong(List::size).sum();
+        Assert.assertEquals(assigned, CLASSES.size());
+        Assert.assertEquals(first.shards().stream().flatMap(List::stream).distinct().count(), CLASSES.size());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testShardIndexOutOfRange() {
+        ShardPlanner.plan(CLASSES, Map.of(), 2).classesOf(2);
+    }
+
+    @Test
+    public void testHistoryMergesShardFilesAndAveragesMeasurements() throws IOException {
+        Path directory = Files.createTempDirectory("history-");
+        DurationHistory.record(directory, 0, Map.of("A", 100L));
+        DurationHistory.record(directory, 1, Map.of("B", 40L));
+        Assert.assertEquals(DurationHistory.load(directory), Map.of("A", 100L, "B", 40L));
+
+        DurationHistory.record(directory, 0, Map.of("A", 200L));
+        Assert.assertEquals(DurationHistory.load(directory).get("A"), Long.valueOf(150));
+        Assert.assertTrue(DurationHistory.load(directory.resolve("missing")).isEmpty());
+    }
+
+    @Test
+    public void testPlanFileRoundTripAndHistorySnapshot() throws IOException {
+        Path directory = Files.createTempDirectory("history-");
+        ShardPlanner.ShardPlan plan = ShardPlanner.plan(CLASSES, Map.of("A", 10L, "B", 70L), 2);
+        ShardPlanner.write(plan, directory.resolve("shard-plan.json"));
+        ShardPlanner.ShardPlan read = ShardPlanner.read(directory.resolve("shard-plan.json"));
+        Assert.assertEquals(read.shards(), plan.shards());
+        Assert.assertEquals(read.plannedMs(), plan.plannedMs());
+
+        DurationHistory.record(directory, 0, Map.of("A", 100L));
+        Files.setLastModifiedTime(directory.resolve("class-durations-shard-0.json"), FileTime.fromMillis(1_000));
+        DurationHistory.record(directory, 1, Map.of("B", 40L));
+        Files.setLastModifiedTime(directory.resolve("class-durations-shard-1.json"), FileTime.fromMillis(5_000));
+        Assert.assertEquals(DurationHistory.load(directory, 2_000), Map.of("A", 100L),
+                "Shard written after the start changed the plan");
+    }
+}
@@ -0,0 +1,151 @@
+package com.google.cloud.testing.storage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.storage.BucketMetadataCache.BucketMetadata;
+
+/**
+ * Unit tests for TTL, negative caching and request sharing of the bucket cache
+ */
+public class BucketMetadataCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeMethod
+    public void resetCounters() {
+        now.set(0);
+        calls.set(0);
+    }
+
+    private BucketMetadataCache cache(boolean exists, boolean cacheable) {
+        return new BucketMetadataCache(bucket -> {
+            calls.incrementAndGet();
+            return new BucketMetadata(bucket, exists, exists ? bucket : "", cacheable);
+        }, Duration.ofSeconds(60), Duration.ofSeconds(5), now::get);
+    }
+
+    @Test
+    public void testPositiveAnswerIsReusedUntilTtl() {
+        BucketMetadataCache cache = cache(true, true);
+        Assert.assertTrue(cache.get("a").exists());
+        now.addAndGet(Duration.ofSeconds(59).toNanos());
+        Assert.assertEquals(cache.get("a").description(), "a");
+        Assert.assertEquals(calls.get(), 1);
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        cache.get("a");
+        Assert.assertEquals(calls.get(), 2);
+    }
+
+    @Test
+    public void testNegativeAnswerUsesShorterTtl() {
+        BucketMetadataCache cache = cache(false, true);
+        Assert.assertFalse(cache.get("a").exists());
+        cache.get("a");
+        Assert.assertEquals(calls.get(), 1);
+
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        cache.get("a");
+        Assert.assertEquals(calls.get(), 2);
+    }
+
+    @Test
+    public void testFailedLookupIsNotCached() {
+        BucketMetadataCache cache = cache(false, false);
+        cache.get("a");
+        cache.get("a");
+        Assert.assertEquals(calls.get(), 2);
+    }
+
+    @Test
+    public void testInvalidateAndRefresh() {
+        BucketMetadataCache cache = cache(true, true);
+        cache.get("a");
+        cache.invalidate("a");
+        cache.get("a");
+        cache.refresh("a");
+        cache.get("a");
+        Assert.assertEquals(calls.get(), 3);
+        Assert.assertEquals(cache.getLoadCount(), 3);
+        Assert.assertEquals(cache.getHitCount(), 1);
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BucketMetadataCache cache = new BucketMetadataCache(bucket -> {
+            calls.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new BucketMetadata(bucket, true, bucket, true);
+        }, Duration.ofSeconds(60), Duration.ofSeconds(5));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<BucketMetadata>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get("shared")));
+            }
+            while (calls.get() == 0) {
+                Thread.onSpinWait();
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<BucketMetadata> result : results) {
+                Assert.assertTrue(result.get(10, TimeUnit.SECONDS).exists());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Assert.assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void testInvalidateDuringLoadIsNotServedAfterwards() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BucketMetadataCache cache = new BucketMetadataCache(bucket -> {
+            if (calls.incrementAndGet() == 1) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new BucketMetadata(bucket, false, "", true);
+            }
+            return new BucketMetadata(bucket, true, bucket, true);
+        }, Duration.ofSeconds(60), Duration.ofSeconds(5), now::get);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<BucketMetadata> first = pool.submit(() -> cache.get("a"));
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            cache.invalidate("a");
+            release.countDown();
+            Assert.assertFalse(first.get(10, TimeUnit.SECONDS).exists());
+        } finally {
+            pool.shutdownNow();
+        }
+        Assert.assertTrue(cache.get("a").exists());
+        Assert.assertTrue(cache.get("a").exists());
+        Assert.assertEquals(calls.get(), 2);
+    }
+}
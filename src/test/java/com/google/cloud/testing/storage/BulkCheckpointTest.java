@@ -0,0 +1,67 @@
+package com.google.cloud.testing.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.storage.ObjectInventory.ObjectEntry;
+
+/**
+ * Unit tests for bulk operation checkpoints and batching
+ */
+public class BulkCheckpointTest {
+
+    private static ObjectEntry object(String name) {
+        return new ObjectEntry(name, 1, null, null);
+    }
+
+    @Test
+    public void testCheckpointSurvivesReopenAndIsDeletedOnCompletion() throws IOException {
+        Path file = Files.createTempDirectory("bulk-").resolve("cp-gs___a_logs_-b.checkpoint");
+        try (BulkCheckpoint checkpoint = BulkCheckpoint.open(file)) {
+            Assert.assertFalse(checkpoint.isResumed());
+            checkpoint.markDone(List.of("logs/1", "logs/2"));
+        }
+        // A partial last line from a crash names no object
+        Files.writeString(file, "logs/3\n\nlogs/", StandardOpenOption.APPEND);
+
+        try (BulkCheckpoint resumed = BulkCheckpoint.open(file)) {
+            Assert.assertTrue(resumed.isResumed());
+            Assert.assertEquals(resumed.doneCount(), 3);
+            Assert.assertTrue(resumed.isDone("logs/2"));
+            Assert.assertFalse(resumed.isDone("logs/"), "Partial line counted as done");
+            resumed.markDone(List.of("logs/4"));
+        }
+        Assert.assertTrue(Files.readString(file).endsWith("logs/3\n\nlogs/4\n"), Files.readString(file));
+
+        BulkCheckpoint resumed = BulkCheckpoint.open(file);
+        Assert.assertEquals(resumed.doneCount(), 4);
+        Assert.assertTrue(resumed.isDone("logs/4"), "Name appended to the partial line");
+        Assert.assertFalse(resumed.isDone("logs/logs/4"));
+        resumed.complete();
+        Assert.assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testBatchesSplitBySizeAndFolder() {
+        List<ObjectEntry> objects = List.of(object("a/1"), object("a/2"), object("a/3"), object("a/b/4"),
+                object("top"));
+
+        List<List<ObjectEntry>> byFolder = GcloudStorageOperations.batches(objects, 2, true);
+        Assert.assertEquals(byFolder.stream().map(List::size).toList(), List.of(2, 1, 1, 1));
+        Assert.assertEquals(byFolder.get(2).get(0).name(), "a/b/4");
+
+        List<List<ObjectEntry>> flat = GcloudStorageOperations.batches(objects, 2, false);
+        Assert.assertEquals(flat.stream().map(List::size).toList(), List.of(2, 2, 1));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBatchSizeMustBePositive() {
+        GcloudStorageOperations.batches(List.of(object("a")), 0, false);
+    }
+}
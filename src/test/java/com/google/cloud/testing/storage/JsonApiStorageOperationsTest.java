@@ -0,0 +1,104 @@
+package com.google.cloud.testing.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.core.CommandResult;
+
+/**
+ * Unit tests for the JSON API backend against the local fake storage
+ * server; no network or gcloud required
+ */
+public class JsonApiStorageOperationsTest {
+
+    private Path root;
+    private FakeStorageServer server;
+    private JsonApiStorageOperations storage;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        root = Files.createTempDirectory("fake-gcs-");
+        server = new FakeStorageServer(root, 0);
+        storage = new JsonApiStorageOperations(server.getEndpoint());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void testBucketAndObjectLifecycle() throws IOException {
+        Assert.assertTrue(storage.createBucket("lifecycle", "US").isSuccess());
+        CommandResult duplicate = storage.createBucket("lifecycle", "US");
+        Assert.assertFalse(duplicate.isSuccess());
+        Assert.assertTrue(duplicate.getStderr().startsWith("HTTPError 409"), duplicate.getStderr());
+        Assert.assertTrue(storage.bucketExists("lifecycle"));
+        Assert.assertTrue(storage.listBuckets().getStdout().contains("\"name\":\"lifecycle\""));
+
+        Path source = Files.createTempFile("upload-", ".txt");
+        Files.writeString(source, "hello over http");
+        Assert.assertTrue(storage.uploadFile(source.toString(), "lifecycle").isSuccess());
+        String objectName = source.getFileName().toString();
+        Assert.assertTrue(Files.isRegularFile(root.resolve("lifecycle").resolve(objectName)),
+                "Object not stored in the fake gcloud layout");
+        Assert.assertTrue(storage.objectExists("lifecycle", objectName));
+        Assert.assertTrue(storage.describeObject("lifecycle", objectName).getStdout()
+                .contains("\"name\":\"" + objectName + "\""));
+
+        Path downloads = Files.createTempDirectory("download-");
+        Assert.assertTrue(storage.downloadFile("gs://lifecycle/" + objectName, downloads.toString()).isSuccess());
+        Assert.assertEquals(Files.readString(downloads.resolve(objectName)), "hello over http");
+
+        CommandResult notEmpty = storage.deleteBucket("lifecycle");
+        Assert.assertTrue(notEmpty.getStderr().startsWith("HTTPError 409"), notEmpty.getStderr());
+        Assert.assertTrue(storage.deleteObject("lifecycle", objectName).isSuccess());
+        Assert.assertFalse(storage.objectExists("lifecycle", objectName));
+        Assert.assertTrue(storage.deleteBucket("lifecycle").isSuccess());
+        Assert.assertFalse(storage.bucketExists("lifecycle"));
+    }
+
+    @Test
+    public void testNestedNamesAndListingPages() throws IOException {
+        Path bucket = Files.createDirectories(root.resolve("paged"));
+        Files.createDirectories(bucket.resolve("a/b"));
+        Files.writeString(bucket.resolve("a/b/nested name.txt"), "nested");
+        for (int i = 0; i < 1005; i++) {
+            Files.writeString(bucket.resolve(String.format("obj-%04d", i)), "x");
+        }
+
+        String listing = storage.listObjects("paged").getStdout();
+        Assert.assertEquals(listing.lines().count(), 1006, "Listing missed objects across pages");
+        Assert.assertTrue(listing.contains("gs://paged/a/b/nested name.txt\n"));
+        Assert.assertTrue(storage.objectExists("paged", "a/b/nested name.txt"));
+
+        Assert.assertTrue(storage.deleteObject("paged", "a/b/nested name.txt").isSuccess());
+        Assert.assertFalse(Files.exists(bucket.resolve("a")), "Empty folders left behind");
+    }
+
+    @Test
+    public void testDownloadReplacesLongerExistingFile() throws IOException {
+        Path bucket = Files.createDirectories(root.resolve("overwrite"));
+        Files.writeString(bucket.resolve("short.txt"), "short");
+        Path target = Files.createTempFile("download-", ".txt");
+        Files.writeString(target, "much longer existing content");
+
+        Assert.assertTrue(storage.downloadFile("gs://overwrite/short.txt", target.toString()).isSuccess());
+        Assert.assertEquals(Files.readString(target), "short", "Tail of the previous file left behind");
+    }
+
+    @Test
+    public void testMissingObjectReportsNotFound() {
+        CommandResult result = storage.downloadFile("gs://missing-bucket/none.txt",
+                root.resolve("none.txt").toString());
+        Assert.assertFalse(result.isSuccess());
+        Assert.assertTrue(result.getStderr().startsWith("HTTPError 404"), result.getStderr());
+        Assert.assertFalse(Files.exists(root.resolve("none.txt")), "Error body written to the target file");
+    }
+}
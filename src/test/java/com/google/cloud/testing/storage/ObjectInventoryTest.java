@@ -0,0 +1,119 @@
+package com.google.cloud.testing.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.storage.ObjectInventory.ObjectEntry;
+import com.google.cloud.testing.storage.ObjectInventory.ReconcileResult;
+
+/**
+ * Unit tests for the object inventory index
+ */
+public class ObjectInventoryTest {
+
+    private static final String BUCKET = "inventory-bucket";
+
+    private static ObjectEntry entry(String name, long generation) {
+        return new ObjectEntry(name, 10, generation, null);
+    }
+
+    @Test
+    public void testPrefixQueriesUseNameOrder() {
+        ObjectInventory inventory = new ObjectInventory();
+        inventory.replace(BUCKET, List.of(entry("logs/b.txt", 1), entry("data/x.bin", 1),
+                entry("logs/a.txt", 1), entry("logs0", 1)));
+
+        List<String> names = inventory.withPrefix(BUCKET, "logs/").stream().map(ObjectEntry::name).toList();
+        Assert.assertEquals(names, List.of("logs/a.txt", "logs/b.txt"));
+        Assert.assertEquals(inventory.withPrefix(BUCKET, "").size(), 4);
+        Assert.assertTrue(inventory.withPrefix(BUCKET, "missing/").isEmpty());
+    }
+
+    @Test
+    public void testPrefixUpperBound() {
+        Assert.assertEquals(ObjectInventory.prefixUpperBound("abc"), "abd");
+        Assert.assertEquals(ObjectInventory.prefixUpperBound("a" + Character.MAX_VALUE), "b");
+        Assert.assertNull(ObjectInventory.prefixUpperBound(String.valueOf(Character.MAX_VALUE)));
+    }
+
+    @Test
+    public void testIncrementalUpdatesAndReconcile() {
+        ObjectInventory inventory = new ObjectInventory();
+        inventory.put(BUCKET, entry("ignored", 1));
+        Assert.assertFalse(inventory.isLoaded(BUCKET));
+
+        inventory.replace(BUCKET, List.of(entry("a", 1), entry("b", 1), entry("c", 1)));
+        inventory.put(BUCKET, new ObjectEntry("d", 5, null, null));
+        inventory.remove(BUCKET, "c");
+        Assert.assertTrue(inventory.contains(BUCKET, "d"));
+        Assert.assertFalse(inventory.contains(BUCKET, "c"));
+
+        ReconcileResult result = inventory.reconcile(BUCKET,
+                List.of(entry("a", 1), entry("b", 2), entry("d", 7), entry("e", 1)));
+        Assert.assertEquals(result, new ReconcileResult(1, 0, 2, 4));
+        Assert.assertEquals(inventory.get(BUCKET, "d").orElseThrow().generation(), Long.valueOf(7));
+
+        Assert.assertTrue(inventory.reconcile(BUCKET, List.of(entry("a", 1), entry("b", 2), entry("d", 7),
+                entry("e", 1))).isInSync());
+    }
+
+    @Test
+    public void testMutationsDuringListingSurviveReconcile() {
+        ObjectInventory inventory = new ObjectInventory();
+        inventory.replace(BUCKET, List.of(entry("a", 1), entry("b", 1)));
+
+        ObjectInventory.Listing listing = inventory.openListing(BUCKET);
+        List<ObjectEntry> listed = List.of(entry("a", 1), entry("b", 1));
+        inventory.put(BUCKET, new ObjectEntry("c", 5, null, null));
+        inventory.remove(BUCKET, "b");
+        ReconcileResult result = inventory.reconcile(listing, listed);
+        listing.close();
+
+        Assert.assertEquals(result, new ReconcileResult(0, 0, 0, 2));
+        Assert.assertTrue(inventory.contains(BUCKET, "c"));
+        Assert.assertFalse(inventory.contains(BUCKET, "b"));
+
+        inventory.put(BUCKET, new ObjectEntry("d", 5, null, null));
+        Assert.assertEquals(inventory.reconcile(BUCKET, List.of(entry("a", 1))), new ReconcileResult(0, 2, 0, 1));
+    }
+
+    @Test
+    public void testMutationsDuringLoadSurviveReplace() {
+        ObjectInventory inventory = new ObjectInventory();
+        try (ObjectInventory.Listing listing = inventory.openListing(BUCKET)) {
+            inventory.put(BUCKET, new ObjectEntry("uploaded", 5, null, null));
+            inventory.remove(BUCKET, "deleted");
+            Assert.assertFalse(inventory.isLoaded(BUCKET));
+            inventory.replace(listing, List.of(entry("deleted", 1), entry("kept", 1)));
+        }
+        Assert.assertEquals(inventory.withPrefix(BUCKET, "").stream().map(ObjectEntry::name).toList(),
+                List.of("kept", "uploaded"));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testQueryingUnloadedBucketFails() {
+        new ObjectInventory().contains(BUCKET, "a");
+    }
+
+    @Test
+    public void testReadListing() throws IOException {
+        String json = """
+                [
+                  {"bucket": "b", "name": "one.txt", "size": 12, "generation": "1700000000000000",
+                   "crc32c_hash": "AAAAAA==", "metadata": {"k": ["v"]}},
+                  {"bucket": "b", "name": "two.txt", "size": "34"}
+                ]
+                """;
+        List<ObjectEntry> entries = new ArrayList<>();
+        ObjectInventory.readListing(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), entries::add);
+
+        Assert.assertEquals(entries, List.of(new ObjectEntry("one.txt", 12, 1700000000000000L, "AAAAAA=="),
+                new ObjectEntry("two.txt", 34, null, null)));
+    }
+}
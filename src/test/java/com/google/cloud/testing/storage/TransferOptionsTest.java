@@ -0,0 +1,48 @@
+package com.google.cloud.testing.storage;
+
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for mapping transfer options to gcloud properties
+ */
+public class TransferOptionsTest {
+
+    @Test
+    public void testDefaultsLeaveEnvironmentUntouched() {
+        Assert.assertTrue(TransferOptions.defaults().toEnvironment().isEmpty());
+        Assert.assertEquals(TransferOptions.defaults().describe(), "defaults");
+    }
+
+    @Test
+    public void testThresholdImpliesCompositeUploads() {
+        Map<String, String> env = TransferOptions.defaults()
+                .withCompositeUploadThreshold(150L * 1024 * 1024)
+                .withProcessCount(4)
+                .withThreadCount(8)
+                .toEnvironment();
+
+        Assert.assertEquals(env.get("CLOUDSDK_STORAGE_PARALLEL_COMPOSITE_UPLOAD_ENABLED"), "True");
+        Assert.assertEquals(env.get("CLOUDSDK_STORAGE_PARALLEL_COMPOSITE_UPLOAD_THRESHOLD"), "157286400");
+        Assert.assertEquals(env.get("CLOUDSDK_STORAGE_PROCESS_COUNT"), "4");
+        Assert.assertEquals(env.get("CLOUDSDK_STORAGE_THREAD_COUNT"), "8");
+        Assert.assertFalse(env.containsKey("CLOUDSDK_STORAGE_SLICED_OBJECT_DOWNLOAD_THRESHOLD"));
+    }
+
+    @Test
+    public void testExplicitlyDisabledCompositeUploads() {
+        Map<String, String> env = TransferOptions.defaults()
+                .withCompositeUploadThreshold(0)
+                .withParallelCompositeUploadEnabled(false)
+                .toEnvironment();
+
+        Assert.assertEquals(env.get("CLOUDSDK_STORAGE_PARALLEL_COMPOSITE_UPLOAD_ENABLED"), "False");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRejectsNonPositiveThreadCount() {
+        TransferOptions.defaults().withThreadCount(0);
+    }
+}
@@ -0,0 +1,97 @@
+package com.google.cloud.testing.storage;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.core.CommandExecutor;
+
+/**
+ * Unit tests for the directory upload journal and walk
+ */
+public class UploadJournalTest {
+
+    @Test
+    public void testCrc32cMatchesCloudStorageEncoding() throws IOException {
+        Path file = Files.createTempFile("crc-", ".txt");
+        Files.writeString(file, "123456789");
+        // CRC32C check value 0xE3069283, base64 big-endian
+        Assert.assertEquals(UploadJournal.crc32c(file), "4waSgw==");
+    }
+
+    @Test
+    public void testEntriesSurviveReopenAndLaterLinesWin() throws IOException {
+        Path file = Files.createTempDirectory("journal-").resolve("upload.journal");
+        try (UploadJournal journal = UploadJournal.open(file)) {
+            journal.append(List.of(new UploadJournal.Entry("a/1.txt", 10, 1000, "AAAAAA=="),
+                    new UploadJournal.Entry("tab\there", 3, 2000, "AAAAAQ==")));
+            journal.append(List.of(new UploadJournal.Entry("a/1.txt", 11, 3000, "AAAAAg==")));
+        }
+        // A partial last line from a crash is ignored
+        Files.writeString(file, "a/2.txt\t5\t", StandardOpenOption.APPEND);
+
+        try (UploadJournal journal = UploadJournal.open(file)) {
+            Assert.assertEquals(journal.size(), 2);
+            Assert.assertEquals(journal.get("a/1.txt"), new UploadJournal.Entry("a/1.txt", 11, 3000, "AAAAAg=="));
+            Assert.assertEquals(journal.get("tab\there").size(), 3);
+            Assert.assertNull(journal.get("a/2.txt"));
+        }
+    }
+
+    @Test
+    public void testUploadedFilesAreRecognizedByMetadataOrContent() throws IOException {
+        Path dir = Files.createTempDirectory("journal-");
+        Path data = dir.resolve("data.txt");
+        Files.writeString(data, "123456789");
+        long modified = Files.getLastModifiedTime(data).toMillis();
+
+        try (UploadJournal journal = UploadJournal.open(dir.resolve("upload.journal"))) {
+            Assert.assertFalse(journal.isUploaded("data.txt", data, 9, modified));
+            journal.append(List.of(new UploadJournal.Entry("data.txt", 9, modified, UploadJournal.crc32c(data))));
+
+            Assert.assertTrue(journal.isUploaded("data.txt", data, 9, modified));
+            // Touched but unchanged: the crc32c matches and the new time is journaled
+            Assert.assertTrue(journal.isUploaded("data.txt", data, 9, modified + 5000));
+            Assert.assertEquals(journal.get("data.txt").modifiedMillis(), modified + 5000);
+
+            Files.writeString(data, "987654321");
+            Assert.assertFalse(journal.isUploaded("data.txt", data, 9, modified + 9000));
+            Assert.assertFalse(journal.isUploaded("data.txt", data, 8, modified + 5000));
+        }
+    }
+
+    @Test
+    public void testUnreadableAndUnnamableFilesFailTheUpload() throws IOException {
+        Path root = Files.createTempDirectory("upload-");
+        Files.writeString(root.resolve("bad\nname.txt"), "x");
+        Path locked = Files.createDirectory(root.resolve("locked"));
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("---------"));
+        }
+        Path journalFile = Files.createTempDirectory("journal-").resolve("upload.journal");
+        try (UploadJournal journal = UploadJournal.open(journalFile)) {
+            DirectoryUpload upload = new DirectoryUpload(new CommandExecutor(), new ObjectInventory(), journal, root,
+                    "bucket", "", 10, 1);
+            if (Files.isReadable(locked)) {
+                // Permissions do not stop root: report the directory as the walk would
+                upload.visitFileFailed(locked, new AccessDeniedException(locked.toString()));
+            }
+            BulkResult result = upload.run("upload");
+
+            Assert.assertFalse(result.isSuccess(), "Skipped files reported as success");
+            Assert.assertEquals(result.failedObjects(), 2);
+            Assert.assertEquals(result.batches(), 0);
+            Assert.assertEquals(result.errors().size(), 2, result.errors().toString());
+        } finally {
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("rwx------"));
+        }
+    }
+}
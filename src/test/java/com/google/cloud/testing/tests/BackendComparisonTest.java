@@ -0,0 +1,82 @@
+package com.google.cloud.testing.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.config.TestConfig.LoadSettings;
+import com.google.cloud.testing.load.BackendComparisonBenchmark;
+import com.google.cloud.testing.load.BackendComparisonReport;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.JsonApiStorageOperations;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+/**
+ * Compares the gcloud CLI backend with the direct JSON API backend on the
+ * same bucket and object lifecycle. With the fake gcloud, run it with
+ * -Dbackend.endpoint=local so both backends share the fake storage root.
+ */
+@Epic("GCloud Storage CLI")
+@Feature("Load")
+public class BackendComparisonTest extends BaseGcloudTest {
+
+    private File testFile;
+
+    @BeforeClass(alwaysRun = true)
+    public void setupBackendComparison() throws IOException {
+        tempTestDir = Files.createTempDirectory("gcloud-test-");
+        testFile = createTestFile(tempTestDir);
+    }
+
+    @Test(priority = 1)
+    @Story("CLI overhead versus service time")
+    @Description("Run the same lifecycle through the CLI and the JSON API, interleaved, and report the "
+            + "per-operation latency the CLI adds")
+    @Severity(SeverityLevel.NORMAL)
+    public void testCompareBackends() throws IOException {
+        LoadSettings settings = TestConfig.getInstance().getLoad();
+        JsonApiStorageOperations json = new JsonApiStorageOperations();
+        BackendComparisonBenchmark benchmark = new BackendComparisonBenchmark(
+                List.of(new GcloudStorageOperations(), json), testFile.toPath(), "US");
+
+        BackendComparisonReport report = benchmark.run(settings.getComparisonWarmupRounds(),
+                settings.getComparisonRounds());
+
+        addAllureAttachment("Backend Comparison Report", "JSON API endpoint: " + json.getEndpoint()
+                + System.lineSeparator() + report.format());
+        report.operations().forEach(operation -> {
+            for (int b = 0; b < report.backends().size(); b++) {
+                Assert.assertEquals(operation.errors().get(b).longValue(), 0L,
+                        operation.name() + " failed on " + report.backends().get(b));
+            }
+        });
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardownBackendComparison() {
+        if (testFile != null) {
+            cleanupTestFiles(List.of(testFile));
+        }
+        if (tempTestDir != null) {
+            try {
+                Files.deleteIfExists(tempTestDir);
+            } catch (IOException e) {
+                logger.warn("Could not delete temp directory: {}", e.getMessage());
+            }
+        }
+    }
+}
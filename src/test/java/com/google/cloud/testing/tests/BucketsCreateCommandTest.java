@@ -8,7 +8,7 @@ import org.testng.annotations.Test;
 
 import com.google.cloud.testing.base.BaseGcloudTest;
 import com.google.cloud.testing.core.CommandResult;
-import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.StorageOperations;
 import com.google.cloud.testing.utils.NameGenerator;
 
 import io.qameta.allure.Description;
@@ -23,7 +23,7 @@ import io.qameta.allure.Story;
 public class BucketsCreateCommandTest extends BaseGcloudTest {
 
     protected static final Logger logger = LoggerFactory.getLogger(BucketsCreateCommandTest.class);
-    private final GcloudStorageOperations storageOps = new GcloudStorageOperations();
+    private final StorageOperations storageOps = StorageOperations.create();
     private final String testBucketName = NameGenerator.generateBucketName();
     private final String testLocation = "US";
 
@@ -6,7 +6,7 @@ import org.testng.annotations.Test;
 
 import com.google.cloud.testing.base.BaseGcloudTest;
 import com.google.cloud.testing.core.CommandResult;
-import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.StorageOperations;
 import com.google.cloud.testing.utils.NameGenerator;
 
 import io.qameta.allure.Description;
@@ -21,7 +21,7 @@ import io.qameta.allure.Story;
 public class BucketsDeleteCommandTest extends BaseGcloudTest {
 
     private final String testBucketName = NameGenerator.generateBucketName();
-    private final GcloudStorageOperations storageOps = new GcloudStorageOperations();
+    private final StorageOperations storageOps = StorageOperations.create();
     private final String testLocation = "US";
 
     @BeforeClass
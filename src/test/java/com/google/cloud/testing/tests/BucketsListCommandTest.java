@@ -6,7 +6,7 @@ import org.testng.annotations.Test;
 
 import com.google.cloud.testing.base.BaseGcloudTest;
 import com.google.cloud.testing.core.CommandResult;
-import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.StorageOperations;
 
 import io.qameta.allure.Description;
 import io.qameta.allure.Epic;
@@ -20,7 +20,7 @@ import io.qameta.allure.Story;
 public class BucketsListCommandTest extends BaseGcloudTest {
     // Whatever bucket name you want to use for testing
     private final String testBucketName = "mend-test-466";
-    private final GcloudStorageOperations storageOps = new GcloudStorageOperations();
+    private final StorageOperations storageOps = StorageOperations.create();
     private final String testLocation = "US";
 
     @BeforeClass
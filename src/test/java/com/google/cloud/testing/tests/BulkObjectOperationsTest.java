@@ -0,0 +1,153 @@
+package com.google.cloud.testing.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.base.Fixture;
+import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.storage.BulkResult;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.ObjectInventory;
+import com.google.cloud.testing.utils.NameGenerator;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+/**
+ * Tests for bulk object delete, copy and move across buckets
+ */
+@Epic("GCloud Storage CLI")
+@Feature("Bulk Object Operations")
+public class BulkObjectOperationsTest extends BaseGcloudTest {
+
+    private static final int LOG_OBJECTS = 6;
+    private static final int ARCHIVE_OBJECTS = 4;
+
+    private final String sourceBucket = NameGenerator.generateBucketName();
+    private final String targetBucket = NameGenerator.generateBucketName();
+    private final GcloudStorageOperations storageOps = new GcloudStorageOperations();
+    private final String testLocation = "US";
+
+    @BeforeClass(alwaysRun = true)
+    public void setupBulkTests() throws IOException {
+        Fixture<String> source = bucketFixture(sourceBucket, testLocation, storageOps);
+        Fixture<String> target = bucketFixture(targetBucket, testLocation, storageOps);
+        setUpFixtures(source, target);
+
+        tempTestDir = Files.createTempDirectory("gcloud-bulk-");
+        seed("gs://" + sourceBucket + "/logs/", "log", LOG_OBJECTS);
+        seed("gs://" + sourceBucket + "/logs/archive/", "old", ARCHIVE_OBJECTS);
+        seed("gs://" + sourceBucket + "/", "keep", 1);
+        assertSuccess(storageOps.loadInventory(sourceBucket), "Load source inventory");
+    }
+
+    /**
+     * Upload generated files into a folder with one gcloud call
+     */
+    private void seed(String folderUrl, String prefix, int count) throws IOException {
+        StringBuilder paths = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            Path file = tempTestDir.resolve(prefix + "-" + i + ".txt");
+            Files.writeString(file, prefix + " object " + i + "\n");
+            paths.append(file).append('\n');
+        }
+        CommandResult result = storageOps.getExecutor().executeGcloudWithInput(paths.toString(),
+                "storage", "cp", "-I", folderUrl);
+        assertSuccess(result, "Seed " + folderUrl);
+    }
+
+    @Test(priority = 1)
+    @Story("Bulk copy")
+    @Description("Copy every object under a prefix to another bucket, keeping nested object names")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testCopyObjects() {
+        BulkResult result = storageOps.copyObjects("gs://" + sourceBucket + "/logs/", targetBucket);
+        addAllureAttachment("Bulk Copy", result.describe());
+
+        Assert.assertTrue(result.isSuccess(), "Copy failed: " + result.errors());
+        Assert.assertEquals(result.objects(), LOG_OBJECTS + ARCHIVE_OBJECTS);
+        Assert.assertNull(result.checkpoint(), "Checkpoint left after a complete copy");
+        ObjectInventory.ReconcileResult reconcile = storageOps.reconcileInventory(targetBucket);
+        Assert.assertEquals(reconcile.added(), 0, "Inventory missed copied objects");
+        Assert.assertEquals(reconcile.removed(), 0, "Inventory has objects that were not copied");
+        Assert.assertEquals(storageOps.findObjects(targetBucket, "logs/archive/").size(), ARCHIVE_OBJECTS);
+        Assert.assertEquals(storageOps.findObjects(sourceBucket, "logs/").size(), LOG_OBJECTS + ARCHIVE_OBJECTS,
+                "Copy must keep the source objects");
+    }
+
+    @Test(priority = 2, dependsOnMethods = "testCopyObjects")
+    @Story("Bulk delete")
+    @Description("Delete every object under a prefix and nothing outside it")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testDeleteObjects() {
+        BulkResult result = storageOps.deleteObjects("gs://" + targetBucket + "/logs/archive/");
+        addAllureAttachment("Bulk Delete", result.describe());
+
+        Assert.assertTrue(result.isSuccess(), "Delete failed: " + result.errors());
+        Assert.assertEquals(result.objects(), ARCHIVE_OBJECTS);
+        Assert.assertEquals(storageOps.reconcileInventory(targetBucket).removed(), 0, "Inventory kept deleted objects");
+        Assert.assertEquals(storageOps.findObjects(targetBucket, "logs/").size(), LOG_OBJECTS);
+    }
+
+    @Test(priority = 3)
+    @Story("Bulk move")
+    @Description("A move into a missing bucket fails and leaves a checkpoint; running it again once the "
+            + "bucket exists resumes and completes it")
+    @Severity(SeverityLevel.NORMAL)
+    public void testMoveObjectsResumesAfterFailure() {
+        String lateBucket = NameGenerator.generateBucketName();
+        BulkResult failed = storageOps.moveObjects("gs://" + sourceBucket + "/logs/archive/", lateBucket);
+        Assert.assertFalse(failed.isSuccess(), "Move into a missing bucket succeeded");
+        Assert.assertNotNull(failed.checkpoint(), "No checkpoint to resume from");
+        Assert.assertTrue(Files.exists(failed.checkpoint()));
+
+        try {
+            assertSuccess(storageOps.createBucket(lateBucket, testLocation), "Create target bucket");
+            BulkResult resumed = storageOps.moveObjects("gs://" + sourceBucket + "/logs/archive/", lateBucket);
+            addAllureAttachment("Bulk Move", failed.describe() + "\n" + resumed.describe());
+
+            Assert.assertTrue(resumed.isSuccess(), "Resumed move failed: " + resumed.errors());
+            Assert.assertEquals(resumed.objects(), ARCHIVE_OBJECTS);
+            Assert.assertFalse(Files.exists(failed.checkpoint()), "Checkpoint left after the move completed");
+            Assert.assertTrue(storageOps.findObjects(sourceBucket, "logs/archive/").isEmpty(),
+                    "Moved objects still in the source");
+            Assert.assertEquals(storageOps.findObjects(lateBucket, "logs/archive/").size(), ARCHIVE_OBJECTS);
+        } finally {
+            storageOps.deleteObjects("gs://" + lateBucket + "/");
+            storageOps.deleteBucket(lateBucket);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardownBulkTests() throws IOException {
+        for (String bucket : List.of(sourceBucket, targetBucket)) {
+            if (storageOps.bucketExists(bucket)) {
+                storageOps.deleteObjects("gs://" + bucket + "/");
+                storageOps.deleteBucket(bucket);
+            }
+        }
+        if (tempTestDir != null) {
+            List<Path> files = new ArrayList<>();
+            try (var listing = Files.list(tempTestDir)) {
+                listing.forEach(files::add);
+            }
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(tempTestDir);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.google.cloud.testing.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.base.Fixture;
+import com.google.cloud.testing.storage.BulkResult;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.utils.NameGenerator;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+/**
+ * Tests for journaled, resumable upload of directory trees
+ */
+@Epic("GCloud Storage CLI")
+@Feature("Directory Upload")
+public class DirectoryUploadTest extends BaseGcloudTest {
+
+    private static final String PREFIX = "tree/";
+
+    private final String bucketName = NameGenerator.generateBucketName();
+    private final GcloudStorageOperations storageOps = new GcloudStorageOperations();
+    private final String testLocation = "US";
+    private int fileCount;
+
+    @BeforeClass(alwaysRun = true)
+    public void setupDirectoryUploadTests() throws IOException {
+        Fixture<String> bucket = bucketFixture(bucketName, testLocation, storageOps);
+        setUpFixtures(bucket);
+
+        tempTestDir = Files.createTempDirectory("gcloud-tree-");
+        write("readme.txt", "top level");
+        for (int i = 0; i < 5; i++) {
+            write("logs/log-" + i + ".txt", "log " + i);
+        }
+        for (int i = 0; i < 3; i++) {
+            write("logs/2024/old-" + i + ".txt", "old log " + i);
+        }
+        write("data/nested/deep/blob.bin", "x".repeat(4096));
+    }
+
+    private void write(String relative, String content) throws IOException {
+        Path file = tempTestDir.resolve(relative);
+        Files.createDirectories(file.getParent());
+        if (!Files.exists(file)) {
+            fileCount++;
+        }
+        Files.writeString(file, content);
+    }
+
+    @Test(priority = 1)
+    @Story("Upload a directory tree")
+    @Description("Every file of a nested tree is uploaded under the prefix with its relative path as name")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testUploadDirectory() {
+        BulkResult result = storageOps.uploadDirectory(tempTestDir, bucketName, PREFIX);
+        addAllureAttachment("Directory Upload", result.describe());
+
+        Assert.assertTrue(result.isSuccess(), "Upload failed: " + result.errors());
+        Assert.assertEquals(result.objects(), fileCount);
+        Assert.assertEquals(result.skipped(), 0);
+        Assert.assertTrue(Files.exists(result.checkpoint()), "No upload journal written");
+        Assert.assertEquals(storageOps.reconcileInventory(bucketName).added(), 0, "Inventory missed uploaded files");
+        Assert.assertTrue(storageOps.objectExists(bucketName, PREFIX + "data/nested/deep/blob.bin"));
+        Assert.assertEquals(storageOps.findObjects(bucketName, PREFIX + "logs/2024/").size(), 3);
+        Assert.assertEquals(storageOps.findObjects(bucketName, PREFIX).size(), fileCount);
+    }
+
+    @Test(priority = 2, dependsOnMethods = "testUploadDirectory")
+    @Story("Upload only what changed")
+    @Description("Uploading the tree again skips unchanged files and sends only changed and new ones")
+    @Severity(SeverityLevel.NORMAL)
+    public void testUploadAgainSendsOnlyChanges() throws IOException {
+        BulkResult unchanged = storageOps.uploadDirectory(tempTestDir, bucketName, PREFIX);
+        Assert.assertTrue(unchanged.isSuccess(), "Upload failed: " + unchanged.errors());
+        Assert.assertEquals(unchanged.objects(), 0, "Unchanged files uploaded again");
+        Assert.assertEquals(unchanged.skipped(), fileCount);
+
+        write("logs/log-0.txt", "log 0, rewritten");
+        write("logs/log-new.txt", "new log");
+        BulkResult changed = storageOps.uploadDirectory(tempTestDir, bucketName, PREFIX);
+        addAllureAttachment("Incremental Upload", unchanged.describe() + "\n" + changed.describe());
+
+        Assert.assertTrue(changed.isSuccess(), "Upload failed: " + changed.errors());
+        Assert.assertEquals(changed.objects(), 2);
+        Assert.assertEquals(changed.skipped(), fileCount - 2);
+        Assert.assertTrue(storageOps.objectExists(bucketName, PREFIX + "logs/log-new.txt"));
+    }
+
+    @Test(priority = 3)
+    @Story("Resume an interrupted upload")
+    @Description("An upload into a missing bucket fails; running it again once the bucket exists uploads "
+            + "every file")
+    @Severity(SeverityLevel.NORMAL)
+    public void testUploadResumesAfterFailure() {
+        String lateBucket = NameGenerator.generateBucketName();
+        BulkResult failed = storageOps.uploadDirectory(tempTestDir, lateBucket, "");
+        Assert.assertFalse(failed.isSuccess(), "Upload into a missing bucket succeeded");
+        Assert.assertEquals(failed.failedObjects(), fileCount);
+
+        try {
+            assertSuccess(storageOps.createBucket(lateBucket, testLocation), "Create target bucket");
+            BulkResult resumed = storageOps.uploadDirectory(tempTestDir, lateBucket, "");
+            addAllureAttachment("Resumed Upload", failed.describe() + "\n" + resumed.describe());
+
+            Assert.assertTrue(resumed.isSuccess(), "Resumed upload failed: " + resumed.errors());
+            Assert.assertEquals(resumed.objects(), fileCount);
+            Assert.assertTrue(storageOps.objectExists(lateBucket, "logs/2024/old-2.txt"));
+        } finally {
+            storageOps.deleteObjects("gs://" + lateBucket + "/");
+            storageOps.deleteBucket(lateBucket);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardownDirectoryUploadTests() throws IOException {
+        if (storageOps.bucketExists(bucketName)) {
+            storageOps.deleteObjects("gs://" + bucketName + "/");
+            storageOps.deleteBucket(bucketName);
+        }
+        if (tempTestDir != null) {
+            List<Path> paths;
+            try (Stream<Path> walk = Files.walk(tempTestDir)) {
+                paths = walk.sorted(Comparator.reverseOrder()).toList();
+            }
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.google.cloud.testing.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.GcloudStorageOperations.DownloadResult;
+import com.google.cloud.testing.utils.NameGenerator;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+/**
+ * Tests for downloading objects with gcloud storage cp and cat. Focus:
+ * round-tripping uploaded content
+ */
+@Epic("GCloud Storage CLI")
+@Feature("Download Command")
+public class DownloadCommandTest extends BaseGcloudTest {
+
+    private final String testBucketName = NameGenerator.generateBucketName();
+    private final GcloudStorageOperations storageOps = new GcloudStorageOperations();
+    private final String testLocation = "US";
+    private File testFile;
+    private String uploadedFileNamePath;
+
+    @BeforeClass(alwaysRun = true)
+    public void setupDownloadTests() {
+        logger.info("Setting up download command tests");
+        UploadedFile uploaded = setUpUploadedFile(testBucketName, testLocation, storageOps);
+        testFile = uploaded.file();
+        uploadedFileNamePath = uploaded.objectUrl();
+    }
+
+    @Test(priority = 1)
+    @Story("Download object")
+    @Description("Test downloading an uploaded object to a local file")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testDownloadFile() throws IOException {
+        Path target = tempTestDir.resolve("downloaded-cp.txt");
+        CommandResult result = storageOps.downloadFile(uploadedFileNamePath, target.toString());
+        assertSuccess(result, "Download file");
+
+        Assert.assertEquals(Files.mismatch(testFile.toPath(), target), -1L,
+                "Downloaded content differs from uploaded file");
+        Files.delete(target);
+    }
+
+    @Test(priority = 2)
+    @Story("Download object")
+    @Description("Test streaming an object into a file channel and verifying it against the source")
+    @Severity(SeverityLevel.NORMAL)
+    public void testDownloadToStream() throws IOException {
+        Path target = tempTestDir.resolve("downloaded-stream.txt");
+        DownloadResult result = storageOps.downloadToStream(uploadedFileNamePath, target);
+        assertSuccess(result.commandResult(), "Stream download");
+
+        Assert.assertEquals(result.bytes(), Files.size(testFile.toPath()), "Streamed byte count");
+        Assert.assertEquals(Files.mismatch(testFile.toPath(), target), -1L,
+                "Streamed content differs from uploaded file");
+        Assert.assertTrue(storageOps.verifyObjectContent(uploadedFileNamePath, testFile.toPath()),
+                "Object digest differs from uploaded file");
+
+        addAllureAttachment("Stream Download Throughput",
+                String.format("%d bytes in %.1f ms (%.0f bytes/s)", result.bytes(), result.elapsedNanos() / 1e6,
+                        result.bytesPerSecond()));
+        Files.delete(target);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardownDownloadTests() {
+        if (testFile != null) {
+            cleanupTestFiles(List.of(testFile));
+        }
+        if (tempTestDir != null) {
+            try {
+                Files.deleteIfExists(tempTestDir);
+            } catch (IOException e) {
+                logger.warn("Could not delete temp directory: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.google.cloud.testing.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.core.CommandExecutor;
+import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.core.CommandTemplate;
+import com.google.cloud.testing.core.GcloudContext;
+import com.google.cloud.testing.core.GcloudPreflight;
+import com.google.cloud.testing.core.GcloudTenants;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.GcloudStorageOperations.SignedUrlOutput;
+import com.google.cloud.testing.utils.NameGenerator;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+@Epic("GCloud Storage CLI")
+@Feature("Multi-Tenant Execution")
+public class MultiTenantTest extends BaseGcloudTest {
+
+    protected static final Logger logger = LoggerFactory.getLogger(MultiTenantTest.class);
+    private final Map<String, String> buckets = new ConcurrentHashMap<>();
+    private GcloudTenants tenants;
+    private Path fallbackRoot;
+
+    @BeforeClass
+    public void openTenants() throws IOException {
+        TestConfig testConfig = TestConfig.getInstance();
+        TestConfig.TenantSettings settings = testConfig.getTenants();
+        if (!settings.getContexts().isEmpty()) {
+            tenants = GcloudTenants.configured();
+            return;
+        }
+        // Without configured tenants, two tenants of the ambient project still exercise the isolation. They
+        // borrow the ambient credentials, in an owner-only temporary directory deleted after the class
+        String project = GcloudPreflight.of(new CommandExecutor()).project();
+        fallbackRoot = Files.createTempDirectory("gcloud-tenants-");
+        String serviceAccount = testConfig.getGcloud().getServiceAccount();
+        tenants = GcloudTenants.open(List.of(
+                GcloudContext.of(fallbackRoot, "tenant-1", project, serviceAccount, null),
+                GcloudContext.of(fallbackRoot, "tenant-2", project, serviceAccount, null)),
+                CommandTemplate.forExecutable(testConfig.getGcloud().getExecutablePath()),
+                GcloudContext.ambientConfigDir(), true, settings.isWarmUp());
+    }
+
+    @Test(priority = 1)
+    @Story("Tenants run side by side")
+    @Description("Run a bucket lifecycle and a signed URL for every tenant concurrently, each in its own gcloud "
+            + "configuration, project and impersonated account")
+    @Severity(SeverityLevel.NORMAL)
+    public void testTenantsRunConcurrently() {
+        List<CompletableFuture<String>> runs = new ArrayList<>();
+        for (GcloudContext context : tenants.contexts()) {
+            runs.add(CompletableFuture.supplyAsync(() -> runTenant(context)));
+        }
+        List<String> failures = runs.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList();
+        addAllureAttachment("Tenant Warm-up ms", tenants.getWarmUpMs().toString());
+        Assert.assertTrue(failures.isEmpty(), String.join("; ", failures));
+    }
+
+    /**
+     * @return why the tenant failed, null when it passed
+     */
+    private String runTenant(GcloudContext context) {
+        CommandExecutor tenantExecutor = tenants.executor(context.name());
+        String project = tenantExecutor.getCurrentProject();
+        if (context.project() != null && !context.project().equals(project)) {
+            return context.name() + " ran in project " + project + " instead of " + context.project();
+        }
+        GcloudStorageOperations ops = new GcloudStorageOperations(tenantExecutor);
+        String bucket = NameGenerator.generateBucketName();
+        CommandResult created = ops.createBucket(bucket, "US");
+        if (!created.isSuccess()) {
+            return context.name() + " could not create bucket " + bucket + ": " + created.getStderr();
+        }
+        buckets.put(bucket, context.name());
+        List<SignedUrlOutput> signed = ops.generateSignedUrl("gs://" + bucket + "/tenant.txt", Duration.ofMinutes(10));
+        if (signed.isEmpty()) {
+            return context.name() + " could not sign a URL as " + context.serviceAccount();
+        }
+        logger.info("Tenant {} signed {} in project {}", context.name(), signed.get(0).signed_url(), project);
+        return null;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteBuckets() throws IOException {
+        buckets.forEach((bucket, tenant) -> new GcloudStorageOperations(tenants.executor(tenant)).deleteBucket(bucket));
+        if (fallbackRoot != null) {
+            List<Path> paths;
+            try (Stream<Path> walk = Files.walk(fallbackRoot)) {
+                paths = walk.sorted(Comparator.reverseOrder()).toList();
+            }
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
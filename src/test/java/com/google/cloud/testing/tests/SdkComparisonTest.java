@@ -0,0 +1,98 @@
+package com.google.cloud.testing.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.config.TestConfig.LoadSettings;
+import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.load.LoadTarget;
+import com.google.cloud.testing.load.SdkComparisonBenchmark;
+import com.google.cloud.testing.load.SdkComparisonReport;
+import com.google.cloud.testing.load.WorkloadMix;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.utils.NameGenerator;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+/**
+ * Compares the latency of storage commands across gcloud SDK installs listed
+ * in gcloud.comparison_executable_paths (or GCLOUD_COMPARE_PATHS)
+ */
+@Epic("GCloud Storage CLI")
+@Feature("Load")
+public class SdkComparisonTest extends BaseGcloudTest {
+
+    private final String testBucketName = NameGenerator.generateBucketName();
+    private final GcloudStorageOperations storageOps = new GcloudStorageOperations();
+    private final String testLocation = "US";
+    private File testFile;
+    private LoadTarget loadTarget;
+
+    @BeforeClass(alwaysRun = true)
+    public void setupComparisonTests() {
+        if (TestConfig.getInstance().getGcloud().getComparisonExecutablePaths().size() < 2) {
+            throw new SkipException("SDK comparison needs at least two entries in gcloud.comparison_executable_paths");
+        }
+        logger.info("Setting up SDK comparison tests");
+        ensureTestBucketExists(testBucketName, testLocation, storageOps);
+        try {
+            tempTestDir = Files.createTempDirectory("gcloud-test-");
+        } catch (IOException ex) {
+            logger.error("Failed to create temporary directory for test files", ex);
+            throw new RuntimeException("Could not create temporary directory for test files", ex);
+        }
+
+        testFile = createTestFile(tempTestDir);
+        CommandResult result = storageOps.uploadFile(testFile.getPath(), testBucketName);
+        assertSuccess(result, "Upload file");
+
+        loadTarget = new LoadTarget(testBucketName, testFile.getPath(),
+                "gs://" + testBucketName + "/" + testFile.getName());
+    }
+
+    @Test(priority = 1)
+    @Story("SDK version comparison")
+    @Description("Run the same operations against each SDK install, interleaved, and report latency deltas")
+    @Severity(SeverityLevel.NORMAL)
+    public void testCompareSdkVersions() {
+        LoadSettings settings = TestConfig.getInstance().getLoad();
+        var operations = List.copyOf(WorkloadMix.parse(settings.getMix()).getWeights().keySet());
+        SdkComparisonBenchmark benchmark = new SdkComparisonBenchmark(
+                TestConfig.getInstance().getGcloud().getComparisonExecutablePaths(), loadTarget, operations);
+
+        SdkComparisonReport report = benchmark.run(settings.getComparisonWarmupRounds(), settings.getComparisonRounds());
+
+        addAllureAttachment("SDK Comparison Report", report.format());
+        report.operations().forEach(operation -> operation.deltas().forEach(delta
+                -> Assert.assertEquals(delta.errors(), 0, operation.name() + " failed on " + delta.sdk())));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardownComparisonTests() {
+        if (testFile != null) {
+            cleanupTestFiles(List.of(testFile));
+        }
+        if (tempTestDir != null) {
+            try {
+                Files.deleteIfExists(tempTestDir);
+            } catch (IOException e) {
+                logger.warn("Could not delete temp directory: {}", e.getMessage());
+            }
+        }
+    }
+}
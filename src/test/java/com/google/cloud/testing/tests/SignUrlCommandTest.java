@@ -1,8 +1,6 @@
 package com.google.cloud.testing.tests;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.time.Duration;
 
 import org.testng.Assert;
@@ -10,7 +8,6 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import com.google.cloud.testing.base.BaseGcloudTest;
-import com.google.cloud.testing.core.CommandResult;
 import com.google.cloud.testing.storage.GcloudStorageOperations;
 import com.google.cloud.testing.utils.NameGenerator;
 
@@ -38,24 +35,9 @@ public class SignUrlCommandTest extends BaseGcloudTest {
     @BeforeClass
     public void setupSignUrlTests() {
         logger.info("Setting up sign-url command tests");
-        ensureTestBucketExists(testBucketName, testLocation, storageOps);
-        // Create and upload test files
-        try {
-            // Create temporary directory for test files
-            tempTestDir = Files.createTempDirectory("gcloud-test-");
-        } catch (IOException ex) {
-            logger.error("Failed to create temporary directory for test files", ex);
-            throw new RuntimeException("Could not create temporary directory for test files", ex);
-        }
-
-        // Create test files
-        testFile = createTestFile(tempTestDir);
-        logger.info("Test bucket {} is ready for upload tests", testBucketName);
-        // Prepare uploaded file path
-        uploadedFileNamePath = "gs://" + testBucketName + "/" + testFile.getName();
-        Assert.assertNotNull(uploadedFileNamePath, "No test files were created");
-        CommandResult result = storageOps.uploadFile(testFile.getPath(), testBucketName);
-        assertSuccess(result, "Upload file");
+        UploadedFile uploaded = setUpUploadedFile(testBucketName, testLocation, storageOps);
+        testFile = uploaded.file();
+        uploadedFileNamePath = uploaded.objectUrl();
 
         logger.info("Sign-url tests setup complete with uploaded file: {}", uploadedFileNamePath);
     }
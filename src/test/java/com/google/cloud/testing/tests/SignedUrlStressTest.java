@@ -0,0 +1,104 @@
+package com.google.cloud.testing.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.config.TestConfig.BackendSettings;
+import com.google.cloud.testing.config.TestConfig.LoadSettings;
+import com.google.cloud.testing.core.CommandExecutor;
+import com.google.cloud.testing.load.SignedUrlStressBenchmark;
+import com.google.cloud.testing.load.SignedUrlStressReport;
+import com.google.cloud.testing.storage.FakeStorageServer;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.utils.NameGenerator;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+/**
+ * Ramps concurrent signed URL generation and fetching until latency knees.
+ * With the fake gcloud, run it with -Dbackend.endpoint=local so the signed
+ * URLs point at the fake storage server and can be fetched.
+ */
+@Epic("GCloud Storage CLI")
+@Feature("Load")
+public class SignedUrlStressTest extends BaseGcloudTest {
+
+    private final String bucketName = NameGenerator.generateBucketName();
+    private final GcloudStorageOperations storageOps = new GcloudStorageOperations();
+    private String objectUrl;
+
+    @BeforeClass(alwaysRun = true)
+    public void setupSignedUrlStress() {
+        UploadedFile uploaded = setUpUploadedFile(bucketName, "US", storageOps);
+        objectUrl = uploaded.objectUrl();
+    }
+
+    @Test(priority = 1)
+    @Story("Signed URL saturation")
+    @Description("Ramp concurrent sign-url callers, then concurrent fetches of the signed URLs, and report the "
+            + "highest sustainable rates and where impersonation saturates")
+    @Severity(SeverityLevel.NORMAL)
+    public void testSignedUrlStress() {
+        TestConfig testConfig = TestConfig.getInstance();
+        LoadSettings settings = testConfig.getLoad();
+        SignedUrlStressBenchmark benchmark = new SignedUrlStressBenchmark(signingOperations(testConfig.getBackend()),
+                objectUrl, Duration.ofHours(1))
+                .maxConcurrency(settings.getStressMaxConcurrency())
+                .stepDuration(Duration.ofSeconds(settings.getStressStepSeconds()))
+                .knee(settings.getStressKneeLatencyFactor(), settings.getStressMinThroughputGain());
+
+        SignedUrlStressReport report = benchmark.run();
+
+        addAllureAttachment("Signed URL Stress Report", "Service account: "
+                + testConfig.getGcloud().getServiceAccount() + System.lineSeparator() + report.format());
+        Assert.assertTrue(report.maxSignsPerSecond() > 0, "No signed URL was generated without errors");
+        Assert.assertTrue(report.maxFetchesPerSecond() > 0, "No signed URL could be fetched without errors");
+    }
+
+    /**
+     * Against the local fake storage server the fake gcloud signs URLs for
+     * that server's endpoint
+     */
+    private GcloudStorageOperations signingOperations(BackendSettings backend) {
+        if (!BackendSettings.LOCAL_ENDPOINT.equals(backend.getEndpoint())) {
+            return storageOps;
+        }
+        String endpoint = FakeStorageServer.shared(Path.of(backend.getFakeRoot())).getEndpoint();
+        return new GcloudStorageOperations(new CommandExecutor(
+                executor.getTemplate().withEnvironment(Map.of("FAKE_GCS_ENDPOINT", endpoint))));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardownSignedUrlStress() {
+        if (objectUrl != null) {
+            storageOps.deleteObject(bucketName, objectUrl.substring(objectUrl.lastIndexOf('/') + 1));
+        }
+        if (storageOps.bucketExists(bucketName)) {
+            storageOps.deleteBucket(bucketName);
+        }
+        if (tempTestDir != null) {
+            try (var files = Files.list(tempTestDir)) {
+                cleanupTestFiles(files.map(Path::toFile).toList());
+                Files.deleteIfExists(tempTestDir);
+            } catch (IOException e) {
+                logger.warn("Could not delete temp directory: {}", e.getMessage());
+            }
+        }
+    }
+}
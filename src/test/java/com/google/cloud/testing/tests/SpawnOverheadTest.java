@@ -0,0 +1,39 @@
+package com.google.cloud.testing.tests;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.core.CommandTemplate;
+import com.google.cloud.testing.load.SpawnOverheadBenchmark;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+/**
+ * Per-call overhead of spawning gcloud
+ */
+@Epic("GCloud Storage CLI")
+@Feature("Load")
+public class SpawnOverheadTest extends BaseGcloudTest {
+
+    @Test(priority = 1)
+    @Story("Process spawn overhead")
+    @Description("Compare the legacy spawn path with the precompiled command template")
+    @Severity(SeverityLevel.MINOR)
+    public void testSpawnOverhead() {
+        TestConfig testConfig = TestConfig.getInstance();
+        CommandTemplate template = CommandTemplate.forExecutable(testConfig.getGcloud().getExecutablePath());
+        SpawnOverheadBenchmark benchmark = new SpawnOverheadBenchmark(template, "config", "get-value", "project");
+
+        SpawnOverheadBenchmark.Report report = benchmark.run(testConfig.getLoad().getSpawnSamples());
+
+        addAllureAttachment("Spawn Overhead Report", report.format());
+        Assert.assertTrue(report.templateSpawn().count() > 0, "No spawns were measured");
+    }
+}
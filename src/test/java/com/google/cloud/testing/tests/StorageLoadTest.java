@@ -0,0 +1,96 @@
+package com.google.cloud.testing.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.config.TestConfig.LoadSettings;
+import com.google.cloud.testing.core.CommandResult;
+import com.google.cloud.testing.load.LoadDriver;
+import com.google.cloud.testing.load.LoadReport;
+import com.google.cloud.testing.load.LoadTarget;
+import com.google.cloud.testing.load.WorkloadMix;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.utils.NameGenerator;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+/**
+ * Load/soak run of a mix of storage commands. Model, rate, duration and mix
+ * come from the "load" section of the test configuration.
+ */
+@Epic("GCloud Storage CLI")
+@Feature("Load")
+public class StorageLoadTest extends BaseGcloudTest {
+
+    private final String testBucketName = NameGenerator.generateBucketName();
+    private final GcloudStorageOperations storageOps = new GcloudStorageOperations();
+    private final String testLocation = "US";
+    private File testFile;
+    private LoadTarget loadTarget;
+
+    @BeforeClass(alwaysRun = true)
+    public void setupLoadTests() {
+        logger.info("Setting up load tests");
+        ensureTestBucketExists(testBucketName, testLocation, storageOps);
+        try {
+            tempTestDir = Files.createTempDirectory("gcloud-test-");
+        } catch (IOException ex) {
+            logger.error("Failed to create temporary directory for test files", ex);
+            throw new RuntimeException("Could not create temporary directory for test files", ex);
+        }
+
+        testFile = createTestFile(tempTestDir);
+        CommandResult result = storageOps.uploadFile(testFile.getPath(), testBucketName);
+        assertSuccess(result, "Upload file");
+
+        loadTarget = new LoadTarget(testBucketName, testFile.getPath(),
+                "gs://" + testBucketName + "/" + testFile.getName());
+    }
+
+    @Test(priority = 1)
+    @Story("Storage command load")
+    @Description("Run the configured workload and report coordinated-omission-corrected latency")
+    @Severity(SeverityLevel.NORMAL)
+    public void testStorageCommandLoad() {
+        LoadSettings settings = TestConfig.getInstance().getLoad();
+        LoadDriver driver = new LoadDriver(storageOps, loadTarget, WorkloadMix.parse(settings.getMix()));
+        Duration duration = Duration.ofSeconds(settings.getDurationSeconds());
+
+        LoadReport report = "closed".equalsIgnoreCase(settings.getModel())
+                ? driver.runClosedModel(settings.getWorkers(), duration, Duration.ofMillis(settings.getPacingMs()))
+                : driver.runOpenModel(settings.getRatePerSecond(), duration, settings.getMaxInFlight());
+
+        addAllureAttachment("Load Report", report.format());
+        Assert.assertTrue(report.total().corrected().count() > 0, "Load run did not complete any operation");
+        Assert.assertEquals(report.total().errors(), 0, "Load run had failed operations");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardownLoadTests() {
+        if (testFile != null) {
+            cleanupTestFiles(List.of(testFile));
+        }
+        if (tempTestDir != null) {
+            try {
+                Files.deleteIfExists(tempTestDir);
+            } catch (IOException e) {
+                logger.warn("Could not delete temp directory: {}", e.getMessage());
+            }
+        }
+    }
+}
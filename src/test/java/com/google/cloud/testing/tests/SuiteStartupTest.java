@@ -0,0 +1,33 @@
+package com.google.cloud.testing.tests;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.core.GcloudPreflight;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+/**
+ * First test of the StartupBenchmark probe suite (testng-startup.xml). The
+ * suite setup only runs read-only gcloud checks and the test creates
+ * nothing, so killing the launch when it starts leaves no buckets behind.
+ */
+@Epic("GCloud Storage CLI")
+@Feature("Suite Startup")
+public class SuiteStartupTest extends BaseGcloudTest {
+
+    @Test
+    @Story("Reach the first test")
+    @Description("Check that the suite setup found an authenticated gcloud, without creating any resource")
+    @Severity(SeverityLevel.MINOR)
+    public void testSuiteStarts() {
+        GcloudPreflight preflight = GcloudPreflight.of(executor);
+        Assert.assertTrue(preflight.available() && preflight.authenticated(), "gcloud not ready");
+    }
+}
@@ -0,0 +1,93 @@
+package com.google.cloud.testing.tests;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.config.TestConfig;
+import com.google.cloud.testing.config.TestConfig.TransferSettings;
+import com.google.cloud.testing.load.TransferBenchmark;
+import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.TransferOptions;
+import com.google.cloud.testing.utils.NameGenerator;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+
+/**
+ * Large-object transfer throughput across the configured parameter matrix
+ */
+@Epic("GCloud Storage CLI")
+@Feature("Load")
+public class TransferBenchmarkTest extends BaseGcloudTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private final String testBucketName = NameGenerator.generateBucketName();
+    private final GcloudStorageOperations storageOps = new GcloudStorageOperations();
+    private final String testLocation = "US";
+    private Path largeFile;
+
+    @BeforeClass(alwaysRun = true)
+    public void setupTransferTests() throws IOException {
+        logger.info("Setting up transfer benchmark");
+        ensureTestBucketExists(testBucketName, testLocation, storageOps);
+        tempTestDir = Files.createTempDirectory("gcloud-test-");
+        largeFile = tempTestDir.resolve("transfer-benchmark.bin");
+
+        // Random content so neither side can benefit from compression
+        byte[] chunk = new byte[(int) MB];
+        Random random = new Random();
+        try (OutputStream out = Files.newOutputStream(largeFile)) {
+            for (int i = 0; i < TestConfig.getInstance().getTransfer().getFileSizeMb(); i++) {
+                random.nextBytes(chunk);
+                out.write(chunk);
+            }
+        }
+        logger.info("Created {} ({} bytes)", largeFile, Files.size(largeFile));
+    }
+
+    @Test(priority = 1)
+    @Story("Transfer tuning matrix")
+    @Description("Measure upload and download throughput for each composite/sliced transfer configuration")
+    @Severity(SeverityLevel.NORMAL)
+    public void testTransferMatrix() throws IOException {
+        TransferSettings settings = TestConfig.getInstance().getTransfer();
+        List<TransferOptions> matrix = TransferBenchmark.matrix(
+                settings.getThresholdsMb().stream().map(mb -> mb * MB).toList(),
+                settings.getComponentSizesMb().stream().map(mb -> mb * MB).toList(),
+                settings.getProcessCounts(), settings.getThreadCounts());
+
+        var rows = new TransferBenchmark(storageOps, testBucketName, largeFile).run(matrix, settings.getRepetitions());
+
+        addAllureAttachment("Transfer Matrix Report", TransferBenchmark.format(rows));
+        rows.forEach(row -> Assert.assertEquals(row.errors(), 0, "Transfers failed with " + row.options()));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardownTransferTests() {
+        try {
+            if (largeFile != null) {
+                Files.deleteIfExists(largeFile);
+            }
+            if (tempTestDir != null) {
+                Files.deleteIfExists(tempTestDir);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete transfer benchmark files: {}", e.getMessage());
+        }
+    }
+}
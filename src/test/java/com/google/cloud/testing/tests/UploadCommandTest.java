@@ -3,15 +3,20 @@ package com.google.cloud.testing.tests;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
+import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import com.google.cloud.testing.base.BaseGcloudTest;
+import com.google.cloud.testing.base.Fixture;
 import com.google.cloud.testing.core.CommandResult;
 import com.google.cloud.testing.storage.GcloudStorageOperations;
+import com.google.cloud.testing.storage.ObjectInventory;
+import com.google.cloud.testing.storage.ObjectInventory.ObjectEntry;
 import com.google.cloud.testing.utils.NameGenerator;
 
 import io.qameta.allure.Description;
@@ -37,18 +42,14 @@ public class UploadCommandTest extends BaseGcloudTest {
     @BeforeClass(alwaysRun = true)
     public void setupClass() {
         logger.info("Setting up test class: {}", this.getClass().getSimpleName());
-        ensureTestBucketExists(testBucketName, testLocation, storageOps);
+        Fixture<String> bucket = bucketFixture(testBucketName, testLocation, storageOps);
+        Fixture<Path> tempDir = tempDirFixture();
+        Fixture<File> file = testFileFixture(tempDir);
+        setUpFixtures(bucket, file);
         logger.info("Test bucket {} is ready for upload tests", testBucketName);
-        try {
-            // Create temporary directory for test files
-            tempTestDir = Files.createTempDirectory("gcloud-test-");
-        } catch (IOException ex) {
-            logger.error("Failed to create temporary directory for test files", ex);
-            throw new RuntimeException("Could not create temporary directory for test files", ex);
-        }
 
-        // Create test files
-        testFile = createTestFile(tempTestDir);
+        tempTestDir = fixture(tempDir);
+        testFile = fixture(file);
 
         logger.info("Created test file in {}", tempTestDir);
     }
@@ -70,6 +71,23 @@ public class UploadCommandTest extends BaseGcloudTest {
         addAllureAttachment("Upload File Result", output);
     }
 
+    @Test(priority = 2, dependsOnMethods = "testUploadFile")
+    @Story("Upload local file")
+    @Description("Test that an uploaded object is visible in the object inventory and survives a reconcile")
+    @Severity(SeverityLevel.NORMAL)
+    public void testUploadedObjectInInventory() {
+        Assert.assertTrue(storageOps.objectExists(testBucketName, testFile.getName()),
+                "Uploaded object missing from inventory");
+
+        ObjectInventory.ReconcileResult reconcile = storageOps.reconcileInventory(testBucketName);
+        Assert.assertEquals(reconcile.removed(), 0, "Inventory knew objects the bucket does not have");
+        ObjectEntry entry = storageOps.getInventory().get(testBucketName, testFile.getName()).orElseThrow();
+        Assert.assertEquals(entry.size(), testFile.length(), "Object size");
+        Assert.assertNotNull(entry.generation(), "Generation after reconcile");
+
+        addAllureAttachment("Inventory Reconcile", reconcile.toString());
+    }
+
     @AfterClass(alwaysRun = true)
     public void teardown() {
         logger.info("Tearing down test class: {}", this.getClass().getSimpleName());